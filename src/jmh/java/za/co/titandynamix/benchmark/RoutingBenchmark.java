@@ -0,0 +1,120 @@
+package za.co.titandynamix.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import za.co.titandynamix.dto.RouteQuery;
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.finder.TrafficFinder;
+import za.co.titandynamix.helper.TrafficHelper;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TraverseDetail;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.network.NetworkSnapshot;
+import za.co.titandynamix.network.SpeedLimits;
+import za.co.titandynamix.synthetic.NetworkGenerator;
+import za.co.titandynamix.synthetic.WorkloadGenerator;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Benchmarks of the routing hot path, on the built-in two-orbit network and on synthetic networks (see NetworkGenerator).
+ * The workload benchmark replays a Zipfian query workload of the network (see WorkloadGenerator), one query per call.
+ * <p>
+ * Run with: ./gradlew jmh (throughput, with the gc profiler for allocation rate).
+ *
+ * @author clivememela
+ */
+@State(Scope.Benchmark)
+public class RoutingBenchmark {
+
+    private static final String WEATHER = "Sunny";
+    private static final String SOURCE = TrafficInitializer.DEFAULT_SOURCE;
+    private static final String DESTINATION = TrafficInitializer.DEFAULT_DESTINATION;
+
+    private static final int WORKLOAD_SIZE = 4096;
+    private static final int DISTINCT_QUERY_COUNT = 256;
+
+    // "builtin" is the network from the problem specification, numbers are orbits of a synthetic network
+    @Param({"builtin", "1000", "10000", "100000", "1000000"})
+    public String network;
+
+    private final TrafficFinder trafficFinder = new TrafficFinder();
+    private final TrafficHelper trafficHelper = TrafficHelper.getInstance();
+
+    private NetworkSnapshot snapshot;
+    private List<List<Orbit>> orbitSequences;
+    private Map<String, Integer> orbitSpeedLimitMap;
+    private Weather weather;
+    private List<Vehicle> vehicles;
+    private SpeedLimits speedLimits;
+    private List<RouteQuery> workload;
+    private int nextQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("builtin".equals(network))
+            TrafficInitializer.getInstance().reload();
+        else
+            new NetworkGenerator().generate(Integer.parseInt(network)).publish();
+
+        snapshot = trafficHelper.getSnapshot();
+        orbitSequences = trafficHelper.getOrbits(snapshot, SOURCE, DESTINATION);
+
+        // Same speed limits for every invocation, as entered by the user
+        orbitSpeedLimitMap = new LinkedHashMap<>();
+        int speedLimit = 8;
+        for (List<Orbit> orbitSequence : orbitSequences) {
+            for (Orbit orbit : orbitSequence)
+                orbitSpeedLimitMap.putIfAbsent(orbit.getName(), speedLimit++ % 20 + 1);
+        }
+
+        weather = trafficHelper.getWeatherByType(snapshot, WEATHER);
+        vehicles = trafficHelper.getSuitableVehicles(snapshot, weather);
+        speedLimits = SpeedLimits.of(snapshot, orbitSpeedLimitMap);
+
+        workload = new WorkloadGenerator(snapshot).generate(WORKLOAD_SIZE, DISTINCT_QUERY_COUNT);
+        nextQuery = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        TrafficInitializer.getInstance().reload();
+    }
+
+    @Benchmark
+    public String calculateOptimumTime() {
+        return trafficFinder.calculateOptimumTime(WEATHER, orbitSequences, orbitSpeedLimitMap);
+    }
+
+    @Benchmark
+    public TraverseDetail calculateWorkloadQuery() throws BusinessRuleException {
+        RouteQuery query = workload.get(nextQuery);
+        nextQuery = (nextQuery + 1) % workload.size();
+        List<List<Orbit>> orbits = trafficHelper.getOrbits(snapshot, query.getSource(), query.getDestination());
+        return trafficFinder.calculateOptimumTraverseDetail(query.getWeather(), orbits, query.getSpeedLimits());
+    }
+
+    @Benchmark
+    public List<TraverseDetail> getTraverseDetails() {
+        return trafficHelper.getTraverseDetails(weather, vehicles, orbitSequences, speedLimits);
+    }
+
+    @Benchmark
+    public List<List<Orbit>> getOrbits() {
+        return trafficHelper.getOrbits(snapshot, SOURCE, DESTINATION);
+    }
+
+    @Benchmark
+    public Weather getWeatherByType() {
+        return trafficHelper.getWeatherByType(snapshot, WEATHER);
+    }
+}
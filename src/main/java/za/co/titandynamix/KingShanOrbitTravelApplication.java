@@ -1,21 +1,71 @@
 package za.co.titandynamix;
 
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import za.co.titandynamix.batch.BatchQueryRunner;
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.finder.OptimumTimeCache;
 import za.co.titandynamix.finder.TrafficFinder;
+import za.co.titandynamix.initializer.TrafficInitializer;
 import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.network.NetworkSnapshot;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
+ * Runs the interactive console by default. With '--server', starts the REST API (see RouteController) instead.
+ * With '--batch <input> <output>', evaluates a file of queries and writes the results (see BatchQueryRunner).
+ * In server mode, the network is loaded from the database (see NetworkLoader), otherwise the hard coded values are used.
+ * With '--snapshot <file>', the console and batch mode use the network of a binary snapshot file instead,
+ * and '--export-snapshot <file>' writes the network to such a file (see NetworkSnapshotCodec).
+ *
  * @author clivememela
  */
+@SpringBootApplication
 public class KingShanOrbitTravelApplication {
 
+    // Program argument to start the REST API instead of the console
+    public static final String SERVER_ARGUMENT = "--server";
+
+    // Program argument to evaluate a file of queries instead of the console, followed by input and output file
+    public static final String BATCH_ARGUMENT = "--batch";
+
+    // Program argument to load the network from a snapshot file, followed by the file
+    public static final String SNAPSHOT_ARGUMENT = "--snapshot";
+
+    // Program argument to write the network to a snapshot file instead of the console, followed by the file
+    public static final String EXPORT_SNAPSHOT_ARGUMENT = "--export-snapshot";
+
     public static void main(String[] args) {
-       // SpringApplication.run(KingShanOrbitTravelApplication.class, args);
+        if (Arrays.asList(args).contains(SERVER_ARGUMENT)) {
+            SpringApplication.run(KingShanOrbitTravelApplication.class, args);
+            return;
+        }
+
+        int snapshotArgument = Arrays.asList(args).indexOf(SNAPSHOT_ARGUMENT);
+        if (snapshotArgument >= 0 && !loadSnapshot(args, snapshotArgument))
+            return;
+
+        int exportSnapshotArgument = Arrays.asList(args).indexOf(EXPORT_SNAPSHOT_ARGUMENT);
+        if (exportSnapshotArgument >= 0) {
+            exportSnapshot(args, exportSnapshotArgument);
+            return;
+        }
+
+        int batchArgument = Arrays.asList(args).indexOf(BATCH_ARGUMENT);
+        if (batchArgument >= 0) {
+            runBatch(args, batchArgument);
+            return;
+        }
 
         // Create an instance of TrafficFinder, which will calculate optimum time.
         TrafficFinder trafficFinder = new TrafficFinder();
 
+        // Results of repeated inputs are answered from the cache
+        OptimumTimeCache optimumTimeCache = new OptimumTimeCache(trafficFinder);
+
         // Create an instance of Scanner, to scan user inputs
         Scanner scanner = new Scanner(System.in);
 
@@ -34,13 +84,12 @@ public class KingShanOrbitTravelApplication {
              *
              * Therefore, source is 'Silk Drob' and destination is 'Hallitharam'
              */
-            String source = "Silk Drob";
-            String destination = "Hallitharam";
+            String source = TrafficInitializer.DEFAULT_SOURCE;
+            String destination = TrafficInitializer.DEFAULT_DESTINATION;
 
             /*
              * Get all routes/orbit sequence between the source and destination.
-             * Here each orbit-sequence contains only one orbit,
-             * i.e. route/orbit between any source and destination.
+             * Orbit-sequences are the direct orbits and the fastest multi-hop routes between them.
              */
             List<List<Orbit>> availableOrbits = trafficFinder.getTrafficHelper().getOrbits(source, destination);
 
@@ -64,7 +113,7 @@ public class KingShanOrbitTravelApplication {
             }
 
             // Call the trafficFinder method to find the optimal time and print the optimal time
-            System.out.println("\nOptimal time:" + trafficFinder.calculateOptimumTime(weatherCondition, availableOrbits, orbitSpeedLimitMap));
+            System.out.println("\nOptimal time:" + optimumTimeCache.calculateOptimumTime(weatherCondition, availableOrbits, orbitSpeedLimitMap));
 
             System.out.println("\n***************************************************************");
             // Ask user if they want to continue
@@ -93,4 +142,70 @@ public class KingShanOrbitTravelApplication {
         }while (continueLoop);
 
     }
+
+    /**
+     * This method is responsible for loading the network from a snapshot file.
+     *
+     * @param args - Program arguments
+     * @param snapshotArgument - Position of '--snapshot', followed by the file
+     * @return - true if the network has been loaded
+     */
+    private static boolean loadSnapshot(String[] args, int snapshotArgument) {
+        if (args.length < snapshotArgument + 2) {
+            System.out.println("Usage: " + SNAPSHOT_ARGUMENT + " <snapshot file>");
+            return false;
+        }
+
+        try {
+            long startTime = System.nanoTime();
+            NetworkSnapshot snapshot = TrafficInitializer.getInstance().load(Path.of(args[snapshotArgument + 1]));
+            System.out.println("Loaded " + snapshot + " in " + (System.nanoTime() - startTime) / 1_000_000 + " ms");
+            return true;
+        } catch (IOException e) {
+            System.out.println("System Error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * This method is responsible for writing the network to a snapshot file.
+     *
+     * @param args - Program arguments
+     * @param exportSnapshotArgument - Position of '--export-snapshot', followed by the file
+     */
+    private static void exportSnapshot(String[] args, int exportSnapshotArgument) {
+        if (args.length < exportSnapshotArgument + 2) {
+            System.out.println("Usage: " + EXPORT_SNAPSHOT_ARGUMENT + " <snapshot file>");
+            return;
+        }
+
+        try {
+            NetworkSnapshot snapshot = TrafficInitializer.getInstance().save(Path.of(args[exportSnapshotArgument + 1]));
+            System.out.println("Written " + snapshot + " to " + args[exportSnapshotArgument + 1]);
+        } catch (IOException e) {
+            System.out.println("System Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * This method is responsible for evaluating a file of queries and printing the throughput.
+     *
+     * @param args - Program arguments
+     * @param batchArgument - Position of '--batch', followed by input and output file
+     */
+    private static void runBatch(String[] args, int batchArgument) {
+        if (args.length < batchArgument + 3) {
+            System.out.println("Usage: " + BATCH_ARGUMENT + " <input file> <output file>");
+            return;
+        }
+
+        try {
+            BatchQueryRunner batchQueryRunner = new BatchQueryRunner(new TrafficFinder());
+            System.out.println(batchQueryRunner.run(Path.of(args[batchArgument + 1]), Path.of(args[batchArgument + 2])));
+        } catch (BusinessRuleException e) {
+            System.out.println("\nValidation failed : \n" + e.getMessage());
+        } catch (IOException e) {
+            System.out.println("System Error: " + e.getMessage());
+        }
+    }
 }
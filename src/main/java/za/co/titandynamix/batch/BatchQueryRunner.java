@@ -0,0 +1,295 @@
+package za.co.titandynamix.batch;
+
+import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.finder.ScenarioBatch;
+import za.co.titandynamix.finder.ScenarioResults;
+import za.co.titandynamix.finder.TrafficFinder;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * DESCRIPTION - Non-interactive mode: replays a file of queries from Silk Drob to Hallitharam and writes one result per query.
+ * <p>
+ * Input is CSV or TSV (separator taken from the header), header: weather, followed by the orbit names, e.g.
+ * 		weather,Orbit1,Orbit2
+ * 		Sunny,12,10
+ * Output has the same separator, header: row, status, vehicle, orbits, traverseTime.
+ * Orbits of the optimum orbit-sequence are joined by '+'.
+ * <p>
+ * The input is memory-mapped in windows and parsed from bytes, rows are evaluated in chunks through
+ * {@link TrafficFinder#calculateOptimumTimes(ScenarioBatch)} and the results of a chunk are written before the
+ * next chunk is parsed. So memory is bounded by the window and chunk size, not by the size of the file.
+ *
+ * @author clivememela
+ */
+public class BatchQueryRunner {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    // Value of an unparsable speed limit or weather, rejected by the batch validation
+    private static final int INVALID = -1;
+
+    private static final byte[][] WEATHER_TYPES = Arrays.stream(WeatherCondition.values())
+            .map(weatherCondition -> weatherCondition.toString().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII))
+            .toArray(byte[][]::new);
+
+    private final TrafficFinder trafficFinder;
+    private final int chunkSize;
+    private final int windowSize;
+
+    public BatchQueryRunner(TrafficFinder trafficFinder) {
+        this(trafficFinder, DEFAULT_CHUNK_SIZE, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param trafficFinder - Finder used to evaluate the queries
+     * @param chunkSize - Number of queries evaluated at once
+     * @param windowSize - Bytes of the input mapped at once, must be larger than the longest line
+     */
+    public BatchQueryRunner(TrafficFinder trafficFinder, int chunkSize, int windowSize) {
+        if (chunkSize < 1 || windowSize < 1)
+            throw new IllegalArgumentException("Chunk size and window size must be positive");
+        this.trafficFinder = trafficFinder;
+        this.chunkSize = chunkSize;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * This method is responsible for evaluating all queries of the input file and writing their results.
+     *
+     * @param input - CSV/TSV file of queries
+     * @param output - Result file, replaced if it exists
+     * @return - Throughput figures
+     * @throws IOException, if a file can't be read/written or a line is longer than the window size
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if the header is not valid
+     */
+    public BatchReport run(Path input, Path output) throws IOException, BusinessRuleException {
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ);
+             BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+
+            Chunk chunk = null;
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(windowSize, size - position);
+                boolean lastWindow = position + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                int lineStart = 0;
+                for (int index = 0; index <= length; index++) {
+                    // Last line of the file may not end with a line break
+                    boolean lineEnd = index < length ? window.get(index) == '\n' : lastWindow && lineStart < length;
+                    if (!lineEnd)
+                        continue;
+
+                    int lineEndIndex = index > lineStart && window.get(index - 1) == '\r' ? index - 1 : index;
+                    if (null == chunk)
+                        chunk = newChunk(readHeader(window, lineStart, lineEndIndex), writer);
+                    else if (lineEndIndex > lineStart)
+                        chunk.add(window, lineStart, lineEndIndex);
+                    lineStart = index + 1;
+                }
+
+                if (lineStart == 0 && !lastWindow)
+                    throw new IOException("Line at byte " + position + " is longer than the window size " + windowSize);
+                position += Math.min(lineStart, length);
+            }
+
+            if (null == chunk)
+                throw new BusinessRuleException(TrafficFinder.VALIDATION_FAILED, "Input file is empty: " + input);
+            chunk.flush();
+            writer.flush();
+            return new BatchReport(chunk.queries, chunk.failures, size, System.nanoTime() - start);
+        }
+    }
+
+    private static String readHeader(MappedByteBuffer window, int from, int to) {
+        byte[] header = new byte[to - from];
+        window.get(from, header);
+        return new String(header, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parse header and prepare the first chunk.
+     *
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if the header is not valid
+     */
+    private Chunk newChunk(String header, Writer writer) throws BusinessRuleException, IOException {
+        char separator = header.indexOf('\t') >= 0 ? '\t' : ',';
+        List<String> columns = Arrays.stream(header.split(String.valueOf(separator), -1)).map(String::trim).collect(Collectors.toList());
+        if (columns.size() < 2 || !"weather".equalsIgnoreCase(columns.get(0)))
+            throw new BusinessRuleException(TrafficFinder.VALIDATION_FAILED,
+                    "Invalid header : " + header + " : expected weather" + separator + "<orbit names>");
+
+        List<List<Orbit>> orbitSequences = trafficFinder.getTrafficHelper()
+                .getOrbits(TrafficInitializer.DEFAULT_SOURCE, TrafficInitializer.DEFAULT_DESTINATION);
+        Chunk chunk = new Chunk(orbitSequences, columns.subList(1, columns.size()), separator, writer);
+        writer.write(String.join(String.valueOf(separator), "row", "status", "vehicle", "orbits", "traverseTime"));
+        writer.write('\n');
+        return chunk;
+    }
+
+    /**
+     * Columns of the queries parsed so far, evaluated and written once chunkSize queries are parsed.
+     */
+    private final class Chunk {
+        private final List<List<Orbit>> orbitSequences;
+        private final List<String> orbitNames;
+        private final String[] orbitSequenceNames;
+        private final byte separator;
+        private final Writer writer;
+
+        private final byte[] weatherCodes;
+        private final int[] speedLimits;
+        private int size;
+
+        private long queries;
+        private long failures;
+
+        Chunk(List<List<Orbit>> orbitSequences, List<String> orbitNames, char separator, Writer writer) throws BusinessRuleException {
+            this.orbitSequences = orbitSequences;
+            this.orbitNames = new ArrayList<>(orbitNames);
+            this.separator = (byte) separator;
+            this.writer = writer;
+            weatherCodes = new byte[chunkSize];
+            speedLimits = new int[Math.multiplyExact(chunkSize, orbitNames.size())];
+            orbitSequenceNames = orbitSequences.stream()
+                    .map(orbits -> orbits.stream().map(Orbit::getName).collect(Collectors.joining("+")))
+                    .toArray(String[]::new);
+
+            // Validate columns against the orbit-sequences before reading any query
+            trafficFinder.calculateOptimumTimes(new ScenarioBatch(orbitSequences, this.orbitNames, new byte[0], new int[0]));
+        }
+
+        void add(MappedByteBuffer window, int from, int to) throws IOException, BusinessRuleException {
+            int orbitColumns = orbitNames.size();
+            int row = size * orbitColumns;
+            Arrays.fill(speedLimits, row, row + orbitColumns, INVALID);
+
+            int fieldStart = from;
+            int field = 0;
+            for (int index = from; index <= to && field <= orbitColumns; index++) {
+                if (index < to && window.get(index) != separator)
+                    continue;
+                if (field == 0)
+                    weatherCodes[size] = parseWeatherCode(window, fieldStart, index);
+                else
+                    speedLimits[row + field - 1] = parseSpeedLimit(window, fieldStart, index);
+                field++;
+                fieldStart = index + 1;
+            }
+
+            if (++size == chunkSize)
+                flush();
+        }
+
+        void flush() throws IOException, BusinessRuleException {
+            if (size == 0)
+                return;
+
+            byte[] chunkWeatherCodes = size == chunkSize ? weatherCodes : Arrays.copyOf(weatherCodes, size);
+            int[] chunkSpeedLimits = size == chunkSize ? speedLimits : Arrays.copyOf(speedLimits, size * orbitNames.size());
+            ScenarioResults results = trafficFinder.calculateOptimumTimes(
+                    new ScenarioBatch(orbitSequences, orbitNames, chunkWeatherCodes, chunkSpeedLimits));
+
+            char separator = (char) this.separator;
+            for (int scenario = 0; scenario < size; scenario++) {
+                writer.write(Long.toString(queries + scenario + 1));
+                writer.write(separator);
+                writer.write(statusName(results.getStatus(scenario)));
+                writer.write(separator);
+                if (results.isOk(scenario)) {
+                    writer.write(results.getVehicle(scenario).getName());
+                    writer.write(separator);
+                    writer.write(orbitSequenceNames[results.getOrbitSequenceId(scenario)]);
+                    writer.write(separator);
+                    writer.write(Integer.toString(results.getTraverseTime(scenario)));
+                } else {
+                    writer.write(separator);
+                    writer.write(separator);
+                    failures++;
+                }
+                writer.write('\n');
+            }
+            queries += size;
+            size = 0;
+        }
+    }
+
+    /**
+     * Weather code of a field, case-insensitive and ignoring surrounding spaces.
+     *
+     * @return - Ordinal of the WeatherCondition, -1 if it is not a weather type
+     */
+    private static byte parseWeatherCode(MappedByteBuffer window, int from, int to) {
+        while (from < to && window.get(from) == ' ')
+            from++;
+        while (to > from && window.get(to - 1) == ' ')
+            to--;
+
+        for (int code = 0; code < WEATHER_TYPES.length; code++) {
+            byte[] type = WEATHER_TYPES[code];
+            if (type.length != to - from)
+                continue;
+            int index = 0;
+            while (index < type.length && (window.get(from + index) | 0x20) == type[index])
+                index++;
+            if (index == type.length)
+                return (byte) code;
+        }
+        return INVALID;
+    }
+
+    /**
+     * Speed limit of a field, ignoring surrounding spaces.
+     *
+     * @return - Speed limit, -1 if it is not a +ve integer
+     */
+    private static int parseSpeedLimit(MappedByteBuffer window, int from, int to) {
+        while (from < to && window.get(from) == ' ')
+            from++;
+        while (to > from && window.get(to - 1) == ' ')
+            to--;
+        if (from == to)
+            return INVALID;
+
+        long speedLimit = 0;
+        for (int index = from; index < to; index++) {
+            int digit = window.get(index) - '0';
+            if (digit < 0 || digit > 9)
+                return INVALID;
+            speedLimit = speedLimit * 10 + digit;
+            if (speedLimit > Integer.MAX_VALUE)
+                return INVALID;
+        }
+        return (int) speedLimit;
+    }
+
+    private static String statusName(byte status) {
+        return switch (status) {
+            case ScenarioResults.OK -> "OK";
+            case ScenarioResults.INVALID_WEATHER -> "INVALID_WEATHER";
+            case ScenarioResults.INVALID_SPEED_LIMIT -> "INVALID_SPEED_LIMIT";
+            case ScenarioResults.ROUTE_NOT_FOUND -> "ROUTE_NOT_FOUND";
+            default -> "UNKNOWN";
+        };
+    }
+}
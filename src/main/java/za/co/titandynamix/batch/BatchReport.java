@@ -0,0 +1,46 @@
+package za.co.titandynamix.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Locale;
+
+/**
+ * Throughput figures of a batch run.
+ *
+ * @author clivememela
+ */
+@Data
+@AllArgsConstructor
+public class BatchReport {
+
+    // Number of queries (data rows) evaluated
+    private long queries;
+
+    // Number of queries, whose status is not OK
+    private long failures;
+
+    // Size of the input file
+    private long inputBytes;
+
+    // Time from opening the input until the last result is written
+    private long elapsedNanos;
+
+    public double getElapsedSeconds() {
+        return elapsedNanos / 1e9;
+    }
+
+    public double getQueriesPerSecond() {
+        return elapsedNanos == 0 ? 0 : queries / getElapsedSeconds();
+    }
+
+    public double getMegabytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : inputBytes / (1024.0 * 1024.0) / getElapsedSeconds();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "Processed %,d queries (%,d failed) in %.3f s : %,.0f queries/s, %.1f MB/s",
+                queries, failures, getElapsedSeconds(), getQueriesPerSecond(), getMegabytesPerSecond());
+    }
+}
@@ -0,0 +1,61 @@
+package za.co.titandynamix.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import za.co.titandynamix.finder.OptimumQueryCoalescer;
+import za.co.titandynamix.finder.OptimumTimeCache;
+import za.co.titandynamix.finder.TrafficFinder;
+import za.co.titandynamix.helper.TrafficHelper;
+import za.co.titandynamix.metrics.StageMetrics;
+import za.co.titandynamix.subscription.OptimumSubscriptionService;
+import za.co.titandynamix.tour.TourOptimizer;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Beans of the REST API. TrafficFinder and TourOptimizer are stateless, a single instance is shared by all requests.
+ * TrafficFinder times its stages with StageMetrics, whose meters are in the application's MeterRegistry.
+ * TourOptimizer runs tours on a pool of its own, which is shut down with the context.
+ * OptimumSubscriptionService holds the live speed limits and the subscriptions of the application.
+ * OptimumQueryCoalescer shares a calculation between identical concurrent queries, its meters are in the application's
+ * MeterRegistry.
+ * Its calculations fall through to OptimumTimeCache, which keeps the results of the current network version.
+ *
+ * @author clivememela
+ */
+@Configuration
+public class TrafficConfiguration {
+
+    @Bean
+    public StageMetrics stageMetrics(MeterRegistry meterRegistry) {
+        return new StageMetrics(meterRegistry);
+    }
+
+    @Bean
+    public TrafficFinder trafficFinder(StageMetrics stageMetrics) {
+        return new TrafficFinder(stageMetrics);
+    }
+
+    @Bean
+    public OptimumTimeCache optimumTimeCache(TrafficFinder trafficFinder,
+                                             @Value("${traffic.finder.cache.maximum-size:10000}") int maximumSize) {
+        return new OptimumTimeCache(trafficFinder, maximumSize);
+    }
+
+    @Bean
+    public OptimumQueryCoalescer optimumQueryCoalescer(OptimumTimeCache optimumTimeCache, MeterRegistry meterRegistry) {
+        return new OptimumQueryCoalescer(optimumTimeCache, meterRegistry);
+    }
+
+    @Bean
+    public OptimumSubscriptionService optimumSubscriptionService() {
+        return new OptimumSubscriptionService();
+    }
+
+    @Bean
+    public TourOptimizer tourOptimizer(@Value("${traffic.tour.parallelism:2}") int parallelism) {
+        return new TourOptimizer(TrafficHelper.getInstance(), new ForkJoinPool(parallelism));
+    }
+}
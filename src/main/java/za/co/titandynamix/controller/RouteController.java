@@ -0,0 +1,237 @@
+package za.co.titandynamix.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import za.co.titandynamix.dto.RouteQuery;
+import za.co.titandynamix.dto.RouteResult;
+import za.co.titandynamix.dto.TourQuery;
+import za.co.titandynamix.dto.TourResult;
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.finder.OptimumQueryCoalescer;
+import za.co.titandynamix.finder.TrafficFinder;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TourDetail;
+import za.co.titandynamix.model.TraverseDetail;
+import za.co.titandynamix.tour.TourOptimizer;
+import za.co.titandynamix.utils.ValidationUtils;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * REST API for the optimum time between suburbs, wrapping TrafficFinder.
+ * Requests run on virtual threads (spring.threads.virtual.enabled), items of a batch run concurrently.
+ * Identical concurrent optimum queries are calculated once and share the result (see OptimumQueryCoalescer),
+ * and results of repeated queries are kept (see OptimumTimeCache).
+ *
+ * @author clivememela
+ */
+@RestController
+@RequestMapping("/api/routes")
+public class RouteController {
+
+    // Max number of queries in a batch request
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    public static final String SYSTEM_ERROR = "SYSTEM_ERROR";
+
+    private final TrafficFinder trafficFinder;
+    private final OptimumQueryCoalescer optimumQueryCoalescer;
+    private final TourOptimizer tourOptimizer;
+
+    public RouteController(TrafficFinder trafficFinder, OptimumQueryCoalescer optimumQueryCoalescer,
+                           TourOptimizer tourOptimizer) {
+        this.trafficFinder = trafficFinder;
+        this.optimumQueryCoalescer = optimumQueryCoalescer;
+        this.tourOptimizer = tourOptimizer;
+    }
+
+    /**
+     * This method is responsible for returning the orbit-sequences between source and destination,
+     * i.e. the orbits, which need a speed limit in the query.
+     *
+     * @param source - Source suburb, by default Silk Drob
+     * @param destination - Destination suburb, by default Hallitharam
+     *
+     * @return - Orbit names of each orbit-sequence
+     */
+    @GetMapping("/orbits")
+    public List<List<String>> getOrbits(@RequestParam(required = false) String source,
+                                        @RequestParam(required = false) String destination) {
+        return trafficFinder.getTrafficHelper().getOrbits(sourceOf(source), destinationOf(destination)).stream()
+                .map(RouteController::toOrbitNames).toList();
+    }
+
+    /**
+     * This method is responsible for calculating the optimum time of a query.
+     *
+     * @param query - Weather, source, destination and speed limits
+     *
+     * @return - 200 with the optimum vehicle and orbits, 400 if inputs are not valid, 404 if no route is found
+     */
+    @PostMapping("/optimum")
+    public ResponseEntity<RouteResult> calculateOptimumTime(@RequestBody RouteQuery query) {
+        RouteResult result = calculate(query);
+        return switch (result.getStatus()) {
+            case RouteResult.OK -> ResponseEntity.ok(result);
+            case TrafficFinder.VALIDATION_FAILED -> ResponseEntity.badRequest().body(result);
+            case TrafficFinder.ROUTE_NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
+            default -> ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(result);
+        };
+    }
+
+    /**
+     * This method is responsible for calculating the optimum time of each query of a batch.
+     * Queries are evaluated concurrently, one virtual thread each, and results are returned in query order.
+     * Failure of a query is reported in its result and does not fail the batch.
+     *
+     * @param queries - Up to MAX_BATCH_SIZE queries
+     *
+     * @return - 200 with one result per query, 400 if the batch is empty or too large
+     */
+    @PostMapping("/optimum/batch")
+    public ResponseEntity<List<RouteResult>> calculateOptimumTimes(@RequestBody List<RouteQuery> queries) {
+        if (ValidationUtils.isEmpty(queries) || queries.size() > MAX_BATCH_SIZE)
+            return ResponseEntity.badRequest().body(List.of());
+
+        List<Future<RouteResult>> futures = new ArrayList<>(queries.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (RouteQuery query : queries)
+                futures.add(executor.submit(() -> calculate(query)));
+        }
+
+        List<RouteResult> results = new ArrayList<>(queries.size());
+        for (int i = 0; i < futures.size(); i++)
+            results.add(resultOf(queries.get(i), futures.get(i)));
+        return ResponseEntity.ok(results);
+    }
+
+    /**
+     * This method is responsible for calculating the k fastest vehicle and route options of a query,
+     * e.g. for dispatching an alternative when the best vehicle is not available.
+     * Options are searched over all loop-free routes of the network, speed limits are optional.
+     *
+     * @param query - Weather, source, destination and speed limits
+     * @param k - Number of options, 1 to TrafficFinder.MAX_OPTIONS
+     *
+     * @return - 200 with up to k options fastest first, 400 if inputs are not valid, 404 if no route is found
+     */
+    @PostMapping("/options")
+    public ResponseEntity<List<RouteResult>> calculateOptions(@RequestBody RouteQuery query,
+                                                              @RequestParam(defaultValue = "3") int k) {
+        if (null == query)
+            return ResponseEntity.badRequest().body(List.of(new RouteResult(TrafficFinder.VALIDATION_FAILED,
+                    null, null, null, null, null, null, "Query is required.")));
+
+        String source = sourceOf(query.getSource());
+        String destination = destinationOf(query.getDestination());
+        try {
+            List<TraverseDetail> options = trafficFinder.calculateTopTraverseDetails(query.getWeather(), source, destination,
+                    query.getSpeedLimits(), k);
+            return ResponseEntity.ok(options.stream()
+                    .map(option -> new RouteResult(RouteResult.OK, query.getWeather(), source, destination,
+                            option.getVehicle().getName(), toOrbitNames(option.getOrbits()), option.getTraverseTime(), null))
+                    .toList());
+        } catch (BusinessRuleException e) {
+            RouteResult result = new RouteResult(e.getErrorCode(), query.getWeather(), source, destination, null, null, null,
+                    e.getMessage());
+            return ResponseEntity.status(TrafficFinder.ROUTE_NOT_FOUND.equals(e.getErrorCode()) ? HttpStatus.NOT_FOUND
+                    : HttpStatus.BAD_REQUEST).body(List.of(result));
+        }
+    }
+
+    /**
+     * This method is responsible for finding the fastest tour from a start suburb visiting all given suburbs,
+     * and the vehicle to use (see TourOptimizer).
+     *
+     * @param query - Weather, start, suburbs to visit, speed limits and whether to return to the start
+     *
+     * @return - 200 with the vehicle, visiting order and orbits of each leg, 400 if inputs are not valid,
+     * 			404 if no suitable vehicle can visit all suburbs
+     */
+    @PostMapping("/tour")
+    public ResponseEntity<TourResult> findFastestTour(@RequestBody TourQuery query) {
+        if (null == query)
+            return ResponseEntity.badRequest().body(new TourResult(TrafficFinder.VALIDATION_FAILED, null, null, null, null,
+                    null, "Query is required."));
+
+        try {
+            TourDetail tour = tourOptimizer.findFastestTour(query.getWeather(), sourceOf(query.getStart()), query.getSuburbs(),
+                    query.getSpeedLimits(), query.isReturnToStart());
+            return ResponseEntity.ok(new TourResult(RouteResult.OK, query.getWeather(), tour.getVehicle().getName(),
+                    tour.getSuburbs(), tour.getLegs().stream().map(RouteController::toOrbitNames).toList(),
+                    tour.getTraverseTime(), null));
+        } catch (BusinessRuleException e) {
+            TourResult result = new TourResult(e.getErrorCode(), query.getWeather(), null, null, null, null, e.getMessage());
+            return ResponseEntity.status(TrafficFinder.ROUTE_NOT_FOUND.equals(e.getErrorCode()) ? HttpStatus.NOT_FOUND
+                    : HttpStatus.BAD_REQUEST).body(result);
+        }
+    }
+
+    /**
+     * This method is responsible for calculating the optimum TraverseDetail of a query and converting it to RouteResult.
+     *
+     * @param query - Weather, source, destination and speed limits
+     *
+     * @return - RouteResult, with status OK or the error code of the BusinessRuleException
+     */
+    private RouteResult calculate(RouteQuery query) {
+        if (null == query)
+            return new RouteResult(TrafficFinder.VALIDATION_FAILED, null, null, null, null, null, null,
+                    "Query is required.");
+
+        String source = sourceOf(query.getSource());
+        String destination = destinationOf(query.getDestination());
+        Map<String, Integer> speedLimits = null == query.getSpeedLimits() ? Map.of() : query.getSpeedLimits();
+        try {
+            List<List<Orbit>> orbits = trafficFinder.getTrafficHelper().getOrbits(source, destination);
+            TraverseDetail traverseDetail = optimumQueryCoalescer.calculateOptimumTraverseDetail(query.getWeather(), orbits,
+                    speedLimits);
+            return new RouteResult(RouteResult.OK, query.getWeather(), source, destination,
+                    traverseDetail.getVehicle().getName(), toOrbitNames(traverseDetail.getOrbits()),
+                    traverseDetail.getTraverseTime(), null);
+        } catch (BusinessRuleException e) {
+            return new RouteResult(e.getErrorCode(), query.getWeather(), source, destination, null, null, null,
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * This method is responsible for returning the result of a batch item, or a SYSTEM_ERROR result if it failed unexpectedly.
+     *
+     * @param query - Query of the batch item
+     * @param future - Completed calculation of the batch item
+     *
+     * @return - RouteResult of the batch item
+     */
+    private static RouteResult resultOf(RouteQuery query, Future<RouteResult> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            return new RouteResult(SYSTEM_ERROR, null == query ? null : query.getWeather(),
+                    null == query ? null : query.getSource(), null == query ? null : query.getDestination(),
+                    null, null, null, String.valueOf(e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calculating batch", e);
+        }
+    }
+
+    private static List<String> toOrbitNames(List<Orbit> orbits) {
+        return orbits.stream().map(Orbit::getName).toList();
+    }
+
+    private static String sourceOf(String source) {
+        return ValidationUtils.isNotBlank(source) ? source : TrafficInitializer.DEFAULT_SOURCE;
+    }
+
+    private static String destinationOf(String destination) {
+        return ValidationUtils.isNotBlank(destination) ? destination : TrafficInitializer.DEFAULT_DESTINATION;
+    }
+
+}
@@ -0,0 +1,30 @@
+package za.co.titandynamix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Request body of the REST API. Source and destination are optional, by default Silk Drob to Hallitharam.
+ *
+ * @author clivememela
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RouteQuery implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Weather type, e.g. Sunny, Rainy, Windy
+    private String weather;
+    private String source;
+    private String destination;
+
+    // Max traffic speed (megamiles/hour) corresponding to orbit name
+    private Map<String, Integer> speedLimits;
+}
@@ -0,0 +1,40 @@
+package za.co.titandynamix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Response body of the REST API, structured form of TrafficHelper.generateOutputMessage.
+ *
+ * @author clivememela
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RouteResult implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static final String OK = "OK";
+
+    // OK, or error code of the BusinessRuleException (e.g. VALIDATION_FAILED, ROUTE_NOT_FOUND)
+    private String status;
+    private String weather;
+    private String source;
+    private String destination;
+
+    // Optimum vehicle name and orbit names, in traverse order. Null if status is not OK.
+    private String vehicle;
+    private List<String> orbits;
+
+    // Traverse time in minutes. Null if status is not OK.
+    private Integer traverseTime;
+
+    // Invalid message, if status is not OK
+    private String message;
+}
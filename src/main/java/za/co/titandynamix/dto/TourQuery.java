@@ -0,0 +1,36 @@
+package za.co.titandynamix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request body of the tour API. Start is optional, by default Silk Drob.
+ *
+ * @author clivememela
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TourQuery implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Weather type, e.g. Sunny, Rainy, Windy
+    private String weather;
+    private String start;
+
+    // Suburbs to visit, in any order
+    private List<String> suburbs;
+
+    // Max traffic speed (megamiles/hour) corresponding to orbit name, other orbits keep their own speed limit
+    private Map<String, Integer> speedLimits;
+
+    // true if the tour ends at the start suburb
+    private boolean returnToStart;
+}
@@ -0,0 +1,37 @@
+package za.co.titandynamix.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Response body of the tour API, structured form of TourDetail.
+ *
+ * @author clivememela
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TourResult implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // OK, or error code of the BusinessRuleException (e.g. VALIDATION_FAILED, ROUTE_NOT_FOUND)
+    private String status;
+    private String weather;
+
+    // Vehicle name, suburbs in visiting order and orbit names of each leg. Null if status is not OK.
+    private String vehicle;
+    private List<String> suburbs;
+    private List<List<String>> legs;
+
+    // Total traverse time in minutes. Null if status is not OK.
+    private Integer traverseTime;
+
+    // Invalid message, if status is not OK
+    private String message;
+}
@@ -0,0 +1,86 @@
+package za.co.titandynamix.entity;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OrderColumn;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.SpeedLimitPeriod;
+import za.co.titandynamix.model.Velocity;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Persistent form of {@link Orbit}. Position keeps the order of the orbits, which is the order of the orbit ids.
+ * The speed-limit schedule keeps its order through an order column.
+ *
+ * @author clivememela
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "orbit", indexes = @Index(name = "idx_orbit_position", columnList = "position"))
+public class OrbitEntity implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private int position;
+
+    @Column(nullable = false)
+    private String source;
+
+    @Column(nullable = false)
+    private String destination;
+
+    private int distance; // Default unit is mega miles.
+    private int numberOfCraters;
+
+    private int speedLimit; // 0 or -ve means no limit
+    private String speedLimitUnit;
+
+    @ElementCollection
+    @CollectionTable(name = "orbit_speed_limit", joinColumns = @JoinColumn(name = "orbit_name"))
+    @OrderColumn(name = "position")
+    @BatchSize(size = 64)
+    private List<SpeedLimitPeriodEntity> speedLimitSchedule = new ArrayList<>();
+
+    /**
+     * Orbit with the same speed limit all day.
+     */
+    public OrbitEntity(String name, int position, String source, String destination, int distance, int numberOfCraters,
+                       int speedLimit, String speedLimitUnit) {
+        this(name, position, source, destination, distance, numberOfCraters, speedLimit, speedLimitUnit, new ArrayList<>());
+    }
+
+    public static OrbitEntity of(Orbit orbit, int position) {
+        List<SpeedLimitPeriodEntity> speedLimitSchedule = null == orbit.getSpeedLimitSchedule() ? new ArrayList<>()
+                : new ArrayList<>(orbit.getSpeedLimitSchedule().stream().map(SpeedLimitPeriodEntity::of).toList());
+        return new OrbitEntity(orbit.getName(), position, orbit.getSource(), orbit.getDestination(), orbit.getDistance(),
+                orbit.getNumberOfCraters(), orbit.getVelocityLimit().getSpeed(), orbit.getVelocityLimit().getUnit(),
+                speedLimitSchedule);
+    }
+
+    public Orbit toOrbit() {
+        List<SpeedLimitPeriod> schedule = speedLimitSchedule.isEmpty() ? null
+                : speedLimitSchedule.stream().map(SpeedLimitPeriodEntity::toSpeedLimitPeriod).toList();
+        return new Orbit(name, source, destination, distance, numberOfCraters, new Velocity(speedLimit, speedLimitUnit),
+                schedule);
+    }
+}
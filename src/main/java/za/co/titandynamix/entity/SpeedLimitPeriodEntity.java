@@ -0,0 +1,35 @@
+package za.co.titandynamix.entity;
+
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import za.co.titandynamix.model.SpeedLimitPeriod;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Persistent form of {@link SpeedLimitPeriod}, one period of the speed-limit schedule of an {@link OrbitEntity}.
+ *
+ * @author clivememela
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Embeddable
+public class SpeedLimitPeriodEntity implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private int startMinute; // Minute of the day
+    private int speedLimit; // 0 or -ve means no limit
+
+    public static SpeedLimitPeriodEntity of(SpeedLimitPeriod period) {
+        return new SpeedLimitPeriodEntity(period.getStartMinute(), period.getSpeedLimit());
+    }
+
+    public SpeedLimitPeriod toSpeedLimitPeriod() {
+        return new SpeedLimitPeriod(startMinute, speedLimit);
+    }
+}
@@ -0,0 +1,50 @@
+package za.co.titandynamix.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Velocity;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Persistent form of {@link Vehicle}. Position keeps the tie-break order: bike, tuktuk, car.
+ *
+ * @author clivememela
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "vehicle")
+public class VehicleEntity implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private int position;
+
+    private int speed; // Default unit is mega miles/hour.
+    private String speedUnit;
+
+    // Time to cross a crater (default unit is in minutes)
+    private int timeToCrossCrater;
+
+    public static VehicleEntity of(Vehicle vehicle, int position) {
+        return new VehicleEntity(vehicle.getName(), position, vehicle.getVelocity().getSpeed(),
+                vehicle.getVelocity().getUnit(), vehicle.getTimeToCrossCrater());
+    }
+
+    public Vehicle toVehicle() {
+        return new Vehicle(name, new Velocity(speed, speedUnit), timeToCrossCrater);
+    }
+}
@@ -0,0 +1,64 @@
+package za.co.titandynamix.entity;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OrderColumn;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.model.Weather;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Persistent form of {@link Weather}. Suitable vehicle names keep their (tie-break) order through an order column.
+ *
+ * @author clivememela
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "weather")
+public class WeatherEntity implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private WeatherCondition weatherCondition;
+
+    @Column(nullable = false)
+    private int position;
+
+    // It will be either +ve (if increase) or -ve (if reduce) percentage
+    private int craterChangePercentage;
+
+    @ElementCollection
+    @CollectionTable(name = "weather_vehicle", joinColumns = @JoinColumn(name = "weather_condition"))
+    @OrderColumn(name = "position")
+    @Column(name = "vehicle_name", nullable = false)
+    @BatchSize(size = 16)
+    private List<String> suitableVehicleNames = new ArrayList<>();
+
+    public static WeatherEntity of(Weather weather, int position) {
+        return new WeatherEntity(weather.getWeatherCondition(), position, weather.getCraterChangePercentage(),
+                new ArrayList<>(weather.getSuitableVehicleNames()));
+    }
+
+    public Weather toWeather() {
+        return new Weather(weatherCondition, craterChangePercentage, List.copyOf(suitableVehicleNames));
+    }
+}
@@ -3,6 +3,10 @@ package za.co.titandynamix.enums;
 import za.co.titandynamix.exception.BusinessRuleException;
 
 import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * [weather condition: enum; list of possible vehicle names: List<String>; change rate (+)]
@@ -30,6 +34,10 @@ public enum WeatherCondition {
 
     private static final WeatherCondition[] ENUMS = WeatherCondition.values();
 
+    // Lower case weather type -> weather condition
+    private static final Map<String, WeatherCondition> BY_TYPE = Arrays.stream(ENUMS)
+            .collect(Collectors.toUnmodifiableMap(condition -> condition.type.toLowerCase(Locale.ROOT), Function.identity()));
+
     /**
      * Obtains an instance of {@code WeatherCondition} from an {@code int} value.
      *
@@ -44,9 +52,18 @@ public enum WeatherCondition {
         return ENUMS[WeatherCondition];
     }
 
+    /**
+     * Obtains an instance of {@code WeatherCondition} from its type, case-insensitive.
+     *
+     * @param weatherCondition  the weather type, e.g. Sunny
+     * @return the weather condition singleton, null if the type is invalid
+     */
+    public static WeatherCondition fromType(String weatherCondition) {
+        return null == weatherCondition ? null : BY_TYPE.get(weatherCondition.toLowerCase(Locale.ROOT));
+    }
+
     public static boolean contains(String weatherCondition) {
-        return Arrays.stream(ENUMS	)
-                .anyMatch(WeatherCondition -> WeatherCondition.toString().equalsIgnoreCase(weatherCondition));
+        return null != fromType(weatherCondition);
     }
 
     private final String type;
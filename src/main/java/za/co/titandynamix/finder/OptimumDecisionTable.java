@@ -0,0 +1,272 @@
+package za.co.titandynamix.finder;
+
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TraverseDetail;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.network.NetworkSnapshot;
+import za.co.titandynamix.network.OrbitGraph;
+import za.co.titandynamix.utils.TraverseTimeUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DESCRIPTION - Precompiled answers of optimum-time queries for one weather and one list of orbit-sequences
+ * (i.e. one source-destination pair), for high query rates on a stable network.
+ * <p>
+ * Traverse time of an orbit depends on its speed limit only through min(speed limit, vehicle's max speed),
+ * so it is a step function of the speed limit, constant from the fastest vehicle's speed on (and without a limit).
+ * For every orbit, the table keeps the breakpoints (speed limits where the time changes) and the time of each interval:
+ * 	-	Single-orbit sequences: the fastest vehicle of each interval (lower envelope of the vehicles),
+ * 		so the winner of the sequence is a single lookup.
+ * 	-	Multi-orbit sequences: the time of each interval per vehicle, summed over the orbits of the sequence.
+ * A query finds the interval of each speed limit by binary search, no traverse time is calculated.
+ * The result is the same as TrafficHelper.findOptimumTraverseDetail, including the tie-break order
+ * (vehicles bike, tuktuk, car, then orbit-sequences).
+ * <p>
+ * Note: The table answers for the network version it was compiled from, compile a new one when the network is reloaded.
+ *
+ * @author clivememela
+ */
+public final class OptimumDecisionTable {
+
+    private final long networkVersion;
+    private final Weather weather;
+    private final List<Vehicle> vehicles;
+    private final List<List<Orbit>> orbitSequences;
+
+    // Distinct orbits of the orbit-sequences (table orbit index -> name), and their own speed limits
+    private final Map<String, Integer> orbitIndexes;
+    private final int[] defaultSpeedLimits;
+
+    // Orbit-sequences as table orbit indexes
+    private final int[][] sequenceOrbits;
+
+    // Speed limits from this value on (and no limit) give the same time with every vehicle
+    private final int fastestSpeed;
+
+    // [orbit][vehicle]: first speed limit of each interval (ascending, first is 1) and time of the interval
+    private final int[][][] breakpoints;
+    private final int[][][] times;
+
+    // [orbit]: intervals of the lower envelope of the vehicles, with time and vehicle of each interval
+    private final int[][] envelopeBreakpoints;
+    private final int[][] envelopeTimes;
+    private final int[][] envelopeVehicles;
+
+    private OptimumDecisionTable(NetworkSnapshot snapshot, Weather weather, List<Vehicle> vehicles,
+                                 List<List<Orbit>> orbitSequences) {
+        this.networkVersion = snapshot.getVersion();
+        this.weather = weather;
+        this.vehicles = List.copyOf(vehicles);
+        this.orbitSequences = List.copyOf(orbitSequences);
+        this.fastestSpeed = Math.max(1, vehicles.stream().mapToInt(vehicle -> vehicle.getVelocity().getSpeed()).max().orElse(1));
+
+        OrbitGraph graph = snapshot.getOrbitGraph();
+        orbitIndexes = new LinkedHashMap<>();
+        List<Integer> orbitIds = new ArrayList<>();
+        sequenceOrbits = new int[orbitSequences.size()][];
+        for (int sequence = 0; sequence < sequenceOrbits.length; sequence++) {
+            List<Orbit> orbitSequence = orbitSequences.get(sequence);
+            sequenceOrbits[sequence] = new int[orbitSequence.size()];
+            for (int position = 0; position < orbitSequence.size(); position++) {
+                String orbitName = orbitSequence.get(position).getName();
+                int orbitId = graph.getOrbitId(orbitName);
+                if (orbitId < 0)
+                    throw new IllegalArgumentException("Orbit is not part of the network snapshot: " + orbitName);
+                sequenceOrbits[sequence][position] = orbitIndexes.computeIfAbsent(orbitName, added -> {
+                    orbitIds.add(orbitId);
+                    return orbitIds.size() - 1;
+                });
+            }
+        }
+
+        int orbitCount = orbitIds.size();
+        defaultSpeedLimits = new int[orbitCount];
+        breakpoints = new int[orbitCount][vehicles.size()][];
+        times = new int[orbitCount][vehicles.size()][];
+        envelopeBreakpoints = new int[orbitCount][];
+        envelopeTimes = new int[orbitCount][];
+        envelopeVehicles = new int[orbitCount][];
+        for (int orbit = 0; orbit < orbitCount; orbit++) {
+            int orbitId = orbitIds.get(orbit);
+            defaultSpeedLimits[orbit] = snapshot.getOrbits().get(orbitId).getVelocityLimit().getSpeed();
+            compileOrbit(orbit, graph.getDistance(orbitId), graph.getCraters(orbitId));
+        }
+    }
+
+    /**
+     * Compile the decision table of a weather and the orbit-sequences of a source-destination pair.
+     * Cost is O(orbits x vehicles x fastest vehicle speed), done once per weather and pair.
+     *
+     * @param snapshot - Network snapshot of the orbits
+     * @param weather - Weather of the queries
+     * @param vehicles - Suitable vehicles for the weather, in tie-break order
+     * @param orbitSequences - Orbit-sequences between source and destination
+     * @return - Decision table
+     * @throws IllegalArgumentException, if an orbit is not part of the network snapshot
+     */
+    public static OptimumDecisionTable compile(NetworkSnapshot snapshot, Weather weather, List<Vehicle> vehicles,
+                                               List<List<Orbit>> orbitSequences) {
+        return new OptimumDecisionTable(snapshot, weather, vehicles, orbitSequences);
+    }
+
+    // Time of every speed limit 1 .. fastest speed per vehicle, compressed into intervals of the same value
+    private void compileOrbit(int orbit, int distance, int craters) {
+        int[][] timeBySpeedLimit = new int[vehicles.size()][fastestSpeed + 1];
+        for (int vehicle = 0; vehicle < vehicles.size(); vehicle++) {
+            Vehicle vehicleDetail = vehicles.get(vehicle);
+            for (int speedLimit = 1; speedLimit <= fastestSpeed; speedLimit++)
+                timeBySpeedLimit[vehicle][speedLimit] = TraverseTimeUtils.orbitTraverseTime(distance, craters, speedLimit,
+                        vehicleDetail.getVelocity().getSpeed(), vehicleDetail.getTimeToCrossCrater(), weather.getCraterChangePercentage());
+
+            int[] starts = new int[fastestSpeed];
+            int[] values = new int[fastestSpeed];
+            int intervals = 0;
+            for (int speedLimit = 1; speedLimit <= fastestSpeed; speedLimit++) {
+                if (intervals == 0 || values[intervals - 1] != timeBySpeedLimit[vehicle][speedLimit]) {
+                    starts[intervals] = speedLimit;
+                    values[intervals++] = timeBySpeedLimit[vehicle][speedLimit];
+                }
+            }
+            breakpoints[orbit][vehicle] = Arrays.copyOf(starts, intervals);
+            times[orbit][vehicle] = Arrays.copyOf(values, intervals);
+        }
+
+        // Fastest vehicle per speed limit, the first vehicle in tie-break order on the same time
+        int[] starts = new int[fastestSpeed];
+        int[] envelope = new int[fastestSpeed];
+        int[] envelopeVehicle = new int[fastestSpeed];
+        int intervals = 0;
+        for (int speedLimit = 1; speedLimit <= fastestSpeed; speedLimit++) {
+            int fastestVehicle = -1;
+            for (int vehicle = 0; vehicle < vehicles.size(); vehicle++) {
+                if (fastestVehicle < 0 || timeBySpeedLimit[vehicle][speedLimit] < timeBySpeedLimit[fastestVehicle][speedLimit])
+                    fastestVehicle = vehicle;
+            }
+            if (fastestVehicle < 0)
+                break;
+            int time = timeBySpeedLimit[fastestVehicle][speedLimit];
+            if (intervals == 0 || envelope[intervals - 1] != time || envelopeVehicle[intervals - 1] != fastestVehicle) {
+                starts[intervals] = speedLimit;
+                envelope[intervals] = time;
+                envelopeVehicle[intervals++] = fastestVehicle;
+            }
+        }
+        envelopeBreakpoints[orbit] = Arrays.copyOf(starts, intervals);
+        envelopeTimes[orbit] = Arrays.copyOf(envelope, intervals);
+        envelopeVehicles[orbit] = Arrays.copyOf(envelopeVehicle, intervals);
+    }
+
+    /**
+     * Find the optimum vehicle and orbit-sequence for the user's speed limits. Inputs are expected to be valid.
+     *
+     * @param orbitSpeedLimitMap - User's input (speed limit) corresponding to orbit name.
+     * 			Orbits without a speed limit keep their own, other orbit names are ignored.
+     * @return - Optimum TraverseDetail object, null if there is no vehicle or orbit-sequence
+     */
+    public TraverseDetail find(Map<String, Integer> orbitSpeedLimitMap) {
+        int[] speedLimits = defaultSpeedLimits.clone();
+        if (null != orbitSpeedLimitMap) {
+            orbitSpeedLimitMap.forEach((orbitName, speedLimit) -> {
+                Integer orbit = orbitIndexes.get(orbitName);
+                if (null != orbit && null != speedLimit)
+                    speedLimits[orbit] = speedLimit;
+            });
+        }
+        return find(speedLimits);
+    }
+
+    /**
+     * Find the optimum vehicle and orbit-sequence for the given speed limits.
+     *
+     * @param speedLimits - Speed limit per orbit, in the order of {@link #getOrbitNames()}. 0 or -ve means no limit.
+     * @return - Optimum TraverseDetail object, null if there is no vehicle or orbit-sequence
+     */
+    public TraverseDetail find(int[] speedLimits) {
+        int sequences = sequenceOrbits.length;
+        long optimum = Long.MAX_VALUE;
+        for (int sequence = 0; sequence < sequences; sequence++) {
+            int[] orbits = sequenceOrbits[sequence];
+            if (orbits.length == 1) {
+                int orbit = orbits[0];
+                int interval = interval(envelopeBreakpoints[orbit], speedLimits[orbit]);
+                if (interval >= 0)
+                    optimum = Math.min(optimum, pack(envelopeTimes[orbit][interval], envelopeVehicles[orbit][interval] * sequences + sequence));
+                continue;
+            }
+
+            for (int vehicle = 0; vehicle < vehicles.size(); vehicle++) {
+                int time = 0;
+                for (int orbit : orbits)
+                    time += times[orbit][vehicle][interval(breakpoints[orbit][vehicle], speedLimits[orbit])];
+                optimum = Math.min(optimum, pack(time, vehicle * sequences + sequence));
+            }
+        }
+
+        if (optimum == Long.MAX_VALUE)
+            return null;
+        int candidate = (int) optimum;
+        return new TraverseDetail((int) (optimum >>> 32), orbitSequences.get(candidate % sequences),
+                vehicles.get(candidate / sequences));
+    }
+
+    // Interval of a speed limit by binary search over the breakpoints, -1 if there is no interval (no vehicle)
+    private int interval(int[] starts, int speedLimit) {
+        if (starts.length == 0)
+            return -1;
+        int applicableSpeedLimit = speedLimit <= 0 || speedLimit > fastestSpeed ? fastestSpeed : speedLimit;
+        int interval = Arrays.binarySearch(starts, applicableSpeedLimit);
+        return interval >= 0 ? interval : -interval - 2;
+    }
+
+    // Traverse time (high 32 bits) and candidate index (low 32 bits), so the minimum follows the tie-break order
+    private static long pack(int traverseTime, int candidate) {
+        return ((long) traverseTime << 32) | candidate;
+    }
+
+    public long getNetworkVersion() {
+        return networkVersion;
+    }
+
+    public Weather getWeather() {
+        return weather;
+    }
+
+    public List<List<Orbit>> getOrbitSequences() {
+        return orbitSequences;
+    }
+
+    public List<String> getOrbitNames() {
+        return List.copyOf(orbitIndexes.keySet());
+    }
+
+    /**
+     * Number of stored intervals, i.e. size of the table.
+     *
+     * @return - Number of intervals over all orbits and vehicles
+     */
+    public int getIntervalCount() {
+        int intervals = 0;
+        for (int orbit = 0; orbit < breakpoints.length; orbit++) {
+            intervals += envelopeBreakpoints[orbit].length;
+            for (int[] vehicleBreakpoints : breakpoints[orbit])
+                intervals += vehicleBreakpoints.length;
+        }
+        return intervals;
+    }
+
+    @Override
+    public String toString() {
+        return "OptimumDecisionTable" + ": {" +
+                "networkVersion=" + networkVersion +
+                ", weather=" + weather.getWeatherCondition() +
+                ", orbitSequences=" + orbitSequences.size() +
+                ", intervals=" + getIntervalCount() +
+                "}";
+    }
+}
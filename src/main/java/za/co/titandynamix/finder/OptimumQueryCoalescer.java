@@ -0,0 +1,245 @@
+package za.co.titandynamix.finder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TraverseDetail;
+import za.co.titandynamix.utils.ValidationUtils;
+import za.co.titandynamix.validator.TrafficValidator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DESCRIPTION - In-flight de-duplication ("single flight") of identical concurrent optimum-time queries.
+ * <p>
+ * It performs following operations:
+ * 	1.	Validate user inputs. Invalid inputs are passed to the finder and never coalesced.
+ * 	2.	Build the query key from network version, weather, orbit-sequences and speed limits (see OptimumQueryKey).
+ * 	3.	If an identical query is being calculated, wait for it and share its result (or BusinessRuleException).
+ * 		Otherwise calculate it, while identical queries arriving meanwhile wait for this calculation.
+ * 		The calculation falls through to the OptimumTimeCache, if there is one, or else to the finder.
+ * <p>
+ * Nothing is kept by the coalescer once a calculation completes: without a cache, a query arriving after it
+ * is calculated again. Computed and coalesced counts are available for monitoring, coalesced queries are the saved
+ * calculations. If a MeterRegistry is given, they are registered as 'traffic.finder.coalescing' (tag: result)
+ * and 'traffic.finder.coalescing.in-flight'.
+ *
+ * @author clivememela
+ */
+public class OptimumQueryCoalescer {
+
+    public static final String COALESCING_COUNTER = "traffic.finder.coalescing";
+    public static final String IN_FLIGHT_GAUGE = "traffic.finder.coalescing.in-flight";
+
+    // Results of a query
+    public static final String COMPUTED = "computed";
+    public static final String COALESCED = "coalesced";
+
+    private static final TrafficInitializer initializer = TrafficInitializer.getInstance();
+    private static final TrafficValidator trafficValidator = TrafficValidator.getInstance();
+
+    private final TrafficFinder trafficFinder;
+
+    // Cache behind the coalescer, null if results are not kept
+    private final OptimumTimeCache optimumTimeCache;
+
+    private final LongAdder computations = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    // Calculations in progress, by query. An entry is removed by its calculating thread when complete.
+    private final Map<OptimumQueryKey, CompletableFuture<String>> inFlightMessages = new ConcurrentHashMap<>();
+    private final Map<OptimumQueryKey, CompletableFuture<TraverseDetail>> inFlightDetails = new ConcurrentHashMap<>();
+
+    public OptimumQueryCoalescer(TrafficFinder trafficFinder) {
+        this(trafficFinder, (OptimumTimeCache) null);
+    }
+
+    /**
+     * Create a coalescer, whose calculations fall through to a cache.
+     *
+     * @param optimumTimeCache - Cache used by the calculating query, on a miss it uses its finder
+     */
+    public OptimumQueryCoalescer(OptimumTimeCache optimumTimeCache) {
+        this(optimumTimeCache.getTrafficFinder(), optimumTimeCache);
+    }
+
+    private OptimumQueryCoalescer(TrafficFinder trafficFinder, OptimumTimeCache optimumTimeCache) {
+        this.trafficFinder = trafficFinder;
+        this.optimumTimeCache = optimumTimeCache;
+    }
+
+    /**
+     * Create a coalescer and register its meters.
+     *
+     * @param trafficFinder - Finder used by the calculating query
+     * @param registry - Meter registry
+     */
+    public OptimumQueryCoalescer(TrafficFinder trafficFinder, MeterRegistry registry) {
+        this(trafficFinder, (OptimumTimeCache) null);
+        register(registry);
+    }
+
+    /**
+     * Create a coalescer, whose calculations fall through to a cache, and register its meters.
+     *
+     * @param optimumTimeCache - Cache used by the calculating query, on a miss it uses its finder
+     * @param registry - Meter registry
+     */
+    public OptimumQueryCoalescer(OptimumTimeCache optimumTimeCache, MeterRegistry registry) {
+        this(optimumTimeCache);
+        register(registry);
+    }
+
+    private void register(MeterRegistry registry) {
+        FunctionCounter.builder(COALESCING_COUNTER, this, OptimumQueryCoalescer::getComputedCount)
+                .description("Optimum-time queries calculated by the finder or coalesced with an identical one")
+                .tag("result", COMPUTED)
+                .register(registry);
+        FunctionCounter.builder(COALESCING_COUNTER, this, OptimumQueryCoalescer::getCoalescedCount)
+                .description("Optimum-time queries calculated by the finder or coalesced with an identical one")
+                .tag("result", COALESCED)
+                .register(registry);
+        Gauge.builder(IN_FLIGHT_GAUGE, this, OptimumQueryCoalescer::getInFlightCount)
+                .description("Optimum-time calculations in progress")
+                .register(registry);
+    }
+
+    /**
+     * Same as {@link TrafficFinder#calculateOptimumTime(String, List, Map)}, shared with identical concurrent queries.
+     *
+     * @param weatherType - User input
+     * @param orbits - List of orbit sequences between source and destination
+     * @param orbitSpeedLimitMap - User's input (speed limit) corresponding to orbit name
+     * @return - Success or failure message after doing calculation for optimum traverse time as a String.
+     */
+    public String calculateOptimumTime(String weatherType, List<List<Orbit>> orbits, Map<String, Integer> orbitSpeedLimitMap) {
+        // Invalid inputs are not coalesced, the finder generates the validation message
+        if (ValidationUtils.isNotBlank(trafficValidator.validateUserInputs(weatherType, orbits, orbitSpeedLimitMap)))
+            return trafficFinder.calculateOptimumTime(weatherType, orbits, orbitSpeedLimitMap);
+
+        try {
+            return coalesce(inFlightMessages, keyOf(weatherType, orbits, orbitSpeedLimitMap),
+                    () -> null == optimumTimeCache ? trafficFinder.calculateOptimumTime(weatherType, orbits, orbitSpeedLimitMap)
+                            : optimumTimeCache.calculateOptimumTime(weatherType, orbits, orbitSpeedLimitMap));
+        } catch (BusinessRuleException e) {
+            // Not thrown by calculateOptimumTime, which returns the message of a BusinessRuleException
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Same as {@link TrafficFinder#calculateOptimumTraverseDetail(String, List, Map)},
+     * shared with identical concurrent queries.
+     *
+     * @param weatherType - User input
+     * @param orbits - List of orbit sequences between source and destination
+     * @param orbitSpeedLimitMap - User's input (speed limit) corresponding to orbit name
+     * @return - Optimum TraverseDetail object, the same object for all coalesced queries
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if user inputs are not valid,
+     * 			or ROUTE_NOT_FOUND if no vehicle and orbit-sequence is available
+     */
+    public TraverseDetail calculateOptimumTraverseDetail(String weatherType, List<List<Orbit>> orbits,
+                                                         Map<String, Integer> orbitSpeedLimitMap) throws BusinessRuleException {
+        if (ValidationUtils.isNotBlank(trafficValidator.validateUserInputs(weatherType, orbits, orbitSpeedLimitMap)))
+            return trafficFinder.calculateOptimumTraverseDetail(weatherType, orbits, orbitSpeedLimitMap);
+
+        return coalesce(inFlightDetails, keyOf(weatherType, orbits, orbitSpeedLimitMap),
+                () -> null == optimumTimeCache ? trafficFinder.calculateOptimumTraverseDetail(weatherType, orbits, orbitSpeedLimitMap)
+                        : optimumTimeCache.calculateOptimumTraverseDetail(weatherType, orbits, orbitSpeedLimitMap));
+    }
+
+    private static OptimumQueryKey keyOf(String weatherType, List<List<Orbit>> orbits, Map<String, Integer> orbitSpeedLimitMap) {
+        return OptimumQueryKey.of(initializer.getSnapshot().getVersion(), WeatherCondition.fromType(weatherType),
+                orbits, orbitSpeedLimitMap);
+    }
+
+    /**
+     * This method is responsible for joining the calculation in progress of a query, or else calculating it.
+     *
+     * @param inFlight - Calculations in progress
+     * @param key - Query key
+     * @param calculation - Calculation of the query
+     * @return - Result of the calculation
+     * @throws BusinessRuleException, thrown by the calculation
+     */
+    private <T> T coalesce(Map<OptimumQueryKey, CompletableFuture<T>> inFlight, OptimumQueryKey key,
+                           Calculation<T> calculation) throws BusinessRuleException {
+        CompletableFuture<T> call = new CompletableFuture<>();
+        CompletableFuture<T> leader = inFlight.putIfAbsent(key, call);
+        if (null != leader) {
+            coalesced.increment();
+            return await(leader);
+        }
+
+        computations.increment();
+        T result;
+        try {
+            result = calculation.calculate();
+        } catch (BusinessRuleException | RuntimeException | Error e) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+
+        // Removed before completion, so the calculation is no longer in flight once a waiting query has its result
+        inFlight.remove(key, call);
+        call.complete(result);
+        return result;
+    }
+
+    // Wait for the calculating query, and rethrow its failure as is
+    private static <T> T await(CompletableFuture<T> leader) throws BusinessRuleException {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof BusinessRuleException businessRuleException)
+                throw businessRuleException;
+            if (e.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            if (e.getCause() instanceof Error error)
+                throw error;
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Calculation<T> {
+        T calculate() throws BusinessRuleException;
+    }
+
+    /**
+     * @return - Number of queries calculated by the finder
+     */
+    public long getComputedCount() {
+        return computations.sum();
+    }
+
+    /**
+     * @return - Number of queries which shared the result of an identical query, i.e. calculations saved
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public int getInFlightCount() {
+        return inFlightMessages.size() + inFlightDetails.size();
+    }
+
+    @Override
+    public String toString() {
+        return "OptimumQueryCoalescer" + ": {" +
+                "computed=" + getComputedCount() +
+                ", coalesced=" + getCoalescedCount() +
+                ", inFlight=" + getInFlightCount() +
+                "}";
+    }
+}
@@ -0,0 +1,99 @@
+package za.co.titandynamix.finder;
+
+import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.model.Orbit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Canonical key of an optimum-time query: network version, weather, orbit-sequences and speed-limit vector.
+ * <p>
+ * Speed limits are ordered by orbit name, so the same limits entered in a different order give the same key.
+ *
+ * @author clivememela
+ */
+public final class OptimumQueryKey {
+
+    private final long networkVersion;
+    private final WeatherCondition weatherCondition;
+    private final List<List<String>> orbitSequences;
+    private final String[] orbitNames;
+    private final int[] speedLimits;
+    private final int hash;
+
+    private OptimumQueryKey(long networkVersion, WeatherCondition weatherCondition, List<List<String>> orbitSequences,
+                            String[] orbitNames, int[] speedLimits) {
+        this.networkVersion = networkVersion;
+        this.weatherCondition = weatherCondition;
+        this.orbitSequences = orbitSequences;
+        this.orbitNames = orbitNames;
+        this.speedLimits = speedLimits;
+        this.hash = Objects.hash(networkVersion, weatherCondition, orbitSequences,
+                Arrays.hashCode(orbitNames), Arrays.hashCode(speedLimits));
+    }
+
+    /**
+     * Build the canonical key of a query. Inputs are expected to be valid.
+     *
+     * @param networkVersion - Version of the network snapshot
+     * @param weatherCondition - Weather of the query
+     * @param orbits - Orbit-sequences of the query
+     * @param orbitSpeedLimitMap - User's input (speed limit) corresponding to orbit name
+     * @return - Query key
+     */
+    public static OptimumQueryKey of(long networkVersion, WeatherCondition weatherCondition,
+                                     List<List<Orbit>> orbits, Map<String, Integer> orbitSpeedLimitMap) {
+        List<List<String>> orbitSequences = new ArrayList<>(orbits.size());
+        for (List<Orbit> orbitSequence : orbits)
+            orbitSequences.add(orbitSequence.stream().map(Orbit::getName).toList());
+
+        TreeMap<String, Integer> sortedSpeedLimits = new TreeMap<>(orbitSpeedLimitMap);
+        String[] orbitNames = sortedSpeedLimits.keySet().toArray(new String[0]);
+        int[] speedLimits = sortedSpeedLimits.values().stream().mapToInt(Integer::intValue).toArray();
+
+        return new OptimumQueryKey(networkVersion, weatherCondition, orbitSequences, orbitNames, speedLimits);
+    }
+
+    public long getNetworkVersion() {
+        return networkVersion;
+    }
+
+    public WeatherCondition getWeatherCondition() {
+        return weatherCondition;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof OptimumQueryKey that))
+            return false;
+        return networkVersion == that.networkVersion
+                && hash == that.hash
+                && weatherCondition == that.weatherCondition
+                && Arrays.equals(speedLimits, that.speedLimits)
+                && Arrays.equals(orbitNames, that.orbitNames)
+                && orbitSequences.equals(that.orbitSequences);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "OptimumQueryKey" + ": {" +
+                "networkVersion=" + networkVersion +
+                ", weatherCondition=" + weatherCondition +
+                ", orbitSequences=" + orbitSequences +
+                ", orbitNames=" + Arrays.toString(orbitNames) +
+                ", speedLimits=" + Arrays.toString(speedLimits) +
+                "}";
+    }
+}
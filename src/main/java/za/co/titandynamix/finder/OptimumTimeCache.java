@@ -0,0 +1,242 @@
+package za.co.titandynamix.finder;
+
+import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TraverseDetail;
+import za.co.titandynamix.utils.ValidationUtils;
+import za.co.titandynamix.validator.TrafficValidator;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DESCRIPTION - Bounded result cache in front of TrafficFinder's optimum-time calculations.
+ * <p>
+ * It performs following operations:
+ * 	1.	Validate user inputs. Invalid inputs are passed to the finder and never cached.
+ * 	2.	Look up the result by weather, orbit-sequences and canonical speed-limit vector (see OptimumQueryKey).
+ * 	3.	On a miss, calculate the result with the finder and keep it. Least recently used entries are evicted.
+ * 		Messages and TraverseDetails are kept apart, up to the maximum size each. A BusinessRuleException is not kept.
+ * <p>
+ * Entries belong to a network version. When TrafficInitializer publishes a newer network, all entries are dropped.
+ * A query which started on an older network neither reads nor keeps entries of another version.
+ * Hit, miss, eviction and invalidation counts are available for monitoring.
+ *
+ * @author clivememela
+ */
+public class OptimumTimeCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    private static final TrafficInitializer initializer = TrafficInitializer.getInstance();
+    private static final TrafficValidator trafficValidator = TrafficValidator.getInstance();
+
+    private final TrafficFinder trafficFinder;
+    private final int maximumSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    // Access ordered, so the eldest entry is the least recently used one. Both are guarded by lock.
+    private final Object lock = new Object();
+    private final Map<OptimumQueryKey, String> messages;
+    private final Map<OptimumQueryKey, TraverseDetail> details;
+
+    // Network version of the cached entries. Guarded by lock.
+    private long cachedVersion;
+
+    public OptimumTimeCache(TrafficFinder trafficFinder) {
+        this(trafficFinder, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * @param trafficFinder - Finder used on a cache miss
+     * @param maximumSize - Maximum number of cached messages, and of cached TraverseDetails
+     */
+    public OptimumTimeCache(TrafficFinder trafficFinder, int maximumSize) {
+        if (maximumSize < 1)
+            throw new IllegalArgumentException("Maximum size of the cache must be at least 1");
+        this.trafficFinder = trafficFinder;
+        this.maximumSize = maximumSize;
+        this.cachedVersion = initializer.getSnapshot().getVersion();
+        this.messages = lruMap();
+        this.details = lruMap();
+    }
+
+    private <T> Map<OptimumQueryKey, T> lruMap() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<OptimumQueryKey, T> eldest) {
+                if (size() <= maximumSize)
+                    return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Same as {@link TrafficFinder#calculateOptimumTime(String, List, Map)}, answered from the cache when possible.
+     *
+     * @param weatherType - User input
+     * @param orbits - List of orbit sequences between source and destination
+     * @param orbitSpeedLimitMap - User's input (speed limit) corresponding to orbit name
+     * @return - Success or failure message after doing calculation for optimum traverse time as a String.
+     */
+    public String calculateOptimumTime(String weatherType, List<List<Orbit>> orbits, Map<String, Integer> orbitSpeedLimitMap) {
+        // Invalid inputs are not cached, the finder generates the validation message
+        if (ValidationUtils.isNotBlank(trafficValidator.validateUserInputs(weatherType, orbits, orbitSpeedLimitMap)))
+            return trafficFinder.calculateOptimumTime(weatherType, orbits, orbitSpeedLimitMap);
+
+        try {
+            return lookup(messages, weatherType, orbits, orbitSpeedLimitMap,
+                    () -> trafficFinder.calculateOptimumTime(weatherType, orbits, orbitSpeedLimitMap));
+        } catch (BusinessRuleException e) {
+            // Not thrown by calculateOptimumTime, which returns the message of a BusinessRuleException
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Same as {@link TrafficFinder#calculateOptimumTraverseDetail(String, List, Map)}, answered from the cache when possible.
+     *
+     * @param weatherType - User input
+     * @param orbits - List of orbit sequences between source and destination
+     * @param orbitSpeedLimitMap - User's input (speed limit) corresponding to orbit name
+     * @return - Optimum TraverseDetail object, the same object for all hits of the entry
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if user inputs are not valid,
+     * 			or ROUTE_NOT_FOUND if no vehicle and orbit-sequence is available
+     */
+    public TraverseDetail calculateOptimumTraverseDetail(String weatherType, List<List<Orbit>> orbits,
+                                                         Map<String, Integer> orbitSpeedLimitMap) throws BusinessRuleException {
+        if (ValidationUtils.isNotBlank(trafficValidator.validateUserInputs(weatherType, orbits, orbitSpeedLimitMap)))
+            return trafficFinder.calculateOptimumTraverseDetail(weatherType, orbits, orbitSpeedLimitMap);
+
+        return lookup(details, weatherType, orbits, orbitSpeedLimitMap,
+                () -> trafficFinder.calculateOptimumTraverseDetail(weatherType, orbits, orbitSpeedLimitMap));
+    }
+
+    /**
+     * This method is responsible for returning the cached result of a query, or else calculating and keeping it.
+     *
+     * @param entries - Cached results of the calculation
+     * @param weatherType - User input
+     * @param orbits - List of orbit sequences between source and destination
+     * @param orbitSpeedLimitMap - User's input (speed limit) corresponding to orbit name
+     * @param calculation - Calculation of the query by the finder
+     * @return - Result of the query
+     * @throws BusinessRuleException, thrown by the calculation
+     */
+    private <T> T lookup(Map<OptimumQueryKey, T> entries, String weatherType, List<List<Orbit>> orbits,
+                         Map<String, Integer> orbitSpeedLimitMap, Calculation<T> calculation) throws BusinessRuleException {
+        long version = initializer.getSnapshot().getVersion();
+        OptimumQueryKey key = OptimumQueryKey.of(version, WeatherCondition.fromType(weatherType), orbits, orbitSpeedLimitMap);
+
+        T result;
+        synchronized (lock) {
+            invalidateIfReloaded(version);
+            result = entries.get(key);
+        }
+        if (null != result) {
+            hits.increment();
+            return result;
+        }
+
+        misses.increment();
+        result = calculation.calculate();
+        synchronized (lock) {
+            // Don't keep a result of a network which has been replaced meanwhile, the finder may have used the new one
+            if (version == cachedVersion && version == initializer.getSnapshot().getVersion())
+                entries.put(key, result);
+        }
+        return result;
+    }
+
+    // Drop all entries, if a newer network has been published. An older version is of a query started before the reload.
+    // Caller holds the lock.
+    private void invalidateIfReloaded(long version) {
+        if (version <= cachedVersion)
+            return;
+        if (!messages.isEmpty() || !details.isEmpty())
+            invalidations.increment();
+        messages.clear();
+        details.clear();
+        cachedVersion = version;
+    }
+
+    @FunctionalInterface
+    private interface Calculation<T> {
+        T calculate() throws BusinessRuleException;
+    }
+
+    public TrafficFinder getTrafficFinder() {
+        return trafficFinder;
+    }
+
+    /**
+     * Drop all entries.
+     */
+    public void invalidateAll() {
+        synchronized (lock) {
+            messages.clear();
+            details.clear();
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * @return - Number of cached messages and TraverseDetails
+     */
+    public int size() {
+        synchronized (lock) {
+            return messages.size() + details.size();
+        }
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    /**
+     * @return - Ratio of hits to all cached lookups, 0 if there was no lookup yet
+     */
+    public double getHitRate() {
+        long hitCount = getHitCount();
+        long lookups = hitCount + getMissCount();
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "OptimumTimeCache" + ": {" +
+                "size=" + size() +
+                ", maximumSize=" + maximumSize +
+                ", hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                ", evictions=" + getEvictionCount() +
+                ", invalidations=" + getInvalidationCount() +
+                "}";
+    }
+}
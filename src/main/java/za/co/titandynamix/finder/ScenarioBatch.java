@@ -0,0 +1,98 @@
+package za.co.titandynamix.finder;
+
+import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.model.Orbit;
+
+import java.util.List;
+
+/**
+ * DESCRIPTION - Columnar input of {@link TrafficFinder#calculateOptimumTimes(ScenarioBatch)}.
+ * <p>
+ * All scenarios share the orbit-sequences (e.g. Silk Drob to Hallitharam) and differ in weather and speed limits:
+ * 	-	weather code of scenario i = weatherCodes[i], i.e. ordinal of the WeatherCondition.
+ * 	-	speed limit of orbit column k in scenario i = speedLimits[i * number of orbit columns + k],
+ * 		where orbit column k is the orbit named orbitNames.get(k).
+ * <p>
+ * Note: Arrays are not copied, they must not be modified while the batch is being evaluated.
+ *
+ * @author clivememela
+ */
+public final class ScenarioBatch {
+
+    private final List<List<Orbit>> orbitSequences;
+    private final List<String> orbitNames;
+    private final byte[] weatherCodes;
+    private final int[] speedLimits;
+
+    /**
+     * Create a batch.
+     *
+     * @param orbitSequences - Orbit-sequences between source and destination, shared by all scenarios
+     * @param orbitNames - Orbit name of each speed limit column
+     * @param weatherCodes - Weather condition ordinal per scenario
+     * @param speedLimits - Speed limits, one row of orbit columns per scenario
+     * @throws IllegalArgumentException, if the number of speed limits is not number of scenarios x number of orbit columns
+     */
+    public ScenarioBatch(List<List<Orbit>> orbitSequences, List<String> orbitNames, byte[] weatherCodes, int[] speedLimits) {
+        if ((long) weatherCodes.length * orbitNames.size() != speedLimits.length)
+            throw new IllegalArgumentException("Expected " + weatherCodes.length + " x " + orbitNames.size()
+                    + " speed limits, found " + speedLimits.length);
+
+        this.orbitSequences = List.copyOf(orbitSequences);
+        this.orbitNames = List.copyOf(orbitNames);
+        this.weatherCodes = weatherCodes;
+        this.speedLimits = speedLimits;
+    }
+
+    /**
+     * Weather code of a weather condition.
+     *
+     * @param weatherCondition - Weather condition
+     * @return - Weather code used in the weatherCodes column
+     */
+    public static byte weatherCode(WeatherCondition weatherCondition) {
+        return (byte) weatherCondition.ordinal();
+    }
+
+    public List<List<Orbit>> getOrbitSequences() {
+        return orbitSequences;
+    }
+
+    public List<String> getOrbitNames() {
+        return orbitNames;
+    }
+
+    public int size() {
+        return weatherCodes.length;
+    }
+
+    public int getOrbitColumnCount() {
+        return orbitNames.size();
+    }
+
+    public byte getWeatherCode(int scenario) {
+        return weatherCodes[scenario];
+    }
+
+    public int getSpeedLimit(int scenario, int orbitColumn) {
+        return speedLimits[scenario * orbitNames.size() + orbitColumn];
+    }
+
+    // Evaluation reads the columns directly
+    byte[] weatherCodes() {
+        return weatherCodes;
+    }
+
+    int[] speedLimits() {
+        return speedLimits;
+    }
+
+    @Override
+    public String toString() {
+        return "ScenarioBatch" + ": {" +
+                "scenarios=" + weatherCodes.length +
+                ", orbitNames=" + orbitNames +
+                ", orbitSequences=" + orbitSequences.size() +
+                "}";
+    }
+}
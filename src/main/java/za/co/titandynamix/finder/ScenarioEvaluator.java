@@ -0,0 +1,213 @@
+package za.co.titandynamix.finder;
+
+import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.network.CostTable;
+import za.co.titandynamix.network.NetworkSnapshot;
+import za.co.titandynamix.network.OrbitGraph;
+import za.co.titandynamix.network.TraverseTimeEvaluator;
+import za.co.titandynamix.network.VehicleCapabilityIndex;
+import za.co.titandynamix.utils.TraverseTimeUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * DESCRIPTION - Evaluates the scenarios of a ScenarioBatch over columns built once per batch.
+ * <p>
+ * Orbit-sequences are converted into orbit column indexes, and the distance term per orbit column and the
+ * crater penalty per weather condition x suitable vehicle x orbit column are gathered from the snapshot's CostTable,
+ * so a scenario reads contiguous batch columns.
+ * A scenario is then a loop over suitable vehicles and orbit-sequences reading its speed limit row,
+ * in the same candidate order and with the same early exit as TrafficHelper.findOptimumTraverseDetail.
+ *
+ * @author clivememela
+ */
+final class ScenarioEvaluator {
+
+    private final ScenarioBatch batch;
+    private final ScenarioResults results;
+    private final int orbitColumns;
+
+    // Per orbit-sequence: orbit column of each orbit
+    private final int[][] orbitSequenceColumns;
+
+    // Per orbit column: distance * minutes per hour
+    private final int[] distanceTerm;
+
+    // Per weather condition (ordinal), null if the condition is not part of the network:
+    private final int[][] suitableVehicleIds;
+    private final int[][] vehicleMaxSpeed;
+    // crater penalty at [suitable vehicle * orbit columns + orbit column]
+    private final int[][] craterPenalty;
+
+    /**
+     * Build the columns of a batch.
+     *
+     * @param snapshot - Network snapshot used by the batch
+     * @param batch - Scenarios
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if there is no orbit-sequence,
+     * 			an orbit column is not part of the network or an orbit of a sequence has no column
+     */
+    ScenarioEvaluator(NetworkSnapshot snapshot, ScenarioBatch batch) throws BusinessRuleException {
+        this.batch = batch;
+        this.results = new ScenarioResults(snapshot.getVehicles(), batch.getOrbitSequences(), batch.size());
+        this.orbitColumns = batch.getOrbitColumnCount();
+
+        if (batch.getOrbitSequences().isEmpty())
+            throw new BusinessRuleException(TrafficFinder.VALIDATION_FAILED, "No route/orbit found for the given source-destination.");
+
+        OrbitGraph graph = snapshot.getOrbitGraph();
+        List<String> orbitNames = batch.getOrbitNames();
+        int[] orbitIds = new int[orbitColumns];
+        List<String> unknownOrbitNames = new ArrayList<>();
+        for (int column = 0; column < orbitColumns; column++) {
+            orbitIds[column] = graph.getOrbitId(orbitNames.get(column));
+            if (orbitIds[column] < 0)
+                unknownOrbitNames.add(orbitNames.get(column));
+        }
+        if (!unknownOrbitNames.isEmpty())
+            throw new BusinessRuleException(TrafficFinder.VALIDATION_FAILED, "Unknown orbit(s) : " + unknownOrbitNames);
+
+        orbitSequenceColumns = toOrbitSequenceColumns(batch.getOrbitSequences(), orbitNames);
+
+        CostTable costTable = snapshot.getCostTable();
+        distanceTerm = new int[orbitColumns];
+        for (int column = 0; column < orbitColumns; column++)
+            distanceTerm[column] = costTable.getDistanceTerm(orbitIds[column]);
+
+        int conditions = WeatherCondition.values().length;
+        suitableVehicleIds = new int[conditions][];
+        vehicleMaxSpeed = new int[conditions][];
+        craterPenalty = new int[conditions][];
+
+        VehicleCapabilityIndex index = snapshot.getVehicleCapabilityIndex();
+        TraverseTimeEvaluator evaluator = snapshot.getTraverseTimeEvaluator();
+        for (WeatherCondition weatherCondition : WeatherCondition.values()) {
+            if (null == index.getWeather(weatherCondition))
+                continue;
+
+            // Suitable vehicles in tie-break order, same as a single query
+            List<Vehicle> vehicles = index.getSuitableVehicles(weatherCondition);
+            int condition = weatherCondition.ordinal();
+            suitableVehicleIds[condition] = new int[vehicles.size()];
+            vehicleMaxSpeed[condition] = new int[vehicles.size()];
+            craterPenalty[condition] = new int[vehicles.size() * orbitColumns];
+            for (int vehicle = 0; vehicle < vehicles.size(); vehicle++) {
+                int vehicleId = evaluator.toVehicleId(vehicles.get(vehicle));
+                suitableVehicleIds[condition][vehicle] = vehicleId;
+                vehicleMaxSpeed[condition][vehicle] = vehicles.get(vehicle).getVelocity().getSpeed();
+                for (int column = 0; column < orbitColumns; column++)
+                    craterPenalty[condition][vehicle * orbitColumns + column] =
+                            costTable.getCraterPenalty(weatherCondition, vehicleId, orbitIds[column]);
+            }
+        }
+    }
+
+    /**
+     * Convert orbit-sequences into orbit column indexes.
+     *
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if an orbit has no column
+     */
+    private static int[][] toOrbitSequenceColumns(List<List<Orbit>> orbitSequences, List<String> orbitNames)
+            throws BusinessRuleException {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int column = orbitNames.size() - 1; column >= 0; column--)
+            columns.put(orbitNames.get(column), column);
+
+        int[][] orbitSequenceColumns = new int[orbitSequences.size()][];
+        Set<String> missingOrbitNames = new LinkedHashSet<>();
+        for (int sequence = 0; sequence < orbitSequenceColumns.length; sequence++) {
+            List<Orbit> orbits = orbitSequences.get(sequence);
+            orbitSequenceColumns[sequence] = new int[orbits.size()];
+            for (int position = 0; position < orbits.size(); position++) {
+                Integer column = columns.get(orbits.get(position).getName());
+                if (null == column)
+                    missingOrbitNames.add(orbits.get(position).getName());
+                else
+                    orbitSequenceColumns[sequence][position] = column;
+            }
+        }
+        if (!missingOrbitNames.isEmpty())
+            throw new BusinessRuleException(TrafficFinder.VALIDATION_FAILED,
+                    "Missing maximum traffic speed(s) for : " + missingOrbitNames + ". \n=== Please enter a speed for every orbit.");
+        return orbitSequenceColumns;
+    }
+
+    /**
+     * Number of candidates (vehicle x orbit-sequence) of the largest weather condition, used to size parallel work.
+     */
+    long candidatesPerScenario() {
+        int vehicles = 0;
+        for (int[] vehicleIds : suitableVehicleIds) {
+            if (null != vehicleIds)
+                vehicles = Math.max(vehicles, vehicleIds.length);
+        }
+        return (long) vehicles * orbitSequenceColumns.length;
+    }
+
+    /**
+     * Validate and evaluate one scenario, and store its result.
+     * Invalid: unknown weather code, weather not part of the network, or a speed limit less than 1.
+     *
+     * @param scenario - Scenario index
+     */
+    void evaluate(int scenario) {
+        int condition = batch.weatherCodes()[scenario];
+        if (condition < 0 || condition >= suitableVehicleIds.length || null == suitableVehicleIds[condition]) {
+            results.setFailure(scenario, ScenarioResults.INVALID_WEATHER);
+            return;
+        }
+
+        int[] speedLimits = batch.speedLimits();
+        int row = scenario * orbitColumns;
+        for (int column = 0; column < orbitColumns; column++) {
+            if (speedLimits[row + column] < 1) {
+                results.setFailure(scenario, ScenarioResults.INVALID_SPEED_LIMIT);
+                return;
+            }
+        }
+
+        int[] vehicleIds = suitableVehicleIds[condition];
+        int[] maxSpeeds = vehicleMaxSpeed[condition];
+        int[] penalty = craterPenalty[condition];
+
+        // Only a strictly faster candidate replaces the best one, so ties keep the first vehicle and orbit-sequence
+        int bestTime = Integer.MAX_VALUE;
+        int bestVehicle = -1;
+        int bestSequence = -1;
+        for (int vehicle = 0; vehicle < vehicleIds.length; vehicle++) {
+            int maxSpeed = maxSpeeds[vehicle];
+            int base = vehicle * orbitColumns;
+            for (int sequence = 0; sequence < orbitSequenceColumns.length; sequence++) {
+                int traverseTime = 0;
+                for (int column : orbitSequenceColumns[sequence]) {
+                    traverseTime += distanceTerm[column] / TraverseTimeUtils.applicableSpeed(speedLimits[row + column], maxSpeed)
+                            + penalty[base + column];
+                    if (traverseTime >= bestTime)
+                        break;
+                }
+                if (traverseTime < bestTime) {
+                    bestTime = traverseTime;
+                    bestVehicle = vehicle;
+                    bestSequence = sequence;
+                }
+            }
+        }
+
+        if (bestVehicle < 0)
+            results.setFailure(scenario, ScenarioResults.ROUTE_NOT_FOUND);
+        else
+            results.setOptimum(scenario, vehicleIds[bestVehicle], bestSequence, bestTime);
+    }
+
+    ScenarioResults getResults() {
+        return results;
+    }
+}
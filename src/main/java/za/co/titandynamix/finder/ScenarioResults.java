@@ -0,0 +1,130 @@
+package za.co.titandynamix.finder;
+
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TraverseDetail;
+import za.co.titandynamix.model.Vehicle;
+
+import java.util.List;
+
+/**
+ * DESCRIPTION - Columnar output of {@link TrafficFinder#calculateOptimumTimes(ScenarioBatch)}, one row per scenario:
+ * status, optimum vehicle id, optimum orbit-sequence id and traverse time (minutes).
+ * <p>
+ * Vehicle id is the position of the vehicle in the network snapshot, orbit-sequence id is the position of the
+ * orbit-sequence in the batch. Both are -1 and traverse time is 0 if status is not {@link #OK}.
+ *
+ * @author clivememela
+ */
+public final class ScenarioResults {
+
+    // Status of a scenario
+    public static final byte OK = 0;
+    public static final byte INVALID_WEATHER = 1;
+    public static final byte INVALID_SPEED_LIMIT = 2;
+    public static final byte ROUTE_NOT_FOUND = 3;
+
+    private final List<Vehicle> vehicles;
+    private final List<List<Orbit>> orbitSequences;
+
+    private final byte[] status;
+    private final int[] vehicleIds;
+    private final int[] orbitSequenceIds;
+    private final int[] traverseTimes;
+
+    ScenarioResults(List<Vehicle> vehicles, List<List<Orbit>> orbitSequences, int size) {
+        this.vehicles = vehicles;
+        this.orbitSequences = orbitSequences;
+        status = new byte[size];
+        vehicleIds = new int[size];
+        orbitSequenceIds = new int[size];
+        traverseTimes = new int[size];
+    }
+
+    void setOptimum(int scenario, int vehicleId, int orbitSequenceId, int traverseTime) {
+        status[scenario] = OK;
+        vehicleIds[scenario] = vehicleId;
+        orbitSequenceIds[scenario] = orbitSequenceId;
+        traverseTimes[scenario] = traverseTime;
+    }
+
+    void setFailure(int scenario, byte failure) {
+        status[scenario] = failure;
+        vehicleIds[scenario] = -1;
+        orbitSequenceIds[scenario] = -1;
+        traverseTimes[scenario] = 0;
+    }
+
+    public int size() {
+        return status.length;
+    }
+
+    public byte getStatus(int scenario) {
+        return status[scenario];
+    }
+
+    public boolean isOk(int scenario) {
+        return status[scenario] == OK;
+    }
+
+    public int getVehicleId(int scenario) {
+        return vehicleIds[scenario];
+    }
+
+    public int getOrbitSequenceId(int scenario) {
+        return orbitSequenceIds[scenario];
+    }
+
+    public int getTraverseTime(int scenario) {
+        return traverseTimes[scenario];
+    }
+
+    /**
+     * Optimum vehicle of a scenario.
+     *
+     * @param scenario - Scenario index
+     * @return - Vehicle object, null if status is not OK
+     */
+    public Vehicle getVehicle(int scenario) {
+        return isOk(scenario) ? vehicles.get(vehicleIds[scenario]) : null;
+    }
+
+    /**
+     * Optimum orbit-sequence of a scenario.
+     *
+     * @param scenario - Scenario index
+     * @return - Orbit-sequence, null if status is not OK
+     */
+    public List<Orbit> getOrbitSequence(int scenario) {
+        return isOk(scenario) ? orbitSequences.get(orbitSequenceIds[scenario]) : null;
+    }
+
+    /**
+     * Materialize the result of a scenario, same as the result of {@link TrafficFinder#calculateOptimumTraverseDetail}.
+     *
+     * @param scenario - Scenario index
+     * @return - TraverseDetail object, null if status is not OK
+     */
+    public TraverseDetail toTraverseDetail(int scenario) {
+        return isOk(scenario) ? new TraverseDetail(traverseTimes[scenario], getOrbitSequence(scenario), getVehicle(scenario)) : null;
+    }
+
+    /**
+     * @return - Number of scenarios whose status is not OK
+     */
+    public int getFailureCount() {
+        int failures = 0;
+        for (byte scenarioStatus : status) {
+            if (scenarioStatus != OK)
+                failures++;
+        }
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        return "ScenarioResults" + ": {" +
+                "scenarios=" + status.length +
+                ", failures=" + getFailureCount() +
+                "}";
+    }
+}
@@ -1,16 +1,27 @@
 package za.co.titandynamix.finder;
 
 import lombok.Getter;
+import za.co.titandynamix.exception.BusinessRuleException;
 import za.co.titandynamix.helper.TrafficHelper;
+import za.co.titandynamix.metrics.Stage;
+import za.co.titandynamix.metrics.StageMetrics;
+import za.co.titandynamix.model.MultiModalTraverseDetail;
 import za.co.titandynamix.model.Orbit;
 import za.co.titandynamix.model.TraverseDetail;
 import za.co.titandynamix.model.Vehicle;
 import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.network.NetworkSnapshot;
+import za.co.titandynamix.network.SpeedLimits;
+import za.co.titandynamix.network.TransferPenalties;
+import za.co.titandynamix.route.TimedRoute;
 import za.co.titandynamix.utils.ValidationUtils;
 import za.co.titandynamix.validator.TrafficValidator;
 
+import java.time.LocalTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 /**
  * DESCRIPTION - This class is solution for problem: Traffic finder
@@ -26,62 +37,372 @@ public class TrafficFinder {
     // Get the only object available for TrafficValidator (Singleton)
     private static final TrafficValidator trafficValidator = new TrafficValidator();
 
+    // Error codes of BusinessRuleException thrown by calculateOptimumTraverseDetail
+    public static final String VALIDATION_FAILED = "VALIDATION_FAILED";
+    public static final String ROUTE_NOT_FOUND = "ROUTE_NOT_FOUND";
+
+    // Max number of results of a top-k query
+    public static final int MAX_OPTIONS = 100;
+
+    // Stage timers, disabled by default
+    private final StageMetrics stageMetrics;
+
+    // Finder without stage timers, e.g. in console and batch mode
+    public TrafficFinder() {
+        this(StageMetrics.NONE);
+    }
+
+    public TrafficFinder(StageMetrics stageMetrics) {
+        this.stageMetrics = stageMetrics;
+    }
+
     /**
      * This method is responsible to calculate optimum time to reach the destination from the source.
      * <p>
      * To do this it performs following operations:
      *  1.	Get weather by weather-type.
      *  2. 	Based on weather type entered , get all suitable vehicle names and get their corresponding Vehicle objects.
-     *  3. 	Get the orbits and update them with user inputs (i.e. speed limit)
+     *  3. 	Get the orbits and apply user inputs (i.e. speed limit) as per-request speed limits
      * 	4.	Based on weather type we can identify actual number of craters for each available orbit.
      * 	5.	Find out optimum traverse time for each orbit/route and vehicle combination.
      * 	6.	Compare these times and find out the optimized one.
      *
      * @param weatherType - User input
-     * @param orbits - Updated list of orbit sequences with user's input (speed limit of orbits)
+     * @param orbits - List of orbit sequences between source and destination
      * @param orbitSpeedLimitMap - This map is used to hold user inputs (orbit's speed limit) corresponding to orbit name.
      *
      * @return - Success or failure message after doing calculation for optimum traverse time as a String.
      */
     public String calculateOptimumTime(String weatherType,
                                        List<List<Orbit>> orbits, Map<String, Integer> orbitSpeedLimitMap) {
+        try {
+            TraverseDetail optimumTraverseDetail = calculateOptimumTraverseDetail(weatherType, orbits, orbitSpeedLimitMap);
+
+            // Generate and return output message from optimized TraverseDetail object
+            long start = stageMetrics.start();
+            String outputMessage = trafficHelper.generateOutputMessage(optimumTraverseDetail);
+            stageMetrics.stop(Stage.OUTPUT_FORMATTING, start);
+            return outputMessage;
+        } catch (BusinessRuleException e) {
+            // If user inputs are not valid, return the invalid message
+            if (VALIDATION_FAILED.equals(e.getErrorCode()))
+                return "\nValidation failed : \n" + e.getMessage();
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Same as {@link #calculateOptimumTime(String, List, Map)}, returning the optimum TraverseDetail object
+     * instead of an output message. Used where a structured result is needed, e.g. the REST API.
+     *
+     * @param weatherType - User input
+     * @param orbits - List of orbit sequences between source and destination
+     * @param orbitSpeedLimitMap - This map is used to hold user inputs (orbit's speed limit) corresponding to orbit name.
+     *
+     * @return - Optimum TraverseDetail object
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if user inputs are not valid,
+     * 			or ROUTE_NOT_FOUND if no vehicle and orbit-sequence is available
+     */
+    public TraverseDetail calculateOptimumTraverseDetail(String weatherType, List<List<Orbit>> orbits,
+                                                         Map<String, Integer> orbitSpeedLimitMap) throws BusinessRuleException {
+
+        // Each stage is timed from the end of the previous one
+        long start = stageMetrics.start();
 
         // Validate input parameters. If something invalid, it will have invalid message
-        String invalidMessage = trafficValidator.validateUserInputs(weatherType, orbitSpeedLimitMap);
+        String invalidMessage = trafficValidator.validateUserInputs(weatherType, orbits, orbitSpeedLimitMap);
+        start = stageMetrics.stop(Stage.VALIDATION, start);
 
-        // If all inputs are valid, invalidMessage will be empty. Else if user inputs are not valid, return the invalid message
-        if (ValidationUtils.isNotBlank(invalidMessage))
-            return "\nValidation failed : \n" + invalidMessage;
+        // If all inputs are valid, invalidMessage will be empty
+        if (ValidationUtils.isNotBlank(invalidMessage)) {
+            stageMetrics.count(StageMetrics.VALIDATION_FAILED);
+            throw new BusinessRuleException(VALIDATION_FAILED, invalidMessage);
+        }
+
+        // Read the network once, so a concurrent reload does not change the data used by this query
+        NetworkSnapshot snapshot = trafficHelper.getSnapshot();
 
         // Get weather by weather-type
-        Weather weather = trafficHelper.getWeatherByType(weatherType);
+        Weather weather = trafficHelper.getWeatherByType(snapshot, weatherType);
+        start = stageMetrics.stop(Stage.WEATHER_LOOKUP, start);
 
         // Get all suitable vehicle names for the selected weather and get their corresponding Vehicle objects
-        List<Vehicle> vehicles = trafficHelper.getSuitableVehicles(weather.getSuitableVehicleNames());
-
-        // Iterate all available orbit-sequences and set its max speed limit, which came as input.
-        orbits.stream()
-                .forEach(orbitSequence -> orbitSequence.stream()
-                        // Update the orbit-sequence with the orbit's speed limit
-                        .forEach(orbit -> orbit.getVelocityLimit().setSpeed(orbitSpeedLimitMap.get(orbit.getName())))
-                );
+        List<Vehicle> vehicles = trafficHelper.getSuitableVehicles(snapshot, weather);
+        start = stageMetrics.stop(Stage.VEHICLE_FILTERING, start);
 
         /*
-         * Populate TraverseDetail object with the traverse time, orbit and vehicle.
-         * Get list of all populated TraverseDetail objects.
+         * Speed limits of this request, indexed by orbit id. The shared orbits are not updated,
+         * so concurrent requests with different speed limits don't affect each other.
          */
-        List<TraverseDetail> traverseDetails = trafficHelper.getTraverseDetails(weather, vehicles, orbits);
+        SpeedLimits speedLimits = SpeedLimits.of(snapshot, orbitSpeedLimitMap);
+        start = stageMetrics.stop(Stage.SPEED_LIMITS, start);
 
-        // Find the optimum TraverseDetail object from list of traverseDetails
-        TraverseDetail optimumTraverseDetail = trafficHelper.findOptimumTraverseDetail(traverseDetails);
+        /*
+         * Calculate traverse time for each vehicle and orbit-sequence, and keep only the optimum TraverseDetail object.
+         * Candidates are streamed in tie-break order, no list of all TraverseDetail objects is created.
+         */
+        TraverseDetail optimumTraverseDetail = trafficHelper.findOptimumTraverseDetail(weather, vehicles, orbits, speedLimits);
+        stageMetrics.stop(Stage.OPTIMUM_SEARCH, start);
 
         // Check optimum TraverseDetail object
+        if (null == optimumTraverseDetail) {
+            stageMetrics.count(StageMetrics.ROUTE_NOT_FOUND);
+            throw new BusinessRuleException(ROUTE_NOT_FOUND, "System Error: Unable to find shortest possible time");
+        }
+        stageMetrics.count(StageMetrics.OK);
+        return optimumTraverseDetail;
+    }
+
+    /**
+     * This method is responsible to compile the decision table of a weather and the orbit-sequences of a
+     * source-destination pair, so repeated queries on a stable network are answered by lookups (see OptimumDecisionTable).
+     *
+     * @param weatherType - Weather of the queries
+     * @param orbits - List of orbit sequences between source and destination
+     *
+     * @return - Decision table of the current network snapshot
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if the weather is not valid or there is no orbit-sequence
+     */
+    public OptimumDecisionTable compileDecisionTable(String weatherType, List<List<Orbit>> orbits) throws BusinessRuleException {
+        // Read the network once, so a concurrent reload does not change the data used by the table
+        NetworkSnapshot snapshot = trafficHelper.getSnapshot();
+        Weather weather = trafficHelper.getWeatherByType(snapshot, weatherType);
+        if (null == weather)
+            throw new BusinessRuleException(VALIDATION_FAILED,
+                    "=== please enter a valid weather condition input :  " + weatherType + " : is invalid \n");
+        if (ValidationUtils.isEmpty(orbits))
+            throw new BusinessRuleException(VALIDATION_FAILED, "No route/orbit found for the given source-destination.");
+
+        return OptimumDecisionTable.compile(snapshot, weather, trafficHelper.getSuitableVehicles(snapshot, weather), orbits);
+    }
+
+    /**
+     * Same as {@link #calculateOptimumTraverseDetail(String, List, Map)}, answered from a decision table
+     * of the weather and orbit-sequences, instead of evaluating every vehicle and orbit-sequence.
+     * The answer belongs to the network version the table was compiled from.
+     *
+     * @param decisionTable - Decision table, see {@link #compileDecisionTable(String, List)}
+     * @param orbitSpeedLimitMap - This map is used to hold user inputs (orbit's speed limit) corresponding to orbit name.
+     *
+     * @return - Optimum TraverseDetail object
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if user inputs are not valid,
+     * 			or ROUTE_NOT_FOUND if no vehicle and orbit-sequence is available
+     */
+    public TraverseDetail calculateOptimumTraverseDetail(OptimumDecisionTable decisionTable,
+                                                         Map<String, Integer> orbitSpeedLimitMap) throws BusinessRuleException {
+        String invalidMessage = trafficValidator.validateUserInputs(decisionTable.getWeather().getWeatherCondition().toString(),
+                decisionTable.getOrbitSequences(), orbitSpeedLimitMap);
+        if (ValidationUtils.isNotBlank(invalidMessage))
+            throw new BusinessRuleException(VALIDATION_FAILED, invalidMessage);
+
+        TraverseDetail optimumTraverseDetail = decisionTable.find(orbitSpeedLimitMap);
         if (null == optimumTraverseDetail)
-            return "System Error: Unable to find shortest possible time";
-        else
-            // Generate and return output message from optimized TraverseDetail object
-            return trafficHelper.generateOutputMessage(optimumTraverseDetail);
+            throw new BusinessRuleException(ROUTE_NOT_FOUND, "System Error: Unable to find shortest possible time");
+        return optimumTraverseDetail;
+    }
+
+    /**
+     * Same as {@link #calculateOptimumTraverseDetail(String, List, Map)}, returning the k best vehicle and orbit-sequence
+     * combinations instead of only the optimum, e.g. for alternatives when the best vehicle is not available.
+     * The first result is the optimum, results with the same time follow the vehicle tie-break order.
+     *
+     * @param weatherType - User input
+     * @param orbits - List of orbit sequences between source and destination
+     * @param orbitSpeedLimitMap - This map is used to hold user inputs (orbit's speed limit) corresponding to orbit name.
+     * @param k - Number of results, 1 to MAX_OPTIONS
+     *
+     * @return - Up to k TraverseDetail objects, fastest first
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if user inputs are not valid,
+     * 			or ROUTE_NOT_FOUND if no vehicle and orbit-sequence is available
+     */
+    public List<TraverseDetail> calculateTopTraverseDetails(String weatherType, List<List<Orbit>> orbits,
+                                                            Map<String, Integer> orbitSpeedLimitMap, int k) throws BusinessRuleException {
+        String invalidMessage = trafficValidator.validateUserInputs(weatherType, orbits, orbitSpeedLimitMap);
+        if (ValidationUtils.isNotBlank(invalidMessage))
+            throw new BusinessRuleException(VALIDATION_FAILED, invalidMessage);
+        validateOptions(k);
+
+        // Read the network once, so a concurrent reload does not change the data used by this query
+        NetworkSnapshot snapshot = trafficHelper.getSnapshot();
+        Weather weather = trafficHelper.getWeatherByType(snapshot, weatherType);
+        List<Vehicle> vehicles = trafficHelper.getSuitableVehicles(snapshot, weather);
+        SpeedLimits speedLimits = SpeedLimits.of(snapshot, orbitSpeedLimitMap);
+
+        List<TraverseDetail> traverseDetails = trafficHelper.findTopTraverseDetails(weather, vehicles, orbits, speedLimits, k);
+        if (traverseDetails.isEmpty())
+            throw new BusinessRuleException(ROUTE_NOT_FOUND, "System Error: Unable to find shortest possible time");
+        return traverseDetails;
+    }
+
+    /**
+     * This method is responsible to calculate the k best vehicle and route combinations between two suburbs,
+     * over all loop-free routes of the network (k shortest paths per vehicle), not only the candidate orbit-sequences.
+     * Speed limits are optional, an orbit without a speed limit in the map keeps its own.
+     *
+     * @param weatherType - User input
+     * @param source - Source suburb
+     * @param destination - Destination suburb
+     * @param orbitSpeedLimitMap - Speed limit corresponding to orbit name, may be null
+     * @param k - Number of results, 1 to MAX_OPTIONS
+     *
+     * @return - Up to k TraverseDetail objects, fastest first
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if user inputs are not valid,
+     * 			or ROUTE_NOT_FOUND if the destination can't be reached with any suitable vehicle
+     */
+    public List<TraverseDetail> calculateTopTraverseDetails(String weatherType, String source, String destination,
+                                                            Map<String, Integer> orbitSpeedLimitMap, int k) throws BusinessRuleException {
+        // Read the network once, so a concurrent reload does not change the data used by this query
+        NetworkSnapshot snapshot = trafficHelper.getSnapshot();
+
+        String invalidMessage = trafficValidator.validateNetworkInputs(snapshot, weatherType,
+                Arrays.asList(source, destination), orbitSpeedLimitMap);
+        if (ValidationUtils.isNotBlank(invalidMessage))
+            throw new BusinessRuleException(VALIDATION_FAILED, invalidMessage);
+        validateOptions(k);
+
+        Weather weather = trafficHelper.getWeatherByType(snapshot, weatherType);
+        List<Vehicle> vehicles = trafficHelper.getSuitableVehicles(snapshot, weather);
+        SpeedLimits speedLimits = SpeedLimits.of(snapshot, orbitSpeedLimitMap);
+
+        List<TraverseDetail> traverseDetails = trafficHelper.findTopTraverseDetails(weather, vehicles, source, destination, speedLimits, k);
+        if (traverseDetails.isEmpty())
+            throw new BusinessRuleException(ROUTE_NOT_FOUND, "No route/orbit found for the given source-destination.");
+        return traverseDetails;
+    }
+
+    /**
+     * This method is responsible to calculate the earliest arrival between two suburbs for a departure time,
+     * over all routes of the network, with the speed limit of each orbit at the time it is entered (its speed-limit schedule).
+     * <p>
+     * To do this it performs following operations:
+     *  1.	Validate weather, suburbs and departure time.
+     *  2.	Get the suitable vehicles of the weather.
+     *  3.	Find the earliest-arrival route of each vehicle (time-dependent search, waiting for a higher speed limit allowed).
+     *  4.	Keep the earliest arrival. Same arrival: the vehicle first in tie-break order.
+     *
+     * @param weatherType - User input
+     * @param source - Source suburb
+     * @param destination - Destination suburb
+     * @param departureTime - Departure time of the day
+     *
+     * @return - TraverseDetail of the earliest arrival, traverse time is the minutes from departure to arrival (waiting included)
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if user inputs are not valid,
+     * 			or ROUTE_NOT_FOUND if the destination can't be reached with any suitable vehicle
+     */
+    public TraverseDetail calculateEarliestArrival(String weatherType, String source, String destination,
+                                                   LocalTime departureTime) throws BusinessRuleException {
+        // Read the network once, so a concurrent reload does not change the data used by this query
+        NetworkSnapshot snapshot = trafficHelper.getSnapshot();
+
+        String invalidMessage = trafficValidator.validateNetworkInputs(snapshot, weatherType,
+                Arrays.asList(source, destination), null);
+        if (null == departureTime)
+            invalidMessage += "=== please enter a departure time. \n";
+        if (ValidationUtils.isNotBlank(invalidMessage))
+            throw new BusinessRuleException(VALIDATION_FAILED, invalidMessage);
+
+        Weather weather = trafficHelper.getWeatherByType(snapshot, weatherType);
+        int departureMinute = departureTime.toSecondOfDay() / 60;
+
+        TimedRoute earliestRoute = null;
+        Vehicle earliestVehicle = null;
+        for (Vehicle vehicle : trafficHelper.getSuitableVehicles(snapshot, weather)) {
+            TimedRoute route = snapshot.getRouteSearch().findEarliestArrivalRoute(weather, vehicle, source, destination,
+                    departureMinute);
+            // Only a strictly earlier arrival replaces the current one, so ties keep the tie-break order
+            if (null != route && (null == earliestRoute || route.getArrivalTime() < earliestRoute.getArrivalTime())) {
+                earliestRoute = route;
+                earliestVehicle = vehicle;
+            }
+        }
+
+        if (null == earliestRoute)
+            throw new BusinessRuleException(ROUTE_NOT_FOUND, "No route/orbit found for the given source-destination.");
+        return new TraverseDetail((int) earliestRoute.getTraverseTime(), earliestRoute.getOrbits(), earliestVehicle);
+    }
+
+    /**
+     * This method is responsible to calculate the fastest multi-modal journey between two suburbs, over all routes of
+     * the network, switching vehicles at intermediate suburbs (e.g. a tuktuk through a crater-heavy orbit, then a car
+     * on a long fast one). Each switch costs the transfer penalty of the vehicle switched to.
+     * Speed limits are optional, an orbit without a speed limit in the map keeps its own.
+     * <p>
+     * To do this it performs following operations:
+     *  1.	Validate weather, suburbs, speed limits and transfer penalties.
+     *  2.	Get the suitable vehicles of the weather, the only vehicles any leg can use.
+     *  3.	Find the fastest route over (suburb, vehicle) states, with one vehicle per leg.
+     *
+     * @param weatherType - User input
+     * @param source - Source suburb
+     * @param destination - Destination suburb
+     * @param orbitSpeedLimitMap - Speed limit corresponding to orbit name, may be null
+     * @param transferPenalty - Penalty of switching to a vehicle without its own penalty, in minutes
+     * @param vehicleTransferPenaltyMap - Transfer penalty corresponding to vehicle name, may be null
+     *
+     * @return - MultiModalTraverseDetail with the vehicle of each leg, traverse time includes the transfer penalties
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if user inputs are not valid,
+     * 			or ROUTE_NOT_FOUND if the destination can't be reached with the suitable vehicles
+     */
+    public MultiModalTraverseDetail calculateMultiModalTraverseDetail(String weatherType, String source, String destination,
+                                                                      Map<String, Integer> orbitSpeedLimitMap, int transferPenalty,
+                                                                      Map<String, Integer> vehicleTransferPenaltyMap) throws BusinessRuleException {
+        // Read the network once, so a concurrent reload does not change the data used by this query
+        NetworkSnapshot snapshot = trafficHelper.getSnapshot();
+
+        String invalidMessage = trafficValidator.validateNetworkInputs(snapshot, weatherType,
+                Arrays.asList(source, destination), orbitSpeedLimitMap)
+                + trafficValidator.validateTransferPenalties(snapshot, transferPenalty, vehicleTransferPenaltyMap);
+        if (ValidationUtils.isNotBlank(invalidMessage))
+            throw new BusinessRuleException(VALIDATION_FAILED, invalidMessage);
+
+        Weather weather = trafficHelper.getWeatherByType(snapshot, weatherType);
+        List<Vehicle> vehicles = trafficHelper.getSuitableVehicles(snapshot, weather);
+        SpeedLimits speedLimits = SpeedLimits.of(snapshot, orbitSpeedLimitMap);
+        TransferPenalties transferPenalties = TransferPenalties.of(transferPenalty, vehicleTransferPenaltyMap);
+
+        MultiModalTraverseDetail traverseDetail = snapshot.getRouteSearch().findMultiModalRoute(weather, vehicles,
+                source, destination, speedLimits, transferPenalties);
+        if (null == traverseDetail)
+            throw new BusinessRuleException(ROUTE_NOT_FOUND, "No route/orbit found for the given source-destination.");
+        return traverseDetail;
+    }
+
+    private static void validateOptions(int k) throws BusinessRuleException {
+        if (k < 1 || k > MAX_OPTIONS)
+            throw new BusinessRuleException(VALIDATION_FAILED, "Invalid number of options : " + k
+                    + ". \n=== Only integer(s) from 1 to " + MAX_OPTIONS + " accepted.");
+    }
+
+    /**
+     * This method is responsible to calculate optimum time of many scenarios (weather x speed limits) at once.
+     * <p>
+     * To do this it performs following operations:
+     *  1.	Validate the batch: orbit-sequences and orbit columns, once for all scenarios.
+     *  2.	Gather distance terms and crater penalties of the batch's orbit columns per weather and suitable vehicle
+     *  	from the snapshot's CostTable.
+     *  3.	Validate and evaluate each scenario in a single pass over its speed limit row.
+     *  Invalid scenarios get a status in the results instead of failing the batch.
+     *  From TrafficHelper's parallel threshold on (scenarios x candidates), scenarios are evaluated on the evaluation pool.
+     *
+     * @param batch - Scenarios in columnar form
+     *
+     * @return - Columnar results: status, vehicle id, orbit-sequence id and traverse time per scenario
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if the orbit-sequences or orbit columns are not valid
+     */
+    public ScenarioResults calculateOptimumTimes(ScenarioBatch batch) throws BusinessRuleException {
+        // Read the network once, all scenarios are evaluated against the same snapshot
+        NetworkSnapshot snapshot = trafficHelper.getSnapshot();
+        ScenarioEvaluator evaluator = new ScenarioEvaluator(snapshot, batch);
 
+        if (batch.size() * evaluator.candidatesPerScenario() >= trafficHelper.getParallelThreshold()) {
+            // Each scenario writes its own row of the results
+            trafficHelper.getEvaluationPool().submit(() -> IntStream.range(0, batch.size()).parallel()
+                    .forEach(evaluator::evaluate)).join();
+        } else {
+            for (int scenario = 0; scenario < batch.size(); scenario++)
+                evaluator.evaluate(scenario);
+        }
+        return evaluator.getResults();
     }
 
     /**
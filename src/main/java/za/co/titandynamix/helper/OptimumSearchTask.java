@@ -0,0 +1,86 @@
+package za.co.titandynamix.helper;
+
+import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.network.SpeedLimits;
+import za.co.titandynamix.network.TraverseTimeEvaluator;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork-join task which finds the optimum candidate in a range of the vehicle x orbit-sequence cross product.
+ * <p>
+ * Candidate index = vehicle * number of orbit-sequences + orbit-sequence, i.e. the tie-break order of the vehicles.
+ * The result packs traverse time (high 32 bits) and candidate index (low 32 bits) into one long,
+ * so the minimum of two results is the faster candidate, and on a tie the one which comes first in tie-break order.
+ * This keeps the result deterministic, whichever way the range is split.
+ *
+ * @author clivememela
+ */
+final class OptimumSearchTask extends RecursiveTask<Long> {
+
+    // Result of a range without any candidate
+    static final long NO_CANDIDATE = Long.MAX_VALUE;
+
+    private final TraverseTimeEvaluator evaluator;
+    private final int[] vehicleIds;
+    private final int[][] orbitSequenceIds;
+    private final Weather weather;
+    private final SpeedLimits speedLimits;
+    private final int leafSize;
+    private final int from;
+    private final int to;
+
+    OptimumSearchTask(TraverseTimeEvaluator evaluator, int[] vehicleIds, int[][] orbitSequenceIds,
+                      Weather weather, SpeedLimits speedLimits, int leafSize, int from, int to) {
+        this.evaluator = evaluator;
+        this.vehicleIds = vehicleIds;
+        this.orbitSequenceIds = orbitSequenceIds;
+        this.weather = weather;
+        this.speedLimits = speedLimits;
+        this.leafSize = leafSize;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected Long compute() {
+        if (to - from <= leafSize)
+            return searchSequentially();
+
+        int middle = (from + to) >>> 1;
+        OptimumSearchTask left = new OptimumSearchTask(evaluator, vehicleIds, orbitSequenceIds,
+                weather, speedLimits, leafSize, from, middle);
+        OptimumSearchTask right = new OptimumSearchTask(evaluator, vehicleIds, orbitSequenceIds,
+                weather, speedLimits, leafSize, middle, to);
+        left.fork();
+        long rightResult = right.compute();
+        return Math.min(left.join(), rightResult);
+    }
+
+    private long searchSequentially() {
+        int sequences = orbitSequenceIds.length;
+        int minimumTime = Integer.MAX_VALUE;
+        int optimumCandidate = -1;
+        for (int candidate = from; candidate < to; candidate++) {
+            int traverseTime = evaluator.traverseTime(orbitSequenceIds[candidate % sequences],
+                    vehicleIds[candidate / sequences], weather, speedLimits, minimumTime);
+            if (traverseTime < minimumTime) {
+                minimumTime = traverseTime;
+                optimumCandidate = candidate;
+            }
+        }
+        return optimumCandidate < 0 ? NO_CANDIDATE : pack(minimumTime, optimumCandidate);
+    }
+
+    static long pack(int traverseTime, int candidate) {
+        return ((long) traverseTime << 32) | candidate;
+    }
+
+    static int traverseTime(long result) {
+        return (int) (result >>> 32);
+    }
+
+    static int candidate(long result) {
+        return (int) result;
+    }
+}
@@ -0,0 +1,84 @@
+package za.co.titandynamix.helper;
+
+import java.util.Arrays;
+
+/**
+ * Bounded max-heap of the k best candidates, packed as in {@link OptimumSearchTask} (traverse time, candidate index).
+ * <p>
+ * The root is the worst candidate kept, so a new candidate is rejected in O(1) and kept in O(log k).
+ * Memory and heap work depend on k, not on the number of candidates.
+ *
+ * @author clivememela
+ */
+final class TopCandidates {
+
+    private final long[] heap;
+    private int size;
+
+    TopCandidates(int capacity) {
+        heap = new long[capacity];
+    }
+
+    /**
+     * Traverse time from which a candidate can't be kept any more. Candidates are visited in tie-break order,
+     * so a later candidate with the same time as the worst one kept loses the tie.
+     */
+    int bound() {
+        return size < heap.length ? Integer.MAX_VALUE : OptimumSearchTask.traverseTime(heap[0]);
+    }
+
+    void offer(long candidate) {
+        if (size < heap.length)
+            siftUp(size++, candidate);
+        else if (size > 0 && candidate < heap[0])
+            siftDown(candidate);
+    }
+
+    /**
+     * @return - k best candidates of both heaps, in a new heap
+     */
+    static TopCandidates merge(TopCandidates first, TopCandidates second, int k) {
+        TopCandidates merged = new TopCandidates(Math.min(k, first.size + second.size));
+        for (int position = 0; position < first.size; position++)
+            merged.offer(first.heap[position]);
+        for (int position = 0; position < second.size; position++)
+            merged.offer(second.heap[position]);
+        return merged;
+    }
+
+    /**
+     * @return - Candidates kept, best first
+     */
+    long[] toSortedArray() {
+        long[] candidates = Arrays.copyOf(heap, size);
+        Arrays.sort(candidates);
+        return candidates;
+    }
+
+    private void siftUp(int position, long candidate) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (heap[parent] >= candidate)
+                break;
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = candidate;
+    }
+
+    // Replace the root (worst candidate)
+    private void siftDown(long candidate) {
+        int position = 0;
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && heap[child + 1] > heap[child])
+                child++;
+            if (candidate >= heap[child])
+                break;
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = candidate;
+    }
+}
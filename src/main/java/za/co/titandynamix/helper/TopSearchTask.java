@@ -0,0 +1,70 @@
+package za.co.titandynamix.helper;
+
+import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.network.SpeedLimits;
+import za.co.titandynamix.network.TraverseTimeEvaluator;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork-join task which finds the k best candidates in a range of the vehicle x orbit-sequence cross product.
+ * <p>
+ * Same candidate order and packing as {@link OptimumSearchTask}. Each leaf keeps its own bounded heap, and a candidate's
+ * calculation stops as soon as its partial time reaches the worst time kept. Heaps of two ranges are merged by packed
+ * value, so the result is the same whichever way the range is split.
+ *
+ * @author clivememela
+ */
+final class TopSearchTask extends RecursiveTask<TopCandidates> {
+
+    private final TraverseTimeEvaluator evaluator;
+    private final int[] vehicleIds;
+    private final int[][] orbitSequenceIds;
+    private final Weather weather;
+    private final SpeedLimits speedLimits;
+    private final int k;
+    private final int leafSize;
+    private final int from;
+    private final int to;
+
+    TopSearchTask(TraverseTimeEvaluator evaluator, int[] vehicleIds, int[][] orbitSequenceIds,
+                  Weather weather, SpeedLimits speedLimits, int k, int leafSize, int from, int to) {
+        this.evaluator = evaluator;
+        this.vehicleIds = vehicleIds;
+        this.orbitSequenceIds = orbitSequenceIds;
+        this.weather = weather;
+        this.speedLimits = speedLimits;
+        this.k = k;
+        this.leafSize = leafSize;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected TopCandidates compute() {
+        if (to - from <= leafSize)
+            return searchSequentially();
+
+        int middle = (from + to) >>> 1;
+        TopSearchTask left = new TopSearchTask(evaluator, vehicleIds, orbitSequenceIds,
+                weather, speedLimits, k, leafSize, from, middle);
+        TopSearchTask right = new TopSearchTask(evaluator, vehicleIds, orbitSequenceIds,
+                weather, speedLimits, k, leafSize, middle, to);
+        left.fork();
+        TopCandidates rightResult = right.compute();
+        return TopCandidates.merge(left.join(), rightResult, k);
+    }
+
+    private TopCandidates searchSequentially() {
+        int sequences = orbitSequenceIds.length;
+        TopCandidates topCandidates = new TopCandidates(Math.min(k, to - from));
+        for (int candidate = from; candidate < to; candidate++) {
+            int bound = topCandidates.bound();
+            int traverseTime = evaluator.traverseTime(orbitSequenceIds[candidate % sequences],
+                    vehicleIds[candidate / sequences], weather, speedLimits, bound);
+            if (traverseTime < bound)
+                topCandidates.offer(OptimumSearchTask.pack(traverseTime, candidate));
+        }
+        return topCandidates;
+    }
+}
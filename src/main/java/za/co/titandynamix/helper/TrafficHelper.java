@@ -1,15 +1,22 @@
 package za.co.titandynamix.helper;
 
+import za.co.titandynamix.enums.WeatherCondition;
 import za.co.titandynamix.initializer.TrafficInitializer;
 import za.co.titandynamix.model.Orbit;
 import za.co.titandynamix.model.TraverseDetail;
 import za.co.titandynamix.model.Vehicle;
 import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.network.NetworkSnapshot;
+import za.co.titandynamix.network.SpeedLimits;
+import za.co.titandynamix.network.TraverseTimeEvaluator;
+import za.co.titandynamix.network.VehicleCapabilityIndex;
+import za.co.titandynamix.route.RouteSearch;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Helper class for managing traffic.
@@ -27,17 +34,44 @@ public class TrafficHelper {
     // Create an object of Singleton Object
     private static final TrafficHelper trafficHelperInstance = new TrafficHelper();
 
-    private static final int MINUTES_PER_HOUR = 60;
-
     // Get the only object available for TrafficInitializer
     private static final TrafficInitializer initializer = TrafficInitializer.getInstance();
 
+    // Below this number of vehicle x orbit-sequence candidates, evaluation stays sequential
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+
+    // Pool and threshold for parallel evaluation of the vehicle x orbit-sequence cross product
+    private volatile ForkJoinPool evaluationPool = ForkJoinPool.commonPool();
+    private volatile int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
 
     // Get the only object available
     public static TrafficHelper getInstance(){
         return trafficHelperInstance;
     }
 
+    /**
+     * Configure parallel evaluation of the vehicle x orbit-sequence cross product.
+     * Results are the same as sequential evaluation, including the vehicle tie-break order.
+     *
+     * @param pool - Fork-join pool used for evaluation
+     * @param threshold - Minimum number of candidates (vehicles x orbit-sequences) to evaluate in parallel
+     */
+    public void configureParallelEvaluation(ForkJoinPool pool, int threshold) {
+        if (null == pool || threshold < 1)
+            throw new IllegalArgumentException("A fork-join pool and a threshold of at least 1 are required");
+        this.evaluationPool = pool;
+        this.parallelThreshold = threshold;
+    }
+
+    public ForkJoinPool getEvaluationPool() {
+        return evaluationPool;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
     /**
      * Parse input speed from string to integer.
      *
@@ -52,6 +86,15 @@ public class TrafficHelper {
         }
     }
 
+    /**
+     * Returns the currently published network. A query reads it once, so a reload does not affect in-flight queries.
+     *
+     * @return - Current network snapshot
+     */
+    public NetworkSnapshot getSnapshot() {
+        return initializer.getSnapshot();
+    }
+
     /**
      * Find weather by weather type, from all available weathers.
      *
@@ -59,9 +102,19 @@ public class TrafficHelper {
      * @return - Matched Weather.
      */
     public Weather getWeatherByType(String weatherType) {
-        return initializer.getAllWeatherDetails().parallelStream()
-                .filter(weather -> weatherType.equalsIgnoreCase(weather.getWeatherCondition().toString()))
-                .findAny().orElse(null);
+        return getWeatherByType(getSnapshot(), weatherType);
+    }
+
+    /**
+     * Find weather by weather type, from all weathers of the given network snapshot.
+     *
+     * @param snapshot - Network snapshot used by the query
+     * @param weatherType - User input
+     * @return - Matched Weather.
+     */
+    public Weather getWeatherByType(NetworkSnapshot snapshot, String weatherType) {
+        // Weather type -> condition -> weather, both are map lookups
+        return snapshot.getVehicleCapabilityIndex().getWeather(WeatherCondition.fromType(weatherType));
     }
 
     /**
@@ -71,14 +124,39 @@ public class TrafficHelper {
      * @return - List of Vehicle objects
      */
     public List<Vehicle> getSuitableVehicles(List<String> vehicleNames) {
-        return initializer.getAllVehicles().stream()
-                .filter(vehicle -> vehicleNames.contains(vehicle.getName()))
-                .collect(Collectors.toList());
+        return getSuitableVehicles(getSnapshot(), vehicleNames);
+    }
+
+    /**
+     * Get vehicle objects of the given network snapshot corresponding to vehicle names.
+     *
+     * @param snapshot - Network snapshot used by the query
+     * @param vehicleNames - suitable vehicle names for the weather
+     * @return - List of Vehicle objects
+     */
+    public List<Vehicle> getSuitableVehicles(NetworkSnapshot snapshot, List<String> vehicleNames) {
+        VehicleCapabilityIndex index = snapshot.getVehicleCapabilityIndex();
+        return index.toVehicles(index.toMask(vehicleNames));
+    }
+
+    /**
+     * Get vehicle objects suitable for the weather, in vehicle (tie-break) order.
+     * For the weathers of the network, the list is prebuilt from the weather's vehicle bitset.
+     *
+     * @param snapshot - Network snapshot used by the query
+     * @param weather - Weather object
+     * @return - List of Vehicle objects
+     */
+    public List<Vehicle> getSuitableVehicles(NetworkSnapshot snapshot, Weather weather) {
+        VehicleCapabilityIndex index = snapshot.getVehicleCapabilityIndex();
+        if (index.covers(weather))
+            return index.getSuitableVehicles(weather.getWeatherCondition());
+        return getSuitableVehicles(snapshot, weather.getSuitableVehicleNames());
     }
 
     /**
      * Find out all available sequence of routes/orbits between any source and destination.
-     * Here each orbit-sequence contains only one orbit, i.e. orbit between any source and destination.
+     * Orbit-sequences are the direct orbits, followed by the fastest multi-hop routes found by the route search.
      * This source and destination is coming through user-input.
      * <p>
      * Note: Here source and destination, can't be interchanged. As road could be two ways. 
@@ -88,11 +166,20 @@ public class TrafficHelper {
      * @return - all possible orbit/route - sequence between any source and destination.
      */
     public List<List<Orbit>> getOrbits(String source, String destination) {
-        return initializer.getAllOrbits().stream()
-                .filter(orbit -> orbit.getSource().equalsIgnoreCase(source)
-                        && orbit.getDestination().equalsIgnoreCase(destination))
-                .map(Arrays::asList)
-                .collect(Collectors.toList());
+        return getOrbits(getSnapshot(), source, destination);
+    }
+
+    /**
+     * Find out all available sequence of routes/orbits between any source and destination, in the given network snapshot.
+     *
+     * @param snapshot - Network snapshot used by the query
+     * @param source - User input
+     * @param destination - User input
+     * @return - all possible orbit/route - sequence between any source and destination.
+     */
+    public List<List<Orbit>> getOrbits(NetworkSnapshot snapshot, String source, String destination) {
+        // Direct orbits come from the prebuilt index, multi-hop routes are searched once per source-destination pair
+        return snapshot.getRouteSearch().findCandidateRoutes(source, destination);
     }
 
     /**
@@ -100,6 +187,8 @@ public class TrafficHelper {
      * 		-  	Iterates over vehicles and available orbit-sequences.
      * 		- 	Populate TraverseDetail object with the traverse time, orbit-sequence and vehicle.
      * 		-	Add all populated TraverseDetail objects into a list and return it back.
+     * <p>
+     * Speed limit of each orbit is taken from the orbit itself.
      *
      * @param weather - User input
      * @param vehicles - Suitable vehicles for input weather
@@ -109,77 +198,117 @@ public class TrafficHelper {
      */
     public List<TraverseDetail> getTraverseDetails(Weather weather,
                                                    List<Vehicle> vehicles, List<List<Orbit>> availableOrbitSequences) {
+        return getTraverseDetails(weather, vehicles, availableOrbitSequences, SpeedLimits.of(getSnapshot(), null));
+    }
 
-        List<TraverseDetail> traverseDetails = new ArrayList<>();
-        vehicles.stream()
-                .forEach(vehicle -> availableOrbitSequences.stream()
-                        .forEach(orbitSequence -> {
-                            // Populate TraverseDetailForMultiSuburbs object with the traverse time, orbit-sequence and vehicle.
-                            TraverseDetail traverseDetail = new TraverseDetail();
-
-                            // Get optimized time to traverse an orbit with a vehicle, 
-                            traverseDetail.setTraverseTime(calculateOptimizedTraverseTime(weather, vehicle, orbitSequence));
-                            traverseDetail.setOrbits(orbitSequence);
-                            traverseDetail.setVehicle(vehicle);
-
-                            // Add all populated TraverseDetailForMultiSuburbs objects into a list
-                            traverseDetails.add(traverseDetail);
-                            //System.out.println(traverseDetail);
-                        })
-                );
+    /**
+     * Same as {@link #getTraverseDetails(Weather, List, List)}, with the speed limits of the request.
+     * The orbits themselves are never modified, so concurrent requests can share them.
+     * From {@link #getParallelThreshold()} candidates on, the list is populated in parallel, in the same order.
+     *
+     * @param weather - User input
+     * @param vehicles - Suitable vehicles for input weather
+     * @param availableOrbitSequences - Available orbits/routes sequences, to traverse multiple destinations
+     * @param speedLimits - User's speed limits, null to use speed limit of the orbits of the current snapshot
+     *
+     * @return List of TraverseDetailForMultiSuburbs objects for these vehicles and orbit-sequences
+     * @throws IllegalArgumentException, if an orbit or vehicle is not part of the network snapshot
+     */
+    public List<TraverseDetail> getTraverseDetails(Weather weather, List<Vehicle> vehicles,
+                                                   List<List<Orbit>> availableOrbitSequences, SpeedLimits speedLimits) {
+        SpeedLimits applicableSpeedLimits = null == speedLimits ? SpeedLimits.of(getSnapshot(), null) : speedLimits;
+        TraverseTimeEvaluator evaluator = applicableSpeedLimits.getSnapshot().getTraverseTimeEvaluator();
+
+        // Convert orbit-sequences into orbit ids once, every vehicle is evaluated over the same ids
+        int[][] orbitSequenceIds = toOrbitSequenceIds(evaluator, availableOrbitSequences);
+
+        int[] vehicleIds = toVehicleIds(evaluator, vehicles);
+        int candidates = Math.multiplyExact(vehicleIds.length, orbitSequenceIds.length);
+
+        // Large cross products are evaluated in parallel. Stream is ordered, so the list keeps the sequential order.
+        if (candidates >= parallelThreshold) {
+            return evaluationPool.submit(() -> IntStream.range(0, candidates).parallel()
+                    .mapToObj(candidate -> newTraverseDetail(evaluator, weather, vehicles, vehicleIds,
+                            availableOrbitSequences, orbitSequenceIds, applicableSpeedLimits, candidate))
+                    .collect(Collectors.toList())).join();
+        }
+
+        List<TraverseDetail> traverseDetails = new ArrayList<>(candidates);
+        for (int candidate = 0; candidate < candidates; candidate++) {
+            // Add all populated TraverseDetailForMultiSuburbs objects into a list
+            traverseDetails.add(newTraverseDetail(evaluator, weather, vehicles, vehicleIds,
+                    availableOrbitSequences, orbitSequenceIds, applicableSpeedLimits, candidate));
+        }
         return traverseDetails;
     }
 
+    /**
+     * Populate TraverseDetail object with the traverse time, orbit-sequence and vehicle of a candidate.
+     * Candidate index = vehicle * number of orbit-sequences + orbit-sequence.
+     */
+    private static TraverseDetail newTraverseDetail(TraverseTimeEvaluator evaluator, Weather weather, List<Vehicle> vehicles,
+                                                    int[] vehicleIds, List<List<Orbit>> orbitSequences,
+                                                    int[][] orbitSequenceIds, SpeedLimits speedLimits, int candidate) {
+        int vehicle = candidate / orbitSequenceIds.length;
+        int sequence = candidate % orbitSequenceIds.length;
+
+        TraverseDetail traverseDetail = new TraverseDetail();
+
+        // Get optimized time to traverse an orbit with a vehicle
+        traverseDetail.setTraverseTime(calculateOptimizedTraverseTime(evaluator, weather, vehicleIds[vehicle],
+                orbitSequenceIds[sequence], speedLimits));
+        traverseDetail.setOrbits(orbitSequences.get(sequence));
+        traverseDetail.setVehicle(vehicles.get(vehicle));
+        return traverseDetail;
+    }
+
+    private static int[] toVehicleIds(TraverseTimeEvaluator evaluator, List<Vehicle> vehicles) {
+        int[] vehicleIds = new int[vehicles.size()];
+        for (int vehicle = 0; vehicle < vehicleIds.length; vehicle++)
+            vehicleIds[vehicle] = evaluator.toVehicleId(vehicles.get(vehicle));
+        return vehicleIds;
+    }
+
+    /**
+     * Convert orbit-sequences into orbit ids of the network snapshot.
+     *
+     * @param evaluator - Traverse time evaluator of the snapshot
+     * @param orbitSequences - Available orbits/routes sequences
+     * @return - Orbit ids per orbit-sequence
+     */
+    private static int[][] toOrbitSequenceIds(TraverseTimeEvaluator evaluator, List<List<Orbit>> orbitSequences) {
+        int[][] orbitSequenceIds = new int[orbitSequences.size()][];
+        for (int sequence = 0; sequence < orbitSequenceIds.length; sequence++)
+            orbitSequenceIds[sequence] = evaluator.toOrbitIds(orbitSequences.get(sequence));
+        return orbitSequenceIds;
+    }
+
     /**
      * This method is responsible for:
      * 		-	Identify actual number of craters based on weather.
-     * 		-	Calculate optimum traverse time for any orbit and vehicle combination.
+     * 		-	Calculate optimum traverse time for any orbit-sequence and vehicle combination.
      * <p>
-     * Calculation steps:
-     *  	1. 	Get total distance for all the orbits in the sequence.
+     * Calculation steps, for each orbit in the sequence:
+     *  	1. 	Get distance of the orbit.
      *  	2.	Calculate maximum speed from orbit's speed limit and vehicle's maximum speed.
      *  	3. 	Calculate traverse time = distance/applicable speed + crater cross time * number of actual craters.
+     *  Traverse time of the orbit-sequence is the sum of traverse time of its orbits, same as the cost used by the route search.
+     *  Orbit and vehicle values are read from primitive columns in a single pass, no object is created.
+     *  Distance terms and crater penalties of the network's weathers are precomputed per snapshot (CostTable).
      * <p>
      *  Assumption: Unit of speed limit of orbit-sequence and vehicle's speed should be same. Default unit is mega miles/hour.
      *
+     * @param evaluator - Traverse time evaluator of the snapshot
      * @param weather - Weather object
-     * @param vehicle - Vehicle object
-     * @param orbits - Orbit objects
+     * @param vehicleId - Vehicle id
+     * @param orbitIds - Orbit-sequence as orbit ids
+     * @param speedLimits - User's speed limits
      *
      * @return Optimized traverse time for orbit-sequence with a vehicle
      */
-    private static Integer calculateOptimizedTraverseTime(Weather weather, Vehicle vehicle, List<Orbit> orbits) {
-
-        // Get distance of the orbit. Default unit is mega miles.
-        int distance = orbits.stream()
-                .mapToInt(Orbit::getDistance).sum();
-
-        // Get number of craters from orbit-sequence. 
-        int numberOfCratersFromOrbitSequence = orbits.stream()
-                .mapToInt(Orbit::getNumberOfCraters).sum();
-
-        // Get minimum orbit's speed limit among those sequence. Default unit is mega miles/hour.
-        int orbitSpeedLimit = orbits.stream()
-                .mapToInt(orbit -> orbit.getVelocityLimit().getSpeed())
-                .min().getAsInt();
-
-        // Get vehicle's maximum speed. Default unit is mega miles/hour.
-        int vehicleMaxSpeed = vehicle.getVelocity().getSpeed();
-
-        /*
-         * A vehicle cannot travel faster than the traffic speed limit of an orbit-sequence.
-         * Calculate maximum speed, which is applicable for the orbit-sequence with that vehicle.
-         */
-        int applicableMaxSpeed = Math.min(orbitSpeedLimit, vehicleMaxSpeed);
-
-        // Apply change rate on given craters and get actual applicable crater's number.
-        int actualNumberOfCraters = (int) Math.round(numberOfCratersFromOrbitSequence * (100 + weather.getCraterChangePercentage()) / 100.00);
-
-        /*
-         * Return optimized traverse time for an orbit-sequence with a vehicle
-         */
-        return ((distance * MINUTES_PER_HOUR) / applicableMaxSpeed)
-                + (actualNumberOfCraters * vehicle.getTimeToCrossCrater());
+    private static int calculateOptimizedTraverseTime(TraverseTimeEvaluator evaluator, Weather weather, int vehicleId,
+                                                      int[] orbitIds, SpeedLimits speedLimits) {
+        return evaluator.traverseTime(orbitIds, vehicleId, weather, speedLimits);
     }
 
     /**
@@ -204,6 +333,148 @@ public class TrafficHelper {
         return optimumTraverseDetail;
     }
 
+    /**
+     * Find the optimum vehicle and orbit-sequence in a single pass, without building the list of all TraverseDetail objects.
+     * <p>
+     * Candidates are visited in the same order as {@link #getTraverseDetails(Weather, List, List, SpeedLimits)}
+     * (vehicles in tie-break order bike, tuktuk, car, then orbit-sequences), and only a strictly faster candidate
+     * replaces the current best one. So the result is the same as {@link #findOptimumTraverseDetail(List)} on that list.
+     * A candidate's calculation stops as soon as its partial time reaches the current best time.
+     * From {@link #getParallelThreshold()} candidates on, the cross product is split over the evaluation pool.
+     *
+     * @param weather - User input
+     * @param vehicles - Suitable vehicles for input weather
+     * @param availableOrbitSequences - Available orbits/routes sequences
+     * @param speedLimits - User's speed limits
+     * @return - Optimum TraverseDetail object, null if there is no vehicle or orbit-sequence
+     */
+    public TraverseDetail findOptimumTraverseDetail(Weather weather, List<Vehicle> vehicles,
+                                                    List<List<Orbit>> availableOrbitSequences, SpeedLimits speedLimits) {
+        TraverseTimeEvaluator evaluator = speedLimits.getSnapshot().getTraverseTimeEvaluator();
+        int[][] orbitSequenceIds = toOrbitSequenceIds(evaluator, availableOrbitSequences);
+        int[] vehicleIds = toVehicleIds(evaluator, vehicles);
+        int candidates = Math.multiplyExact(vehicleIds.length, orbitSequenceIds.length);
+
+        OptimumSearchTask task;
+        long optimum;
+        if (candidates < parallelThreshold) {
+            // Small cross product, search in the calling thread
+            task = new OptimumSearchTask(evaluator, vehicleIds, orbitSequenceIds,
+                    weather, speedLimits, candidates, 0, candidates);
+            optimum = task.compute();
+        } else {
+            // Split into a few leaves per worker, leaves are searched sequentially with early exit
+            int leafSize = Math.max(1, Math.max(parallelThreshold / 8, candidates / (evaluationPool.getParallelism() * 4)));
+            task = new OptimumSearchTask(evaluator, vehicleIds, orbitSequenceIds,
+                    weather, speedLimits, leafSize, 0, candidates);
+            optimum = evaluationPool.invoke(task);
+        }
+
+        if (optimum == OptimumSearchTask.NO_CANDIDATE)
+            return null;
+
+        // Only the optimum candidate is materialized
+        int candidate = OptimumSearchTask.candidate(optimum);
+        return new TraverseDetail(OptimumSearchTask.traverseTime(optimum),
+                availableOrbitSequences.get(candidate % orbitSequenceIds.length),
+                vehicles.get(candidate / orbitSequenceIds.length));
+    }
+
+    /**
+     * Find the k best vehicle and orbit-sequence combinations, e.g. for alternatives when the best vehicle is not available.
+     * <p>
+     * Candidates are visited in the same order as {@link #findOptimumTraverseDetail(Weather, List, List, SpeedLimits)}
+     * and kept in a bounded heap, so the first result is the optimum, and results with the same time follow the
+     * tie-break order (bike, tuktuk, car, then orbit-sequences). Only the k results are materialized.
+     * From {@link #getParallelThreshold()} candidates on, the cross product is split over the evaluation pool.
+     *
+     * @param weather - User input
+     * @param vehicles - Suitable vehicles for input weather
+     * @param availableOrbitSequences - Available orbits/routes sequences
+     * @param speedLimits - User's speed limits
+     * @param k - Max number of results
+     * @return - Up to k TraverseDetail objects, fastest first
+     */
+    public List<TraverseDetail> findTopTraverseDetails(Weather weather, List<Vehicle> vehicles,
+                                                       List<List<Orbit>> availableOrbitSequences, SpeedLimits speedLimits, int k) {
+        TraverseTimeEvaluator evaluator = speedLimits.getSnapshot().getTraverseTimeEvaluator();
+        int[][] orbitSequenceIds = toOrbitSequenceIds(evaluator, availableOrbitSequences);
+        int[] vehicleIds = toVehicleIds(evaluator, vehicles);
+        int candidates = Math.multiplyExact(vehicleIds.length, orbitSequenceIds.length);
+        if (k < 1 || candidates == 0)
+            return List.of();
+
+        TopCandidates topCandidates;
+        if (candidates < parallelThreshold) {
+            topCandidates = new TopSearchTask(evaluator, vehicleIds, orbitSequenceIds,
+                    weather, speedLimits, k, candidates, 0, candidates).compute();
+        } else {
+            int leafSize = Math.max(1, Math.max(parallelThreshold / 8, candidates / (evaluationPool.getParallelism() * 4)));
+            topCandidates = evaluationPool.invoke(new TopSearchTask(evaluator, vehicleIds, orbitSequenceIds,
+                    weather, speedLimits, k, leafSize, 0, candidates));
+        }
+
+        List<TraverseDetail> traverseDetails = new ArrayList<>();
+        for (long result : topCandidates.toSortedArray()) {
+            int candidate = OptimumSearchTask.candidate(result);
+            traverseDetails.add(new TraverseDetail(OptimumSearchTask.traverseTime(result),
+                    availableOrbitSequences.get(candidate % orbitSequenceIds.length),
+                    vehicles.get(candidate / orbitSequenceIds.length)));
+        }
+        return traverseDetails;
+    }
+
+    /**
+     * Find the k fastest vehicle and route combinations between two suburbs, over all loop-free routes of the network.
+     * <p>
+     * For every vehicle, its k fastest routes are found by {@link RouteSearch#findFastestRoutes}, and the per-vehicle
+     * lists are merged in a bounded heap. Results with the same time follow the tie-break order of the vehicles,
+     * then the order of the routes.
+     *
+     * @param weather - User input
+     * @param vehicles - Suitable vehicles for input weather
+     * @param source - Source suburb
+     * @param destination - Destination suburb
+     * @param speedLimits - User's speed limits
+     * @param k - Max number of results
+     * @return - Up to k TraverseDetail objects, fastest first
+     */
+    public List<TraverseDetail> findTopTraverseDetails(Weather weather, List<Vehicle> vehicles, String source,
+                                                       String destination, SpeedLimits speedLimits, int k) {
+        if (k < 1 || vehicles.isEmpty())
+            return List.of();
+
+        NetworkSnapshot snapshot = speedLimits.getSnapshot();
+        TraverseTimeEvaluator evaluator = snapshot.getTraverseTimeEvaluator();
+
+        // Candidate index = vehicle * k + rank of the route, i.e. the tie-break order
+        List<List<List<Orbit>>> routes = new ArrayList<>(vehicles.size());
+        TopCandidates topCandidates = new TopCandidates(k);
+        for (int vehicle = 0; vehicle < vehicles.size(); vehicle++) {
+            List<List<Orbit>> vehicleRoutes = snapshot.getRouteSearch().findFastestRoutes(weather, vehicles.get(vehicle),
+                    source, destination, speedLimits, k);
+            routes.add(vehicleRoutes);
+            int vehicleId = evaluator.toVehicleId(vehicles.get(vehicle));
+            for (int rank = 0; rank < vehicleRoutes.size(); rank++) {
+                int bound = topCandidates.bound();
+                int traverseTime = evaluator.traverseTime(evaluator.toOrbitIds(vehicleRoutes.get(rank)), vehicleId,
+                        weather, speedLimits, bound);
+                // Routes of a vehicle are fastest first, so later routes can't be kept either
+                if (traverseTime >= bound)
+                    break;
+                topCandidates.offer(OptimumSearchTask.pack(traverseTime, Math.multiplyExact(vehicle, k) + rank));
+            }
+        }
+
+        List<TraverseDetail> traverseDetails = new ArrayList<>();
+        for (long result : topCandidates.toSortedArray()) {
+            int candidate = OptimumSearchTask.candidate(result);
+            traverseDetails.add(new TraverseDetail(OptimumSearchTask.traverseTime(result),
+                    routes.get(candidate / k).get(candidate % k), vehicles.get(candidate / k)));
+        }
+        return traverseDetails;
+    }
+
     /**
      * This method is responsible to generate output message from optimized TraverseDetail object 
      *
@@ -0,0 +1,130 @@
+package za.co.titandynamix.initializer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import za.co.titandynamix.entity.OrbitEntity;
+import za.co.titandynamix.entity.VehicleEntity;
+import za.co.titandynamix.entity.WeatherEntity;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.network.NetworkSnapshot;
+import za.co.titandynamix.repository.OrbitRepository;
+import za.co.titandynamix.repository.VehicleRepository;
+import za.co.titandynamix.repository.WeatherRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DESCRIPTION - Loads the network from the database and publishes it through TrafficInitializer.
+ * <p>
+ * The database is read in bulk, one query per table, and only on load/reload. The published NetworkSnapshot is the
+ * in-memory cache of the network: queries read the snapshot, so the query hot path never hits the database.
+ * <p>
+ * Note: If the database has no vehicles and 'traffic.network.seed' is true (default), it is seeded with the
+ * hard coded values of TrafficInitializer on startup.
+ * If 'traffic.network.snapshot-file' is set, the network is loaded from that binary snapshot file instead of the database,
+ * so a new node starts serving without reading the tables (see NetworkSnapshotCodec).
+ * <p>
+ * Transactions are demarcated with TransactionTemplates rather than @Transactional, because onApplicationReady calls
+ * load/save on this instance and a self-invocation bypasses the transactional proxy.
+ *
+ * @author clivememela
+ */
+@Component
+public class NetworkLoader {
+
+    private final OrbitRepository orbitRepository;
+    private final VehicleRepository vehicleRepository;
+    private final WeatherRepository weatherRepository;
+    private final boolean seed;
+    private final String snapshotFile;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    public NetworkLoader(OrbitRepository orbitRepository, VehicleRepository vehicleRepository,
+                         WeatherRepository weatherRepository, PlatformTransactionManager transactionManager,
+                         @Value("${traffic.network.seed:true}") boolean seed,
+                         @Value("${traffic.network.snapshot-file:}") String snapshotFile) {
+        this.orbitRepository = orbitRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.weatherRepository = weatherRepository;
+        this.seed = seed;
+        this.snapshotFile = snapshotFile;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Load the network from the snapshot file if configured, otherwise seed (if required) and load it from the database,
+     * once the application is ready.
+     *
+     * @throws UncheckedIOException, if the snapshot file can't be loaded
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!snapshotFile.isBlank()) {
+            try {
+                TrafficInitializer.getInstance().load(Path.of(snapshotFile));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to load the network snapshot file " + snapshotFile, e);
+            }
+            return;
+        }
+
+        if (seed && vehicleRepository.count() == 0)
+            save(TrafficInitializer.getInstance().getSnapshot());
+        load();
+    }
+
+    /**
+     * This method is responsible for reading all orbits, vehicles and weathers in one read-only transaction
+     * and publishing them as a new snapshot.
+     *
+     * @return - Newly published network snapshot
+     */
+    public NetworkSnapshot load() {
+        return readOnlyTransactionTemplate.execute(status -> {
+            List<Orbit> orbits = orbitRepository.findAllByOrderByPositionAsc().stream().map(OrbitEntity::toOrbit).toList();
+            List<Vehicle> vehicles = vehicleRepository.findAllByOrderByPositionAsc().stream().map(VehicleEntity::toVehicle).toList();
+            List<Weather> weathers = weatherRepository.findAllWithSuitableVehicles().stream().map(WeatherEntity::toWeather).toList();
+            return TrafficInitializer.getInstance().publish(orbits, vehicles, weathers);
+        });
+    }
+
+    /**
+     * This method is responsible for saving the data of a network snapshot in one transaction,
+     * keeping the order of orbits, vehicles and weathers.
+     *
+     * @param snapshot - Network snapshot to save
+     */
+    public void save(NetworkSnapshot snapshot) {
+        transactionTemplate.executeWithoutResult(status -> saveAll(snapshot));
+    }
+
+    private void saveAll(NetworkSnapshot snapshot) {
+        List<VehicleEntity> vehicles = new ArrayList<>();
+        for (int position = 0; position < snapshot.getVehicles().size(); position++)
+            vehicles.add(VehicleEntity.of(snapshot.getVehicles().get(position), position));
+        vehicleRepository.saveAll(vehicles);
+
+        List<WeatherEntity> weathers = new ArrayList<>();
+        for (int position = 0; position < snapshot.getWeathers().size(); position++)
+            weathers.add(WeatherEntity.of(snapshot.getWeathers().get(position), position));
+        weatherRepository.saveAll(weathers);
+
+        List<OrbitEntity> orbits = new ArrayList<>();
+        for (int position = 0; position < snapshot.getOrbits().size(); position++)
+            orbits.add(OrbitEntity.of(snapshot.getOrbits().get(position), position));
+        orbitRepository.saveAll(orbits);
+    }
+}
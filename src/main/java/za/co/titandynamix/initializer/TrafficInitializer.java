@@ -5,11 +5,17 @@ import za.co.titandynamix.model.Orbit;
 import za.co.titandynamix.model.Vehicle;
 import za.co.titandynamix.model.Velocity;
 import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.network.NetworkSnapshot;
+import za.co.titandynamix.network.NetworkSnapshotCodec;
+import za.co.titandynamix.utils.ValidationUtils;
+import za.co.titandynamix.validator.TrafficValidator;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * DESCRIPTION - This class is responsible to initialize all data with hard coded values. Data has been initialized from the standard I/O in the problem specification.
@@ -20,6 +26,10 @@ import java.util.stream.Collectors;
  *  -  	List of routes/orbits, and its corresponding details.
  * <p>
  * Note: In real time application, these values will be retrieved from database or file system or through any third party web service.
+ * <p>
+ * All data is built once into an immutable NetworkSnapshot and published through an atomic reference.
+ * A reload swaps in a new snapshot version, while in-flight queries keep the snapshot they started with.
+ * The network can also be saved to and loaded from a binary snapshot file (see NetworkSnapshotCodec).
  *
  * @author clivememela
  **/
@@ -27,12 +37,104 @@ public class TrafficInitializer {
     // Create an object of SingleObject
     private static final TrafficInitializer initializerInstance = new TrafficInitializer();
 
+    /*
+     * As per the requirements:
+     * Goal: To go from Silk Dorb to Hallitharam in the shortest time possible.
+     */
+    public static final String DEFAULT_SOURCE = "Silk Drob";
+    public static final String DEFAULT_DESTINATION = "Hallitharam";
+
+
+    // Currently published network. Replaced as a whole on reload, never modified in place.
+    private final AtomicReference<NetworkSnapshot> snapshot = new AtomicReference<>(createSnapshot(1));
 
     // Get the only object available
     public static TrafficInitializer getInstance(){
         return initializerInstance;
     }
 
+    /**
+     * Returns the currently published network. A query should read it once and use it until the query completes.
+     *
+     * @return - Current network snapshot
+     */
+    public NetworkSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Rebuild the network from its source and publish it as a new snapshot version.
+     *
+     * @return - Newly published network snapshot
+     */
+    public NetworkSnapshot reload() {
+        return snapshot.updateAndGet(current -> createSnapshot(current.getVersion() + 1));
+    }
+
+    /**
+     * Publish the given network data as a new snapshot version.
+     *
+     * @param orbits - All routes/orbits of the network
+     * @param vehicles - All vehicles, in tie-break order
+     * @param weathers - All possible weathers
+     * @return - Newly published network snapshot
+     * @throws IllegalArgumentException, if the network is not valid (e.g. duplicate orbit names), the current
+     * 			snapshot stays published
+     */
+    public NetworkSnapshot publish(List<Orbit> orbits, List<Vehicle> vehicles, List<Weather> weathers) {
+        String invalidMessage = TrafficValidator.getInstance().validateNetwork(orbits);
+        if (ValidationUtils.isNotBlank(invalidMessage))
+            throw new IllegalArgumentException(invalidMessage);
+
+        return snapshot.updateAndGet(current -> new NetworkSnapshot(current.getVersion() + 1, orbits, vehicles, weathers));
+    }
+
+    /**
+     * Read the network of a snapshot file (see NetworkSnapshotCodec) and publish it as a new snapshot version.
+     *
+     * @param file - Snapshot file
+     * @return - Newly published network snapshot
+     * @throws IOException, if the file can't be read or is not a valid snapshot file
+     */
+    public NetworkSnapshot load(Path file) throws IOException {
+        NetworkSnapshotCodec.Network network = NetworkSnapshotCodec.read(file);
+        return publish(network.orbits(), network.vehicles(), network.weathers());
+    }
+
+    /**
+     * Write the network of the current snapshot to a snapshot file, to be loaded by another node through {@link #load(Path)}.
+     *
+     * @param file - Snapshot file, replaced if it exists
+     * @return - Network snapshot which has been written
+     * @throws IOException, if the file can't be written
+     */
+    public NetworkSnapshot save(Path file) throws IOException {
+        NetworkSnapshot current = getSnapshot();
+        NetworkSnapshotCodec.write(current, file);
+        return current;
+    }
+
+    /**
+     * Build a snapshot from the hard coded values.
+     *
+     * @param version - Version of the new snapshot
+     * @return - Network snapshot
+     */
+    private static NetworkSnapshot createSnapshot(long version) {
+        List<Vehicle> vehicles = createVehicles();
+        List<String> vehicleNames = vehicles.stream().map(Vehicle::getName).toList();
+        return new NetworkSnapshot(version, createOrbits(), vehicles, createWeathers(vehicleNames));
+    }
+
+    /**
+     * Returns all weathers of the current network snapshot. No new objects are created.
+     *
+     * @return - List of all possible weathers
+     */
+    public List<Weather> getAllWeatherDetails() {
+        return getSnapshot().getWeathers();
+    }
+
     /**
      * This method is responsible for
      * 	-	Populate all Weather objects with hard coded values from the standard I/O in the problem pdf.
@@ -44,13 +146,14 @@ public class TrafficInitializer {
      * In the list of vehicles, sequence should be maintained. 
      * As, if there is a tie in which vehicle to choose, use bike, auto/tuktuk, car in that order.
      *
+     * @param allVehicleNames - Names of all vehicles, used for weathers where all types of vehicles can be used
      * @return - List of all possible weathers
      */
-    public List<Weather> getAllWeatherDetails() {
+    private static List<Weather> createWeathers(List<String> allVehicleNames) {
         List<Weather> weathers = new ArrayList<>();
         weathers.add(new Weather(WeatherCondition.SUNNY, -10, Arrays.asList("Bike", "Tuktuk", "Car")));
         weathers.add(new Weather(WeatherCondition.RAINY, +20, Arrays.asList("Tuktuk", "Car")));
-        weathers.add(new Weather(WeatherCondition.WINDY, +0, getAllVehicleNames()));
+        weathers.add(new Weather(WeatherCondition.WINDY, +0, allVehicleNames));
         return weathers;
     }
 
@@ -60,7 +163,16 @@ public class TrafficInitializer {
      * @return - List of all vehicle names
      */
     public List<String> getAllVehicleNames() {
-        return getAllVehicles().stream().map(Vehicle::getName).collect(Collectors.toList());
+        return getSnapshot().getVehicleNames();
+    }
+
+    /**
+     * Returns all vehicles of the current network snapshot. No new objects are created.
+     *
+     * @return - List of available vehicles
+     */
+    public List<Vehicle> getAllVehicles() {
+        return getSnapshot().getVehicles();
     }
 
     /**
@@ -76,7 +188,7 @@ public class TrafficInitializer {
      *
      * @return - List of available vehicles
      */
-    public List<Vehicle> getAllVehicles() {
+    private static List<Vehicle> createVehicles() {
         List<Vehicle> vehicles = new ArrayList<>();
         vehicles.add(new Vehicle("Bike", new Velocity(10, "megamiles/hour"), 2));
         vehicles.add(new Vehicle("Tuktuk", new Velocity(12, "megamiles/hour"), 1));
@@ -84,6 +196,15 @@ public class TrafficInitializer {
         return vehicles;
     }
 
+    /**
+     * Returns all routes/orbits of the current network snapshot. No new objects are created.
+     *
+     * @return - List of routes/orbits along with its corresponding details.
+     */
+    public List<Orbit> getAllOrbits() {
+        return getSnapshot().getOrbits();
+    }
+
     /**
      * This method is responsible for
      * 	-	Populate all Orbit objects with hard coded values from the standard I/O in the problem pdf.
@@ -98,7 +219,7 @@ public class TrafficInitializer {
      *
      * @return - List of routes/orbits along with its corresponding details.
      */
-    public List<Orbit> getAllOrbits() {
+    private static List<Orbit> createOrbits() {
         List<Orbit> orbits = new ArrayList<>();
         // Data has been initialized from the standard I/O in the problem pdf.
         orbits.add(new Orbit("Orbit1", "Silk Drob", "Hallitharam", 18, 20, new Velocity(-1, "megamiles/hour")));
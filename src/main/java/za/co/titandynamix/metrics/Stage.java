@@ -0,0 +1,31 @@
+package za.co.titandynamix.metrics;
+
+/**
+ * Stages of TrafficFinder.calculateOptimumTime, each one is timed separately.
+ *
+ * @author clivememela
+ */
+public enum Stage {
+    VALIDATION("validation"),
+    WEATHER_LOOKUP("weather-lookup"),
+    VEHICLE_FILTERING("vehicle-filtering"),
+    SPEED_LIMITS("speed-limits"),
+    OPTIMUM_SEARCH("optimum-search"),
+    OUTPUT_FORMATTING("output-formatting");
+
+    private final String tag;
+
+    Stage(String tag) {
+        this.tag = tag;
+    }
+
+    // Value of the 'stage' tag of the timer
+    public String getTag() {
+        return tag;
+    }
+
+    @Override
+    public String toString() {
+        return this.tag;
+    }
+}
@@ -0,0 +1,131 @@
+package za.co.titandynamix.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DESCRIPTION - Timers per stage of calculateOptimumTime and counters per query outcome, switchable at runtime.
+ * <p>
+ * Meters are registered once in the given registry, i.e. the application's MeterRegistry bean,
+ * as 'traffic.finder.stage' (tag: stage, with latency histogram) and 'traffic.finder.queries' (tag: outcome).
+ * Without a registry, e.g. in console and batch mode, {@link #NONE} registers nothing and can't be enabled.
+ * <p>
+ * While disabled, a stage costs a single volatile read: {@link #start()} returns {@link #DISABLED} without reading
+ * the clock and {@link #stop(Stage, long)} ignores it. Nothing is allocated per query in either state.
+ *
+ * @author clivememela
+ */
+public class StageMetrics {
+
+    public static final String STAGE_TIMER = "traffic.finder.stage";
+    public static final String QUERY_COUNTER = "traffic.finder.queries";
+
+    // Outcomes of a query
+    public static final String OK = "ok";
+    public static final String VALIDATION_FAILED = "validation-failed";
+    public static final String ROUTE_NOT_FOUND = "route-not-found";
+
+    // Start time returned while disabled
+    public static final long DISABLED = Long.MIN_VALUE;
+
+    // Metrics of a finder without a meter registry, always disabled
+    public static final StageMetrics NONE = new StageMetrics();
+
+    private final EnumMap<Stage, Timer> timers = new EnumMap<>(Stage.class);
+    private final Map<String, Counter> counters;
+
+    private volatile boolean enabled;
+
+    /**
+     * Register the meters in a registry.
+     *
+     * @param registry - Meter registry
+     */
+    public StageMetrics(MeterRegistry registry) {
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, Timer.builder(STAGE_TIMER)
+                    .description("Latency of a stage of calculateOptimumTime")
+                    .tag("stage", stage.getTag())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        counters = Map.of(
+                OK, newCounter(registry, OK),
+                VALIDATION_FAILED, newCounter(registry, VALIDATION_FAILED),
+                ROUTE_NOT_FOUND, newCounter(registry, ROUTE_NOT_FOUND));
+    }
+
+    private StageMetrics() {
+        counters = Map.of();
+    }
+
+    private static Counter newCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder(QUERY_COUNTER)
+                .description("Queries of calculateOptimumTime by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Switch recording on/off.
+     *
+     * @param enabled - true to record stages and outcomes
+     * @throws IllegalStateException, if enabled without a meter registry (see {@link #NONE})
+     */
+    public void setEnabled(boolean enabled) {
+        if (enabled && timers.isEmpty())
+            throw new IllegalStateException("Stage metrics without a meter registry can't be enabled");
+        this.enabled = enabled;
+    }
+
+    /**
+     * Start timing a stage.
+     *
+     * @return - Start time to pass to {@link #stop(Stage, long)}, {@link #DISABLED} if metrics are disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : DISABLED;
+    }
+
+    /**
+     * Record the time since start for a stage.
+     *
+     * @param stage - Stage
+     * @param start - Value returned by {@link #start()}
+     * @return - Start time of the next stage, i.e. now, {@link #DISABLED} if metrics are disabled
+     */
+    public long stop(Stage stage, long start) {
+        if (start == DISABLED)
+            return DISABLED;
+        long now = System.nanoTime();
+        timers.get(stage).record(now - start, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    /**
+     * Count a query by outcome.
+     *
+     * @param outcome - OK, VALIDATION_FAILED or ROUTE_NOT_FOUND
+     */
+    public void count(String outcome) {
+        if (enabled)
+            counters.get(outcome).increment();
+    }
+
+    public Timer getTimer(Stage stage) {
+        return timers.get(stage);
+    }
+
+    public Counter getCounter(String outcome) {
+        return counters.get(outcome);
+    }
+}
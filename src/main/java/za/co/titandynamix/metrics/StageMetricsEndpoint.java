@@ -0,0 +1,40 @@
+package za.co.titandynamix.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint to switch stage metrics on/off at runtime:
+ * 		GET /actuator/stagemetrics, POST /actuator/stagemetrics {"enabled": true}
+ * Switches the StageMetrics bean of the application's TrafficFinder.
+ * Initial state comes from 'traffic.metrics.enabled' (default false).
+ *
+ * @author clivememela
+ */
+@Component
+@Endpoint(id = "stagemetrics")
+public class StageMetricsEndpoint {
+
+    private final StageMetrics stageMetrics;
+
+    public StageMetricsEndpoint(StageMetrics stageMetrics, @Value("${traffic.metrics.enabled:false}") boolean enabled) {
+        this.stageMetrics = stageMetrics;
+        stageMetrics.setEnabled(enabled);
+    }
+
+    @ReadOperation
+    public Map<String, Object> state() {
+        return Map.of("enabled", stageMetrics.isEnabled());
+    }
+
+    @WriteOperation
+    public Map<String, Object> configure(boolean enabled) {
+        stageMetrics.setEnabled(enabled);
+        return state();
+    }
+}
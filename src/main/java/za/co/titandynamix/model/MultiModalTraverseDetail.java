@@ -0,0 +1,40 @@
+package za.co.titandynamix.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * [traverse time (minutes): Integer; transfers: Integer; orbit and vehicle per leg: List<TraverseLeg>]
+ *
+ * @author clivememela
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MultiModalTraverseDetail implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Traverse time of all legs and transfer penalties. Default unit is minutes.
+    private int traverseTime;
+
+    // Number of vehicle switches at intermediate suburbs
+    private int transferCount;
+
+    // One leg per orbit, in travel order. A transfer is between two legs with different vehicles.
+    private List<TraverseLeg> legs;
+
+    @Override
+    public String toString() {
+        return "MultiModalTraverseDetail" + ": {" +
+                "traverseTime=" + traverseTime +
+                ", transferCount=" + transferCount +
+                ", legs=" + legs +
+                "}";
+    }
+}
@@ -6,9 +6,11 @@ import lombok.NoArgsConstructor;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.List;
 
 /**
- * [source: String; number of craters: Integer; distance (mega mile): Integer; traffic speed limit: Velocity]
+ * [source: String; number of craters: Integer; distance (mega mile): Integer; traffic speed limit: Velocity;
+ *  speed-limit schedule: List<SpeedLimitPeriod>]
  *
  * @author clivememela
  */
@@ -37,6 +39,16 @@ public class Orbit implements Serializable {
 
     private Velocity velocityLimit; //A vehicle cannot travel faster than the traffic speed for an orbit.
 
+    // Speed limits by time of day, ordered by start minute. If empty (or null), velocityLimit applies all day.
+    private List<SpeedLimitPeriod> speedLimitSchedule;
+
+    /**
+     * Orbit with the same speed limit all day.
+     */
+    public Orbit(String name, String source, String destination, int distance, int numberOfCraters, Velocity velocityLimit) {
+        this(name, source, destination, distance, numberOfCraters, velocityLimit, null);
+    }
+
     @Override
     public String toString() {
 
@@ -47,6 +59,7 @@ public class Orbit implements Serializable {
                 ", distance=" + distance +
                 ", numberOfCraters=" + numberOfCraters +
                 ", velocityLimit=" + velocityLimit +
+                (null == speedLimitSchedule || speedLimitSchedule.isEmpty() ? "" : ", speedLimitSchedule=" + speedLimitSchedule) +
                 "}";
     }
 }
@@ -0,0 +1,40 @@
+package za.co.titandynamix.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * [start (minute of the day): Integer; traffic speed limit (megamiles/hour): Integer]
+ * <p>
+ * One period of an orbit's speed-limit schedule. The limit applies from its start until the start of the next period
+ * of the schedule, the last period continues until the first period of the next day.
+ *
+ * @author clivememela
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SpeedLimitPeriod implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    // Minute of the day, 0 (00:00) to MINUTES_PER_DAY - 1 (23:59)
+    private int startMinute;
+
+    // Same unit as the orbit's velocity limit, 0 or -ve means no limit
+    private int speedLimit;
+
+    @Override
+    public String toString() {
+        return "SpeedLimitPeriod" + ": {" +
+                "startMinute=" + startMinute +
+                ", speedLimit=" + speedLimit +
+                "}";
+    }
+}
@@ -0,0 +1,42 @@
+package za.co.titandynamix.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * [traverse time (minutes): Integer; suburbs in visiting order: List<String>; orbit-sequence per leg; vehicle: Vehicle]
+ *
+ * @author clivememela
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TourDetail implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    // Total traverse time of all legs. Default unit is minutes.
+    private int traverseTime;
+
+    // Suburbs in visiting order, starting with the start suburb (and ending with it, if the tour returns to the start)
+    private List<String> suburbs;
+
+    // Orbit-sequence of each leg, i.e. legs.get(i) goes from suburbs.get(i) to suburbs.get(i + 1)
+    private List<List<Orbit>> legs;
+    private Vehicle vehicle;
+
+    @Override
+    public String toString() {
+        return "TourDetail" + ": {" +
+                "traverseTime=" + traverseTime +
+                ", suburbs=" + suburbs +
+                ", legs=" + legs +
+                ", vehicle=" + vehicle +
+                "}";
+    }
+}
@@ -0,0 +1,36 @@
+package za.co.titandynamix.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * [orbit: Orbit; vehicle used on the orbit: Vehicle; traverse time (minutes): Integer]
+ *
+ * @author clivememela
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TraverseLeg implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private Orbit orbit;
+    private Vehicle vehicle;
+
+    // Traverse time of the orbit with the vehicle, without the transfer penalty. Default unit is minutes.
+    private int traverseTime;
+
+    @Override
+    public String toString() {
+        return "TraverseLeg" + ": {" +
+                "orbit=" + orbit +
+                ", vehicle=" + vehicle +
+                ", traverseTime=" + traverseTime +
+                "}";
+    }
+}
@@ -0,0 +1,163 @@
+package za.co.titandynamix.network;
+
+import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.utils.TraverseTimeUtils;
+
+import java.util.List;
+
+/**
+ * DESCRIPTION - Precomputed weather x vehicle x orbit cost terms of a NetworkSnapshot.
+ * <p>
+ * Traverse time of an orbit = distance term / applicable speed + crater penalty, where:
+ * 	-	distance term = distance * minutes per hour, per orbit.
+ * 	-	crater penalty = actual number of craters (weather applied) * vehicle's crater cross time,
+ * 		per weather condition, vehicle and orbit.
+ * None of these depend on user input, so a query only divides the distance term by the applicable speed.
+ * <p>
+ * Note: If the full table would exceed {@link #MAX_PENALTY_CELLS} cells, only the actual number of craters per
+ * weather condition and orbit is stored and multiplied by the crater cross time at query time.
+ *
+ * @author clivememela
+ */
+public final class CostTable {
+
+    // Upper bound of crater penalty cells (vehicles x orbits) per weather condition, i.e. 64 MB of int
+    public static final long MAX_PENALTY_CELLS = 16L * 1024 * 1024;
+
+    private final int orbitCount;
+
+    // Per orbit: distance * minutes per hour
+    private final int[] distanceTerm;
+
+    // Per weather condition (ordinal): crater penalty at [vehicle * orbitCount + orbit], null if not precomputed
+    private final int[][] craterPenalty;
+
+    // Per weather condition (ordinal): actual number of craters per orbit, null if weather is not in the network
+    private final int[][] actualCraters;
+
+    // Per weather condition (ordinal): crater change percentage the table was built with
+    private final int[] craterChangePercentage;
+
+    private final int[] timeToCrossCrater;
+
+    /**
+     * Build the table of a network.
+     *
+     * @param graph - Compact graph of the orbits
+     * @param vehicles - All vehicles, position in the list is the vehicle id
+     * @param weathers - All possible weathers
+     */
+    public CostTable(OrbitGraph graph, List<Vehicle> vehicles, List<Weather> weathers) {
+        orbitCount = graph.getOrbitCount();
+        distanceTerm = new int[orbitCount];
+        for (int orbitId = 0; orbitId < orbitCount; orbitId++)
+            distanceTerm[orbitId] = graph.getDistance(orbitId) * TraverseTimeUtils.MINUTES_PER_HOUR;
+
+        timeToCrossCrater = vehicles.stream().mapToInt(Vehicle::getTimeToCrossCrater).toArray();
+
+        int conditions = WeatherCondition.values().length;
+        craterPenalty = new int[conditions][];
+        actualCraters = new int[conditions][];
+        craterChangePercentage = new int[conditions];
+        boolean fullTable = (long) vehicles.size() * orbitCount <= MAX_PENALTY_CELLS;
+
+        for (Weather weather : weathers) {
+            int condition = weather.getWeatherCondition().ordinal();
+            // First weather of a condition wins, same as a lookup by weather type
+            if (null != actualCraters[condition])
+                continue;
+
+            craterChangePercentage[condition] = weather.getCraterChangePercentage();
+            int[] craters = new int[orbitCount];
+            for (int orbitId = 0; orbitId < orbitCount; orbitId++)
+                craters[orbitId] = TraverseTimeUtils.adjustCraters(graph.getCraters(orbitId), weather.getCraterChangePercentage());
+            actualCraters[condition] = craters;
+
+            if (fullTable) {
+                int[] penalty = new int[vehicles.size() * orbitCount];
+                for (int vehicleId = 0; vehicleId < vehicles.size(); vehicleId++) {
+                    int base = vehicleId * orbitCount;
+                    for (int orbitId = 0; orbitId < orbitCount; orbitId++)
+                        penalty[base + orbitId] = craters[orbitId] * timeToCrossCrater[vehicleId];
+                }
+                craterPenalty[condition] = penalty;
+            }
+        }
+    }
+
+    /**
+     * Check whether the table holds the given weather, i.e. same condition and same crater change percentage.
+     *
+     * @param weather - Weather object
+     * @return - true if the precomputed terms can be used for the weather
+     */
+    public boolean covers(Weather weather) {
+        int condition = weather.getWeatherCondition().ordinal();
+        return null != actualCraters[condition] && craterChangePercentage[condition] == weather.getCraterChangePercentage();
+    }
+
+    /**
+     * @param orbitId - Orbit id
+     * @return - Distance * minutes per hour of the orbit
+     */
+    public int getDistanceTerm(int orbitId) {
+        return distanceTerm[orbitId];
+    }
+
+    /**
+     * Crater penalty of an orbit, i.e. actual number of craters * crater cross time of the vehicle.
+     * The weather condition must be part of the network.
+     *
+     * @param weatherCondition - Weather condition
+     * @param vehicleId - Vehicle id
+     * @param orbitId - Orbit id
+     * @return - Crater penalty in minutes
+     */
+    public int getCraterPenalty(WeatherCondition weatherCondition, int vehicleId, int orbitId) {
+        int condition = weatherCondition.ordinal();
+        int[] penalty = craterPenalty[condition];
+        return null != penalty ? penalty[vehicleId * orbitCount + orbitId]
+                : actualCraters[condition][orbitId] * timeToCrossCrater[vehicleId];
+    }
+
+    /**
+     * Traverse time of an orbit-sequence from the table, stopping as soon as it reaches the given bound.
+     * The weather must be covered by the table, see {@link #covers(Weather)}.
+     *
+     * @param orbitIds - Orbit-sequence as orbit ids
+     * @param vehicleId - Vehicle id
+     * @param vehicleMaxSpeed - Vehicle's maximum speed
+     * @param weatherCondition - Weather condition
+     * @param speedLimits - Speed limits of the request
+     * @param bound - Calculation stops once traverse time reaches this value
+     * @return - Traverse time in minutes if it is less than the bound, else a value greater than or equal to the bound
+     */
+    int traverseTime(int[] orbitIds, int vehicleId, int vehicleMaxSpeed, WeatherCondition weatherCondition,
+                     SpeedLimits speedLimits, int bound) {
+        int condition = weatherCondition.ordinal();
+        int[] penalty = craterPenalty[condition];
+
+        int traverseTime = 0;
+        if (null != penalty) {
+            int base = vehicleId * orbitCount;
+            for (int orbitId : orbitIds) {
+                traverseTime += distanceTerm[orbitId] / TraverseTimeUtils.applicableSpeed(speedLimits.getSpeedLimit(orbitId), vehicleMaxSpeed)
+                        + penalty[base + orbitId];
+                if (traverseTime >= bound)
+                    return traverseTime;
+            }
+        } else {
+            int[] craters = actualCraters[condition];
+            int crossTime = timeToCrossCrater[vehicleId];
+            for (int orbitId : orbitIds) {
+                traverseTime += distanceTerm[orbitId] / TraverseTimeUtils.applicableSpeed(speedLimits.getSpeedLimit(orbitId), vehicleMaxSpeed)
+                        + craters[orbitId] * crossTime;
+                if (traverseTime >= bound)
+                    return traverseTime;
+            }
+        }
+        return traverseTime;
+    }
+}
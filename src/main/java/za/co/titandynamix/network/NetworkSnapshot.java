@@ -0,0 +1,127 @@
+package za.co.titandynamix.network;
+
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.route.RouteSearch;
+
+import java.util.List;
+
+/**
+ * DESCRIPTION - Immutable, fully built view of the orbit network (orbits, vehicles and weathers).
+ * <p>
+ * A snapshot is built once by TrafficInitializer and published as a whole. Queries read the snapshot that was current
+ * when they started, so a reload never changes the data under an in-flight query.
+ * <p>
+ * Note: The lists are unmodifiable and the model objects inside them are shared by all queries,
+ * therefore they must be treated as read-only.
+ *
+ * @author clivememela
+ */
+public final class NetworkSnapshot {
+
+    // Incremented on every reload, used to detect that a newer network has been published.
+    private final long version;
+
+    private final List<Orbit> orbits;
+    private final List<Vehicle> vehicles;
+    private final List<Weather> weathers;
+    private final List<String> vehicleNames;
+
+    // Weather lookup and suitable vehicle bitsets per weather condition
+    private final VehicleCapabilityIndex vehicleCapabilityIndex;
+
+    // Prebuilt source -> destination lookup of the orbits
+    private final OrbitIndex orbitIndex;
+
+    // Compact graph of the orbits and the route search over it
+    private final OrbitGraph orbitGraph;
+    private final SpeedLimitSchedules speedLimitSchedules;
+    private final RouteSearch routeSearch;
+
+    // Precomputed weather x vehicle x orbit cost terms and primitive columns, used for traverse time calculation
+    private final CostTable costTable;
+    private final TraverseTimeEvaluator traverseTimeEvaluator;
+
+    /**
+     * Build a snapshot. Input lists are copied, so later changes to them are not visible through this snapshot.
+     *
+     * @param version - Version of the network
+     * @param orbits - All routes/orbits of the network
+     * @param vehicles - All vehicles, in tie-break order (bike, tuktuk, car)
+     * @param weathers - All possible weathers
+     */
+    public NetworkSnapshot(long version, List<Orbit> orbits, List<Vehicle> vehicles, List<Weather> weathers) {
+        this.version = version;
+        this.orbits = List.copyOf(orbits);
+        this.vehicles = List.copyOf(vehicles);
+        this.weathers = List.copyOf(weathers);
+        this.vehicleNames = this.vehicles.stream().map(Vehicle::getName).toList();
+        this.vehicleCapabilityIndex = new VehicleCapabilityIndex(this.vehicles, this.weathers);
+        this.orbitIndex = new OrbitIndex(this.orbits);
+        this.orbitGraph = new OrbitGraph(this.orbits);
+        this.speedLimitSchedules = new SpeedLimitSchedules(this.orbits);
+        this.routeSearch = new RouteSearch(this.orbits, this.vehicles, this.weathers, orbitIndex, orbitGraph,
+                speedLimitSchedules);
+        this.costTable = new CostTable(orbitGraph, this.vehicles, this.weathers);
+        this.traverseTimeEvaluator = new TraverseTimeEvaluator(orbitGraph, this.vehicles, costTable);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Orbit> getOrbits() {
+        return orbits;
+    }
+
+    public List<Vehicle> getVehicles() {
+        return vehicles;
+    }
+
+    public List<Weather> getWeathers() {
+        return weathers;
+    }
+
+    public List<String> getVehicleNames() {
+        return vehicleNames;
+    }
+
+    public VehicleCapabilityIndex getVehicleCapabilityIndex() {
+        return vehicleCapabilityIndex;
+    }
+
+    public OrbitIndex getOrbitIndex() {
+        return orbitIndex;
+    }
+
+    public OrbitGraph getOrbitGraph() {
+        return orbitGraph;
+    }
+
+    public SpeedLimitSchedules getSpeedLimitSchedules() {
+        return speedLimitSchedules;
+    }
+
+    public RouteSearch getRouteSearch() {
+        return routeSearch;
+    }
+
+    public CostTable getCostTable() {
+        return costTable;
+    }
+
+    public TraverseTimeEvaluator getTraverseTimeEvaluator() {
+        return traverseTimeEvaluator;
+    }
+
+    @Override
+    public String toString() {
+        return "NetworkSnapshot" + ": {" +
+                "version=" + version +
+                ", orbits=" + orbits.size() +
+                ", vehicles=" + vehicles.size() +
+                ", weathers=" + weathers.size() +
+                "}";
+    }
+}
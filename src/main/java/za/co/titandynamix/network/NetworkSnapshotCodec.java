@@ -0,0 +1,333 @@
+package za.co.titandynamix.network;
+
+import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.SpeedLimitPeriod;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Velocity;
+import za.co.titandynamix.model.Weather;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * DESCRIPTION - Versioned binary file format of the whole network (orbits, vehicles and weathers).
+ * <p>
+ * All strings (suburb, orbit, vehicle, unit and weather names) are stored once in a dictionary and referred to by
+ * their index, everything else is stored as columns of little-endian ints:
+ * 	1.	Header: magic, format version, number of strings, orbits, vehicles and weathers.
+ * 	2.	Dictionary: end offset of every string, followed by the UTF-8 bytes of all strings (padded to 4 bytes).
+ * 	3.	Vehicles: name, speed, speed unit and time to cross a crater columns.
+ * 	4.	Weathers: type, crater change percentage, start of the suitable vehicles of each weather and
+ * 		the suitable vehicle names of all weathers.
+ * 	5.	Orbits: name, source, destination, distance, craters, speed limit and speed unit columns.
+ * 	6.	Speed-limit schedules (since version 2): start of the periods of each orbit, and the start minute and
+ * 		speed limit columns of the periods of all orbits.
+ * 	7.	CRC32 of everything above.
+ * <p>
+ * Files of version 1 (without schedules) are still read.
+ * <p>
+ * The file is read through a memory mapping with bulk int copies, and every string is decoded once,
+ * so loading is not slowed down by per-object parsing or Java serialization.
+ *
+ * @author clivememela
+ */
+public final class NetworkSnapshotCodec {
+
+    // 'KSNS' - King Shan network snapshot
+    public static final int MAGIC = 0x534E534B;
+    public static final int FORMAT_VERSION = 2;
+
+    // Oldest format version, which is still read
+    private static final int MIN_FORMAT_VERSION = 1;
+
+    // Dictionary index of a null string
+    private static final int NULL = -1;
+
+    private static final int HEADER_INTS = 6;
+    private static final int CHECKSUM_BYTES = Long.BYTES;
+
+    private NetworkSnapshotCodec() {
+    }
+
+    /**
+     * Network data read from a snapshot file, in the order it was written.
+     *
+     * @param orbits - All routes/orbits of the network
+     * @param vehicles - All vehicles, in tie-break order
+     * @param weathers - All possible weathers
+     */
+    public record Network(List<Orbit> orbits, List<Vehicle> vehicles, List<Weather> weathers) {
+    }
+
+    /**
+     * This method is responsible for writing the network of a snapshot to a file.
+     * The file is written next to the target and moved in place, so a reader never sees a partial file.
+     *
+     * @param snapshot - Network snapshot to write
+     * @param file - Target file, replaced if it exists
+     * @throws IOException, if the file can't be written
+     */
+    public static void write(NetworkSnapshot snapshot, Path file) throws IOException {
+        List<Orbit> orbits = snapshot.getOrbits();
+        List<Vehicle> vehicles = snapshot.getVehicles();
+        List<Weather> weathers = snapshot.getWeathers();
+
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        int[][] vehicleColumns = new int[4][vehicles.size()];
+        for (int vehicleId = 0; vehicleId < vehicles.size(); vehicleId++) {
+            Vehicle vehicle = vehicles.get(vehicleId);
+            Velocity velocity = vehicle.getVelocity();
+            vehicleColumns[0][vehicleId] = stringId(vehicle.getName(), dictionary);
+            vehicleColumns[1][vehicleId] = null == velocity ? 0 : velocity.getSpeed();
+            vehicleColumns[2][vehicleId] = stringId(null == velocity ? null : velocity.getUnit(), dictionary);
+            vehicleColumns[3][vehicleId] = vehicle.getTimeToCrossCrater();
+        }
+
+        int[][] weatherColumns = new int[2][weathers.size()];
+        int[] suitableVehicleStart = new int[weathers.size() + 1];
+        List<Integer> suitableVehicleNames = new ArrayList<>();
+        for (int weatherId = 0; weatherId < weathers.size(); weatherId++) {
+            Weather weather = weathers.get(weatherId);
+            weatherColumns[0][weatherId] = stringId(null == weather.getWeatherCondition() ? null : weather.getWeatherCondition().toString(), dictionary);
+            weatherColumns[1][weatherId] = weather.getCraterChangePercentage();
+            if (null != weather.getSuitableVehicleNames())
+                weather.getSuitableVehicleNames().forEach(vehicleName -> suitableVehicleNames.add(stringId(vehicleName, dictionary)));
+            suitableVehicleStart[weatherId + 1] = suitableVehicleNames.size();
+        }
+
+        int[][] orbitColumns = new int[7][orbits.size()];
+        for (int orbitId = 0; orbitId < orbits.size(); orbitId++) {
+            Orbit orbit = orbits.get(orbitId);
+            Velocity velocityLimit = orbit.getVelocityLimit();
+            orbitColumns[0][orbitId] = stringId(orbit.getName(), dictionary);
+            orbitColumns[1][orbitId] = stringId(orbit.getSource(), dictionary);
+            orbitColumns[2][orbitId] = stringId(orbit.getDestination(), dictionary);
+            orbitColumns[3][orbitId] = orbit.getDistance();
+            orbitColumns[4][orbitId] = orbit.getNumberOfCraters();
+            orbitColumns[5][orbitId] = null == velocityLimit ? -1 : velocityLimit.getSpeed();
+            orbitColumns[6][orbitId] = stringId(null == velocityLimit ? null : velocityLimit.getUnit(), dictionary);
+        }
+
+        int[] periodStart = new int[orbits.size() + 1];
+        List<SpeedLimitPeriod> periods = new ArrayList<>();
+        for (int orbitId = 0; orbitId < orbits.size(); orbitId++) {
+            if (null != orbits.get(orbitId).getSpeedLimitSchedule())
+                periods.addAll(orbits.get(orbitId).getSpeedLimitSchedule());
+            periodStart[orbitId + 1] = periods.size();
+        }
+
+        // Dictionary: end offsets of the strings, then all strings as one padded block of bytes
+        int[] stringEnd = new int[dictionary.size()];
+        byte[][] strings = new byte[dictionary.size()][];
+        int stringBytes = 0;
+        int stringId = 0;
+        for (String string : dictionary.keySet()) {
+            strings[stringId] = string.getBytes(StandardCharsets.UTF_8);
+            stringBytes += strings[stringId].length;
+            stringEnd[stringId++] = stringBytes;
+        }
+        int paddedStringBytes = (stringBytes + 3) & ~3;
+
+        long size = (long) Integer.BYTES * (HEADER_INTS + stringEnd.length + 1 + 4L * vehicles.size() + 2L * weathers.size()
+                + suitableVehicleStart.length + suitableVehicleNames.size() + 7L * orbits.size()
+                + periodStart.length + 2L * periods.size()) + paddedStringBytes + CHECKSUM_BYTES;
+        if (size > Integer.MAX_VALUE)
+            throw new IOException("Network is too large for a snapshot file: " + size + " bytes");
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(dictionary.size())
+                .putInt(orbits.size()).putInt(vehicles.size()).putInt(weathers.size());
+        putInts(buffer, stringEnd);
+        buffer.putInt(paddedStringBytes);
+        for (byte[] string : strings)
+            buffer.put(string);
+        buffer.position(buffer.position() + paddedStringBytes - stringBytes);
+        for (int[] column : vehicleColumns)
+            putInts(buffer, column);
+        for (int[] column : weatherColumns)
+            putInts(buffer, column);
+        putInts(buffer, suitableVehicleStart);
+        putInts(buffer, suitableVehicleNames.stream().mapToInt(Integer::intValue).toArray());
+        for (int[] column : orbitColumns)
+            putInts(buffer, column);
+        putInts(buffer, periodStart);
+        putInts(buffer, periods.stream().mapToInt(SpeedLimitPeriod::getStartMinute).toArray());
+        putInts(buffer, periods.stream().mapToInt(SpeedLimitPeriod::getSpeedLimit).toArray());
+
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(checksum.getValue());
+        buffer.flip();
+
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            channel.force(false);
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * This method is responsible for reading the network of a snapshot file.
+     *
+     * @param file - Snapshot file, written by {@link #write(NetworkSnapshot, Path)}
+     * @return - Network data, to be published as a new snapshot
+     * @throws IOException, if the file can't be read, is not a snapshot file of a supported version, or is corrupt
+     */
+    public static Network read(Path file) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < (long) HEADER_INTS * Integer.BYTES + CHECKSUM_BYTES || size > Integer.MAX_VALUE)
+                throw new IOException("Not a network snapshot file: " + file);
+            // The mapping stays valid after the channel is closed
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.getInt() != MAGIC)
+            throw new IOException("Not a network snapshot file: " + file);
+        int formatVersion = buffer.getInt();
+        if (formatVersion < MIN_FORMAT_VERSION || formatVersion > FORMAT_VERSION)
+            throw new IOException("Unsupported network snapshot format version " + formatVersion + ": " + file);
+
+        int checksumPosition = buffer.limit() - CHECKSUM_BYTES;
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.duplicate().position(0).limit(checksumPosition));
+        if (checksum.getValue() != buffer.getLong(checksumPosition))
+            throw new IOException("Corrupt network snapshot file, checksum mismatch: " + file);
+        buffer.limit(checksumPosition);
+
+        try {
+            int stringCount = buffer.getInt();
+            int orbitCount = buffer.getInt();
+            int vehicleCount = buffer.getInt();
+            int weatherCount = buffer.getInt();
+
+            String[] strings = readStrings(buffer, stringCount);
+
+            int[] vehicleName = getInts(buffer, vehicleCount);
+            int[] vehicleSpeed = getInts(buffer, vehicleCount);
+            int[] vehicleUnit = getInts(buffer, vehicleCount);
+            int[] vehicleTimeToCrossCrater = getInts(buffer, vehicleCount);
+            List<Vehicle> vehicles = new ArrayList<>(vehicleCount);
+            for (int vehicleId = 0; vehicleId < vehicleCount; vehicleId++)
+                vehicles.add(new Vehicle(string(strings, vehicleName[vehicleId]),
+                        new Velocity(vehicleSpeed[vehicleId], string(strings, vehicleUnit[vehicleId])), vehicleTimeToCrossCrater[vehicleId]));
+
+            int[] weatherType = getInts(buffer, weatherCount);
+            int[] weatherCraterChange = getInts(buffer, weatherCount);
+            int[] suitableVehicleStart = getInts(buffer, weatherCount + 1);
+            int[] suitableVehicleNames = getInts(buffer, suitableVehicleStart[weatherCount]);
+            List<Weather> weathers = new ArrayList<>(weatherCount);
+            for (int weatherId = 0; weatherId < weatherCount; weatherId++) {
+                List<String> vehicleNames = new ArrayList<>();
+                for (int position = suitableVehicleStart[weatherId]; position < suitableVehicleStart[weatherId + 1]; position++)
+                    vehicleNames.add(string(strings, suitableVehicleNames[position]));
+                weathers.add(new Weather(WeatherCondition.fromType(string(strings, weatherType[weatherId])),
+                        weatherCraterChange[weatherId], vehicleNames));
+            }
+
+            int[] orbitName = getInts(buffer, orbitCount);
+            int[] orbitSource = getInts(buffer, orbitCount);
+            int[] orbitDestination = getInts(buffer, orbitCount);
+            int[] orbitDistance = getInts(buffer, orbitCount);
+            int[] orbitCraters = getInts(buffer, orbitCount);
+            int[] orbitSpeed = getInts(buffer, orbitCount);
+            int[] orbitUnit = getInts(buffer, orbitCount);
+            // Version 1 has no schedules, i.e. every orbit has an empty range of periods
+            int[] periodStart = formatVersion < 2 ? new int[orbitCount + 1] : getInts(buffer, orbitCount + 1);
+            int[] periodStartMinute = getInts(buffer, periodStart[orbitCount]);
+            int[] periodSpeedLimit = getInts(buffer, periodStart[orbitCount]);
+
+            List<Orbit> orbits = new ArrayList<>(orbitCount);
+            for (int orbitId = 0; orbitId < orbitCount; orbitId++) {
+                if (periodStart[orbitId] > periodStart[orbitId + 1])
+                    throw new IOException("Corrupt network snapshot file, invalid period offset " + periodStart[orbitId + 1]);
+                List<SpeedLimitPeriod> schedule = null;
+                if (periodStart[orbitId] < periodStart[orbitId + 1]) {
+                    schedule = new ArrayList<>(periodStart[orbitId + 1] - periodStart[orbitId]);
+                    for (int period = periodStart[orbitId]; period < periodStart[orbitId + 1]; period++) {
+                        if (periodStartMinute[period] < 0 || periodStartMinute[period] >= SpeedLimitPeriod.MINUTES_PER_DAY)
+                            throw new IOException("Corrupt network snapshot file, invalid period start " + periodStartMinute[period]);
+                        schedule.add(new SpeedLimitPeriod(periodStartMinute[period], periodSpeedLimit[period]));
+                    }
+                }
+
+                orbits.add(new Orbit(string(strings, orbitName[orbitId]), string(strings, orbitSource[orbitId]),
+                        string(strings, orbitDestination[orbitId]), orbitDistance[orbitId], orbitCraters[orbitId],
+                        new Velocity(orbitSpeed[orbitId], string(strings, orbitUnit[orbitId])), schedule));
+            }
+
+            if (buffer.hasRemaining())
+                throw new IOException("Corrupt network snapshot file, unexpected data after the orbits: " + file);
+            return new Network(orbits, vehicles, weathers);
+        } catch (RuntimeException e) {
+            // Counts or offsets out of range
+            throw new IOException("Corrupt network snapshot file: " + file, e);
+        }
+    }
+
+    // Get dictionary index of the string, a new index is assigned on first occurrence
+    private static int stringId(String string, Map<String, Integer> dictionary) {
+        return null == string ? NULL : dictionary.computeIfAbsent(string, added -> dictionary.size());
+    }
+
+    private static String string(String[] strings, int stringId) throws IOException {
+        if (stringId == NULL)
+            return null;
+        if (stringId < 0 || stringId >= strings.length)
+            throw new IOException("Corrupt network snapshot file, unknown string " + stringId);
+        return strings[stringId];
+    }
+
+    private static String[] readStrings(ByteBuffer buffer, int stringCount) throws IOException {
+        int[] stringEnd = getInts(buffer, stringCount);
+        int paddedStringBytes = buffer.getInt();
+        byte[] bytes = new byte[paddedStringBytes];
+        buffer.get(bytes);
+
+        String[] strings = new String[stringCount];
+        int stringStart = 0;
+        for (int stringId = 0; stringId < stringCount; stringId++) {
+            if (stringEnd[stringId] < stringStart || stringEnd[stringId] > paddedStringBytes)
+                throw new IOException("Corrupt network snapshot file, invalid string offset " + stringEnd[stringId]);
+            strings[stringId] = new String(bytes, stringStart, stringEnd[stringId] - stringStart, StandardCharsets.UTF_8);
+            stringStart = stringEnd[stringId];
+        }
+        return strings;
+    }
+
+    private static void putInts(ByteBuffer buffer, int[] values) {
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+    }
+
+    // Bulk copy of a column, through an int view of the mapped file
+    private static int[] getInts(ByteBuffer buffer, int count) throws IOException {
+        if (count < 0 || count > buffer.remaining() / Integer.BYTES)
+            throw new IOException("Corrupt network snapshot file, column of " + count + " values exceeds the file");
+        int[] values = new int[count];
+        IntBuffer column = buffer.asIntBuffer();
+        column.get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+}
@@ -0,0 +1,173 @@
+package za.co.titandynamix.network;
+
+import za.co.titandynamix.model.Orbit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DESCRIPTION - Compact graph of the orbit network, used by the route search.
+ * <p>
+ * Suburbs and orbits are numbered (orbit id is the position of the orbit in the snapshot).
+ * Outgoing and incoming orbits of every suburb are kept in flat int arrays (compressed adjacency),
+ * so the search walks the network without any map lookups or object access.
+ *
+ * @author clivememela
+ */
+public final class OrbitGraph {
+
+    // Normalized suburb name -> suburb id
+    private final Map<String, Integer> suburbIds = new HashMap<>();
+    private final String[] suburbNames;
+
+    // Orbit name -> orbit id
+    private final Map<String, Integer> orbitIds = new HashMap<>();
+
+    private final int[] orbitSource;
+    private final int[] orbitDestination;
+    private final int[] orbitDistance;
+    private final int[] orbitCraters;
+
+    // Orbits leaving suburb s are outgoingOrbits[outgoingStart[s] .. outgoingStart[s + 1] - 1]
+    private final int[] outgoingStart;
+    private final int[] outgoingOrbits;
+
+    // Orbits arriving at suburb s are incomingOrbits[incomingStart[s] .. incomingStart[s + 1] - 1]
+    private final int[] incomingStart;
+    private final int[] incomingOrbits;
+
+    /**
+     * Build the graph for the given orbits.
+     *
+     * @param orbits - All routes/orbits of the network
+     * @throws IllegalArgumentException, if two orbits have the same name
+     */
+    public OrbitGraph(List<Orbit> orbits) {
+        int orbitCount = orbits.size();
+        orbitSource = new int[orbitCount];
+        orbitDestination = new int[orbitCount];
+        orbitDistance = new int[orbitCount];
+        orbitCraters = new int[orbitCount];
+
+        List<String> names = new ArrayList<>();
+        for (int orbitId = 0; orbitId < orbitCount; orbitId++) {
+            Orbit orbit = orbits.get(orbitId);
+            // Orbits are looked up by name (speed limits, query keys, snapshot files), so a name must be unique
+            if (null != orbitIds.putIfAbsent(orbit.getName(), orbitId))
+                throw new IllegalArgumentException("Duplicate orbit name : " + orbit.getName());
+            orbitSource[orbitId] = suburbId(orbit.getSource(), names);
+            orbitDestination[orbitId] = suburbId(orbit.getDestination(), names);
+            orbitDistance[orbitId] = orbit.getDistance();
+            orbitCraters[orbitId] = orbit.getNumberOfCraters();
+        }
+        int suburbCount = names.size();
+        suburbNames = names.toArray(new String[0]);
+
+        outgoingStart = new int[suburbCount + 1];
+        outgoingOrbits = new int[orbitCount];
+        fillAdjacency(orbitSource, outgoingStart, outgoingOrbits);
+
+        incomingStart = new int[suburbCount + 1];
+        incomingOrbits = new int[orbitCount];
+        fillAdjacency(orbitDestination, incomingStart, incomingOrbits);
+    }
+
+    // Get id of the suburb, a new id is assigned on first occurrence
+    private int suburbId(String suburb, List<String> names) {
+        return suburbIds.computeIfAbsent(OrbitIndex.normalize(suburb), normalized -> {
+            names.add(suburb);
+            return names.size() - 1;
+        });
+    }
+
+    // Counting sort of orbit ids by the given end (source or destination) suburb
+    private static void fillAdjacency(int[] orbitEnd, int[] start, int[] adjacentOrbits) {
+        for (int suburb : orbitEnd)
+            start[suburb + 1]++;
+        for (int suburb = 0; suburb + 1 < start.length; suburb++)
+            start[suburb + 1] += start[suburb];
+
+        int[] next = Arrays.copyOf(start, start.length - 1);
+        for (int orbitId = 0; orbitId < orbitEnd.length; orbitId++)
+            adjacentOrbits[next[orbitEnd[orbitId]]++] = orbitId;
+    }
+
+    /**
+     * Find id of a suburb.
+     *
+     * @param suburb - Suburb name (case-insensitive)
+     * @return - Suburb id, or -1 if the suburb is not part of the network
+     */
+    public int getSuburbId(String suburb) {
+        if (null == suburb)
+            return -1;
+        return suburbIds.getOrDefault(OrbitIndex.normalize(suburb), -1);
+    }
+
+    /**
+     * Find id of an orbit.
+     *
+     * @param orbitName - Name of the orbit
+     * @return - Orbit id, or -1 if the orbit is not part of the network
+     */
+    public int getOrbitId(String orbitName) {
+        if (null == orbitName)
+            return -1;
+        return orbitIds.getOrDefault(orbitName, -1);
+    }
+
+    public String getSuburbName(int suburbId) {
+        return suburbNames[suburbId];
+    }
+
+    public int getSuburbCount() {
+        return suburbNames.length;
+    }
+
+    public int getOrbitCount() {
+        return orbitSource.length;
+    }
+
+    public int getSource(int orbitId) {
+        return orbitSource[orbitId];
+    }
+
+    public int getDestination(int orbitId) {
+        return orbitDestination[orbitId];
+    }
+
+    public int getDistance(int orbitId) {
+        return orbitDistance[orbitId];
+    }
+
+    public int getCraters(int orbitId) {
+        return orbitCraters[orbitId];
+    }
+
+    public int getOutgoingStart(int suburbId) {
+        return outgoingStart[suburbId];
+    }
+
+    public int getOutgoingEnd(int suburbId) {
+        return outgoingStart[suburbId + 1];
+    }
+
+    public int getOutgoingOrbit(int position) {
+        return outgoingOrbits[position];
+    }
+
+    public int getIncomingStart(int suburbId) {
+        return incomingStart[suburbId];
+    }
+
+    public int getIncomingEnd(int suburbId) {
+        return incomingStart[suburbId + 1];
+    }
+
+    public int getIncomingOrbit(int position) {
+        return incomingOrbits[position];
+    }
+}
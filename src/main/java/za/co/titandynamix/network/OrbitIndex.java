@@ -0,0 +1,74 @@
+package za.co.titandynamix.network;
+
+import za.co.titandynamix.model.Orbit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * DESCRIPTION - Adjacency index of the orbit network: source suburb -> destination suburb -> orbit-sequences.
+ * <p>
+ * Suburb names are normalized (case-insensitive), so a lookup replaces the linear scan with two hash lookups.
+ * The index is built once per NetworkSnapshot, therefore it always matches the network it was built from.
+ * <p>
+ * Note: Here source and destination, can't be interchanged. As road could be two ways.
+ *
+ * @author clivememela
+ */
+public final class OrbitIndex {
+
+    private final Map<String, Map<String, List<List<Orbit>>>> orbitsBySource;
+
+    /**
+     * Build the index for the given orbits. Orbit order is kept within each source-destination pair.
+     *
+     * @param orbits - All routes/orbits of the network
+     */
+    public OrbitIndex(List<Orbit> orbits) {
+        Map<String, Map<String, List<List<Orbit>>>> index = new HashMap<>();
+        for (Orbit orbit : orbits) {
+            index.computeIfAbsent(normalize(orbit.getSource()), source -> new HashMap<>())
+                    .computeIfAbsent(normalize(orbit.getDestination()), destination -> new ArrayList<>())
+                    // Each orbit-sequence contains only one orbit, i.e. orbit between any source and destination.
+                    .add(List.of(orbit));
+        }
+
+        // Freeze the index, so it can be shared by all queries of the snapshot
+        index.replaceAll((source, destinations) -> {
+            destinations.replaceAll((destination, orbitSequences) -> List.copyOf(orbitSequences));
+            return Map.copyOf(destinations);
+        });
+        this.orbitsBySource = Map.copyOf(index);
+    }
+
+    /**
+     * Normalize a suburb name, used as the key of the index.
+     *
+     * @param suburb - Suburb name
+     * @return - Normalized suburb name
+     */
+    public static String normalize(String suburb) {
+        return suburb.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Find all orbit-sequences from source to destination.
+     *
+     * @param source - Source suburb
+     * @param destination - Destination suburb
+     * @return - Unmodifiable list of orbit-sequences, empty if there is no orbit between them.
+     */
+    public List<List<Orbit>> find(String source, String destination) {
+        if (null == source || null == destination)
+            return List.of();
+
+        Map<String, List<List<Orbit>>> destinations = orbitsBySource.get(normalize(source));
+        if (null == destinations)
+            return List.of();
+
+        return destinations.getOrDefault(normalize(destination), List.of());
+    }
+}
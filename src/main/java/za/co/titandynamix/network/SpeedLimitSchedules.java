@@ -0,0 +1,128 @@
+package za.co.titandynamix.network;
+
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.SpeedLimitPeriod;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * DESCRIPTION - Speed-limit schedules of all orbits of a NetworkSnapshot, as primitive columns indexed by orbit id.
+ * <p>
+ * Periods of orbit i are the positions getPeriodStart(i) to getPeriodEnd(i) - 1, ordered by start minute.
+ * An orbit without a schedule has no periods, its own velocity limit applies all day (see getStaticSpeedLimit).
+ * Schedules repeat every day: minute m of the journey is minute m mod MINUTES_PER_DAY of the day, so journeys
+ * crossing midnight use the schedule of the next day.
+ *
+ * @author clivememela
+ */
+public final class SpeedLimitSchedules {
+
+    private static final int MINUTES_PER_DAY = SpeedLimitPeriod.MINUTES_PER_DAY;
+
+    // Periods of orbit i: periodStart[i] to periodStart[i + 1] - 1
+    private final int[] periodStart;
+    private final int[] startMinutes;
+    private final int[] speedLimits;
+
+    // Velocity limit of each orbit, used if it has no schedule
+    private final int[] staticSpeedLimits;
+
+    /**
+     * Build the schedules of a network.
+     *
+     * @param orbits - All routes/orbits of the network, position in the list is the orbit id
+     * @throws IllegalArgumentException, if a period starts outside the day, or two periods of an orbit start at the same minute
+     */
+    public SpeedLimitSchedules(List<Orbit> orbits) {
+        periodStart = new int[orbits.size() + 1];
+        staticSpeedLimits = new int[orbits.size()];
+        for (int orbitId = 0; orbitId < orbits.size(); orbitId++) {
+            Orbit orbit = orbits.get(orbitId);
+            staticSpeedLimits[orbitId] = null == orbit.getVelocityLimit() ? -1 : orbit.getVelocityLimit().getSpeed();
+            periodStart[orbitId + 1] = periodStart[orbitId]
+                    + (null == orbit.getSpeedLimitSchedule() ? 0 : orbit.getSpeedLimitSchedule().size());
+        }
+
+        startMinutes = new int[periodStart[orbits.size()]];
+        speedLimits = new int[startMinutes.length];
+        for (int orbitId = 0; orbitId < orbits.size(); orbitId++) {
+            if (periodStart[orbitId] == periodStart[orbitId + 1])
+                continue;
+
+            List<SpeedLimitPeriod> schedule = orbits.get(orbitId).getSpeedLimitSchedule().stream()
+                    .sorted(Comparator.comparingInt(SpeedLimitPeriod::getStartMinute)).toList();
+            int position = periodStart[orbitId];
+            for (SpeedLimitPeriod period : schedule) {
+                if (period.getStartMinute() < 0 || period.getStartMinute() >= MINUTES_PER_DAY)
+                    throw new IllegalArgumentException("Speed limit period of orbit " + orbits.get(orbitId).getName()
+                            + " must start from minute 0 to " + (MINUTES_PER_DAY - 1) + ", found " + period.getStartMinute());
+                if (position > periodStart[orbitId] && startMinutes[position - 1] == period.getStartMinute())
+                    throw new IllegalArgumentException("Speed limit periods of orbit " + orbits.get(orbitId).getName()
+                            + " start at the same minute " + period.getStartMinute());
+
+                startMinutes[position] = period.getStartMinute();
+                speedLimits[position++] = period.getSpeedLimit();
+            }
+        }
+    }
+
+    public boolean hasSchedule(int orbitId) {
+        return periodStart[orbitId] < periodStart[orbitId + 1];
+    }
+
+    /**
+     * Find the period in effect at a minute of the journey.
+     *
+     * @param orbitId - Orbit id, which has a schedule
+     * @param minute - Minute since the start of the departure day (may be beyond one day)
+     * @return - Position of the period. Before the first period of a day, it is the last period (of the day before).
+     */
+    public int findPeriod(int orbitId, long minute) {
+        int minuteOfDay = (int) Math.floorMod(minute, (long) MINUTES_PER_DAY);
+        int position = Arrays.binarySearch(startMinutes, periodStart[orbitId], periodStart[orbitId + 1], minuteOfDay);
+        if (position >= 0)
+            return position;
+
+        // Insertion point - 1 is the last period starting before this minute
+        int previous = -position - 2;
+        return previous < periodStart[orbitId] ? periodStart[orbitId + 1] - 1 : previous;
+    }
+
+    /**
+     * Speed limit of an orbit at a minute of the journey.
+     *
+     * @param orbitId - Orbit id
+     * @param minute - Minute since the start of the departure day
+     * @return - Speed limit, 0 or -ve means no limit
+     */
+    public int getSpeedLimit(int orbitId, long minute) {
+        return hasSchedule(orbitId) ? speedLimits[findPeriod(orbitId, minute)] : staticSpeedLimits[orbitId];
+    }
+
+    public int getPeriodStart(int orbitId) {
+        return periodStart[orbitId];
+    }
+
+    public int getPeriodEnd(int orbitId) {
+        return periodStart[orbitId + 1];
+    }
+
+    public int getStartMinute(int position) {
+        return startMinutes[position];
+    }
+
+    public int getPeriodSpeedLimit(int position) {
+        return speedLimits[position];
+    }
+
+    public int getStaticSpeedLimit(int orbitId) {
+        return staticSpeedLimits[orbitId];
+    }
+
+    // Shared with the speed limits of the requests, which never modify it
+    int[] getStaticSpeedLimits() {
+        return staticSpeedLimits;
+    }
+}
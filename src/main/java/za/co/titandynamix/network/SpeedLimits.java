@@ -0,0 +1,151 @@
+package za.co.titandynamix.network;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * DESCRIPTION - Immutable speed limits of one request, indexed by orbit id of a NetworkSnapshot.
+ * <p>
+ * User's speed limits are applied through this overlay instead of being written into the shared Orbit objects,
+ * so concurrent queries with different speed limits never see each other's values.
+ * Only the user's speed limits are held by the overlay (orbit ids in ascending order), the speed limits of the orbits
+ * themselves are built once per snapshot. So a request costs its own speed limits, not the size of the network.
+ * <p>
+ * Note: Orbits without a speed limit from the user keep the speed limit of the orbit itself. 0 or -ve means no limit.
+ *
+ * @author clivememela
+ */
+public final class SpeedLimits {
+
+    private static final int[] NONE = new int[0];
+
+    private final NetworkSnapshot snapshot;
+
+    // Speed limits of the orbits themselves, shared by all requests of the snapshot
+    private final int[] defaultSpeedLimits;
+
+    // User's speed limits which differ from the orbit's own: orbit ids in ascending order, and their speed limits
+    private final int[] orbitIds;
+    private final int[] speedLimits;
+
+    private SpeedLimits(NetworkSnapshot snapshot, int[] orbitIds, int[] speedLimits) {
+        this.snapshot = snapshot;
+        this.defaultSpeedLimits = snapshot.getSpeedLimitSchedules().getStaticSpeedLimits();
+        this.orbitIds = orbitIds;
+        this.speedLimits = speedLimits;
+    }
+
+    /**
+     * Build the speed limits of a request.
+     *
+     * @param snapshot - Network snapshot used by the query
+     * @param orbitSpeedLimitMap - User's input (speed limit) corresponding to orbit name
+     * @return - Speed limits indexed by orbit id
+     */
+    public static SpeedLimits of(NetworkSnapshot snapshot, Map<String, Integer> orbitSpeedLimitMap) {
+        return new SpeedLimits(snapshot, NONE, NONE).with(orbitSpeedLimitMap);
+    }
+
+    /**
+     * Apply more speed limits on top of these ones, e.g. live updates of a subscription.
+     *
+     * @param orbitSpeedLimitMap - User's input (speed limit) corresponding to orbit name, replaces the current speed limit
+     * @return - New speed limits, these ones are unchanged
+     */
+    public SpeedLimits with(Map<String, Integer> orbitSpeedLimitMap) {
+        if (null == orbitSpeedLimitMap || orbitSpeedLimitMap.isEmpty())
+            return this;
+
+        OrbitGraph graph = snapshot.getOrbitGraph();
+        int[] updatedOrbitIds = new int[orbitSpeedLimitMap.size()];
+        int[] updatedSpeedLimits = new int[orbitSpeedLimitMap.size()];
+        int updateCount = 0;
+        for (Map.Entry<String, Integer> entry : orbitSpeedLimitMap.entrySet()) {
+            int orbitId = graph.getOrbitId(entry.getKey());
+            if (orbitId >= 0 && null != entry.getValue()) {
+                updatedOrbitIds[updateCount] = orbitId;
+                updatedSpeedLimits[updateCount++] = entry.getValue();
+            }
+        }
+        if (updateCount == 0)
+            return this;
+
+        // Sort the updates by orbit id, then merge them with the current speed limits (an update replaces the current one)
+        long[] updates = new long[updateCount];
+        for (int update = 0; update < updateCount; update++)
+            updates[update] = ((long) updatedOrbitIds[update] << 32) | update;
+        Arrays.sort(updates);
+
+        int[] mergedOrbitIds = new int[orbitIds.length + updateCount];
+        int[] mergedSpeedLimits = new int[mergedOrbitIds.length];
+        int merged = 0;
+        int current = 0;
+        for (long packedUpdate : updates) {
+            int update = (int) packedUpdate;
+            int orbitId = updatedOrbitIds[update];
+            while (current < orbitIds.length && orbitIds[current] < orbitId) {
+                mergedOrbitIds[merged] = orbitIds[current];
+                mergedSpeedLimits[merged++] = speedLimits[current++];
+            }
+            if (current < orbitIds.length && orbitIds[current] == orbitId)
+                current++;
+
+            // A speed limit equal to the orbit's own is not kept, so equal speed limits have equal overlays
+            if (updatedSpeedLimits[update] != defaultSpeedLimits[orbitId]) {
+                mergedOrbitIds[merged] = orbitId;
+                mergedSpeedLimits[merged++] = updatedSpeedLimits[update];
+            }
+        }
+        while (current < orbitIds.length) {
+            mergedOrbitIds[merged] = orbitIds[current];
+            mergedSpeedLimits[merged++] = speedLimits[current++];
+        }
+        return new SpeedLimits(snapshot, Arrays.copyOf(mergedOrbitIds, merged), Arrays.copyOf(mergedSpeedLimits, merged));
+    }
+
+    /**
+     * Speed limit of an orbit.
+     *
+     * @param orbitId - Orbit id in the snapshot
+     * @return - Speed limit, 0 or -ve means no limit
+     */
+    public int getSpeedLimit(int orbitId) {
+        if (orbitIds.length == 0)
+            return defaultSpeedLimits[orbitId];
+
+        int position = Arrays.binarySearch(orbitIds, orbitId);
+        return position < 0 ? defaultSpeedLimits[orbitId] : speedLimits[position];
+    }
+
+    /**
+     * Network snapshot whose orbit ids index these speed limits.
+     *
+     * @return - Network snapshot
+     */
+    public NetworkSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof SpeedLimits that))
+            return false;
+        return snapshot == that.snapshot && Arrays.equals(orbitIds, that.orbitIds)
+                && Arrays.equals(speedLimits, that.speedLimits);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(orbitIds) + Arrays.hashCode(speedLimits);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder output = new StringBuilder("SpeedLimits" + ": {");
+        for (int position = 0; position < orbitIds.length; position++)
+            output.append(position == 0 ? "" : ", ").append(orbitIds[position]).append('=').append(speedLimits[position]);
+        return output.append("}").toString();
+    }
+}
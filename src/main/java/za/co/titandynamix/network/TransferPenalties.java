@@ -0,0 +1,71 @@
+package za.co.titandynamix.network;
+
+import za.co.titandynamix.model.Vehicle;
+
+import java.util.Map;
+
+/**
+ * DESCRIPTION - Immutable transfer penalties of one multi-modal request.
+ * <p>
+ * The penalty of a transfer is the time, in minutes, to switch to another vehicle at a suburb (e.g. to park one vehicle
+ * and board the next). It belongs to the vehicle switched to: vehicles without a penalty in the map use the default.
+ * The first vehicle of a journey is boarded at the source without a penalty.
+ *
+ * @author clivememela
+ */
+public final class TransferPenalties {
+
+    public static final int DEFAULT_PENALTY = 5;
+
+    private final int defaultPenalty;
+    private final Map<String, Integer> vehiclePenaltyMap;
+
+    private TransferPenalties(int defaultPenalty, Map<String, Integer> vehiclePenaltyMap) {
+        this.defaultPenalty = defaultPenalty;
+        this.vehiclePenaltyMap = vehiclePenaltyMap;
+    }
+
+    /**
+     * Build the transfer penalties of a request.
+     *
+     * @param defaultPenalty - Penalty of switching to a vehicle without its own penalty, in minutes
+     * @param vehiclePenaltyMap - Penalty corresponding to vehicle name, may be null
+     * @return - Transfer penalties
+     * @throws IllegalArgumentException, if a penalty is -ve
+     */
+    public static TransferPenalties of(int defaultPenalty, Map<String, Integer> vehiclePenaltyMap) {
+        if (defaultPenalty < 0 || (null != vehiclePenaltyMap
+                && vehiclePenaltyMap.values().stream().anyMatch(penalty -> null == penalty || penalty < 0)))
+            throw new IllegalArgumentException("Transfer penalties must be 0 or +ve, found " + defaultPenalty
+                    + " and " + vehiclePenaltyMap);
+        return new TransferPenalties(defaultPenalty, null == vehiclePenaltyMap ? Map.of() : Map.copyOf(vehiclePenaltyMap));
+    }
+
+    /**
+     * Same penalty for every vehicle.
+     *
+     * @param penalty - Penalty of every transfer, in minutes
+     * @return - Transfer penalties
+     */
+    public static TransferPenalties uniform(int penalty) {
+        return of(penalty, null);
+    }
+
+    /**
+     * Penalty of switching to a vehicle.
+     *
+     * @param vehicle - Vehicle switched to
+     * @return - Penalty in minutes
+     */
+    public int getPenalty(Vehicle vehicle) {
+        return vehiclePenaltyMap.getOrDefault(vehicle.getName(), defaultPenalty);
+    }
+
+    @Override
+    public String toString() {
+        return "TransferPenalties" + ": {" +
+                "defaultPenalty=" + defaultPenalty +
+                ", vehiclePenaltyMap=" + vehiclePenaltyMap +
+                "}";
+    }
+}
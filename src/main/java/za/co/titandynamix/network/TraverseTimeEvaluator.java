@@ -0,0 +1,174 @@
+package za.co.titandynamix.network;
+
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.utils.TraverseTimeUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DESCRIPTION - Traverse time calculation over primitive columns of a NetworkSnapshot.
+ * <p>
+ * Orbit distance and craters and vehicle speed and crater crossing time are stored in int arrays indexed by id.
+ * An orbit-sequence is an int[] of orbit ids, so the traverse time is calculated in a single pass
+ * without creating any object per vehicle/orbit-sequence evaluation.
+ * <p>
+ * For the weathers of the network, crater penalties and distance terms come from the precomputed CostTable,
+ * so only the division by the applicable speed is left per orbit.
+ *
+ * @author clivememela
+ */
+public final class TraverseTimeEvaluator {
+
+    private final int[] orbitDistance;
+    private final int[] orbitCraters;
+
+    private final int[] vehicleMaxSpeed;
+    private final int[] vehicleTimeToCrossCrater;
+
+    private final OrbitGraph graph;
+    private final CostTable costTable;
+
+    // Vehicle name -> vehicle id (position of the vehicle in the snapshot)
+    private final Map<String, Integer> vehicleIds = new HashMap<>();
+
+    /**
+     * Build the columns for a network.
+     *
+     * @param graph - Compact graph of the orbits
+     * @param vehicles - All vehicles, position in the list is the vehicle id
+     * @param costTable - Precomputed cost terms of the network
+     */
+    public TraverseTimeEvaluator(OrbitGraph graph, List<Vehicle> vehicles, CostTable costTable) {
+        this.graph = graph;
+        this.costTable = costTable;
+        orbitDistance = new int[graph.getOrbitCount()];
+        orbitCraters = new int[graph.getOrbitCount()];
+        for (int orbitId = 0; orbitId < orbitDistance.length; orbitId++) {
+            orbitDistance[orbitId] = graph.getDistance(orbitId);
+            orbitCraters[orbitId] = graph.getCraters(orbitId);
+        }
+
+        vehicleMaxSpeed = new int[vehicles.size()];
+        vehicleTimeToCrossCrater = new int[vehicles.size()];
+        for (int vehicleId = 0; vehicleId < vehicleMaxSpeed.length; vehicleId++) {
+            Vehicle vehicle = vehicles.get(vehicleId);
+            vehicleIds.putIfAbsent(vehicle.getName(), vehicleId);
+            vehicleMaxSpeed[vehicleId] = vehicle.getVelocity().getSpeed();
+            vehicleTimeToCrossCrater[vehicleId] = vehicle.getTimeToCrossCrater();
+        }
+    }
+
+    /**
+     * Calculate traverse time of an orbit-sequence with a vehicle.
+     * Traverse time of each orbit = distance/applicable speed + crater cross time * number of actual craters.
+     *
+     * @param orbitIds - Orbit-sequence as orbit ids
+     * @param vehicleId - Vehicle id
+     * @param craterChangePercentage - Weather's change rate of craters
+     * @param speedLimits - Speed limits of the request
+     * @return - Traverse time in minutes
+     */
+    public int traverseTime(int[] orbitIds, int vehicleId, int craterChangePercentage, SpeedLimits speedLimits) {
+        int maxSpeed = vehicleMaxSpeed[vehicleId];
+        int timeToCrossCrater = vehicleTimeToCrossCrater[vehicleId];
+
+        int traverseTime = 0;
+        for (int orbitId : orbitIds) {
+            traverseTime += TraverseTimeUtils.orbitTraverseTime(orbitDistance[orbitId], orbitCraters[orbitId],
+                    speedLimits.getSpeedLimit(orbitId), maxSpeed, timeToCrossCrater, craterChangePercentage);
+        }
+        return traverseTime;
+    }
+
+    /**
+     * Calculate traverse time of an orbit-sequence with a vehicle, stopping as soon as it reaches the given bound.
+     * Used while searching for the optimum, where a candidate can't win once it reaches the current best time.
+     *
+     * @param orbitIds - Orbit-sequence as orbit ids
+     * @param vehicleId - Vehicle id
+     * @param craterChangePercentage - Weather's change rate of craters
+     * @param speedLimits - Speed limits of the request
+     * @param bound - Calculation stops once traverse time reaches this value
+     * @return - Traverse time in minutes if it is less than the bound, else a value greater than or equal to the bound
+     */
+    public int traverseTime(int[] orbitIds, int vehicleId, int craterChangePercentage, SpeedLimits speedLimits, int bound) {
+        int maxSpeed = vehicleMaxSpeed[vehicleId];
+        int timeToCrossCrater = vehicleTimeToCrossCrater[vehicleId];
+
+        int traverseTime = 0;
+        for (int orbitId : orbitIds) {
+            traverseTime += TraverseTimeUtils.orbitTraverseTime(orbitDistance[orbitId], orbitCraters[orbitId],
+                    speedLimits.getSpeedLimit(orbitId), maxSpeed, timeToCrossCrater, craterChangePercentage);
+            if (traverseTime >= bound)
+                return traverseTime;
+        }
+        return traverseTime;
+    }
+
+    /**
+     * Calculate traverse time of an orbit-sequence with a vehicle in a weather.
+     *
+     * @param orbitIds - Orbit-sequence as orbit ids
+     * @param vehicleId - Vehicle id
+     * @param weather - Weather object
+     * @param speedLimits - Speed limits of the request
+     * @return - Traverse time in minutes
+     */
+    public int traverseTime(int[] orbitIds, int vehicleId, Weather weather, SpeedLimits speedLimits) {
+        return traverseTime(orbitIds, vehicleId, weather, speedLimits, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Calculate traverse time of an orbit-sequence with a vehicle in a weather, stopping as soon as it reaches the bound.
+     * Weathers of the network are answered from the CostTable, any other weather is calculated from its change rate.
+     *
+     * @param orbitIds - Orbit-sequence as orbit ids
+     * @param vehicleId - Vehicle id
+     * @param weather - Weather object
+     * @param speedLimits - Speed limits of the request
+     * @param bound - Calculation stops once traverse time reaches this value
+     * @return - Traverse time in minutes if it is less than the bound, else a value greater than or equal to the bound
+     */
+    public int traverseTime(int[] orbitIds, int vehicleId, Weather weather, SpeedLimits speedLimits, int bound) {
+        if (costTable.covers(weather))
+            return costTable.traverseTime(orbitIds, vehicleId, vehicleMaxSpeed[vehicleId], weather.getWeatherCondition(),
+                    speedLimits, bound);
+        return traverseTime(orbitIds, vehicleId, weather.getCraterChangePercentage(), speedLimits, bound);
+    }
+
+    /**
+     * Convert an orbit-sequence into orbit ids. Done once per query, not per evaluation.
+     *
+     * @param orbits - Orbit-sequence
+     * @return - Orbit ids
+     * @throws IllegalArgumentException, if an orbit is not part of this network
+     */
+    public int[] toOrbitIds(List<Orbit> orbits) {
+        int[] orbitIds = new int[orbits.size()];
+        for (int position = 0; position < orbitIds.length; position++) {
+            String orbitName = orbits.get(position).getName();
+            orbitIds[position] = graph.getOrbitId(orbitName);
+            if (orbitIds[position] < 0)
+                throw new IllegalArgumentException("Orbit is not part of the network: " + orbitName);
+        }
+        return orbitIds;
+    }
+
+    /**
+     * Find id of a vehicle.
+     *
+     * @param vehicle - Vehicle object
+     * @return - Vehicle id
+     * @throws IllegalArgumentException, if the vehicle is not part of this network
+     */
+    public int toVehicleId(Vehicle vehicle) {
+        Integer vehicleId = vehicleIds.get(vehicle.getName());
+        if (null == vehicleId)
+            throw new IllegalArgumentException("Vehicle is not part of the network: " + vehicle.getName());
+        return vehicleId;
+    }
+}
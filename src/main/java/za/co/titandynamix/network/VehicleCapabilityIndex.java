@@ -0,0 +1,114 @@
+package za.co.titandynamix.network;
+
+import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Weather;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DESCRIPTION - Weather and vehicle capability index of a NetworkSnapshot.
+ * <p>
+ * For every weather condition it keeps the weather and its suitable vehicles, built from a bitset of vehicle ids
+ * (bit = vehicle id), so finding usable vehicles needs no vehicle name comparison.
+ * Vehicle lists are prebuilt per weather condition, in vehicle order (i.e. tie-break order).
+ *
+ * @author clivememela
+ */
+public final class VehicleCapabilityIndex {
+
+    private final List<Vehicle> vehicles;
+    private final Map<String, Integer> vehicleIds = new HashMap<>();
+
+    private final EnumMap<WeatherCondition, Weather> weathers = new EnumMap<>(WeatherCondition.class);
+    private final EnumMap<WeatherCondition, List<Vehicle>> suitableVehicles = new EnumMap<>(WeatherCondition.class);
+
+    /**
+     * Build the index of a network.
+     *
+     * @param vehicles - All vehicles, position in the list is the vehicle id
+     * @param weathers - All possible weathers
+     */
+    public VehicleCapabilityIndex(List<Vehicle> vehicles, List<Weather> weathers) {
+        this.vehicles = vehicles;
+        for (int vehicleId = 0; vehicleId < vehicles.size(); vehicleId++)
+            vehicleIds.putIfAbsent(vehicles.get(vehicleId).getName(), vehicleId);
+
+        for (Weather weather : weathers) {
+            // First weather of a condition wins
+            if (this.weathers.containsKey(weather.getWeatherCondition()))
+                continue;
+
+            this.weathers.put(weather.getWeatherCondition(), weather);
+            suitableVehicles.put(weather.getWeatherCondition(), toVehicles(toMask(weather.getSuitableVehicleNames())));
+        }
+    }
+
+    /**
+     * Find weather of a weather condition.
+     *
+     * @param weatherCondition - Weather condition
+     * @return - Weather, null if the condition is not part of the network
+     */
+    public Weather getWeather(WeatherCondition weatherCondition) {
+        return null == weatherCondition ? null : weathers.get(weatherCondition);
+    }
+
+    /**
+     * Vehicles suitable for a weather condition, in vehicle order.
+     *
+     * @param weatherCondition - Weather condition
+     * @return - Unmodifiable list of vehicles, empty if the condition is not part of the network
+     */
+    public List<Vehicle> getSuitableVehicles(WeatherCondition weatherCondition) {
+        return suitableVehicles.getOrDefault(weatherCondition, List.of());
+    }
+
+    /**
+     * Check whether the given weather is the indexed weather of its condition, i.e. its suitable vehicles are indexed.
+     *
+     * @param weather - Weather object
+     * @return - true if the index can be used for the weather
+     */
+    public boolean covers(Weather weather) {
+        return null != weather && weathers.get(weather.getWeatherCondition()) == weather;
+    }
+
+    /**
+     * Bitset of the given vehicle names. Names which are not part of the network are ignored.
+     *
+     * @param vehicleNames - Vehicle names
+     * @return - Bitset of vehicle ids
+     */
+    public long[] toMask(List<String> vehicleNames) {
+        long[] mask = new long[(vehicles.size() + 63) >>> 6];
+        for (String vehicleName : vehicleNames) {
+            Integer vehicleId = vehicleIds.get(vehicleName);
+            if (null != vehicleId)
+                mask[vehicleId >>> 6] |= 1L << vehicleId;
+        }
+        return mask;
+    }
+
+    /**
+     * Vehicles of a bitset, in vehicle order.
+     *
+     * @param mask - Bitset of vehicle ids
+     * @return - Unmodifiable list of vehicles
+     */
+    public List<Vehicle> toVehicles(long[] mask) {
+        List<Vehicle> result = new ArrayList<>();
+        for (int word = 0; word < mask.length; word++) {
+            long bits = mask[word];
+            while (bits != 0) {
+                result.add(vehicles.get((word << 6) + Long.numberOfTrailingZeros(bits)));
+                bits &= bits - 1;
+            }
+        }
+        return List.copyOf(result);
+    }
+}
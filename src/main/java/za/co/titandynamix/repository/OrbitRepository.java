@@ -0,0 +1,23 @@
+package za.co.titandynamix.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import za.co.titandynamix.entity.OrbitEntity;
+
+import java.util.List;
+
+/**
+ * @author clivememela
+ */
+public interface OrbitRepository extends JpaRepository<OrbitEntity, String> {
+
+    /**
+     * All orbits in orbit id order, in a single query. Entities are read-only, no dirty checking on flush.
+     *
+     * @return - List of all orbits
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<OrbitEntity> findAllByOrderByPositionAsc();
+}
@@ -0,0 +1,26 @@
+package za.co.titandynamix.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import za.co.titandynamix.entity.WeatherEntity;
+import za.co.titandynamix.enums.WeatherCondition;
+
+import java.util.List;
+
+/**
+ * @author clivememela
+ */
+public interface WeatherRepository extends JpaRepository<WeatherEntity, WeatherCondition> {
+
+    /**
+     * All weathers with their suitable vehicle names fetched in the same query (no query per weather).
+     *
+     * @return - List of all weathers, in position order
+     */
+    @Query("select distinct w from WeatherEntity w left join fetch w.suitableVehicleNames order by w.position")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<WeatherEntity> findAllWithSuitableVehicles();
+}
@@ -0,0 +1,743 @@
+package za.co.titandynamix.route;
+
+import za.co.titandynamix.model.MultiModalTraverseDetail;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.SpeedLimitPeriod;
+import za.co.titandynamix.model.TraverseLeg;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.network.OrbitGraph;
+import za.co.titandynamix.network.OrbitIndex;
+import za.co.titandynamix.network.SpeedLimitSchedules;
+import za.co.titandynamix.network.SpeedLimits;
+import za.co.titandynamix.network.TransferPenalties;
+import za.co.titandynamix.utils.TraverseTimeUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * DESCRIPTION - Multi-hop route search over the orbit network (A* search).
+ * <p>
+ * It performs following operations:
+ * 	1.	Find the fastest orbit-sequence between two suburbs for a vehicle and weather.
+ * 		Cost of an orbit is its weather-adjusted traverse time with that vehicle.
+ * 	2.	Find candidate orbit-sequences between two suburbs, i.e. direct orbits and the fastest route
+ * 		of every suitable vehicle for every weather.
+ * 	3.	Find the fastest routes from one suburb to several suburbs in a single search (shortest path tree).
+ * 	4.	Find the k fastest loop-free orbit-sequences between two suburbs (Yen's k shortest paths).
+ * 	5.	Find the earliest-arrival route for a departure time, with each orbit's speed limit at the time it is entered
+ * 		(time-dependent A* search over the speed-limit schedules).
+ * 	6.	Find the fastest multi-modal route, switching vehicles at intermediate suburbs with a transfer penalty
+ * 		(A* search over (suburb, vehicle) states).
+ * <p>
+ * The A* heuristic is a lower bound of the remaining time to the destination, calculated backwards from the destination
+ * with the fastest vehicle and the cheapest crater crossing. Heuristics and candidate routes are cached per destination
+ * and per source-destination pair. One instance belongs to one NetworkSnapshot, so it is never out of date.
+ *
+ * @author clivememela
+ */
+public final class RouteSearch {
+
+    private static final int HEURISTIC_CACHE_SIZE = 64;
+    private static final int CANDIDATE_CACHE_SIZE = 1024;
+
+    private static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private final List<Orbit> orbits;
+    private final List<Vehicle> vehicles;
+    private final List<Weather> weathers;
+    private final OrbitIndex orbitIndex;
+    private final OrbitGraph graph;
+    private final SpeedLimitSchedules speedLimitSchedules;
+
+    // Fastest vehicle speed and cheapest crater crossing of all vehicles, used for the heuristic
+    private final int fastestSpeed;
+    private final int cheapestCraterCrossing;
+
+    // (destination, crater change percentage) -> lower bound of time from every suburb to the destination
+    private final Map<Long, long[]> heuristics = lruCache(HEURISTIC_CACHE_SIZE);
+
+    // source-destination -> candidate orbit-sequences
+    private final Map<String, List<List<Orbit>>> candidateRoutes = lruCache(CANDIDATE_CACHE_SIZE);
+
+    /**
+     * Create the route search for a network.
+     *
+     * @param orbits - All routes/orbits of the network, position in the list is the orbit id
+     * @param vehicles - All vehicles, in tie-break order
+     * @param weathers - All possible weathers
+     * @param orbitIndex - Direct orbits between suburbs
+     * @param graph - Compact graph of the orbits
+     * @param speedLimitSchedules - Speed-limit schedules of the orbits
+     */
+    public RouteSearch(List<Orbit> orbits, List<Vehicle> vehicles, List<Weather> weathers,
+                       OrbitIndex orbitIndex, OrbitGraph graph, SpeedLimitSchedules speedLimitSchedules) {
+        this.orbits = orbits;
+        this.vehicles = vehicles;
+        this.weathers = weathers;
+        this.orbitIndex = orbitIndex;
+        this.graph = graph;
+        this.speedLimitSchedules = speedLimitSchedules;
+        this.fastestSpeed = vehicles.stream().mapToInt(vehicle -> vehicle.getVelocity().getSpeed()).max().orElse(Integer.MAX_VALUE);
+        this.cheapestCraterCrossing = vehicles.stream().mapToInt(Vehicle::getTimeToCrossCrater).min().orElse(0);
+    }
+
+    /**
+     * Find the fastest orbit-sequence from source to destination for a vehicle in a weather.
+     *
+     * @param weather - Weather of the journey
+     * @param vehicle - Vehicle used for the whole journey
+     * @param source - Source suburb
+     * @param destination - Destination suburb
+     * @param speedLimits - Speed limits of the request, null for the orbits' own speed limits
+     * @return - Fastest orbit-sequence, empty if destination can't be reached (or is the source)
+     */
+    public List<Orbit> findFastestRoute(Weather weather, Vehicle vehicle, String source, String destination, SpeedLimits speedLimits) {
+        int sourceId = graph.getSuburbId(source);
+        int destinationId = graph.getSuburbId(destination);
+        if (sourceId < 0 || destinationId < 0)
+            return List.of();
+
+        int[] orbitIds = findFastestRoute(sourceId, destinationId, vehicle.getVelocity().getSpeed(),
+                vehicle.getTimeToCrossCrater(), weather.getCraterChangePercentage(), speedLimits);
+        return null == orbitIds ? List.of() : toOrbits(orbitIds);
+    }
+
+    /**
+     * Find the k fastest loop-free orbit-sequences from source to destination for a vehicle in a weather (Yen's algorithm).
+     * <p>
+     * Each next route is the fastest deviation (spur) from a route found so far: for every suburb of the last route,
+     * the orbits already used after the same prefix and the suburbs of the prefix are blocked, and the remaining
+     * network is searched from that suburb. So the work grows with k and the route length, not with the number of
+     * possible routes.
+     *
+     * @param weather - Weather of the journey
+     * @param vehicle - Vehicle used for the whole journey
+     * @param source - Source suburb
+     * @param destination - Destination suburb
+     * @param speedLimits - Speed limits of the request, null for the orbits' own speed limits
+     * @param k - Max number of routes
+     * @return - Up to k orbit-sequences, fastest first (same time: the one found first).
+     * 			Empty if destination can't be reached (or is the source).
+     */
+    public List<List<Orbit>> findFastestRoutes(Weather weather, Vehicle vehicle, String source, String destination,
+                                               SpeedLimits speedLimits, int k) {
+        int sourceId = graph.getSuburbId(source);
+        int destinationId = graph.getSuburbId(destination);
+        if (k < 1 || sourceId < 0 || destinationId < 0 || sourceId == destinationId)
+            return List.of();
+
+        int vehicleMaxSpeed = vehicle.getVelocity().getSpeed();
+        int timeToCrossCrater = vehicle.getTimeToCrossCrater();
+        int craterChangePercentage = weather.getCraterChangePercentage();
+
+        int[] fastestRoute = findFastestRoute(sourceId, destinationId, vehicleMaxSpeed, timeToCrossCrater,
+                craterChangePercentage, speedLimits);
+        if (null == fastestRoute)
+            return List.of();
+
+        List<int[]> routes = new ArrayList<>();
+        routes.add(fastestRoute);
+        Set<List<Integer>> foundRoutes = new HashSet<>();
+        foundRoutes.add(Arrays.stream(fastestRoute).boxed().toList());
+        PriorityQueue<RouteCandidate> candidates = new PriorityQueue<>(Comparator.comparingLong(RouteCandidate::time)
+                .thenComparingInt(RouteCandidate::sequence));
+
+        boolean[] blockedOrbits = new boolean[graph.getOrbitCount()];
+        boolean[] blockedSuburbs = new boolean[graph.getSuburbCount()];
+        while (routes.size() < k) {
+            int[] lastRoute = routes.get(routes.size() - 1);
+            for (int spur = 0; spur < lastRoute.length; spur++) {
+                // Block the next orbit of every route with the same prefix, and the suburbs of the prefix (no loops)
+                for (int[] route : routes) {
+                    if (route.length > spur && Arrays.equals(route, 0, spur, lastRoute, 0, spur))
+                        blockedOrbits[route[spur]] = true;
+                }
+                for (int position = 0; position < spur; position++)
+                    blockedSuburbs[graph.getSource(lastRoute[position])] = true;
+
+                int[] spurRoute = findFastestRoute(graph.getSource(lastRoute[spur]), destinationId, vehicleMaxSpeed,
+                        timeToCrossCrater, craterChangePercentage, speedLimits, blockedOrbits, blockedSuburbs);
+
+                for (int[] route : routes) {
+                    if (route.length > spur)
+                        blockedOrbits[route[spur]] = false;
+                }
+                for (int position = 0; position < spur; position++)
+                    blockedSuburbs[graph.getSource(lastRoute[position])] = false;
+
+                if (null == spurRoute)
+                    continue;
+                int[] route = Arrays.copyOf(lastRoute, spur + spurRoute.length);
+                System.arraycopy(spurRoute, 0, route, spur, spurRoute.length);
+                if (foundRoutes.add(Arrays.stream(route).boxed().toList()))
+                    candidates.add(new RouteCandidate(routeTime(route, vehicleMaxSpeed, timeToCrossCrater,
+                            craterChangePercentage, speedLimits), foundRoutes.size(), route));
+            }
+
+            RouteCandidate nextRoute = candidates.poll();
+            if (null == nextRoute)
+                break;
+            routes.add(nextRoute.orbitIds());
+        }
+        return routes.stream().map(this::toOrbits).toList();
+    }
+
+    // Route found by the k shortest paths search, sequence keeps the order in which routes were found
+    private record RouteCandidate(long time, int sequence, int[] orbitIds) {
+    }
+
+    private long routeTime(int[] orbitIds, int vehicleMaxSpeed, int timeToCrossCrater, int craterChangePercentage,
+                           SpeedLimits speedLimits) {
+        long time = 0;
+        for (int orbitId : orbitIds)
+            time += TraverseTimeUtils.orbitTraverseTime(graph.getDistance(orbitId), graph.getCraters(orbitId),
+                    speedLimit(speedLimits, orbitId), vehicleMaxSpeed, timeToCrossCrater,
+                    craterChangePercentage);
+        return time;
+    }
+
+    /**
+     * Find the fastest routes from a source to several destinations for a vehicle in a weather, in a single search.
+     * Dijkstra search, which stops as soon as every destination is reached.
+     *
+     * @param weather - Weather of the journey
+     * @param vehicle - Vehicle used for the whole journey
+     * @param source - Source suburb
+     * @param destinations - Destination suburbs, unknown suburbs are ignored
+     * @param speedLimits - Speed limits of the request, null for the orbits' own speed limits
+     * @return - Shortest path tree of the source, null if the source is not part of the network
+     */
+    public ShortestPathTree findShortestPathTree(Weather weather, Vehicle vehicle, String source,
+                                                 Collection<String> destinations, SpeedLimits speedLimits) {
+        int sourceId = graph.getSuburbId(source);
+        if (sourceId < 0)
+            return null;
+
+        boolean[] pending = new boolean[graph.getSuburbCount()];
+        int pendingCount = 0;
+        for (String destination : destinations) {
+            int destinationId = graph.getSuburbId(destination);
+            if (destinationId >= 0 && !pending[destinationId]) {
+                pending[destinationId] = true;
+                pendingCount++;
+            }
+        }
+
+        int vehicleMaxSpeed = vehicle.getVelocity().getSpeed();
+        int timeToCrossCrater = vehicle.getTimeToCrossCrater();
+        int craterChangePercentage = weather.getCraterChangePercentage();
+
+        long[] time = new long[graph.getSuburbCount()];
+        Arrays.fill(time, UNREACHABLE);
+        int[] via = new int[graph.getSuburbCount()];
+
+        SuburbHeap heap = new SuburbHeap(64);
+        time[sourceId] = 0;
+        heap.push(0, sourceId);
+        while (!heap.isEmpty() && pendingCount > 0) {
+            long arrivalTime = heap.peekKey();
+            int suburb = heap.peekSuburb();
+            heap.pop();
+
+            // Skip stale entries, the suburb was reached faster after this entry was pushed
+            if (arrivalTime > time[suburb])
+                continue;
+            if (pending[suburb]) {
+                pending[suburb] = false;
+                pendingCount--;
+            }
+
+            for (int position = graph.getOutgoingStart(suburb); position < graph.getOutgoingEnd(suburb); position++) {
+                int orbitId = graph.getOutgoingOrbit(position);
+                int next = graph.getDestination(orbitId);
+                long arrival = arrivalTime + TraverseTimeUtils.orbitTraverseTime(graph.getDistance(orbitId),
+                        graph.getCraters(orbitId), speedLimit(speedLimits, orbitId),
+                        vehicleMaxSpeed, timeToCrossCrater, craterChangePercentage);
+                if (arrival < time[next]) {
+                    time[next] = arrival;
+                    via[next] = orbitId;
+                    heap.push(arrival, next);
+                }
+            }
+        }
+        return new ShortestPathTree(this, graph, sourceId, time, via);
+    }
+
+    /**
+     * Find the earliest-arrival route from source to destination for a vehicle in a weather, departing at a time of day.
+     * <p>
+     * The speed limit of an orbit is the one of its schedule at the time the orbit is entered (its own velocity limit,
+     * if it has no schedule). Waiting at a suburb for a higher speed limit is allowed, so the arrival time through an orbit
+     * never decreases with a later entry time (FIFO) and the search is label setting, like a static A* search.
+     * The static heuristic stays a lower bound, as it assumes no speed limit at all.
+     *
+     * @param weather - Weather of the journey
+     * @param vehicle - Vehicle used for the whole journey
+     * @param source - Source suburb
+     * @param destination - Destination suburb
+     * @param departureMinute - Departure time, minute of the day (0 to 1439)
+     * @return - Earliest-arrival route, null if source or destination is unknown, or destination can't be reached
+     */
+    public TimedRoute findEarliestArrivalRoute(Weather weather, Vehicle vehicle, String source, String destination,
+                                               int departureMinute) {
+        int sourceId = graph.getSuburbId(source);
+        int destinationId = graph.getSuburbId(destination);
+        if (sourceId < 0 || destinationId < 0)
+            return null;
+        if (sourceId == destinationId)
+            return new TimedRoute(departureMinute, departureMinute, List.of(), new long[0]);
+
+        int vehicleMaxSpeed = vehicle.getVelocity().getSpeed();
+        int timeToCrossCrater = vehicle.getTimeToCrossCrater();
+        int craterChangePercentage = weather.getCraterChangePercentage();
+
+        long[] heuristic = heuristic(destinationId, craterChangePercentage);
+        if (heuristic[sourceId] == UNREACHABLE)
+            return null;
+
+        // Arrival time at every suburb, in minutes since the start of the departure day
+        long[] time = new long[graph.getSuburbCount()];
+        Arrays.fill(time, UNREACHABLE);
+        int[] via = new int[graph.getSuburbCount()];
+
+        SuburbHeap heap = new SuburbHeap(64);
+        time[sourceId] = departureMinute;
+        heap.push(departureMinute + heuristic[sourceId], sourceId);
+        while (!heap.isEmpty()) {
+            long estimate = heap.peekKey();
+            int suburb = heap.peekSuburb();
+            heap.pop();
+
+            // Skip stale entries, the suburb was reached earlier after this entry was pushed
+            if (estimate > time[suburb] + heuristic[suburb])
+                continue;
+            if (suburb == destinationId)
+                return toTimedRoute(via, time, sourceId, destinationId, vehicleMaxSpeed, timeToCrossCrater,
+                        craterChangePercentage);
+
+            for (int position = graph.getOutgoingStart(suburb); position < graph.getOutgoingEnd(suburb); position++) {
+                int orbitId = graph.getOutgoingOrbit(position);
+                int next = graph.getDestination(orbitId);
+                if (heuristic[next] == UNREACHABLE)
+                    continue;
+
+                long arrival = earliestArrival(orbitId, time[suburb], vehicleMaxSpeed, timeToCrossCrater,
+                        craterChangePercentage);
+                if (arrival < time[next]) {
+                    time[next] = arrival;
+                    via[next] = orbitId;
+                    heap.push(arrival + heuristic[next], next);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Earliest arrival through an orbit, ready to enter it at a time: entering immediately, or at the start of one of
+     * the following periods of its schedule (within a day, afterwards the schedule repeats).
+     * Later periods are not checked, once even an orbit without a speed limit can't arrive earlier from their start.
+     */
+    private long earliestArrival(int orbitId, long readyTime, int vehicleMaxSpeed, int timeToCrossCrater,
+                                 int craterChangePercentage) {
+        int distance = graph.getDistance(orbitId);
+        int craters = graph.getCraters(orbitId);
+        if (!speedLimitSchedules.hasSchedule(orbitId))
+            return readyTime + TraverseTimeUtils.orbitTraverseTime(distance, craters,
+                    speedLimitSchedules.getStaticSpeedLimit(orbitId), vehicleMaxSpeed, timeToCrossCrater, craterChangePercentage);
+
+        int firstPeriod = speedLimitSchedules.getPeriodStart(orbitId);
+        int periodCount = speedLimitSchedules.getPeriodEnd(orbitId) - firstPeriod;
+        int period = speedLimitSchedules.findPeriod(orbitId, readyTime);
+
+        // Start of the day of the current period, i.e. the day before if it is the last period continuing after midnight
+        long dayStart = Math.floorDiv(readyTime, SpeedLimitPeriod.MINUTES_PER_DAY) * SpeedLimitPeriod.MINUTES_PER_DAY;
+        if (speedLimitSchedules.getStartMinute(period) > readyTime - dayStart)
+            dayStart -= SpeedLimitPeriod.MINUTES_PER_DAY;
+
+        long arrival = readyTime + TraverseTimeUtils.orbitTraverseTime(distance, craters,
+                speedLimitSchedules.getPeriodSpeedLimit(period), vehicleMaxSpeed, timeToCrossCrater, craterChangePercentage);
+        long fastestTraverseTime = TraverseTimeUtils.orbitTraverseTime(distance, craters, 0, vehicleMaxSpeed,
+                timeToCrossCrater, craterChangePercentage);
+        for (int step = 1; step < periodCount; step++) {
+            int nextPeriod = period - firstPeriod + step;
+            long entryTime = dayStart + speedLimitSchedules.getStartMinute(firstPeriod + nextPeriod % periodCount)
+                    + (nextPeriod >= periodCount ? SpeedLimitPeriod.MINUTES_PER_DAY : 0);
+            if (entryTime + fastestTraverseTime >= arrival)
+                break;
+
+            arrival = Math.min(arrival, entryTime + TraverseTimeUtils.orbitTraverseTime(distance, craters,
+                    speedLimitSchedules.getPeriodSpeedLimit(firstPeriod + nextPeriod % periodCount), vehicleMaxSpeed,
+                    timeToCrossCrater, craterChangePercentage));
+        }
+        return arrival;
+    }
+
+    /**
+     * Entry time into an orbit which gives the arrival time found by the search: the earliest of the ready time and
+     * the following period starts, which arrives at that time.
+     */
+    private long entryTime(int orbitId, long readyTime, long arrivalTime, int vehicleMaxSpeed, int timeToCrossCrater,
+                           int craterChangePercentage) {
+        for (long entryTime = readyTime; entryTime < arrivalTime; ) {
+            int period = speedLimitSchedules.hasSchedule(orbitId) ? speedLimitSchedules.findPeriod(orbitId, entryTime) : -1;
+            int speedLimit = period < 0 ? speedLimitSchedules.getStaticSpeedLimit(orbitId) : speedLimitSchedules.getPeriodSpeedLimit(period);
+            if (entryTime + TraverseTimeUtils.orbitTraverseTime(graph.getDistance(orbitId), graph.getCraters(orbitId),
+                    speedLimit, vehicleMaxSpeed, timeToCrossCrater, craterChangePercentage) == arrivalTime)
+                return entryTime;
+            if (period < 0)
+                break;
+
+            // Start of the next period
+            int nextPeriod = period + 1 < speedLimitSchedules.getPeriodEnd(orbitId) ? period + 1
+                    : speedLimitSchedules.getPeriodStart(orbitId);
+            long minuteOfDay = Math.floorMod(entryTime, (long) SpeedLimitPeriod.MINUTES_PER_DAY);
+            long wait = Math.floorMod(speedLimitSchedules.getStartMinute(nextPeriod) - minuteOfDay,
+                    (long) SpeedLimitPeriod.MINUTES_PER_DAY);
+            entryTime += wait == 0 ? SpeedLimitPeriod.MINUTES_PER_DAY : wait;
+        }
+        return readyTime;
+    }
+
+    private TimedRoute toTimedRoute(int[] via, long[] time, int sourceId, int destinationId, int vehicleMaxSpeed,
+                                    int timeToCrossCrater, int craterChangePercentage) {
+        int[] orbitIds = toRoute(via, sourceId, destinationId);
+        long[] entryTimes = new long[orbitIds.length];
+        for (int position = 0; position < orbitIds.length; position++) {
+            int orbitId = orbitIds[position];
+            entryTimes[position] = entryTime(orbitId, time[graph.getSource(orbitId)], time[graph.getDestination(orbitId)],
+                    vehicleMaxSpeed, timeToCrossCrater, craterChangePercentage);
+        }
+        return new TimedRoute(time[sourceId], time[destinationId], toOrbits(orbitIds), entryTimes);
+    }
+
+    /**
+     * Find the fastest multi-modal route from source to destination in a weather, switching vehicles at intermediate
+     * suburbs (A* search over the state-expanded network of (suburb, vehicle) pairs).
+     * <p>
+     * A state is a suburb reached with a vehicle. An orbit leads to the same vehicle at its destination suburb, costed
+     * with that vehicle. A transfer leads to another vehicle at the same suburb, costed with the transfer penalty of
+     * that vehicle. Only the given vehicles are used, so the vehicle of each leg is suitable for the weather.
+     * The heuristic of a suburb stays a lower bound for all its states, as it assumes the fastest vehicle and
+     * penalties are never -ve.
+     *
+     * @param weather - Weather of the journey
+     * @param vehicles - Vehicles which can be used, in tie-break order
+     * @param source - Source suburb
+     * @param destination - Destination suburb
+     * @param speedLimits - Speed limits of the request, null for the orbits' own speed limits
+     * @param transferPenalties - Penalty of switching to each vehicle
+     * @return - Fastest route with the vehicle of each leg (same time: the one found first), no legs if destination is
+     * 			the source. Null if source or destination is unknown, no vehicle is given, or destination can't be reached.
+     */
+    public MultiModalTraverseDetail findMultiModalRoute(Weather weather, List<Vehicle> vehicles, String source,
+                                                        String destination, SpeedLimits speedLimits,
+                                                        TransferPenalties transferPenalties) {
+        int sourceId = graph.getSuburbId(source);
+        int destinationId = graph.getSuburbId(destination);
+        if (sourceId < 0 || destinationId < 0 || vehicles.isEmpty())
+            return null;
+        if (sourceId == destinationId)
+            return new MultiModalTraverseDetail(0, 0, List.of());
+
+        int craterChangePercentage = weather.getCraterChangePercentage();
+        long[] heuristic = heuristic(destinationId, craterChangePercentage);
+        if (heuristic[sourceId] == UNREACHABLE)
+            return null;
+
+        // State of suburb s with vehicle v is s * vehicleCount + v
+        int vehicleCount = vehicles.size();
+        int[] penalties = vehicles.stream().mapToInt(transferPenalties::getPenalty).toArray();
+        long[] time = new long[Math.multiplyExact(graph.getSuburbCount(), vehicleCount)];
+        Arrays.fill(time, UNREACHABLE);
+
+        // State and orbit each state is reached from, orbit -1 for a transfer
+        int[] previousState = new int[time.length];
+        int[] viaOrbit = new int[time.length];
+
+        SuburbHeap heap = new SuburbHeap(64);
+        // Any vehicle is boarded at the source without a penalty
+        for (int vehicle = 0; vehicle < vehicleCount; vehicle++) {
+            int state = sourceId * vehicleCount + vehicle;
+            time[state] = 0;
+            heap.push(heuristic[sourceId], state);
+        }
+        while (!heap.isEmpty()) {
+            long estimate = heap.peekKey();
+            int state = heap.peekSuburb();
+            heap.pop();
+
+            int suburb = state / vehicleCount;
+            int vehicle = state % vehicleCount;
+
+            // Skip stale entries, the state was reached faster after this entry was pushed
+            if (estimate > time[state] + heuristic[suburb])
+                continue;
+            if (suburb == destinationId)
+                return toMultiModalRoute(vehicles, previousState, viaOrbit, time, state, sourceId, vehicleCount,
+                        speedLimits, craterChangePercentage);
+
+            // Switching at the source never helps, every vehicle starts there without a penalty
+            if (suburb != sourceId) {
+                for (int other = 0; other < vehicleCount; other++) {
+                    int next = suburb * vehicleCount + other;
+                    long arrival = time[state] + penalties[other];
+                    if (other != vehicle && arrival < time[next]) {
+                        time[next] = arrival;
+                        previousState[next] = state;
+                        viaOrbit[next] = -1;
+                        heap.push(arrival + heuristic[suburb], next);
+                    }
+                }
+            }
+
+            int vehicleMaxSpeed = vehicles.get(vehicle).getVelocity().getSpeed();
+            int timeToCrossCrater = vehicles.get(vehicle).getTimeToCrossCrater();
+            for (int position = graph.getOutgoingStart(suburb); position < graph.getOutgoingEnd(suburb); position++) {
+                int orbitId = graph.getOutgoingOrbit(position);
+                int nextSuburb = graph.getDestination(orbitId);
+                if (heuristic[nextSuburb] == UNREACHABLE)
+                    continue;
+
+                int next = nextSuburb * vehicleCount + vehicle;
+                long arrival = time[state] + TraverseTimeUtils.orbitTraverseTime(graph.getDistance(orbitId),
+                        graph.getCraters(orbitId), speedLimit(speedLimits, orbitId),
+                        vehicleMaxSpeed, timeToCrossCrater, craterChangePercentage);
+                if (arrival < time[next]) {
+                    time[next] = arrival;
+                    previousState[next] = state;
+                    viaOrbit[next] = orbitId;
+                    heap.push(arrival + heuristic[nextSuburb], next);
+                }
+            }
+        }
+        return null;
+    }
+
+    // Walk back from the destination state over the orbits and transfers used to reach each state
+    private MultiModalTraverseDetail toMultiModalRoute(List<Vehicle> vehicles, int[] previousState, int[] viaOrbit,
+                                                       long[] time, int destinationState, int sourceId, int vehicleCount,
+                                                       SpeedLimits speedLimits, int craterChangePercentage) {
+        List<TraverseLeg> legs = new ArrayList<>();
+        int transferCount = 0;
+
+        // Source states are never reached again (time 0), so the walk ends at the vehicle boarded at the source
+        for (int state = destinationState; state / vehicleCount != sourceId; state = previousState[state]) {
+            int orbitId = viaOrbit[state];
+            if (orbitId < 0) {
+                transferCount++;
+                continue;
+            }
+
+            Vehicle vehicle = vehicles.get(state % vehicleCount);
+            legs.add(new TraverseLeg(orbits.get(orbitId), vehicle, TraverseTimeUtils.orbitTraverseTime(
+                    graph.getDistance(orbitId), graph.getCraters(orbitId),
+                    speedLimit(speedLimits, orbitId), vehicle.getVelocity().getSpeed(),
+                    vehicle.getTimeToCrossCrater(), craterChangePercentage)));
+        }
+        Collections.reverse(legs);
+        return new MultiModalTraverseDetail((int) time[destinationState], transferCount, List.copyOf(legs));
+    }
+
+    /**
+     * Find candidate orbit-sequences between source and destination:
+     * all direct orbits, followed by the fastest multi-hop route of every suitable vehicle for every weather
+     * with the orbits' own speed limits. Duplicate routes are removed.
+     * <p>
+     * Note: Candidates are cached per source-destination pair, so the user's speed limits are not part of their selection.
+     *
+     * @param source - Source suburb
+     * @param destination - Destination suburb
+     * @return - Unmodifiable list of orbit-sequences
+     */
+    public List<List<Orbit>> findCandidateRoutes(String source, String destination) {
+        List<List<Orbit>> directRoutes = orbitIndex.find(source, destination);
+        int sourceId = graph.getSuburbId(source);
+        int destinationId = graph.getSuburbId(destination);
+        if (sourceId < 0 || destinationId < 0 || sourceId == destinationId)
+            return directRoutes;
+
+        String key = sourceId + ":" + destinationId;
+        List<List<Orbit>> cachedRoutes;
+        synchronized (candidateRoutes) {
+            cachedRoutes = candidateRoutes.get(key);
+        }
+        if (null != cachedRoutes)
+            return cachedRoutes;
+
+        List<List<Orbit>> routes = new ArrayList<>(directRoutes);
+        Set<List<Integer>> multiHopRoutes = new HashSet<>();
+        for (Weather weather : weathers) {
+            for (Vehicle vehicle : vehicles) {
+                if (!weather.getSuitableVehicleNames().contains(vehicle.getName()))
+                    continue;
+
+                int[] orbitIds = findFastestRoute(sourceId, destinationId, vehicle.getVelocity().getSpeed(),
+                        vehicle.getTimeToCrossCrater(), weather.getCraterChangePercentage(), null);
+
+                // Routes with one orbit are direct orbits, which are already added
+                if (null != orbitIds && orbitIds.length > 1
+                        && multiHopRoutes.add(Arrays.stream(orbitIds).boxed().toList()))
+                    routes.add(toOrbits(orbitIds));
+            }
+        }
+
+        List<List<Orbit>> result = List.copyOf(routes);
+        synchronized (candidateRoutes) {
+            candidateRoutes.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * A* search between two suburbs.
+     *
+     * @return - Orbit ids of the fastest route, empty if source is destination, null if destination can't be reached
+     */
+    int[] findFastestRoute(int sourceId, int destinationId, int vehicleMaxSpeed, int timeToCrossCrater,
+                           int craterChangePercentage, SpeedLimits speedLimits) {
+        return findFastestRoute(sourceId, destinationId, vehicleMaxSpeed, timeToCrossCrater, craterChangePercentage,
+                speedLimits, null, null);
+    }
+
+    /**
+     * A* search between two suburbs, without the blocked orbits and suburbs. The heuristic of the whole network is still
+     * a lower bound, as blocking only removes routes.
+     *
+     * @return - Orbit ids of the fastest route, empty if source is destination, null if destination can't be reached
+     */
+    private int[] findFastestRoute(int sourceId, int destinationId, int vehicleMaxSpeed, int timeToCrossCrater,
+                                   int craterChangePercentage, SpeedLimits speedLimits,
+                                   boolean[] blockedOrbits, boolean[] blockedSuburbs) {
+        if (sourceId == destinationId)
+            return new int[0];
+
+        long[] heuristic = heuristic(destinationId, craterChangePercentage);
+        if (heuristic[sourceId] == UNREACHABLE)
+            return null;
+
+        long[] time = new long[graph.getSuburbCount()];
+        Arrays.fill(time, UNREACHABLE);
+        int[] via = new int[graph.getSuburbCount()];
+
+        SuburbHeap heap = new SuburbHeap(64);
+        time[sourceId] = 0;
+        heap.push(heuristic[sourceId], sourceId);
+        while (!heap.isEmpty()) {
+            long estimate = heap.peekKey();
+            int suburb = heap.peekSuburb();
+            heap.pop();
+
+            // Skip stale entries, the suburb was reached faster after this entry was pushed
+            if (estimate > time[suburb] + heuristic[suburb])
+                continue;
+            if (suburb == destinationId)
+                return toRoute(via, sourceId, destinationId);
+
+            for (int position = graph.getOutgoingStart(suburb); position < graph.getOutgoingEnd(suburb); position++) {
+                int orbitId = graph.getOutgoingOrbit(position);
+                int next = graph.getDestination(orbitId);
+                if (heuristic[next] == UNREACHABLE || (null != blockedOrbits && (blockedOrbits[orbitId] || blockedSuburbs[next])))
+                    continue;
+
+                long arrival = time[suburb] + TraverseTimeUtils.orbitTraverseTime(graph.getDistance(orbitId),
+                        graph.getCraters(orbitId), speedLimit(speedLimits, orbitId),
+                        vehicleMaxSpeed, timeToCrossCrater, craterChangePercentage);
+                if (arrival < time[next]) {
+                    time[next] = arrival;
+                    via[next] = orbitId;
+                    heap.push(arrival + heuristic[next], next);
+                }
+            }
+        }
+        return null;
+    }
+
+    // Speed limit of an orbit in a search: the request's, or without speed limits the orbit's own
+    private int speedLimit(SpeedLimits speedLimits, int orbitId) {
+        return null == speedLimits ? speedLimitSchedules.getStaticSpeedLimit(orbitId) : speedLimits.getSpeedLimit(orbitId);
+    }
+
+    // Walk back from the destination over the orbits used to reach each suburb
+    private int[] toRoute(int[] via, int sourceId, int destinationId) {
+        int length = 0;
+        for (int suburb = destinationId; suburb != sourceId; suburb = graph.getSource(via[suburb]))
+            length++;
+
+        int[] orbitIds = new int[length];
+        for (int suburb = destinationId; suburb != sourceId; suburb = graph.getSource(via[suburb]))
+            orbitIds[--length] = via[suburb];
+        return orbitIds;
+    }
+
+    List<Orbit> toOrbits(int[] orbitIds) {
+        List<Orbit> route = new ArrayList<>(orbitIds.length);
+        for (int orbitId : orbitIds)
+            route.add(orbits.get(orbitId));
+        return List.copyOf(route);
+    }
+
+    /**
+     * Lower bound of the time from every suburb to the destination (Dijkstra over incoming orbits).
+     * Each orbit is costed with the fastest vehicle and the cheapest crater crossing, so the bound never overestimates.
+     */
+    private long[] heuristic(int destinationId, int craterChangePercentage) {
+        Long key = ((long) destinationId << 32) | (craterChangePercentage & 0xFFFFFFFFL);
+        long[] heuristic;
+        synchronized (heuristics) {
+            heuristic = heuristics.get(key);
+        }
+        if (null != heuristic)
+            return heuristic;
+
+        heuristic = new long[graph.getSuburbCount()];
+        Arrays.fill(heuristic, UNREACHABLE);
+        SuburbHeap heap = new SuburbHeap(64);
+        heuristic[destinationId] = 0;
+        heap.push(0, destinationId);
+        while (!heap.isEmpty()) {
+            long bound = heap.peekKey();
+            int suburb = heap.peekSuburb();
+            heap.pop();
+            if (bound > heuristic[suburb])
+                continue;
+
+            for (int position = graph.getIncomingStart(suburb); position < graph.getIncomingEnd(suburb); position++) {
+                int orbitId = graph.getIncomingOrbit(position);
+                int previous = graph.getSource(orbitId);
+                long previousBound = bound
+                        + (long) graph.getDistance(orbitId) * TraverseTimeUtils.MINUTES_PER_HOUR / fastestSpeed
+                        + (long) TraverseTimeUtils.adjustCraters(graph.getCraters(orbitId), craterChangePercentage) * cheapestCraterCrossing;
+                if (previousBound < heuristic[previous]) {
+                    heuristic[previous] = previousBound;
+                    heap.push(previousBound, previous);
+                }
+            }
+        }
+
+        synchronized (heuristics) {
+            heuristics.put(key, heuristic);
+        }
+        return heuristic;
+    }
+
+    private static <K, V> Map<K, V> lruCache(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package za.co.titandynamix.route;
+
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.network.OrbitGraph;
+
+import java.util.List;
+
+/**
+ * Fastest routes from one source suburb, as found by {@link RouteSearch#findShortestPathTree}.
+ * Only the requested destinations (and suburbs reached before them) are guaranteed to be final.
+ *
+ * @author clivememela
+ */
+public final class ShortestPathTree {
+
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private final RouteSearch routeSearch;
+    private final OrbitGraph graph;
+    private final int sourceId;
+
+    // Per suburb id: time from the source, and the orbit used to reach the suburb
+    private final long[] time;
+    private final int[] via;
+
+    ShortestPathTree(RouteSearch routeSearch, OrbitGraph graph, int sourceId, long[] time, int[] via) {
+        this.routeSearch = routeSearch;
+        this.graph = graph;
+        this.sourceId = sourceId;
+        this.time = time;
+        this.via = via;
+    }
+
+    /**
+     * Time of the fastest route to a destination.
+     *
+     * @param destination - Destination suburb
+     * @return - Time in minutes, {@link #UNREACHABLE} if the destination can't be reached
+     */
+    public long getTime(String destination) {
+        int destinationId = graph.getSuburbId(destination);
+        return destinationId < 0 ? UNREACHABLE : time[destinationId];
+    }
+
+    /**
+     * Fastest route to a destination.
+     *
+     * @param destination - Destination suburb
+     * @return - Orbit-sequence, empty if the destination is the source or can't be reached
+     */
+    public List<Orbit> getRoute(String destination) {
+        int destinationId = graph.getSuburbId(destination);
+        if (destinationId < 0 || time[destinationId] == UNREACHABLE)
+            return List.of();
+
+        int length = 0;
+        for (int suburb = destinationId; suburb != sourceId; suburb = graph.getSource(via[suburb]))
+            length++;
+
+        int[] orbitIds = new int[length];
+        for (int suburb = destinationId; suburb != sourceId; suburb = graph.getSource(via[suburb]))
+            orbitIds[--length] = via[suburb];
+        return routeSearch.toOrbits(orbitIds);
+    }
+}
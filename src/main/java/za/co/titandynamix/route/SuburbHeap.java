@@ -0,0 +1,75 @@
+package za.co.titandynamix.route;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of suburb ids ordered by a long key, without boxing.
+ * <p>
+ * Suburbs are not decreased in place, a suburb is pushed again with its new key and stale entries are skipped by the search.
+ *
+ * @author clivememela
+ */
+final class SuburbHeap {
+
+    private long[] keys;
+    private int[] suburbs;
+    private int size;
+
+    SuburbHeap(int initialCapacity) {
+        keys = new long[Math.max(16, initialCapacity)];
+        suburbs = new int[keys.length];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void push(long key, int suburb) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            suburbs = Arrays.copyOf(suburbs, size * 2);
+        }
+
+        // Sift up
+        int position = size++;
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (keys[parent] <= key)
+                break;
+            keys[position] = keys[parent];
+            suburbs[position] = suburbs[parent];
+            position = parent;
+        }
+        keys[position] = key;
+        suburbs[position] = suburb;
+    }
+
+    long peekKey() {
+        return keys[0];
+    }
+
+    int peekSuburb() {
+        return suburbs[0];
+    }
+
+    void pop() {
+        long key = keys[--size];
+        int suburb = suburbs[size];
+
+        // Sift down
+        int position = 0;
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child])
+                child++;
+            if (key <= keys[child])
+                break;
+            keys[position] = keys[child];
+            suburbs[position] = suburbs[child];
+            position = child;
+        }
+        keys[position] = key;
+        suburbs[position] = suburb;
+    }
+}
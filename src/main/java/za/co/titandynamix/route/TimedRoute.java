@@ -0,0 +1,72 @@
+package za.co.titandynamix.route;
+
+import za.co.titandynamix.model.Orbit;
+
+import java.util.List;
+
+/**
+ * Earliest-arrival route for a departure time, as found by {@link RouteSearch#findEarliestArrivalRoute}.
+ * <p>
+ * Times are minutes since the start of the departure day, so a journey crossing midnight ends after minute 1440.
+ * The entry time of an orbit may be later than the arrival at its source suburb: waiting for a higher speed limit
+ * is part of the route, if it arrives earlier.
+ *
+ * @author clivememela
+ */
+public final class TimedRoute {
+
+    private final long departureTime;
+    private final long arrivalTime;
+    private final List<Orbit> orbits;
+
+    // Entry time of each orbit of the route
+    private final long[] entryTimes;
+
+    TimedRoute(long departureTime, long arrivalTime, List<Orbit> orbits, long[] entryTimes) {
+        this.departureTime = departureTime;
+        this.arrivalTime = arrivalTime;
+        this.orbits = orbits;
+        this.entryTimes = entryTimes;
+    }
+
+    public long getDepartureTime() {
+        return departureTime;
+    }
+
+    public long getArrivalTime() {
+        return arrivalTime;
+    }
+
+    /**
+     * @return - Minutes from departure to arrival, waiting included
+     */
+    public long getTraverseTime() {
+        return arrivalTime - departureTime;
+    }
+
+    /**
+     * @return - Orbit-sequence, empty if the destination is the source
+     */
+    public List<Orbit> getOrbits() {
+        return orbits;
+    }
+
+    /**
+     * Entry time of an orbit of the route.
+     *
+     * @param position - Position of the orbit in the orbit-sequence
+     * @return - Minute since the start of the departure day
+     */
+    public long getEntryTime(int position) {
+        return entryTimes[position];
+    }
+
+    @Override
+    public String toString() {
+        return "TimedRoute" + ": {" +
+                "departureTime=" + departureTime +
+                ", arrivalTime=" + arrivalTime +
+                ", orbits=" + orbits.stream().map(Orbit::getName).toList() +
+                "}";
+    }
+}
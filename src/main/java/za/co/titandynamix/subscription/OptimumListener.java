@@ -0,0 +1,19 @@
+package za.co.titandynamix.subscription;
+
+import za.co.titandynamix.model.TraverseDetail;
+
+/**
+ * Listener of a RouteSubscription, called when the optimum vehicle, orbit-sequence or traverse time changes.
+ *
+ * @author clivememela
+ */
+@FunctionalInterface
+public interface OptimumListener {
+
+    /**
+     * @param subscription - Subscription whose optimum changed
+     * @param previous - Previous optimum, null if there was none
+     * @param current - New optimum, null if there is none (e.g. weather is no longer part of the network)
+     */
+    void onOptimumChanged(RouteSubscription subscription, TraverseDetail previous, TraverseDetail current);
+}
@@ -0,0 +1,315 @@
+package za.co.titandynamix.subscription;
+
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.finder.TrafficFinder;
+import za.co.titandynamix.helper.TrafficHelper;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TraverseDetail;
+import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.network.NetworkSnapshot;
+import za.co.titandynamix.network.OrbitGraph;
+import za.co.titandynamix.network.SpeedLimits;
+import za.co.titandynamix.network.TraverseTimeEvaluator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DESCRIPTION - Keeps the optimum of subscribed source-destination pairs up to date with live speed-limit updates.
+ * <p>
+ * Speed limits are shared by all subscriptions and start with the speed limit of the orbits (i.e. no limit).
+ * On an update, only the vehicle x orbit-sequence candidates whose orbit-sequence contains a changed orbit are
+ * recalculated. If the optimum candidate is not one of them, the new optimum is found among the recalculated
+ * candidates only; otherwise all stored traverse times are scanned (no recalculation).
+ * Listeners are called only if the optimum vehicle, orbit-sequence or traverse time actually changed.
+ * <p>
+ * Note: Updates are applied one at a time. Listeners are called in the updating thread, after the update is applied.
+ * If a new network snapshot has been published, all subscriptions are rebuilt on the next update or subscription.
+ *
+ * @author clivememela
+ */
+public class OptimumSubscriptionService {
+
+    private final TrafficHelper trafficHelper;
+    private final AtomicLong subscriptionIds = new AtomicLong();
+    private final Object lock = new Object();
+
+    // Speed limits by orbit name, kept across snapshots
+    private final Map<String, Integer> speedLimitMap = new HashMap<>();
+
+    private final Set<RouteSubscription> subscriptions = new LinkedHashSet<>();
+
+    // Orbit id -> subscriptions whose orbit-sequences contain the orbit
+    private final Map<Integer, Set<RouteSubscription>> subscriptionsByOrbitId = new HashMap<>();
+
+    private NetworkSnapshot snapshot;
+    private SpeedLimits speedLimits;
+
+    // Number of traverse times calculated so far, i.e. cost of keeping the subscriptions up to date
+    private long recalculatedCandidates;
+
+    public OptimumSubscriptionService() {
+        this(TrafficHelper.getInstance());
+    }
+
+    public OptimumSubscriptionService(TrafficHelper trafficHelper) {
+        this.trafficHelper = trafficHelper;
+    }
+
+    /**
+     * This method is responsible for registering interest in the optimum between a source and destination.
+     *
+     * @param weatherType - Weather type, e.g. Sunny
+     * @param source - Source suburb
+     * @param destination - Destination suburb
+     * @param listener - Called whenever the optimum changes
+     * @return - Subscription, holding the current optimum
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if the weather or the route is not valid
+     */
+    public RouteSubscription subscribe(String weatherType, String source, String destination, OptimumListener listener)
+            throws BusinessRuleException {
+        Objects.requireNonNull(listener, "listener");
+        List<Notification> notifications = new ArrayList<>();
+        RouteSubscription subscription;
+        try {
+            synchronized (lock) {
+                refreshSnapshot(notifications);
+
+                if (null == trafficHelper.getWeatherByType(snapshot, weatherType))
+                    throw new BusinessRuleException(TrafficFinder.VALIDATION_FAILED,
+                            "=== please enter a valid weather condition input :  " + weatherType + " : is invalid");
+                if (trafficHelper.getOrbits(snapshot, source, destination).isEmpty())
+                    throw new BusinessRuleException(TrafficFinder.VALIDATION_FAILED, "No route/orbit found for the given source-destination.");
+
+                subscription = new RouteSubscription(subscriptionIds.incrementAndGet(), weatherType, source, destination, listener, this);
+                build(subscription);
+                subscription.publishOptimum();
+                subscriptions.add(subscription);
+            }
+        } finally {
+            // Changes found while refreshing the snapshot
+            notifyListeners(notifications);
+        }
+        return subscription;
+    }
+
+    /**
+     * Stop updating a subscription.
+     *
+     * @param subscription - Subscription to remove
+     */
+    public void unsubscribe(RouteSubscription subscription) {
+        synchronized (lock) {
+            if (subscriptions.remove(subscription))
+                subscriptionsByOrbitId.values().forEach(orbitSubscriptions -> orbitSubscriptions.remove(subscription));
+        }
+    }
+
+    /**
+     * Apply a speed-limit update of an orbit.
+     *
+     * @param orbitName - Orbit name
+     * @param speedLimit - New speed limit, +ve integer
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if the orbit or speed limit is not valid
+     */
+    public void updateSpeedLimit(String orbitName, int speedLimit) throws BusinessRuleException {
+        updateSpeedLimits(Map.of(orbitName, speedLimit));
+    }
+
+    /**
+     * This method is responsible for applying speed-limit updates of several orbits as one event.
+     * Candidates containing any changed orbit are recalculated once, and listeners are called at most once per subscription.
+     *
+     * @param orbitSpeedLimitMap - New speed limit corresponding to orbit name
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if an orbit or speed limit is not valid.
+     * 			Nothing is applied in that case.
+     */
+    public void updateSpeedLimits(Map<String, Integer> orbitSpeedLimitMap) throws BusinessRuleException {
+        List<Notification> notifications = new ArrayList<>();
+        try {
+            synchronized (lock) {
+                refreshSnapshot(notifications);
+                OrbitGraph graph = snapshot.getOrbitGraph();
+
+                List<String> invalidOrbitNames = new ArrayList<>();
+                orbitSpeedLimitMap.forEach((orbitName, speedLimit) -> {
+                    if (graph.getOrbitId(orbitName) < 0 || null == speedLimit || speedLimit < 1)
+                        invalidOrbitNames.add(orbitName);
+                });
+                if (!invalidOrbitNames.isEmpty())
+                    throw new BusinessRuleException(TrafficFinder.VALIDATION_FAILED, "Invalid maximum traffic speed(s) for : "
+                            + invalidOrbitNames + ". \n=== Only +ve integer(s) of known orbit(s) accepted.");
+
+                List<Integer> changedOrbitIds = new ArrayList<>();
+                orbitSpeedLimitMap.forEach((orbitName, speedLimit) -> {
+                    int orbitId = graph.getOrbitId(orbitName);
+                    if (speedLimits.getSpeedLimit(orbitId) != speedLimit)
+                        changedOrbitIds.add(orbitId);
+                    speedLimitMap.put(orbitName, speedLimit);
+                });
+                if (changedOrbitIds.isEmpty())
+                    return;
+                speedLimits = speedLimits.with(orbitSpeedLimitMap);
+
+                // Changed orbit-sequences per affected subscription
+                Map<RouteSubscription, Set<Integer>> changedSequences = new LinkedHashMap<>();
+                for (int orbitId : changedOrbitIds) {
+                    for (RouteSubscription subscription : subscriptionsByOrbitId.getOrDefault(orbitId, Set.of())) {
+                        Set<Integer> sequences = changedSequences.computeIfAbsent(subscription, key -> new LinkedHashSet<>());
+                        for (int sequence : subscription.orbitSequencesByOrbitId.get(orbitId))
+                            sequences.add(sequence);
+                    }
+                }
+                changedSequences.forEach((subscription, sequences) ->
+                        recalculate(subscription, sequences, notifications));
+            }
+        } finally {
+            notifyListeners(notifications);
+        }
+    }
+
+    /**
+     * Recalculate the candidates of the changed orbit-sequences and update the optimum.
+     */
+    private void recalculate(RouteSubscription subscription, Set<Integer> sequences, List<Notification> notifications) {
+        TraverseTimeEvaluator evaluator = snapshot.getTraverseTimeEvaluator();
+        int sequenceCount = subscription.orbitSequenceIds.length;
+        int[] traverseTimes = subscription.traverseTimes;
+        int optimum = subscription.optimum;
+        boolean optimumChanged = optimum >= 0 && sequences.contains(optimum % sequenceCount);
+
+        for (int vehicle = 0; vehicle < subscription.vehicleIds.length; vehicle++) {
+            for (int sequence : sequences) {
+                int candidate = vehicle * sequenceCount + sequence;
+                traverseTimes[candidate] = evaluator.traverseTime(subscription.orbitSequenceIds[sequence],
+                        subscription.vehicleIds[vehicle], subscription.weather, speedLimits);
+                recalculatedCandidates++;
+                // Other candidates are unchanged, so the optimum can only move to a recalculated candidate
+                if (!optimumChanged && isBetter(traverseTimes, candidate, optimum))
+                    optimum = candidate;
+            }
+        }
+
+        // Optimum got slower (or faster), any candidate can be the optimum now
+        subscription.optimum = optimumChanged ? findOptimum(traverseTimes) : optimum;
+        TraverseDetail previous = subscription.publishOptimum();
+        if (!Objects.equals(previous, subscription.getOptimum()))
+            notifications.add(new Notification(subscription, previous, subscription.getOptimum()));
+    }
+
+    /**
+     * Lower traverse time wins, and for the same time the lower candidate index (vehicle tie-break order, then orbit-sequence).
+     */
+    private static boolean isBetter(int[] traverseTimes, int candidate, int optimum) {
+        return optimum < 0 || traverseTimes[candidate] < traverseTimes[optimum]
+                || (traverseTimes[candidate] == traverseTimes[optimum] && candidate < optimum);
+    }
+
+    private static int findOptimum(int[] traverseTimes) {
+        int optimum = -1;
+        for (int candidate = 0; candidate < traverseTimes.length; candidate++) {
+            if (optimum < 0 || traverseTimes[candidate] < traverseTimes[optimum])
+                optimum = candidate;
+        }
+        return optimum;
+    }
+
+    /**
+     * Build network data and traverse times of a subscription against the current snapshot, and index its orbits.
+     */
+    private void build(RouteSubscription subscription) {
+        TraverseTimeEvaluator evaluator = snapshot.getTraverseTimeEvaluator();
+        Weather weather = trafficHelper.getWeatherByType(snapshot, subscription.getWeatherType());
+        subscription.weather = weather;
+        subscription.vehicles = null == weather ? List.of() : trafficHelper.getSuitableVehicles(snapshot, weather);
+        subscription.orbitSequences = trafficHelper.getOrbits(snapshot, subscription.getSource(), subscription.getDestination());
+
+        subscription.vehicleIds = subscription.vehicles.stream().mapToInt(evaluator::toVehicleId).toArray();
+        subscription.orbitSequenceIds = new int[subscription.orbitSequences.size()][];
+        Map<Integer, List<Integer>> sequencesByOrbitId = new HashMap<>();
+        for (int sequence = 0; sequence < subscription.orbitSequenceIds.length; sequence++) {
+            List<Orbit> orbits = subscription.orbitSequences.get(sequence);
+            subscription.orbitSequenceIds[sequence] = evaluator.toOrbitIds(orbits);
+            for (int orbitId : subscription.orbitSequenceIds[sequence]) {
+                List<Integer> sequences = sequencesByOrbitId.computeIfAbsent(orbitId, key -> new ArrayList<>());
+                if (sequences.isEmpty() || sequences.get(sequences.size() - 1) != sequence)
+                    sequences.add(sequence);
+            }
+        }
+
+        subscription.orbitSequencesByOrbitId = new HashMap<>();
+        sequencesByOrbitId.forEach((orbitId, sequences) -> {
+            subscription.orbitSequencesByOrbitId.put(orbitId, sequences.stream().mapToInt(Integer::intValue).toArray());
+            subscriptionsByOrbitId.computeIfAbsent(orbitId, key -> new LinkedHashSet<>()).add(subscription);
+        });
+
+        int sequenceCount = subscription.orbitSequenceIds.length;
+        subscription.traverseTimes = new int[subscription.vehicleIds.length * sequenceCount];
+        for (int candidate = 0; candidate < subscription.traverseTimes.length; candidate++) {
+            subscription.traverseTimes[candidate] = evaluator.traverseTime(subscription.orbitSequenceIds[candidate % sequenceCount],
+                    subscription.vehicleIds[candidate / sequenceCount], weather, speedLimits);
+        }
+        recalculatedCandidates += subscription.traverseTimes.length;
+        subscription.optimum = findOptimum(subscription.traverseTimes);
+    }
+
+    /**
+     * Rebuild all subscriptions, if a new network snapshot has been published.
+     */
+    private void refreshSnapshot(List<Notification> notifications) {
+        NetworkSnapshot current = trafficHelper.getSnapshot();
+        if (current == snapshot)
+            return;
+
+        snapshot = current;
+        speedLimits = SpeedLimits.of(snapshot, speedLimitMap);
+        subscriptionsByOrbitId.clear();
+        for (RouteSubscription subscription : subscriptions) {
+            build(subscription);
+            TraverseDetail previous = subscription.publishOptimum();
+            if (!Objects.equals(previous, subscription.getOptimum()))
+                notifications.add(new Notification(subscription, previous, subscription.getOptimum()));
+        }
+    }
+
+    private static void notifyListeners(List<Notification> notifications) {
+        for (Notification notification : notifications) {
+            notification.subscription().getListener()
+                    .onOptimumChanged(notification.subscription(), notification.previous(), notification.current());
+        }
+    }
+
+    /**
+     * Current speed limit of an orbit.
+     *
+     * @param orbitName - Orbit name
+     * @return - Speed limit, null if it has not been updated yet (i.e. speed limit of the orbit applies)
+     */
+    public Integer getSpeedLimit(String orbitName) {
+        synchronized (lock) {
+            return speedLimitMap.get(orbitName);
+        }
+    }
+
+    public int getSubscriptionCount() {
+        synchronized (lock) {
+            return subscriptions.size();
+        }
+    }
+
+    public long getRecalculatedCandidates() {
+        synchronized (lock) {
+            return recalculatedCandidates;
+        }
+    }
+
+    private record Notification(RouteSubscription subscription, TraverseDetail previous, TraverseDetail current) {
+    }
+}
@@ -0,0 +1,114 @@
+package za.co.titandynamix.subscription;
+
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TraverseDetail;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Weather;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DESCRIPTION - Interest of a client in the optimum between a source and destination in a weather.
+ * <p>
+ * Keeps the traverse time of every vehicle x orbit-sequence candidate (candidate = vehicle * orbit-sequences + orbit-sequence),
+ * so a speed-limit update only recalculates the candidates whose orbit-sequence contains a changed orbit.
+ * State is guarded by the OptimumSubscriptionService.
+ *
+ * @author clivememela
+ */
+public final class RouteSubscription {
+
+    private final long id;
+    private final String weatherType;
+    private final String source;
+    private final String destination;
+    private final OptimumListener listener;
+    private final OptimumSubscriptionService service;
+
+    // Network data of the subscription, rebuilt when a new snapshot is published
+    Weather weather;
+    List<Vehicle> vehicles;
+    List<List<Orbit>> orbitSequences;
+    int[] vehicleIds;
+    int[][] orbitSequenceIds;
+
+    // Orbit id -> orbit-sequences containing the orbit
+    Map<Integer, int[]> orbitSequencesByOrbitId;
+
+    int[] traverseTimes;
+
+    // Candidate index of the optimum, -1 if there is no candidate
+    int optimum = -1;
+
+    private volatile TraverseDetail optimumTraverseDetail;
+
+    RouteSubscription(long id, String weatherType, String source, String destination,
+                      OptimumListener listener, OptimumSubscriptionService service) {
+        this.id = id;
+        this.weatherType = weatherType;
+        this.source = source;
+        this.destination = destination;
+        this.listener = listener;
+        this.service = service;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getWeatherType() {
+        return weatherType;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    /**
+     * Current optimum of the subscription.
+     *
+     * @return - Optimum TraverseDetail object, null if there is no vehicle or orbit-sequence
+     */
+    public TraverseDetail getOptimum() {
+        return optimumTraverseDetail;
+    }
+
+    /**
+     * Stop receiving updates.
+     */
+    public void cancel() {
+        service.unsubscribe(this);
+    }
+
+    OptimumListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Materialize the optimum candidate.
+     *
+     * @return - Previous optimum TraverseDetail object
+     */
+    TraverseDetail publishOptimum() {
+        TraverseDetail previous = optimumTraverseDetail;
+        optimumTraverseDetail = optimum < 0 ? null : new TraverseDetail(traverseTimes[optimum],
+                orbitSequences.get(optimum % orbitSequenceIds.length), vehicles.get(optimum / orbitSequenceIds.length));
+        return previous;
+    }
+
+    @Override
+    public String toString() {
+        return "RouteSubscription" + ": {" +
+                "id=" + id +
+                ", weatherType=" + weatherType +
+                ", source=" + source +
+                ", destination=" + destination +
+                ", optimum=" + optimumTraverseDetail +
+                "}";
+    }
+}
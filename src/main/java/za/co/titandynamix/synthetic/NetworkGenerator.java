@@ -0,0 +1,153 @@
+package za.co.titandynamix.synthetic;
+
+import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.SpeedLimitPeriod;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Velocity;
+import za.co.titandynamix.model.Weather;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * DESCRIPTION - Seeded generator of synthetic networks, for scale tests and benchmarks.
+ * <p>
+ * The same seed and sizes always create the same network:
+ * 	-	Suburbs: Silk Drob, Hallitharam, Suburb2, Suburb3, ...
+ * 	-	Orbits: sqrt(orbits) direct orbits from Silk Drob to Hallitharam, so the number of candidate orbit-sequences
+ * 		of the default query grows with the network. Then a ring over all suburbs (if there are enough orbits),
+ * 		so every suburb is reachable from every other suburb, and random orbits for the rest.
+ * 		Distance is 5 to 49 megamiles, 0 to 29 craters, and one orbit in four has a speed limit. Half of these have
+ * 		a rush-hour schedule instead: half the speed limit from 07:00 to 09:00 and from 16:00 to 18:00.
+ * 	-	Vehicles: Vehicle1, Vehicle2, ... with 8 to 40 megamiles/hour and 1 to 5 minutes per crater.
+ * 	-	Weathers: one per weather condition, craters change by -20% to +20%,
+ * 		each vehicle is suitable with a probability of 2/3 (at least one vehicle per weather).
+ *
+ * @author clivememela
+ */
+public final class NetworkGenerator {
+
+    public static final long DEFAULT_SEED = 42;
+    public static final int DEFAULT_VEHICLE_COUNT = 3;
+
+    private static final String SPEED_UNIT = "megamiles/hour";
+
+    private final long seed;
+
+    public NetworkGenerator() {
+        this(DEFAULT_SEED);
+    }
+
+    public NetworkGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * This method is responsible for generating a network of orbitCount orbits, with orbitCount / 10 suburbs
+     * and DEFAULT_VEHICLE_COUNT vehicles.
+     *
+     * @param orbitCount - Number of orbits, at least 1
+     * @return - Synthetic network
+     */
+    public SyntheticNetwork generate(int orbitCount) {
+        return generate(Math.max(2, orbitCount / 10), orbitCount, DEFAULT_VEHICLE_COUNT);
+    }
+
+    /**
+     * This method is responsible for generating a network of the given size.
+     *
+     * @param suburbCount - Number of suburbs, at least 2
+     * @param orbitCount - Number of orbits, at least 1
+     * @param vehicleCount - Number of vehicles, at least 1
+     * @return - Synthetic network
+     * @throws IllegalArgumentException, if a size is out of range
+     */
+    public SyntheticNetwork generate(int suburbCount, int orbitCount, int vehicleCount) {
+        if (suburbCount < 2 || orbitCount < 1 || vehicleCount < 1)
+            throw new IllegalArgumentException("Expected at least 2 suburbs, 1 orbit and 1 vehicle, found "
+                    + suburbCount + ", " + orbitCount + " and " + vehicleCount);
+
+        // Each part has its own random stream, so e.g. more orbits don't change the vehicles
+        SplittableRandom random = new SplittableRandom(seed);
+        List<String> suburbs = createSuburbs(suburbCount);
+        List<Orbit> orbits = createOrbits(random.split(), suburbs, orbitCount);
+        List<Vehicle> vehicles = createVehicles(random.split(), vehicleCount);
+        List<Weather> weathers = createWeathers(random.split(), vehicles);
+        return new SyntheticNetwork(seed, suburbs, orbits, vehicles, weathers);
+    }
+
+    private static List<String> createSuburbs(int suburbCount) {
+        List<String> suburbs = new ArrayList<>(suburbCount);
+        suburbs.add(TrafficInitializer.DEFAULT_SOURCE);
+        suburbs.add(TrafficInitializer.DEFAULT_DESTINATION);
+        for (int suburb = 2; suburb < suburbCount; suburb++)
+            suburbs.add("Suburb" + suburb);
+        return suburbs;
+    }
+
+    private static List<Orbit> createOrbits(SplittableRandom random, List<String> suburbs, int orbitCount) {
+        int suburbCount = suburbs.size();
+        int directOrbitCount = Math.min(orbitCount, Math.max(2, (int) Math.sqrt(orbitCount)));
+        boolean ring = orbitCount - directOrbitCount >= suburbCount;
+
+        List<Orbit> orbits = new ArrayList<>(orbitCount);
+        for (int orbit = 0; orbit < orbitCount; orbit++) {
+            int source;
+            int destination;
+            int ringOrbit = orbit - directOrbitCount;
+            if (orbit < directOrbitCount) {
+                source = 0;
+                destination = 1;
+            } else if (ring && ringOrbit < suburbCount) {
+                source = ringOrbit;
+                destination = (ringOrbit + 1) % suburbCount;
+            } else {
+                // No orbit from a suburb to itself
+                source = random.nextInt(suburbCount);
+                destination = (source + 1 + random.nextInt(suburbCount - 1)) % suburbCount;
+            }
+
+            int speedLimit = random.nextInt(4) == 0 ? random.nextInt(5, 41) : -1;
+            List<SpeedLimitPeriod> speedLimitSchedule = speedLimit > 0 && random.nextBoolean()
+                    ? rushHourSchedule(speedLimit) : null;
+            orbits.add(new Orbit("Orbit" + (orbit + 1), suburbs.get(source), suburbs.get(destination),
+                    random.nextInt(5, 50), random.nextInt(0, 30), new Velocity(speedLimit, SPEED_UNIT), speedLimitSchedule));
+        }
+        return orbits;
+    }
+
+    private static List<SpeedLimitPeriod> rushHourSchedule(int speedLimit) {
+        int rushHourSpeedLimit = Math.max(1, speedLimit / 2);
+        return List.of(new SpeedLimitPeriod(0, speedLimit), new SpeedLimitPeriod(7 * 60, rushHourSpeedLimit),
+                new SpeedLimitPeriod(9 * 60, speedLimit), new SpeedLimitPeriod(16 * 60, rushHourSpeedLimit),
+                new SpeedLimitPeriod(18 * 60, speedLimit));
+    }
+
+    private static List<Vehicle> createVehicles(SplittableRandom random, int vehicleCount) {
+        List<Vehicle> vehicles = new ArrayList<>(vehicleCount);
+        for (int vehicle = 0; vehicle < vehicleCount; vehicle++)
+            vehicles.add(new Vehicle("Vehicle" + (vehicle + 1), new Velocity(random.nextInt(8, 41), SPEED_UNIT),
+                    random.nextInt(1, 6)));
+        return vehicles;
+    }
+
+    private static List<Weather> createWeathers(SplittableRandom random, List<Vehicle> vehicles) {
+        List<Weather> weathers = new ArrayList<>();
+        for (WeatherCondition weatherCondition : WeatherCondition.values()) {
+            // Suitable vehicles are kept in vehicle order, i.e. tie-break order
+            List<String> suitableVehicleNames = new ArrayList<>();
+            for (Vehicle vehicle : vehicles) {
+                if (random.nextInt(3) != 0)
+                    suitableVehicleNames.add(vehicle.getName());
+            }
+            if (suitableVehicleNames.isEmpty())
+                suitableVehicleNames.add(vehicles.get(random.nextInt(vehicles.size())).getName());
+
+            weathers.add(new Weather(weatherCondition, random.nextInt(-20, 21), suitableVehicleNames));
+        }
+        return weathers;
+    }
+}
@@ -0,0 +1,74 @@
+package za.co.titandynamix.synthetic;
+
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.network.NetworkSnapshot;
+
+import java.util.List;
+
+/**
+ * DESCRIPTION - Network created by {@link NetworkGenerator}: suburbs, orbits, vehicles and weathers.
+ * <p>
+ * Suburb 0 is Silk Drob and suburb 1 is Hallitharam, so the default source and destination exist in every network.
+ *
+ * @author clivememela
+ */
+public final class SyntheticNetwork {
+
+    private final long seed;
+    private final List<String> suburbs;
+    private final List<Orbit> orbits;
+    private final List<Vehicle> vehicles;
+    private final List<Weather> weathers;
+
+    SyntheticNetwork(long seed, List<String> suburbs, List<Orbit> orbits, List<Vehicle> vehicles, List<Weather> weathers) {
+        this.seed = seed;
+        this.suburbs = List.copyOf(suburbs);
+        this.orbits = List.copyOf(orbits);
+        this.vehicles = List.copyOf(vehicles);
+        this.weathers = List.copyOf(weathers);
+    }
+
+    /**
+     * This method is responsible for publishing this network through TrafficInitializer,
+     * so it is used by every following query (TrafficFinder, REST API, batch runner).
+     *
+     * @return - Newly published network snapshot
+     */
+    public NetworkSnapshot publish() {
+        return TrafficInitializer.getInstance().publish(orbits, vehicles, weathers);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public List<String> getSuburbs() {
+        return suburbs;
+    }
+
+    public List<Orbit> getOrbits() {
+        return orbits;
+    }
+
+    public List<Vehicle> getVehicles() {
+        return vehicles;
+    }
+
+    public List<Weather> getWeathers() {
+        return weathers;
+    }
+
+    @Override
+    public String toString() {
+        return "SyntheticNetwork" + ": {" +
+                "seed=" + seed +
+                ", suburbs=" + suburbs.size() +
+                ", orbits=" + orbits.size() +
+                ", vehicles=" + vehicles.size() +
+                ", weathers=" + weathers.size() +
+                "}";
+    }
+}
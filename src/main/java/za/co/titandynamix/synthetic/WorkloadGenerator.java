@@ -0,0 +1,187 @@
+package za.co.titandynamix.synthetic;
+
+import za.co.titandynamix.dto.RouteQuery;
+import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.helper.TrafficHelper;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.network.NetworkSnapshot;
+import za.co.titandynamix.network.OrbitGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * DESCRIPTION - Seeded generator of query workloads with skewed (Zipfian) popularity, for a published network.
+ * <p>
+ * A workload is drawn from a catalogue of distinct queries (weather, source, destination and speed limits):
+ * the query of rank r is picked with a probability proportional to 1 / r^exponent, so a few queries are very popular
+ * and most are rare, as with real traffic. The most popular query is Silk Drob to Hallitharam, if both suburbs exist.
+ * Other queries go from a random suburb to one of HUB_COUNT hub suburbs.
+ * <p>
+ * Every query has a speed limit (1 to the speed of the fastest vehicle) for each orbit of its candidate orbit-sequences,
+ * so it is valid input of the REST API, and of TrafficFinder with the orbit-sequences of TrafficHelper.getOrbits.
+ * Source-destination pairs without any route are not used.
+ * <p>
+ * Note: A popular query is the same RouteQuery object each time it is drawn, it must not be modified.
+ *
+ * @author clivememela
+ */
+public final class WorkloadGenerator {
+
+    public static final long DEFAULT_SEED = 42;
+    public static final double DEFAULT_EXPONENT = 1.0;
+
+    // Max attempts to find a source-destination pair with a route, per distinct query
+    private static final int MAX_PAIR_ATTEMPTS = 16;
+
+    // Number of hub suburbs, destination of all queries except Silk Drob to Hallitharam
+    private static final int HUB_COUNT = 16;
+
+    private final TrafficHelper trafficHelper = TrafficHelper.getInstance();
+
+    private final NetworkSnapshot snapshot;
+    private final long seed;
+    private final double exponent;
+
+    public WorkloadGenerator(NetworkSnapshot snapshot) {
+        this(snapshot, DEFAULT_SEED, DEFAULT_EXPONENT);
+    }
+
+    /**
+     * Create a workload generator.
+     *
+     * @param snapshot - Network snapshot the queries are generated for
+     * @param seed - Seed, the same seed always creates the same workload for the same network
+     * @param exponent - Zipf exponent, 0 is uniform popularity and higher values are more skewed
+     * @throws IllegalArgumentException, if the exponent is negative
+     */
+    public WorkloadGenerator(NetworkSnapshot snapshot, long seed, double exponent) {
+        if (exponent < 0 || Double.isNaN(exponent))
+            throw new IllegalArgumentException("Expected a non-negative Zipf exponent, found " + exponent);
+
+        this.snapshot = snapshot;
+        this.seed = seed;
+        this.exponent = exponent;
+    }
+
+    /**
+     * This method is responsible for generating a workload of queryCount queries,
+     * drawn from a catalogue of distinctQueryCount queries with Zipfian popularity.
+     *
+     * @param queryCount - Number of queries of the workload
+     * @param distinctQueryCount - Number of distinct queries to draw from, at least 1
+     * @return - Queries in workload order, empty if the network has no route
+     * @throws IllegalArgumentException, if a count is out of range
+     */
+    public List<RouteQuery> generate(int queryCount, int distinctQueryCount) {
+        if (queryCount < 0 || distinctQueryCount < 1)
+            throw new IllegalArgumentException("Expected at least 0 queries and 1 distinct query, found "
+                    + queryCount + " and " + distinctQueryCount);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        List<RouteQuery> distinctQueries = createDistinctQueries(random.split(), distinctQueryCount);
+        if (distinctQueries.isEmpty())
+            return List.of();
+
+        double[] cumulativeWeights = cumulativeWeights(distinctQueries.size(), exponent);
+        double totalWeight = cumulativeWeights[cumulativeWeights.length - 1];
+
+        SplittableRandom draws = random.split();
+        List<RouteQuery> queries = new ArrayList<>(queryCount);
+        for (int query = 0; query < queryCount; query++)
+            queries.add(distinctQueries.get(rankOf(cumulativeWeights, draws.nextDouble() * totalWeight)));
+        return queries;
+    }
+
+    /**
+     * Create the catalogue of distinct queries, most popular first.
+     */
+    private List<RouteQuery> createDistinctQueries(SplittableRandom random, int distinctQueryCount) {
+        OrbitGraph orbitGraph = snapshot.getOrbitGraph();
+        int suburbCount = orbitGraph.getSuburbCount();
+        if (suburbCount < 2)
+            return List.of();
+
+        List<WeatherCondition> weatherConditions = snapshot.getWeathers().stream().map(Weather::getWeatherCondition)
+                .distinct().toList();
+        if (weatherConditions.isEmpty())
+            return List.of();
+
+        int maxSpeedLimit = Math.max(1, snapshot.getVehicles().stream().mapToInt(WorkloadGenerator::speedOf)
+                .max().orElse(1));
+
+        List<RouteQuery> queries = new ArrayList<>(distinctQueryCount);
+        boolean defaultPair = orbitGraph.getSuburbId(TrafficInitializer.DEFAULT_SOURCE) >= 0
+                && orbitGraph.getSuburbId(TrafficInitializer.DEFAULT_DESTINATION) >= 0;
+
+        /*
+         * Destinations are a few hub suburbs, as with real traffic. It also bounds the route search heuristics
+         * (one search of the whole network per destination and crater change), which dominate on large networks.
+         */
+        int[] destinationIds = new int[Math.min(suburbCount, HUB_COUNT)];
+        for (int hub = 0; hub < destinationIds.length; hub++)
+            destinationIds[hub] = random.nextInt(suburbCount);
+        for (int attempt = 0; queries.size() < distinctQueryCount
+                && attempt < distinctQueryCount * MAX_PAIR_ATTEMPTS; attempt++) {
+            String source;
+            String destination;
+            if (defaultPair && queries.isEmpty()) {
+                source = TrafficInitializer.DEFAULT_SOURCE;
+                destination = TrafficInitializer.DEFAULT_DESTINATION;
+            } else {
+                int destinationId = destinationIds[random.nextInt(destinationIds.length)];
+                source = orbitGraph.getSuburbName((destinationId + 1 + random.nextInt(suburbCount - 1)) % suburbCount);
+                destination = orbitGraph.getSuburbName(destinationId);
+            }
+
+            List<List<Orbit>> orbitSequences = trafficHelper.getOrbits(snapshot, source, destination);
+            if (orbitSequences.isEmpty()) {
+                defaultPair = false;
+                continue;
+            }
+
+            Map<String, Integer> speedLimits = new LinkedHashMap<>();
+            for (List<Orbit> orbitSequence : orbitSequences) {
+                for (Orbit orbit : orbitSequence)
+                    speedLimits.putIfAbsent(orbit.getName(), random.nextInt(1, maxSpeedLimit + 1));
+            }
+
+            String weather = weatherConditions.get(random.nextInt(weatherConditions.size())).toString();
+            queries.add(new RouteQuery(weather, source, destination, speedLimits));
+        }
+        return queries;
+    }
+
+    private static int speedOf(Vehicle vehicle) {
+        return null == vehicle.getVelocity() ? 0 : vehicle.getVelocity().getSpeed();
+    }
+
+    /**
+     * Cumulative Zipf weights: weight of rank r (from 1) is 1 / r^exponent.
+     */
+    private static double[] cumulativeWeights(int rankCount, double exponent) {
+        double[] cumulativeWeights = new double[rankCount];
+        double total = 0;
+        for (int rank = 0; rank < rankCount; rank++) {
+            total += 1.0 / Math.pow(rank + 1, exponent);
+            cumulativeWeights[rank] = total;
+        }
+        return cumulativeWeights;
+    }
+
+    /**
+     * Rank (from 0) of a point in [0, total weight), i.e. the first rank whose cumulative weight is greater.
+     */
+    private static int rankOf(double[] cumulativeWeights, double point) {
+        int index = Arrays.binarySearch(cumulativeWeights, point);
+        int rank = index >= 0 ? index + 1 : -index - 1;
+        return Math.min(rank, cumulativeWeights.length - 1);
+    }
+}
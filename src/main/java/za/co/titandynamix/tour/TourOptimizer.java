@@ -0,0 +1,414 @@
+package za.co.titandynamix.tour;
+
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.finder.TrafficFinder;
+import za.co.titandynamix.helper.TrafficHelper;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TourDetail;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.network.NetworkSnapshot;
+import za.co.titandynamix.network.SpeedLimits;
+import za.co.titandynamix.route.RouteSearch;
+import za.co.titandynamix.route.ShortestPathTree;
+import za.co.titandynamix.utils.ValidationUtils;
+import za.co.titandynamix.validator.TrafficValidator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * DESCRIPTION - Finds the fastest tour from a start suburb visiting a set of suburbs, and the vehicle to use.
+ * <p>
+ * To do this it performs following operations, for each vehicle suitable for the weather:
+ * 	1.	Calculate the fastest time between every pair of suburbs of the tour, one shortest path tree per suburb.
+ * 		This matrix is calculated once and reused by the whole search.
+ * 	2.	Up to {@link #EXACT_LIMIT} suburbs to visit, find the optimum order with bitmask dynamic programming (Held-Karp).
+ * 		Above that, build a nearest-neighbour tour for a fixed sample of first suburbs in parallel, improve each with
+ * 		2-opt restricted to the nearest suburbs and a budget of moves, and keep the fastest one.
+ * 	3.	If the vehicle is the fastest so far, keep the orbit-sequence of each leg of its tour, the trees are dropped.
+ * The fastest vehicle wins, and for the same time the vehicle which comes first in tie-break order (bike, tuktuk, car).
+ * <p>
+ * Searches and tours run on a pool of their own, so a large tour does not hold up the parallel evaluation of queries.
+ * <p>
+ * Note: Orbits are one way, so the time from A to B can differ from B to A; 2-opt accounts for the reversed legs.
+ *
+ * @author clivememela
+ */
+public class TourOptimizer implements AutoCloseable {
+
+    // Up to this many suburbs to visit (excluding the start), the tour is exact
+    public static final int EXACT_LIMIT = 12;
+
+    // Max number of suburbs to visit, the heuristic answers this many within an interactive request
+    public static final int MAX_SUBURBS = 256;
+
+    // Default number of threads of the tour pool
+    public static final int DEFAULT_PARALLELISM = 2;
+
+    // Max number of first suburbs a nearest-neighbour tour is built from
+    static final int MAX_FIRST_SUBURBS = 16;
+
+    // Seed of the sample of first suburbs, so the same query gives the same tour
+    private static final long FIRST_SUBURB_SEED = 7;
+
+    // Number of nearest suburbs of a suburb which 2-opt tries to connect it to
+    static final int NEIGHBOURS = 8;
+
+    // Max number of 2-opt passes over a tour, and of reversals applied to a tour
+    private static final int MAX_IMPROVEMENT_PASSES = 50;
+    private static final int MAX_IMPROVEMENT_MOVES = 4 * MAX_SUBURBS;
+
+    // Time of a leg which can't be travelled. Larger than any possible tour, small enough to be added up without overflow.
+    private static final long NO_ROUTE = 1L << 50;
+
+    private final TrafficHelper trafficHelper;
+
+    // Pool of the shortest path tree searches and heuristic tours
+    private final ForkJoinPool tourPool;
+
+    public TourOptimizer() {
+        this(TrafficHelper.getInstance(), new ForkJoinPool(DEFAULT_PARALLELISM));
+    }
+
+    public TourOptimizer(TrafficHelper trafficHelper, ForkJoinPool tourPool) {
+        this.trafficHelper = trafficHelper;
+        this.tourPool = tourPool;
+    }
+
+    /**
+     * Shut down the tour pool. Tours which are running finish, new tours are rejected.
+     */
+    @Override
+    public void close() {
+        tourPool.shutdown();
+    }
+
+    /**
+     * This method is responsible for finding the fastest tour and vehicle.
+     *
+     * @param weatherType - Weather type, e.g. Sunny
+     * @param start - Start suburb
+     * @param suburbs - Suburbs to visit, in any order. Duplicates and the start suburb are ignored.
+     * @param orbitSpeedLimitMap - Speed limit corresponding to orbit name. Other orbits keep their own speed limit.
+     * @param returnToStart - true if the tour ends at the start suburb
+     * @return - Fastest tour
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if an input is not valid,
+     * 			or ROUTE_NOT_FOUND if no suitable vehicle can visit all suburbs
+     */
+    public TourDetail findFastestTour(String weatherType, String start, Collection<String> suburbs,
+                                      Map<String, Integer> orbitSpeedLimitMap, boolean returnToStart) throws BusinessRuleException {
+        // Read the network once, so a concurrent reload does not change the data used by this query
+        NetworkSnapshot snapshot = trafficHelper.getSnapshot();
+
+        List<String> points = toPoints(start, suburbs);
+        String invalidMessage = TrafficValidator.getInstance().validateNetworkInputs(snapshot, weatherType, points, orbitSpeedLimitMap);
+        if (ValidationUtils.isNotBlank(invalidMessage))
+            throw new BusinessRuleException(TrafficFinder.VALIDATION_FAILED, invalidMessage);
+
+        Weather weather = trafficHelper.getWeatherByType(snapshot, weatherType);
+        SpeedLimits speedLimits = SpeedLimits.of(snapshot, orbitSpeedLimitMap);
+        RouteSearch routeSearch = snapshot.getRouteSearch();
+
+        TourDetail fastestTour = null;
+        long fastestTime = NO_ROUTE;
+        for (Vehicle vehicle : trafficHelper.getSuitableVehicles(snapshot, weather)) {
+            ShortestPathTree[] trees = shortestPathTrees(routeSearch, weather, vehicle, points, speedLimits);
+            long[][] legTimes = legTimes(trees, points);
+            int[] order = points.size() - 1 <= EXACT_LIMIT ? exactTour(legTimes, returnToStart) : heuristicTour(legTimes, returnToStart);
+            long time = tourTime(legTimes, order, returnToStart);
+            if (time < fastestTime) {
+                fastestTime = time;
+                fastestTour = toTourDetail(trees, vehicle, points, order, time, returnToStart);
+            }
+        }
+
+        if (null == fastestTour)
+            throw new BusinessRuleException(TrafficFinder.ROUTE_NOT_FOUND, "System Error: Unable to find a tour visiting all suburbs");
+        return fastestTour;
+    }
+
+    /**
+     * Start suburb followed by the distinct suburbs to visit.
+     *
+     * @throws BusinessRuleException, with error code VALIDATION_FAILED if there is nothing (or too much) to visit
+     */
+    private static List<String> toPoints(String start, Collection<String> suburbs) throws BusinessRuleException {
+        Set<String> points = new LinkedHashSet<>();
+        points.add(start);
+        if (null != suburbs)
+            points.addAll(suburbs);
+
+        if (points.size() < 2)
+            throw new BusinessRuleException(TrafficFinder.VALIDATION_FAILED, "No suburb to visit.");
+        if (points.size() - 1 > MAX_SUBURBS)
+            throw new BusinessRuleException(TrafficFinder.VALIDATION_FAILED, "At most " + MAX_SUBURBS + " suburbs can be visited.");
+        return new ArrayList<>(points);
+    }
+
+    /**
+     * Shortest path tree of every point with a vehicle. One search per point covers all other points.
+     *
+     * @return - trees[from], the routes of the legs starting at 'from' are taken from it
+     */
+    private ShortestPathTree[] shortestPathTrees(RouteSearch routeSearch, Weather weather, Vehicle vehicle, List<String> points,
+                                                 SpeedLimits speedLimits) {
+        ShortestPathTree[] trees = new ShortestPathTree[points.size()];
+        IntStream from = IntStream.range(0, points.size());
+        if (points.size() - 1 <= EXACT_LIMIT) {
+            from.forEach(point -> trees[point] = routeSearch.findShortestPathTree(weather, vehicle, points.get(point), points, speedLimits));
+        } else {
+            // Each search writes its own element
+            tourPool.submit(() -> from.parallel()
+                    .forEach(point -> trees[point] = routeSearch.findShortestPathTree(weather, vehicle, points.get(point), points, speedLimits)))
+                    .join();
+        }
+        return trees;
+    }
+
+    /**
+     * Fastest time between every pair of points.
+     *
+     * @return - legTimes[from][to], NO_ROUTE if 'to' can't be reached from 'from'
+     */
+    private static long[][] legTimes(ShortestPathTree[] trees, List<String> points) {
+        long[][] legTimes = new long[points.size()][points.size()];
+        for (int from = 0; from < legTimes.length; from++) {
+            for (int to = 0; to < legTimes.length; to++) {
+                long time = trees[from].getTime(points.get(to));
+                legTimes[from][to] = time == ShortestPathTree.UNREACHABLE ? NO_ROUTE : time;
+            }
+        }
+        return legTimes;
+    }
+
+    /**
+     * Optimum order of the points by bitmask dynamic programming (Held-Karp), O(2^n * n^2).
+     * State (visited points, last point) -> fastest time from the start. Point 0 is the start.
+     *
+     * @return - Points in visiting order, starting with 0
+     */
+    static int[] exactTour(long[][] legTimes, boolean returnToStart) {
+        int visits = legTimes.length - 1;
+        int full = (1 << visits) - 1;
+        long[][] time = new long[full + 1][visits];
+        int[][] previous = new int[full + 1][visits];
+        for (long[] row : time)
+            Arrays.fill(row, Long.MAX_VALUE);
+        for (int last = 0; last < visits; last++) {
+            time[1 << last][last] = legTimes[0][last + 1];
+            previous[1 << last][last] = -1;
+        }
+
+        for (int visited = 1; visited <= full; visited++) {
+            for (int last = 0; last < visits; last++) {
+                if ((visited & (1 << last)) == 0 || time[visited][last] == Long.MAX_VALUE)
+                    continue;
+                for (int next = 0; next < visits; next++) {
+                    if ((visited & (1 << next)) != 0)
+                        continue;
+                    long arrival = time[visited][last] + legTimes[last + 1][next + 1];
+                    int nextVisited = visited | (1 << next);
+                    if (arrival < time[nextVisited][next]) {
+                        time[nextVisited][next] = arrival;
+                        previous[nextVisited][next] = last;
+                    }
+                }
+            }
+        }
+
+        int bestLast = 0;
+        long bestTime = Long.MAX_VALUE;
+        for (int last = 0; last < visits; last++) {
+            long tourTime = time[full][last] + (returnToStart ? legTimes[last + 1][0] : 0);
+            if (tourTime < bestTime) {
+                bestTime = tourTime;
+                bestLast = last;
+            }
+        }
+
+        int[] order = new int[visits + 1];
+        int visited = full;
+        for (int position = visits, last = bestLast; position > 0; position--) {
+            order[position] = last + 1;
+            int before = previous[visited][last];
+            visited &= ~(1 << last);
+            last = before;
+        }
+        return order;
+    }
+
+    /**
+     * Nearest-neighbour tour for each sampled first point, improved by 2-opt, in parallel. The fastest tour wins,
+     * and for the same time the one which comes first in the sample.
+     *
+     * @return - Points in visiting order, starting with 0
+     */
+    private int[] heuristicTour(long[][] legTimes, boolean returnToStart) {
+        int[] firstPoints = firstPoints(legTimes.length);
+        int[][] neighbours = neighbours(legTimes);
+        return tourPool.submit(() -> Arrays.stream(firstPoints).parallel()
+                .mapToObj(first -> improve(nearestNeighbourTour(legTimes, first), legTimes, neighbours, returnToStart))
+                .reduce((tour, other) -> tourTime(legTimes, other, returnToStart) < tourTime(legTimes, tour, returnToStart) ? other : tour)
+                .orElseThrow()).join();
+    }
+
+    /**
+     * Every point other than the start, or a fixed sample of {@link #MAX_FIRST_SUBURBS} of them.
+     */
+    static int[] firstPoints(int points) {
+        int[] firstPoints = IntStream.range(1, points).toArray();
+        if (firstPoints.length <= MAX_FIRST_SUBURBS)
+            return firstPoints;
+
+        // Partial Fisher-Yates shuffle, the first MAX_FIRST_SUBURBS elements are the sample
+        Random random = new Random(FIRST_SUBURB_SEED);
+        for (int position = 0; position < MAX_FIRST_SUBURBS; position++) {
+            int other = position + random.nextInt(firstPoints.length - position);
+            int point = firstPoints[position];
+            firstPoints[position] = firstPoints[other];
+            firstPoints[other] = point;
+        }
+        return Arrays.copyOf(firstPoints, MAX_FIRST_SUBURBS);
+    }
+
+    /**
+     * Nearest points of every point, the start excluded.
+     *
+     * @return - neighbours[from], up to {@link #NEIGHBOURS} points in order of the time of the leg from 'from'
+     */
+    static int[][] neighbours(long[][] legTimes) {
+        int[][] neighbours = new int[legTimes.length][];
+        for (int point = 0; point < legTimes.length; point++) {
+            int from = point;
+            long[] row = legTimes[from];
+            neighbours[from] = IntStream.range(1, legTimes.length).filter(to -> to != from).boxed()
+                    .sorted(Comparator.comparingLong(to -> row[to])).limit(NEIGHBOURS).mapToInt(Integer::intValue).toArray();
+        }
+        return neighbours;
+    }
+
+    /**
+     * From the start, go to the given first point, then always to the nearest point not visited yet.
+     */
+    static int[] nearestNeighbourTour(long[][] legTimes, int first) {
+        int[] order = new int[legTimes.length];
+        boolean[] visited = new boolean[legTimes.length];
+        visited[0] = true;
+        visited[first] = true;
+        order[1] = first;
+        for (int position = 2; position < order.length; position++) {
+            int current = order[position - 1];
+            int nearest = -1;
+            for (int point = 1; point < legTimes.length; point++) {
+                if (!visited[point] && (nearest < 0 || legTimes[current][point] < legTimes[current][nearest]))
+                    nearest = point;
+            }
+            visited[nearest] = true;
+            order[position] = nearest;
+        }
+        return order;
+    }
+
+    static int[] improve(int[] order, long[][] legTimes, boolean returnToStart) {
+        return improve(order, legTimes, neighbours(legTimes), returnToStart);
+    }
+
+    /**
+     * 2-opt: reverse a segment of the tour whenever that makes it faster, until no reversal helps.
+     * Only reversals which connect a point to one of its nearest points are tried, so a pass is O(n * NEIGHBOURS),
+     * and a tour gets at most {@link #MAX_IMPROVEMENT_MOVES} reversals.
+     * Time of a reversed segment comes from prefix sums of the legs in both directions, so a move is checked in O(1).
+     */
+    static int[] improve(int[] order, long[][] legTimes, int[][] neighbours, boolean returnToStart) {
+        int points = order.length;
+        // With return to start, the start is appended, so the last leg is part of the tour
+        int length = returnToStart ? points + 1 : points;
+        int[] tour = Arrays.copyOf(order, length);
+        int[] positions = new int[points];
+        for (int position = 0; position < points; position++)
+            positions[tour[position]] = position;
+
+        long[] forward = new long[length];
+        long[] backward = new long[length];
+        prefixTimes(tour, legTimes, forward, backward, 1);
+        int moves = 0;
+        boolean improved = true;
+        for (int pass = 0; improved && pass < MAX_IMPROVEMENT_PASSES; pass++) {
+            improved = false;
+            for (int from = 1; from < points - 1 && moves < MAX_IMPROVEMENT_MOVES; from++) {
+                // Reversal of from..to makes tour[to] follow tour[from - 1]
+                for (int neighbour : neighbours[tour[from - 1]]) {
+                    int to = positions[neighbour];
+                    if (to <= from)
+                        continue;
+                    boolean hasNext = to + 1 < length;
+                    long before = legTimes[tour[from - 1]][tour[from]] + forward[to] - forward[from]
+                            + (hasNext ? legTimes[tour[to]][tour[to + 1]] : 0);
+                    long after = legTimes[tour[from - 1]][tour[to]] + backward[to] - backward[from]
+                            + (hasNext ? legTimes[tour[from]][tour[to + 1]] : 0);
+                    if (after < before) {
+                        reverse(tour, positions, from, to);
+                        prefixTimes(tour, legTimes, forward, backward, from);
+                        improved = true;
+                        if (++moves == MAX_IMPROVEMENT_MOVES)
+                            break;
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(tour, points);
+    }
+
+    // forward[p] = time of legs before position p, backward[p] = same legs travelled in the opposite direction.
+    // Positions before 'from' are unchanged.
+    private static void prefixTimes(int[] tour, long[][] legTimes, long[] forward, long[] backward, int from) {
+        for (int position = from; position < tour.length; position++) {
+            forward[position] = forward[position - 1] + legTimes[tour[position - 1]][tour[position]];
+            backward[position] = backward[position - 1] + legTimes[tour[position]][tour[position - 1]];
+        }
+    }
+
+    private static void reverse(int[] tour, int[] positions, int from, int to) {
+        for (; from < to; from++, to--) {
+            int point = tour[from];
+            tour[from] = tour[to];
+            tour[to] = point;
+            positions[tour[from]] = from;
+            positions[tour[to]] = to;
+        }
+    }
+
+    static long tourTime(long[][] legTimes, int[] order, boolean returnToStart) {
+        long time = 0;
+        for (int position = 1; position < order.length; position++)
+            time += legTimes[order[position - 1]][order[position]];
+        return returnToStart ? time + legTimes[order[order.length - 1]][0] : time;
+    }
+
+    /**
+     * Materialize the tour, with the fastest orbit-sequence of each leg taken from the shortest path tree of its first point.
+     * The tour keeps only these orbit-sequences, not the trees.
+     */
+    private static TourDetail toTourDetail(ShortestPathTree[] trees, Vehicle vehicle, List<String> points,
+                                           int[] order, long time, boolean returnToStart) {
+        int[] visits = returnToStart ? Arrays.copyOf(order, order.length + 1) : order;
+        List<String> suburbs = new ArrayList<>();
+        List<List<Orbit>> legs = new ArrayList<>();
+        for (int position = 0; position < visits.length; position++) {
+            suburbs.add(points.get(visits[position]));
+            if (position > 0)
+                legs.add(trees[visits[position - 1]].getRoute(points.get(visits[position])));
+        }
+        return new TourDetail(Math.toIntExact(time), List.copyOf(suburbs), List.copyOf(legs), vehicle);
+    }
+}
@@ -0,0 +1,58 @@
+package za.co.titandynamix.utils;
+
+/**
+ * Traverse time formulas shared by the traverse time calculation and the route search.
+ * <p>
+ * Assumption: Unit of speed limit of orbit and vehicle's speed should be same. Default unit is mega miles/hour.
+ *
+ * @author clivememela
+ */
+public class TraverseTimeUtils {
+
+    public static final int MINUTES_PER_HOUR = 60;
+
+    // Restrict instantiation
+    private TraverseTimeUtils() {
+        super();
+    }
+
+    /**
+     * Apply change rate of the weather on given craters and get actual applicable crater's number.
+     *
+     * @param numberOfCraters - Craters of the orbit(s)
+     * @param craterChangePercentage - Weather's change rate, either +ve (if increase) or -ve (if reduce)
+     * @return - Actual number of craters
+     */
+    public static int adjustCraters(int numberOfCraters, int craterChangePercentage) {
+        return (int) Math.round(numberOfCraters * (100 + craterChangePercentage) / 100.00);
+    }
+
+    /**
+     * A vehicle cannot travel faster than the traffic speed limit of an orbit.
+     * Calculate maximum speed, which is applicable for the orbit with that vehicle.
+     *
+     * @param orbitSpeedLimit - Speed limit of the orbit, 0 or -ve if the orbit has no limit
+     * @param vehicleMaxSpeed - Vehicle's maximum speed
+     * @return - Applicable maximum speed
+     */
+    public static int applicableSpeed(int orbitSpeedLimit, int vehicleMaxSpeed) {
+        return orbitSpeedLimit > 0 ? Math.min(orbitSpeedLimit, vehicleMaxSpeed) : vehicleMaxSpeed;
+    }
+
+    /**
+     * Calculate traverse time of one orbit = distance/applicable speed + crater cross time * number of actual craters.
+     *
+     * @param distance - Distance of the orbit, in mega miles
+     * @param numberOfCraters - Craters of the orbit, before weather is applied
+     * @param orbitSpeedLimit - Speed limit of the orbit, 0 or -ve if the orbit has no limit
+     * @param vehicleMaxSpeed - Vehicle's maximum speed
+     * @param timeToCrossCrater - Vehicle's time to cross one crater, in minutes
+     * @param craterChangePercentage - Weather's change rate of craters
+     * @return - Traverse time in minutes
+     */
+    public static int orbitTraverseTime(int distance, int numberOfCraters, int orbitSpeedLimit,
+                                        int vehicleMaxSpeed, int timeToCrossCrater, int craterChangePercentage) {
+        return ((distance * MINUTES_PER_HOUR) / applicableSpeed(orbitSpeedLimit, vehicleMaxSpeed))
+                + (adjustCraters(numberOfCraters, craterChangePercentage) * timeToCrossCrater);
+    }
+}
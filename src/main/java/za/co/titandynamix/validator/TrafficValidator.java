@@ -1,10 +1,16 @@
 package za.co.titandynamix.validator;
 
 import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.network.NetworkSnapshot;
 import za.co.titandynamix.utils.ValidationUtils;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -48,7 +54,8 @@ public class TrafficValidator {
             invalidMessage.append("No route/orbit found for the given source-destination.");
         else {
             List<String> invalidOrbitNames = orbitSpeedLimitMap.keySet().stream()
-                    .filter(orbitName -> orbitSpeedLimitMap.get(orbitName) < 1).collect(Collectors.toList());
+                    .filter(orbitName -> null == orbitSpeedLimitMap.get(orbitName) || orbitSpeedLimitMap.get(orbitName) < 1)
+                    .collect(Collectors.toList());
             if (ValidationUtils.isNotEmpty(invalidOrbitNames)) {
                 invalidMessage.append("Invalid maximum traffic speed(s) for : ")
                         .append(invalidOrbitNames).append(". \n=== Only +ve integer(s) accepted, please enter valid input(s).");
@@ -58,4 +65,124 @@ public class TrafficValidator {
         return invalidMessage.toString();
     }
 
+    /**
+     * Same as {@link #validateUserInputs(String, Map)}, and also validate that every orbit of the orbit-sequences
+     * has a speed limit.
+     *
+     * @param weatherType - User input
+     * @param orbits - Orbit-sequences between source and destination
+     * @param orbitSpeedLimitMap - Map for user's input (speed limit) and corresponding orbit name
+     *
+     * @return - If something invalid, it will have invalid message
+     */
+    public String validateUserInputs(String weatherType, List<List<Orbit>> orbits, Map<String, Integer> orbitSpeedLimitMap) {
+        String invalidMessage = validateUserInputs(weatherType, orbitSpeedLimitMap);
+        if (ValidationUtils.isNotBlank(invalidMessage) || null == orbits)
+            return invalidMessage;
+
+        List<String> missingOrbitNames = orbits.stream()
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .map(Orbit::getName)
+                .filter(orbitName -> !orbitSpeedLimitMap.containsKey(orbitName))
+                .distinct().collect(Collectors.toList());
+        if (ValidationUtils.isNotEmpty(missingOrbitNames))
+            return "Missing maximum traffic speed(s) for : " + missingOrbitNames + ". \n=== Please enter a speed for every orbit.";
+
+        return invalidMessage;
+    }
+
+    /**
+     * This method is responsible to validate the network data before it is published.
+     * It performs following operations:
+     * 	-	Validate that orbit names are unique, as orbits are looked up by name
+     *
+     * @param orbits - All routes/orbits of the network
+     *
+     * @return - If something invalid, it will have invalid message
+     */
+    public String validateNetwork(List<Orbit> orbits) {
+        Set<String> orbitNames = new HashSet<>();
+        List<String> duplicateOrbitNames = orbits.stream()
+                .map(Orbit::getName)
+                .filter(orbitName -> !orbitNames.add(orbitName))
+                .distinct().collect(Collectors.toList());
+        if (ValidationUtils.isNotEmpty(duplicateOrbitNames))
+            return "Duplicate orbit name(s) : " + duplicateOrbitNames + ". \n=== Every orbit must have a unique name.";
+
+        return "";
+    }
+
+    /**
+     * This method is responsible to validate input parameters of a query over the whole network (any route between
+     * suburbs), where speed limits are optional and given only for some orbits.
+     * It performs following operations:
+     * 	-	Validate weather type
+     * 	-	Validate that the suburbs are part of the network
+     * 	-	Validate that each speed limit belongs to an orbit of the network and is a +ve integer
+     *
+     * @param snapshot - Network snapshot used by the query
+     * @param weatherType - User input
+     * @param suburbs - Suburbs of the query, e.g. source and destination
+     * @param orbitSpeedLimitMap - Map for user's input (speed limit) and corresponding orbit name, may be null
+     *
+     * @return - If something invalid, it will have invalid message
+     */
+    public String validateNetworkInputs(NetworkSnapshot snapshot, String weatherType, Collection<String> suburbs,
+                                        Map<String, Integer> orbitSpeedLimitMap) {
+        StringBuilder invalidMessage = new StringBuilder();
+        if (!WeatherCondition.contains(weatherType))
+            invalidMessage.append("=== please enter a valid weather condition input :  ").append(weatherType).append(" : is invalid \n");
+
+        List<String> unknownSuburbs = suburbs.stream()
+                .filter(suburb -> null == suburb || snapshot.getOrbitGraph().getSuburbId(suburb) < 0)
+                .distinct().collect(Collectors.toList());
+        if (ValidationUtils.isNotEmpty(unknownSuburbs))
+            invalidMessage.append("Unknown suburb(s) : ").append(unknownSuburbs).append(" \n");
+
+        if (null != orbitSpeedLimitMap) {
+            List<String> invalidOrbitNames = orbitSpeedLimitMap.entrySet().stream()
+                    .filter(entry -> snapshot.getOrbitGraph().getOrbitId(entry.getKey()) < 0
+                            || null == entry.getValue() || entry.getValue() < 1)
+                    .map(Map.Entry::getKey).collect(Collectors.toList());
+            if (ValidationUtils.isNotEmpty(invalidOrbitNames))
+                invalidMessage.append("Invalid maximum traffic speed(s) for : ").append(invalidOrbitNames)
+                        .append(". \n=== Only +ve integer(s) of known orbit(s) accepted.");
+        }
+
+        return invalidMessage.toString();
+    }
+
+    /**
+     * This method is responsible to validate the transfer penalties of a multi-modal query.
+     * It performs following operations:
+     * 	-	Validate that the default penalty is 0 or a +ve integer
+     * 	-	Validate that each penalty belongs to a vehicle of the network and is 0 or a +ve integer
+     *
+     * @param snapshot - Network snapshot used by the query
+     * @param transferPenalty - Penalty of switching to a vehicle without its own penalty, in minutes
+     * @param vehicleTransferPenaltyMap - Map for user's input (transfer penalty) and corresponding vehicle name, may be null
+     *
+     * @return - If something invalid, it will have invalid message
+     */
+    public String validateTransferPenalties(NetworkSnapshot snapshot, int transferPenalty,
+                                            Map<String, Integer> vehicleTransferPenaltyMap) {
+        StringBuilder invalidMessage = new StringBuilder();
+        if (transferPenalty < 0)
+            invalidMessage.append("Invalid transfer penalty : ").append(transferPenalty)
+                    .append(". \n=== Only 0 or +ve integer(s) accepted. \n");
+
+        if (null != vehicleTransferPenaltyMap) {
+            List<String> invalidVehicleNames = vehicleTransferPenaltyMap.entrySet().stream()
+                    .filter(entry -> !snapshot.getVehicleNames().contains(entry.getKey())
+                            || null == entry.getValue() || entry.getValue() < 0)
+                    .map(Map.Entry::getKey).collect(Collectors.toList());
+            if (ValidationUtils.isNotEmpty(invalidVehicleNames))
+                invalidMessage.append("Invalid transfer penalty(s) for : ").append(invalidVehicleNames)
+                        .append(". \n=== Only 0 or +ve integer(s) of known vehicle(s) accepted.");
+        }
+
+        return invalidMessage.toString();
+    }
+
 }
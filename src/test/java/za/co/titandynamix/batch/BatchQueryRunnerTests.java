@@ -0,0 +1,134 @@
+package za.co.titandynamix.batch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.finder.TrafficFinder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchQueryRunnerTests {
+
+	private static final String HEADER = "weather,Orbit1,Orbit2";
+
+	private static final List<String> WEATHER_TYPES = List.of("Sunny", "Rainy", "Windy", "sunny", " RAINY ");
+
+	private final TrafficFinder trafficFinder = new TrafficFinder();
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void linesStraddlingWindowsAreParsedOnce() throws IOException, BusinessRuleException {
+		String input = queries(200, "\n");
+
+		// A 32 byte window holds the header and ends inside a query line most of the time
+		List<String> expected = run(input, new BatchQueryRunner(trafficFinder));
+		List<String> actual = run(input, new BatchQueryRunner(trafficFinder, 7, 32));
+
+		assertEquals(201, expected.size());
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	void crlfLineEndingsMatchLfLineEndings() throws IOException, BusinessRuleException {
+		List<String> expected = run(queries(50, "\n"), new BatchQueryRunner(trafficFinder));
+		List<String> actual = run(queries(50, "\r\n"), new BatchQueryRunner(trafficFinder, 4, 32));
+
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	void blankAndMalformedLinesAreReported() throws IOException, BusinessRuleException {
+		String input = HEADER + "\r\n"
+				+ "Sunny,12,10\n"
+				+ "\n"
+				+ "Foggy,12,10\n"
+				+ "\r\n"
+				+ "Sunny,abc,10\n"
+				+ "Rainy,12\n"
+				+ "Windy,0,10\n"
+				+ "Windy,14,20";
+		Path output = directory.resolve("results.csv");
+
+		BatchReport report = new BatchQueryRunner(trafficFinder, 2, 16 * 1024).run(write(input), output);
+		List<String> results = Files.readAllLines(output, StandardCharsets.UTF_8);
+
+		// Blank lines are not queries
+		assertEquals(6, report.getQueries());
+		assertEquals(4, report.getFailures());
+		assertEquals(List.of(
+				"row,status,vehicle,orbits,traverseTime",
+				"1,OK,Tuktuk,Orbit1,108",
+				"2,INVALID_WEATHER,,,",
+				"3,INVALID_SPEED_LIMIT,,,",
+				"4,INVALID_SPEED_LIMIT,,,",
+				"5,INVALID_SPEED_LIMIT,,,"), results.subList(0, 6));
+		assertTrue(results.get(6).startsWith("6,OK,"));
+	}
+
+	@Test
+	void resultCountMatchesQueryCount() throws IOException, BusinessRuleException {
+		for (int queries : new int[]{1, 6, 7, 8, 100}) {
+			Path output = directory.resolve("results-" + queries + ".csv");
+
+			BatchReport report = new BatchQueryRunner(trafficFinder, 7, 64).run(write(queries(queries, "\n")), output);
+
+			assertEquals(queries, report.getQueries());
+			assertEquals(0, report.getFailures());
+			assertEquals(queries + 1, Files.readAllLines(output, StandardCharsets.UTF_8).size());
+		}
+	}
+
+	@Test
+	void lineLongerThanWindowIsRejected() throws IOException {
+		Path input = write(queries(10, "\n"));
+
+		assertThrows(IOException.class,
+				() -> new BatchQueryRunner(trafficFinder, 7, 8).run(input, directory.resolve("results.csv")));
+	}
+
+	@Test
+	void invalidHeaderIsRejected() throws IOException {
+		Path input = write("Orbit1,Orbit2\n12,10\n");
+
+		BusinessRuleException exception = assertThrows(BusinessRuleException.class,
+				() -> new BatchQueryRunner(trafficFinder).run(input, directory.resolve("results.csv")));
+		assertEquals(TrafficFinder.VALIDATION_FAILED, exception.getErrorCode());
+	}
+
+	private String queries(int count, String lineBreak) {
+		Random random = new Random(count);
+		StringBuilder input = new StringBuilder(HEADER).append(lineBreak);
+		for (int query = 0; query < count; query++) {
+			input.append(WEATHER_TYPES.get(random.nextInt(WEATHER_TYPES.size())))
+					.append(',').append(1 + random.nextInt(30))
+					.append(',').append(1 + random.nextInt(30));
+			// Last line ends without a line break every other file
+			if (query < count - 1 || count % 2 == 0)
+				input.append(lineBreak);
+		}
+		return input.toString();
+	}
+
+	private List<String> run(String input, BatchQueryRunner runner) throws IOException, BusinessRuleException {
+		Path output = Files.createTempFile(directory, "results", ".csv");
+		runner.run(write(input), output);
+		return Files.readAllLines(output, StandardCharsets.UTF_8);
+	}
+
+	private Path write(String input) throws IOException {
+		Path file = Files.createTempFile(directory, "queries", ".csv");
+		Files.writeString(file, input, StandardCharsets.UTF_8);
+		return file;
+	}
+}
@@ -0,0 +1,63 @@
+package za.co.titandynamix.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import za.co.titandynamix.dto.RouteResult;
+import za.co.titandynamix.dto.TourQuery;
+import za.co.titandynamix.dto.TourResult;
+import za.co.titandynamix.finder.OptimumQueryCoalescer;
+import za.co.titandynamix.finder.TrafficFinder;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.tour.TourOptimizer;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RouteControllerTests {
+
+	private final TrafficFinder trafficFinder = new TrafficFinder();
+
+	private final RouteController routeController = new RouteController(trafficFinder,
+			new OptimumQueryCoalescer(trafficFinder), new TourOptimizer());
+
+	private final Map<String, Integer> speedLimits = Map.of("Orbit1", 12, "Orbit2", 10);
+
+	@Test
+	void tourVisitsSuburbsWithFastestVehicle() {
+		ResponseEntity<TourResult> response = routeController.findFastestTour(new TourQuery("Sunny", null,
+				List.of(TrafficInitializer.DEFAULT_DESTINATION), speedLimits, false));
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		TourResult result = response.getBody();
+		assertEquals(RouteResult.OK, result.getStatus());
+		assertEquals("Tuktuk", result.getVehicle());
+		assertEquals(List.of(TrafficInitializer.DEFAULT_SOURCE, TrafficInitializer.DEFAULT_DESTINATION), result.getSuburbs());
+		assertEquals(List.of(List.of("Orbit1")), result.getLegs());
+		assertEquals(Integer.valueOf(108), result.getTraverseTime());
+	}
+
+	@Test
+	void tourWithoutRouteBackIsNotFound() {
+		ResponseEntity<TourResult> response = routeController.findFastestTour(new TourQuery("Sunny", null,
+				List.of(TrafficInitializer.DEFAULT_DESTINATION), speedLimits, true));
+
+		assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+		assertEquals(TrafficFinder.ROUTE_NOT_FOUND, response.getBody().getStatus());
+	}
+
+	@Test
+	void invalidTourQueryIsRejected() {
+		ResponseEntity<TourResult> invalidWeather = routeController.findFastestTour(new TourQuery("Foggy", null,
+				List.of(TrafficInitializer.DEFAULT_DESTINATION), speedLimits, false));
+		ResponseEntity<TourResult> nothingToVisit = routeController.findFastestTour(new TourQuery("Sunny", null,
+				List.of(), speedLimits, false));
+
+		assertEquals(HttpStatus.BAD_REQUEST, invalidWeather.getStatusCode());
+		assertEquals(TrafficFinder.VALIDATION_FAILED, invalidWeather.getBody().getStatus());
+		assertEquals(HttpStatus.BAD_REQUEST, nothingToVisit.getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, routeController.findFastestTour(null).getStatusCode());
+	}
+}
@@ -0,0 +1,55 @@
+package za.co.titandynamix.finder;
+
+import org.junit.jupiter.api.Test;
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TraverseDetail;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimumDecisionTableTests {
+
+	private final TrafficFinder trafficFinder = new TrafficFinder();
+
+	private final List<List<Orbit>> orbits = trafficFinder.getTrafficHelper()
+			.getOrbits(TrafficInitializer.DEFAULT_SOURCE, TrafficInitializer.DEFAULT_DESTINATION);
+
+	@Test
+	void decisionTableMatchesFinder() throws BusinessRuleException {
+		for (String weatherType : List.of("Sunny", "Rainy", "Windy")) {
+			OptimumDecisionTable decisionTable = trafficFinder.compileDecisionTable(weatherType, orbits);
+			for (int orbit1SpeedLimit = 1; orbit1SpeedLimit <= 25; orbit1SpeedLimit++) {
+				for (int orbit2SpeedLimit = 1; orbit2SpeedLimit <= 25; orbit2SpeedLimit++) {
+					Map<String, Integer> speedLimits = Map.of("Orbit1", orbit1SpeedLimit, "Orbit2", orbit2SpeedLimit);
+					TraverseDetail expected = trafficFinder.calculateOptimumTraverseDetail(weatherType, orbits, speedLimits);
+					TraverseDetail actual = trafficFinder.calculateOptimumTraverseDetail(decisionTable, speedLimits);
+
+					assertEquals(expected.getTraverseTime(), actual.getTraverseTime());
+					assertEquals(expected.getVehicle().getName(), actual.getVehicle().getName());
+					assertEquals(expected.getOrbits(), actual.getOrbits());
+				}
+			}
+		}
+	}
+
+	@Test
+	void invalidSpeedLimitIsRejected() throws BusinessRuleException {
+		OptimumDecisionTable decisionTable = trafficFinder.compileDecisionTable("Sunny", orbits);
+
+		BusinessRuleException exception = assertThrows(BusinessRuleException.class,
+				() -> trafficFinder.calculateOptimumTraverseDetail(decisionTable, Map.of("Orbit1", 0, "Orbit2", 10)));
+		assertEquals(TrafficFinder.VALIDATION_FAILED, exception.getErrorCode());
+	}
+
+	@Test
+	void invalidWeatherIsRejected() {
+		BusinessRuleException exception = assertThrows(BusinessRuleException.class,
+				() -> trafficFinder.compileDecisionTable("Foggy", orbits));
+		assertEquals(TrafficFinder.VALIDATION_FAILED, exception.getErrorCode());
+	}
+}
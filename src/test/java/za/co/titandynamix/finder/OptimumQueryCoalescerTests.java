@@ -0,0 +1,120 @@
+package za.co.titandynamix.finder;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import za.co.titandynamix.config.TrafficConfiguration;
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TraverseDetail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class OptimumQueryCoalescerTests {
+
+	private static final int CALLERS = 16;
+
+	private final List<List<Orbit>> orbits = new TrafficFinder().getTrafficHelper()
+			.getOrbits(TrafficInitializer.DEFAULT_SOURCE, TrafficInitializer.DEFAULT_DESTINATION);
+
+	private final Map<String, Integer> speedLimits = Map.of("Orbit1", 12, "Orbit2", 10);
+
+	@Test
+	void identicalConcurrentQueriesAreCalculatedOnce() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger calculations = new AtomicInteger();
+		TrafficFinder blockingFinder = new TrafficFinder() {
+			@Override
+			public TraverseDetail calculateOptimumTraverseDetail(String weatherType, List<List<Orbit>> orbits,
+																 Map<String, Integer> orbitSpeedLimitMap) throws BusinessRuleException {
+				calculations.incrementAndGet();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return super.calculateOptimumTraverseDetail(weatherType, orbits, orbitSpeedLimitMap);
+			}
+		};
+		OptimumQueryCoalescer coalescer = new OptimumQueryCoalescer(blockingFinder);
+
+		List<Future<TraverseDetail>> futures = new ArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+		try {
+			for (int caller = 0; caller < CALLERS; caller++)
+				futures.add(executor.submit(() -> coalescer.calculateOptimumTraverseDetail("Sunny", orbits, speedLimits)));
+
+			// All callers but the calculating one wait for its result
+			assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+				while (coalescer.getCoalescedCount() < CALLERS - 1)
+					Thread.sleep(1);
+			});
+			release.countDown();
+
+			TraverseDetail expected = futures.get(0).get(10, TimeUnit.SECONDS);
+			for (Future<TraverseDetail> future : futures)
+				assertSame(expected, future.get(10, TimeUnit.SECONDS));
+		} finally {
+			// Let a blocked calculation finish, if waiting for the callers timed out
+			release.countDown();
+			executor.shutdownNow();
+		}
+
+		assertEquals(1, calculations.get());
+		assertEquals(1, coalescer.getComputedCount());
+		assertEquals(CALLERS - 1, coalescer.getCoalescedCount());
+		assertEquals(0, coalescer.getInFlightCount());
+	}
+
+	@Test
+	void completedQueryIsCalculatedAgain() {
+		OptimumQueryCoalescer coalescer = new OptimumQueryCoalescer(new TrafficFinder());
+
+		String first = coalescer.calculateOptimumTime("Sunny", orbits, speedLimits);
+		String second = coalescer.calculateOptimumTime("Sunny", orbits, speedLimits);
+
+		assertEquals(first, second);
+		assertEquals(2, coalescer.getComputedCount());
+		assertEquals(0, coalescer.getCoalescedCount());
+	}
+
+	@Test
+	void metersAreRegisteredInTheApplicationRegistry() {
+		MeterRegistry registry = new SimpleMeterRegistry();
+		TrafficConfiguration configuration = new TrafficConfiguration();
+		OptimumQueryCoalescer coalescer = configuration.optimumQueryCoalescer(
+				configuration.optimumTimeCache(new TrafficFinder(), 10), registry);
+
+		coalescer.calculateOptimumTime("Sunny", orbits, speedLimits);
+
+		assertEquals(1.0, registry.find(OptimumQueryCoalescer.COALESCING_COUNTER)
+				.tag("result", OptimumQueryCoalescer.COMPUTED).functionCounter().count());
+		assertEquals(0.0, registry.find(OptimumQueryCoalescer.COALESCING_COUNTER)
+				.tag("result", OptimumQueryCoalescer.COALESCED).functionCounter().count());
+		assertEquals(0.0, registry.find(OptimumQueryCoalescer.IN_FLIGHT_GAUGE).gauge().value());
+	}
+
+	@Test
+	void invalidQueryIsNotCoalesced() {
+		OptimumQueryCoalescer coalescer = new OptimumQueryCoalescer(new TrafficFinder());
+
+		String message = coalescer.calculateOptimumTime("Foggy", orbits, speedLimits);
+
+		assertEquals(new TrafficFinder().calculateOptimumTime("Foggy", orbits, speedLimits), message);
+		assertEquals(0, coalescer.getComputedCount());
+	}
+}
@@ -0,0 +1,129 @@
+package za.co.titandynamix.finder;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TraverseDetail;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class OptimumTimeCacheTests {
+
+	private final List<List<Orbit>> orbits = new TrafficFinder().getTrafficHelper()
+			.getOrbits(TrafficInitializer.DEFAULT_SOURCE, TrafficInitializer.DEFAULT_DESTINATION);
+
+	// Counts the calculations of both methods, calculateOptimumTime uses calculateOptimumTraverseDetail
+	private final AtomicInteger calculations = new AtomicInteger();
+	private final TrafficFinder countingFinder = new TrafficFinder() {
+		@Override
+		public TraverseDetail calculateOptimumTraverseDetail(String weatherType, List<List<Orbit>> orbits,
+															 Map<String, Integer> orbitSpeedLimitMap) throws BusinessRuleException {
+			calculations.incrementAndGet();
+			return super.calculateOptimumTraverseDetail(weatherType, orbits, orbitSpeedLimitMap);
+		}
+	};
+
+	@AfterEach
+	void restoreNetwork() {
+		TrafficInitializer.getInstance().reload();
+	}
+
+	@Test
+	void repeatedQueryIsAnsweredFromCache() {
+		OptimumTimeCache cache = new OptimumTimeCache(countingFinder);
+
+		String miss = cache.calculateOptimumTime("Sunny", orbits, speedLimits(12, 10));
+		// Same speed limits in another order
+		Map<String, Integer> reordered = new LinkedHashMap<>();
+		reordered.put("Orbit2", 10);
+		reordered.put("Orbit1", 12);
+		String hit = cache.calculateOptimumTime("sunny", orbits, reordered);
+
+		assertSame(miss, hit);
+		assertEquals(1, calculations.get());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getHitCount());
+	}
+
+	@Test
+	void otherSpeedLimitsAreCalculated() {
+		OptimumTimeCache cache = new OptimumTimeCache(countingFinder);
+
+		String first = cache.calculateOptimumTime("Sunny", orbits, speedLimits(12, 10));
+		String second = cache.calculateOptimumTime("Sunny", orbits, speedLimits(40, 10));
+
+		assertEquals(countingFinder.calculateOptimumTime("Sunny", orbits, speedLimits(12, 10)), first);
+		assertEquals(countingFinder.calculateOptimumTime("Sunny", orbits, speedLimits(40, 10)), second);
+		assertEquals(2, cache.getMissCount());
+		assertEquals(0, cache.getHitCount());
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvicted() {
+		OptimumTimeCache cache = new OptimumTimeCache(countingFinder, 2);
+
+		cache.calculateOptimumTime("Sunny", orbits, speedLimits(1, 1));
+		cache.calculateOptimumTime("Sunny", orbits, speedLimits(2, 2));
+		// Used again, so (2, 2) is the least recently used entry
+		cache.calculateOptimumTime("Sunny", orbits, speedLimits(1, 1));
+		cache.calculateOptimumTime("Sunny", orbits, speedLimits(3, 3));
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(2, cache.size());
+
+		calculations.set(0);
+		cache.calculateOptimumTime("Sunny", orbits, speedLimits(1, 1));
+		cache.calculateOptimumTime("Sunny", orbits, speedLimits(3, 3));
+		assertEquals(0, calculations.get());
+		cache.calculateOptimumTime("Sunny", orbits, speedLimits(2, 2));
+		assertEquals(1, calculations.get());
+	}
+
+	@Test
+	void reloadInvalidatesEntries() {
+		OptimumTimeCache cache = new OptimumTimeCache(countingFinder);
+		cache.calculateOptimumTime("Sunny", orbits, speedLimits(12, 10));
+
+		TrafficInitializer.getInstance().reload();
+		cache.calculateOptimumTime("Sunny", orbits, speedLimits(12, 10));
+
+		assertEquals(2, calculations.get());
+		assertEquals(1, cache.getInvalidationCount());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	void invalidQueryIsNotCached() {
+		OptimumTimeCache cache = new OptimumTimeCache(countingFinder);
+
+		// No speed limit for Orbit2, which is part of the orbit-sequences
+		String message = cache.calculateOptimumTime("Sunny", orbits, Map.of("Orbit1", 12));
+
+		assertEquals(new TrafficFinder().calculateOptimumTime("Sunny", orbits, Map.of("Orbit1", 12)), message);
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getMissCount());
+	}
+
+	@Test
+	void coalescerFallsThroughToCache() throws BusinessRuleException {
+		OptimumQueryCoalescer coalescer = new OptimumQueryCoalescer(new OptimumTimeCache(countingFinder));
+
+		TraverseDetail first = coalescer.calculateOptimumTraverseDetail("Sunny", orbits, speedLimits(12, 10));
+		TraverseDetail second = coalescer.calculateOptimumTraverseDetail("Sunny", orbits, speedLimits(12, 10));
+
+		assertSame(first, second);
+		assertEquals(1, calculations.get());
+		assertEquals(2, coalescer.getComputedCount());
+	}
+
+	private static Map<String, Integer> speedLimits(int orbit1, int orbit2) {
+		return Map.of("Orbit1", orbit1, "Orbit2", orbit2);
+	}
+}
@@ -0,0 +1,75 @@
+package za.co.titandynamix.finder;
+
+import org.junit.jupiter.api.Test;
+import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TraverseDetail;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScenarioEvaluatorTests {
+
+	private static final int SCENARIOS = 500;
+
+	private static final List<String> ORBIT_NAMES = List.of("Orbit1", "Orbit2");
+
+	private final TrafficFinder trafficFinder = new TrafficFinder();
+
+	private final List<List<Orbit>> orbits = trafficFinder.getTrafficHelper()
+			.getOrbits(TrafficInitializer.DEFAULT_SOURCE, TrafficInitializer.DEFAULT_DESTINATION);
+
+	@Test
+	void scenarioResultsMatchSingleQueries() throws BusinessRuleException {
+		Random random = new Random(13);
+		WeatherCondition[] weatherConditions = WeatherCondition.values();
+		byte[] weatherCodes = new byte[SCENARIOS];
+		int[] speedLimits = new int[SCENARIOS * ORBIT_NAMES.size()];
+		for (int scenario = 0; scenario < SCENARIOS; scenario++) {
+			weatherCodes[scenario] = ScenarioBatch.weatherCode(weatherConditions[random.nextInt(weatherConditions.length)]);
+			for (int column = 0; column < ORBIT_NAMES.size(); column++)
+				speedLimits[scenario * ORBIT_NAMES.size() + column] = 1 + random.nextInt(30);
+		}
+
+		ScenarioResults results = trafficFinder.calculateOptimumTimes(new ScenarioBatch(orbits, ORBIT_NAMES, weatherCodes, speedLimits));
+
+		assertEquals(SCENARIOS, results.size());
+		assertEquals(0, results.getFailureCount());
+		for (int scenario = 0; scenario < SCENARIOS; scenario++) {
+			String weatherType = weatherConditions[weatherCodes[scenario]].toString();
+			Map<String, Integer> orbitSpeedLimitMap = new HashMap<>();
+			for (int column = 0; column < ORBIT_NAMES.size(); column++)
+				orbitSpeedLimitMap.put(ORBIT_NAMES.get(column), speedLimits[scenario * ORBIT_NAMES.size() + column]);
+
+			TraverseDetail expected = trafficFinder.calculateOptimumTraverseDetail(weatherType, orbits, orbitSpeedLimitMap);
+			TraverseDetail actual = results.toTraverseDetail(scenario);
+
+			assertTrue(results.isOk(scenario));
+			assertEquals(expected.getTraverseTime(), actual.getTraverseTime());
+			assertEquals(expected.getVehicle().getName(), actual.getVehicle().getName());
+			assertEquals(expected.getOrbits(), actual.getOrbits());
+			assertEquals(trafficFinder.calculateOptimumTime(weatherType, orbits, orbitSpeedLimitMap),
+					trafficFinder.getTrafficHelper().generateOutputMessage(actual));
+		}
+	}
+
+	@Test
+	void invalidScenarioDoesNotFailTheBatch() throws BusinessRuleException {
+		byte[] weatherCodes = {ScenarioBatch.weatherCode(WeatherCondition.SUNNY), -1, ScenarioBatch.weatherCode(WeatherCondition.RAINY)};
+		int[] speedLimits = {12, 10, 12, 10, 0, 10};
+
+		ScenarioResults results = trafficFinder.calculateOptimumTimes(new ScenarioBatch(orbits, ORBIT_NAMES, weatherCodes, speedLimits));
+
+		assertTrue(results.isOk(0));
+		assertEquals(ScenarioResults.INVALID_WEATHER, results.getStatus(1));
+		assertEquals(ScenarioResults.INVALID_SPEED_LIMIT, results.getStatus(2));
+		assertEquals(2, results.getFailureCount());
+	}
+}
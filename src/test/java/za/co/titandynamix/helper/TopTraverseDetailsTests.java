@@ -0,0 +1,143 @@
+package za.co.titandynamix.helper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.finder.TrafficFinder;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TraverseDetail;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Velocity;
+import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.network.NetworkSnapshot;
+import za.co.titandynamix.network.SpeedLimits;
+import za.co.titandynamix.synthetic.NetworkGenerator;
+import za.co.titandynamix.synthetic.SyntheticNetwork;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopTraverseDetailsTests {
+
+	private static final String UNIT = "megamiles/hour";
+
+	private final TrafficHelper trafficHelper = TrafficHelper.getInstance();
+
+	private final TrafficFinder trafficFinder = new TrafficFinder();
+
+	@AfterEach
+	void restoreDefaults() {
+		trafficHelper.configureParallelEvaluation(ForkJoinPool.commonPool(), TrafficHelper.DEFAULT_PARALLEL_THRESHOLD);
+		TrafficInitializer.getInstance().reload();
+	}
+
+	@Test
+	void topCandidatesMatchTruncatedSort() {
+		Random random = new Random(3);
+		for (int round = 0; round < 100; round++) {
+			// Few distinct times, so many candidates tie
+			long[] candidates = new long[1 + random.nextInt(200)];
+			for (int candidate = 0; candidate < candidates.length; candidate++)
+				candidates[candidate] = OptimumSearchTask.pack(random.nextInt(20), candidate);
+			long[] sorted = candidates.clone();
+			Arrays.sort(sorted);
+
+			for (int k : new int[]{1, 2, 10, candidates.length, candidates.length + 7}) {
+				TopCandidates topCandidates = new TopCandidates(k);
+				TopCandidates first = new TopCandidates(k);
+				TopCandidates second = new TopCandidates(k);
+				for (int candidate = 0; candidate < candidates.length; candidate++) {
+					topCandidates.offer(candidates[candidate]);
+					(candidate % 2 == 0 ? first : second).offer(candidates[candidate]);
+				}
+
+				long[] expected = Arrays.copyOf(sorted, Math.min(k, sorted.length));
+				assertArrayEquals(expected, topCandidates.toSortedArray());
+				assertArrayEquals(expected, TopCandidates.merge(first, second, k).toSortedArray());
+			}
+		}
+	}
+
+	@Test
+	void topTraverseDetailsMatchTruncatedSort() {
+		SyntheticNetwork network = new NetworkGenerator(7).generate(40, 400, 3);
+		NetworkSnapshot snapshot = network.publish();
+		SpeedLimits speedLimits = SpeedLimits.of(snapshot, Map.of());
+
+		// Every orbit-sequence twice, so candidates of the same vehicle tie as well
+		List<List<Orbit>> orbitSequences = new ArrayList<>();
+		for (String destination : network.getSuburbs().subList(1, 6))
+			orbitSequences.addAll(trafficHelper.getOrbits(snapshot, TrafficInitializer.DEFAULT_SOURCE, destination));
+		orbitSequences.addAll(List.copyOf(orbitSequences));
+
+		for (int threshold : new int[]{TrafficHelper.DEFAULT_PARALLEL_THRESHOLD, 1}) {
+			trafficHelper.configureParallelEvaluation(ForkJoinPool.commonPool(), threshold);
+			for (Weather weather : network.getWeathers()) {
+				List<Vehicle> vehicles = trafficHelper.getSuitableVehicles(snapshot, weather);
+				// Stable sort: same time keeps the vehicle, then orbit-sequence order
+				List<TraverseDetail> sorted = trafficHelper.getTraverseDetails(weather, vehicles, orbitSequences, speedLimits)
+						.stream().sorted(Comparator.comparingInt(TraverseDetail::getTraverseTime)).toList();
+
+				for (int k : new int[]{1, 5, 17, sorted.size(), sorted.size() + 10}) {
+					List<TraverseDetail> top = trafficHelper.findTopTraverseDetails(weather, vehicles, orbitSequences, speedLimits, k);
+					assertEquals(sorted.subList(0, Math.min(k, sorted.size())), top);
+				}
+			}
+		}
+	}
+
+	@Test
+	void tiesFollowVehicleOrder() throws BusinessRuleException {
+		// Same speed and crater time, so every orbit-sequence takes both vehicles the same time
+		Vehicle first = new Vehicle("First", new Velocity(10, UNIT), 2);
+		Vehicle second = new Vehicle("Second", new Velocity(10, UNIT), 2);
+		Weather sunny = new Weather(WeatherCondition.SUNNY, -10, List.of("Second", "First"));
+		List<Orbit> orbits = List.of(
+				new Orbit("Orbit1", "Silk Drob", "Hallitharam", 18, 20, new Velocity(-1, UNIT)),
+				new Orbit("Orbit2", "Silk Drob", "Hallitharam", 20, 10, new Velocity(-1, UNIT)));
+		TrafficInitializer.getInstance().publish(orbits, List.of(first, second), List.of(sunny));
+		List<List<Orbit>> orbitSequences = trafficHelper.getOrbits(TrafficInitializer.DEFAULT_SOURCE,
+				TrafficInitializer.DEFAULT_DESTINATION);
+
+		List<TraverseDetail> options = trafficFinder.calculateTopTraverseDetails("Sunny", orbitSequences,
+				Map.of("Orbit1", 20, "Orbit2", 20), 3);
+		List<TraverseDetail> routeOptions = trafficFinder.calculateTopTraverseDetails("Sunny",
+				TrafficInitializer.DEFAULT_SOURCE, TrafficInitializer.DEFAULT_DESTINATION, Map.of(), 4);
+
+		assertEquals(List.of("First", "Second", "First"), options.stream().map(option -> option.getVehicle().getName()).toList());
+		assertEquals(options.get(0).getTraverseTime(), options.get(1).getTraverseTime());
+		assertEquals(options.get(0).getOrbits(), options.get(1).getOrbits());
+		assertEquals(List.of("First", "Second", "First", "Second"),
+				routeOptions.stream().map(option -> option.getVehicle().getName()).toList());
+	}
+
+	@Test
+	void kLargerThanCandidatesReturnsAllCandidates() throws BusinessRuleException {
+		List<List<Orbit>> orbitSequences = trafficHelper.getOrbits(TrafficInitializer.DEFAULT_SOURCE,
+				TrafficInitializer.DEFAULT_DESTINATION);
+		Map<String, Integer> speedLimits = Map.of("Orbit1", 12, "Orbit2", 10);
+
+		List<TraverseDetail> options = trafficFinder.calculateTopTraverseDetails("Sunny", orbitSequences, speedLimits,
+				TrafficFinder.MAX_OPTIONS);
+		List<TraverseDetail> routeOptions = trafficFinder.calculateTopTraverseDetails("Sunny",
+				TrafficInitializer.DEFAULT_SOURCE, TrafficInitializer.DEFAULT_DESTINATION, speedLimits, TrafficFinder.MAX_OPTIONS);
+
+		// Bike, Tuktuk and Car on both orbits
+		assertEquals(6, options.size());
+		assertEquals(options, routeOptions);
+		assertEquals(trafficFinder.calculateOptimumTraverseDetail("Sunny", orbitSequences, speedLimits), options.get(0));
+		for (int option = 1; option < options.size(); option++)
+			assertTrue(options.get(option - 1).getTraverseTime() <= options.get(option).getTraverseTime());
+	}
+}
@@ -0,0 +1,98 @@
+package za.co.titandynamix.initializer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import za.co.titandynamix.entity.OrbitEntity;
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.finder.TrafficFinder;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TraverseDetail;
+import za.co.titandynamix.network.NetworkSnapshot;
+import za.co.titandynamix.repository.OrbitRepository;
+import za.co.titandynamix.repository.VehicleRepository;
+import za.co.titandynamix.repository.WeatherRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "traffic.network.seed=false")
+@Import(NetworkLoader.class)
+class NetworkLoaderTests {
+
+	@Autowired
+	private NetworkLoader networkLoader;
+
+	@Autowired
+	private OrbitRepository orbitRepository;
+
+	@Autowired
+	private VehicleRepository vehicleRepository;
+
+	@Autowired
+	private WeatherRepository weatherRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final TrafficInitializer initializer = TrafficInitializer.getInstance();
+
+	@AfterEach
+	void restoreBuiltInNetwork() {
+		initializer.reload();
+	}
+
+	@Test
+	void loadPublishesSavedNetworkInOrder() {
+		NetworkSnapshot builtIn = initializer.getSnapshot();
+		networkLoader.save(builtIn);
+
+		NetworkSnapshot loaded = networkLoader.load();
+
+		assertEquals(builtIn.getVersion() + 1, loaded.getVersion());
+		assertEquals(builtIn.getOrbits(), loaded.getOrbits());
+		assertEquals(builtIn.getVehicles(), loaded.getVehicles());
+		assertEquals(builtIn.getWeathers(), loaded.getWeathers());
+		assertEquals(3, weatherRepository.findAllWithSuitableVehicles().size());
+	}
+
+	@Test
+	void queriesUseLoadedNetwork() throws BusinessRuleException {
+		networkLoader.save(initializer.getSnapshot());
+		orbitRepository.save(new OrbitEntity("Orbit3", 2, "Silk Drob", "Hallitharam", 6, 0, -1, "megamiles/hour"));
+		networkLoader.load();
+
+		TrafficFinder trafficFinder = new TrafficFinder();
+		List<List<Orbit>> orbits = trafficFinder.getTrafficHelper()
+				.getOrbits(TrafficInitializer.DEFAULT_SOURCE, TrafficInitializer.DEFAULT_DESTINATION);
+
+		assertEquals(3, orbits.size());
+		// Orbit3: 6 mega miles at 12 mm/hour = 30 min, no craters
+		TraverseDetail optimum = trafficFinder.calculateOptimumTraverseDetail("Sunny", orbits,
+				Map.of("Orbit1", 12, "Orbit2", 10, "Orbit3", 12));
+		assertEquals("Orbit3", optimum.getOrbits().get(0).getName());
+		assertEquals("Tuktuk", optimum.getVehicle().getName());
+		assertEquals(30, optimum.getTraverseTime());
+	}
+
+	@Test
+	void applicationReadySeedsAndLoadsNetwork() {
+		NetworkSnapshot builtIn = initializer.getSnapshot();
+		NetworkLoader seedingLoader = new NetworkLoader(orbitRepository, vehicleRepository, weatherRepository,
+				transactionManager, true, "");
+
+		// Seeding and loading call save/load on the loader itself, outside any proxy
+		seedingLoader.onApplicationReady();
+
+		NetworkSnapshot loaded = initializer.getSnapshot();
+		assertEquals(builtIn.getVersion() + 1, loaded.getVersion());
+		assertEquals(builtIn.getVehicles().size(), vehicleRepository.count());
+		assertEquals(builtIn.getOrbits(), loaded.getOrbits());
+		assertEquals(builtIn.getWeathers(), loaded.getWeathers());
+	}
+}
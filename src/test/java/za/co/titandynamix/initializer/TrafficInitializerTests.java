@@ -0,0 +1,41 @@
+package za.co.titandynamix.initializer;
+
+import org.junit.jupiter.api.Test;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.Velocity;
+import za.co.titandynamix.network.NetworkSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrafficInitializerTests {
+
+	private final TrafficInitializer initializer = TrafficInitializer.getInstance();
+
+	@Test
+	void publishRejectsDuplicateOrbitNames() {
+		NetworkSnapshot current = initializer.getSnapshot();
+		List<Orbit> orbits = new ArrayList<>(current.getOrbits());
+		orbits.add(new Orbit(orbits.get(0).getName(), "Silk Drob", "RK Puram", 10, 1, new Velocity(-1, "megamiles/hour")));
+
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+				() -> initializer.publish(orbits, current.getVehicles(), current.getWeathers()));
+
+		assertTrue(exception.getMessage().contains(orbits.get(0).getName()));
+		assertSame(current, initializer.getSnapshot());
+	}
+
+	@Test
+	void snapshotRejectsDuplicateOrbitNames() {
+		NetworkSnapshot current = initializer.getSnapshot();
+		List<Orbit> orbits = new ArrayList<>(current.getOrbits());
+		orbits.add(orbits.get(0));
+
+		assertThrows(IllegalArgumentException.class,
+				() -> new NetworkSnapshot(current.getVersion() + 1, orbits, current.getVehicles(), current.getWeathers()));
+	}
+}
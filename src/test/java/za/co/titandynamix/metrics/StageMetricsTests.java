@@ -0,0 +1,106 @@
+package za.co.titandynamix.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import za.co.titandynamix.config.TrafficConfiguration;
+import za.co.titandynamix.finder.TrafficFinder;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StageMetricsTests {
+
+	private final MeterRegistry registry = new SimpleMeterRegistry();
+
+	private final StageMetrics stageMetrics = new StageMetrics(registry);
+
+	@Test
+	void stagesAreRecordedWhenEnabled() {
+		stageMetrics.setEnabled(true);
+
+		long start = stageMetrics.start();
+		long next = stageMetrics.stop(Stage.VALIDATION, start);
+		stageMetrics.stop(Stage.OPTIMUM_SEARCH, next);
+		stageMetrics.count(StageMetrics.OK);
+
+		assertTrue(start != StageMetrics.DISABLED);
+		assertEquals(1, registry.find(StageMetrics.STAGE_TIMER).tag("stage", Stage.VALIDATION.getTag()).timer().count());
+		assertEquals(1, registry.find(StageMetrics.STAGE_TIMER).tag("stage", Stage.OPTIMUM_SEARCH.getTag()).timer().count());
+		assertEquals(0, registry.find(StageMetrics.STAGE_TIMER).tag("stage", Stage.WEATHER_LOOKUP.getTag()).timer().count());
+		assertEquals(1.0, registry.find(StageMetrics.QUERY_COUNTER).tag("outcome", StageMetrics.OK).counter().count());
+		assertEquals(0.0, registry.find(StageMetrics.QUERY_COUNTER).tag("outcome", StageMetrics.ROUTE_NOT_FOUND).counter().count());
+	}
+
+	@Test
+	void stagesAreSkippedWhenDisabled() {
+		long start = stageMetrics.start();
+		stageMetrics.stop(Stage.VALIDATION, start);
+		stageMetrics.count(StageMetrics.VALIDATION_FAILED);
+
+		assertEquals(StageMetrics.DISABLED, start);
+		for (Stage stage : Stage.values())
+			assertEquals(0, registry.find(StageMetrics.STAGE_TIMER).tag("stage", stage.getTag()).timer().count());
+		assertEquals(0.0, registry.find(StageMetrics.QUERY_COUNTER).tag("outcome", StageMetrics.VALIDATION_FAILED).counter().count());
+	}
+
+	@Test
+	void disabledStartIsNotRecordedAfterEnabling() {
+		long start = stageMetrics.start();
+		stageMetrics.setEnabled(true);
+
+		assertEquals(StageMetrics.DISABLED, stageMetrics.stop(Stage.VALIDATION, start));
+		assertEquals(0, stageMetrics.getTimer(Stage.VALIDATION).count());
+	}
+
+	@Test
+	void finderRecordsEveryStageOfAQuery() {
+		MeterRegistry finderRegistry = new SimpleMeterRegistry();
+		TrafficConfiguration configuration = new TrafficConfiguration();
+		TrafficFinder trafficFinder = configuration.trafficFinder(configuration.stageMetrics(finderRegistry));
+		List<List<Orbit>> orbits = trafficFinder.getTrafficHelper()
+				.getOrbits(TrafficInitializer.DEFAULT_SOURCE, TrafficInitializer.DEFAULT_DESTINATION);
+		Map<String, Integer> speedLimits = Map.of("Orbit1", 12, "Orbit2", 10);
+
+		trafficFinder.calculateOptimumTime("Sunny", orbits, speedLimits);
+		for (Stage stage : Stage.values())
+			assertEquals(0, finderRegistry.find(StageMetrics.STAGE_TIMER).tag("stage", stage.getTag()).timer().count());
+		assertEquals(0.0, finderRegistry.find(StageMetrics.QUERY_COUNTER).tag("outcome", StageMetrics.OK).counter().count());
+
+		trafficFinder.getStageMetrics().setEnabled(true);
+		trafficFinder.calculateOptimumTime("Sunny", orbits, speedLimits);
+		for (Stage stage : Stage.values())
+			assertEquals(1, finderRegistry.find(StageMetrics.STAGE_TIMER).tag("stage", stage.getTag()).timer().count());
+		assertEquals(1.0, finderRegistry.find(StageMetrics.QUERY_COUNTER).tag("outcome", StageMetrics.OK).counter().count());
+	}
+
+	@Test
+	void endpointSwitchesFinderMetrics() {
+		StageMetricsEndpoint endpoint = new StageMetricsEndpoint(stageMetrics, true);
+		assertTrue(stageMetrics.isEnabled());
+
+		assertEquals(Map.of("enabled", false), endpoint.configure(false));
+		assertFalse(stageMetrics.isEnabled());
+		assertEquals(StageMetrics.DISABLED, stageMetrics.start());
+	}
+
+	@Test
+	void metricsWithoutRegistryStayDisabled() {
+		StageMetrics.NONE.setEnabled(false);
+
+		assertThrows(IllegalStateException.class, () -> StageMetrics.NONE.setEnabled(true));
+		assertFalse(StageMetrics.NONE.isEnabled());
+		assertEquals(StageMetrics.DISABLED, StageMetrics.NONE.start());
+		assertEquals(StageMetrics.DISABLED, StageMetrics.NONE.stop(Stage.VALIDATION, StageMetrics.NONE.start()));
+		StageMetrics.NONE.count(StageMetrics.OK);
+		assertSame(StageMetrics.NONE, new TrafficFinder().getStageMetrics());
+	}
+}
@@ -0,0 +1,72 @@
+package za.co.titandynamix.network;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Weather;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NetworkSnapshotCodecTests {
+
+	private final TrafficInitializer initializer = TrafficInitializer.getInstance();
+
+	@TempDir
+	Path directory;
+
+	@AfterEach
+	void restoreBuiltInNetwork() {
+		initializer.reload();
+	}
+
+	@Test
+	void loadedNetworkMatchesSavedNetwork() throws IOException {
+		Path file = directory.resolve("network.snapshot");
+		NetworkSnapshot saved = initializer.save(file);
+		NetworkSnapshot loaded = initializer.load(file);
+
+		assertEquals(saved.getVersion() + 1, loaded.getVersion());
+		assertEquals(saved.getOrbits(), loaded.getOrbits());
+		assertEquals(saved.getVehicles(), loaded.getVehicles());
+		assertEquals(saved.getWeathers(), loaded.getWeathers());
+	}
+
+	@Test
+	void loadedNetworkKeepsOrderAndNames() throws IOException {
+		Path file = directory.resolve("network.snapshot");
+		NetworkSnapshotCodec.write(initializer.getSnapshot(), file);
+		NetworkSnapshotCodec.Network network = NetworkSnapshotCodec.read(file);
+
+		assertEquals(initializer.getAllVehicleNames(), network.vehicles().stream().map(Vehicle::getName).toList());
+		assertEquals(initializer.getAllOrbits().stream().map(Orbit::getName).toList(), network.orbits().stream().map(Orbit::getName).toList());
+		assertEquals(initializer.getAllWeatherDetails().stream().map(Weather::getWeatherCondition).toList(),
+				network.weathers().stream().map(Weather::getWeatherCondition).toList());
+	}
+
+	@Test
+	void corruptFileIsRejected() throws IOException {
+		Path file = directory.resolve("network.snapshot");
+		NetworkSnapshotCodec.write(initializer.getSnapshot(), file);
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[bytes.length / 2] ^= 1;
+		Files.write(file, bytes);
+
+		assertThrows(IOException.class, () -> NetworkSnapshotCodec.read(file));
+	}
+
+	@Test
+	void otherFileIsRejected() throws IOException {
+		Path file = directory.resolve("network.csv");
+		Files.writeString(file, "weather,Orbit1,Orbit2\nSunny,12,10\n");
+
+		assertThrows(IOException.class, () -> NetworkSnapshotCodec.read(file));
+	}
+}
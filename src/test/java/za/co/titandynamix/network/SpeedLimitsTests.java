@@ -0,0 +1,41 @@
+package za.co.titandynamix.network;
+
+import org.junit.jupiter.api.Test;
+import za.co.titandynamix.synthetic.NetworkGenerator;
+import za.co.titandynamix.synthetic.SyntheticNetwork;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SpeedLimitsTests {
+
+	private final SyntheticNetwork network = new NetworkGenerator(3).generate(50);
+	private final NetworkSnapshot snapshot = new NetworkSnapshot(1, network.getOrbits(), network.getVehicles(),
+			network.getWeathers());
+
+	@Test
+	void orbitsWithoutUserSpeedLimitKeepTheirOwn() {
+		SpeedLimits speedLimits = SpeedLimits.of(snapshot, Map.of("Orbit1", 3, "Unknown", 7));
+
+		assertEquals(3, speedLimits.getSpeedLimit(0));
+		for (int orbitId = 1; orbitId < snapshot.getOrbits().size(); orbitId++)
+			assertEquals(snapshot.getOrbits().get(orbitId).getVelocityLimit().getSpeed(), speedLimits.getSpeedLimit(orbitId));
+	}
+
+	@Test
+	void updatesReplaceEarlierSpeedLimits() {
+		Map<String, Integer> first = Map.of("Orbit1", 3, "Orbit9", 12, "Orbit30", 8);
+		Map<String, Integer> second = Map.of("Orbit9", 20, "Orbit4", 5);
+		Map<String, Integer> merged = new HashMap<>(first);
+		merged.putAll(second);
+
+		SpeedLimits updated = SpeedLimits.of(snapshot, first).with(second);
+
+		assertEquals(SpeedLimits.of(snapshot, merged), updated);
+		assertEquals(20, updated.getSpeedLimit(8));
+		assertEquals(5, updated.getSpeedLimit(3));
+		assertEquals(8, updated.getSpeedLimit(29));
+	}
+}
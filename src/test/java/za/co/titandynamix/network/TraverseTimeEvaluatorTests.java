@@ -0,0 +1,90 @@
+package za.co.titandynamix.network;
+
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.Test;
+import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Weather;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class TraverseTimeEvaluatorTests {
+
+	private static final int BIKE = 0;
+	private static final int TUKTUK = 1;
+	private static final int CAR = 2;
+
+	private static final int SUNNY_CRATER_CHANGE = -10;
+
+	private final NetworkSnapshot snapshot = TrafficInitializer.getInstance().getSnapshot();
+	private final TraverseTimeEvaluator evaluator = snapshot.getTraverseTimeEvaluator();
+	private final SpeedLimits speedLimits = SpeedLimits.of(snapshot, Map.of("Orbit1", 12, "Orbit2", 10));
+
+	private final int[] orbit1 = evaluator.toOrbitIds(snapshot.getOrbits().subList(0, 1));
+	private final int[] orbit2 = evaluator.toOrbitIds(snapshot.getOrbits().subList(1, 2));
+
+	private final Weather sunny = snapshot.getWeathers().get(0);
+
+	@Test
+	void traverseTimeMatchesProblemSpecification() {
+		// Orbit1: 18 mega miles at 12 mm/hour = 90 min, 20 craters - 10% = 18 craters
+		assertEquals(144, evaluator.traverseTime(orbit1, BIKE, SUNNY_CRATER_CHANGE, speedLimits));
+		assertEquals(108, evaluator.traverseTime(orbit1, TUKTUK, SUNNY_CRATER_CHANGE, speedLimits));
+		assertEquals(144, evaluator.traverseTime(orbit1, CAR, SUNNY_CRATER_CHANGE, speedLimits));
+
+		// Orbit2: 20 mega miles at 10 mm/hour = 120 min, 10 craters - 10% = 9 craters
+		assertEquals(147, evaluator.traverseTime(orbit2, CAR, SUNNY_CRATER_CHANGE, speedLimits));
+	}
+
+	@Test
+	void costTableMatchesCalculation() {
+		for (Weather weather : snapshot.getWeathers()) {
+			for (int vehicleId = BIKE; vehicleId <= CAR; vehicleId++) {
+				for (int[] orbitIds : new int[][]{orbit1, orbit2}) {
+					assertEquals(evaluator.traverseTime(orbitIds, vehicleId, weather.getCraterChangePercentage(), speedLimits),
+							evaluator.traverseTime(orbitIds, vehicleId, weather, speedLimits));
+				}
+			}
+		}
+
+		// A weather which is not part of the network is calculated from its change rate
+		Weather stormy = new Weather(WeatherCondition.SUNNY, +50, snapshot.getVehicleNames());
+		assertEquals(90 + 30, evaluator.traverseTime(orbit1, TUKTUK, stormy, speedLimits));
+	}
+
+	@Test
+	void traverseTimeDoesNotAllocate() {
+		ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled(),
+				"Thread allocation measurement is not available on this JVM");
+
+		// Warm up, so class loading and compilation are not measured
+		evaluate(1_000_000);
+
+		// Cost of the measurement itself
+		long start = threadBean.getCurrentThreadAllocatedBytes();
+		long measurementOverhead = threadBean.getCurrentThreadAllocatedBytes() - start;
+
+		long before = threadBean.getCurrentThreadAllocatedBytes();
+		int checksum = evaluate(1_000_000);
+		long allocated = threadBean.getCurrentThreadAllocatedBytes() - before - measurementOverhead;
+
+		assertEquals(0, allocated, "Traverse time evaluation allocated memory (checksum " + checksum + ")");
+	}
+
+	private int evaluate(int iterations) {
+		int checksum = 0;
+		for (int iteration = 0; iteration < iterations; iteration++) {
+			for (int vehicleId = BIKE; vehicleId <= CAR; vehicleId++) {
+				checksum += evaluator.traverseTime(orbit1, vehicleId, SUNNY_CRATER_CHANGE, speedLimits);
+				checksum += evaluator.traverseTime(orbit2, vehicleId, SUNNY_CRATER_CHANGE, speedLimits);
+				checksum += evaluator.traverseTime(orbit1, vehicleId, sunny, speedLimits);
+			}
+		}
+		return checksum;
+	}
+}
@@ -0,0 +1,72 @@
+package za.co.titandynamix.route;
+
+import org.junit.jupiter.api.Test;
+import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.model.MultiModalTraverseDetail;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TraverseLeg;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Velocity;
+import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.network.NetworkSnapshot;
+import za.co.titandynamix.network.TransferPenalties;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MultiModalRouteSearchTests {
+
+	private static final String UNIT = "megamiles/hour";
+
+	private final Vehicle tuktuk = new Vehicle("TUKTUK", new Velocity(12, UNIT), 1);
+	private final Vehicle car = new Vehicle("CAR", new Velocity(60, UNIT), 5);
+	private final Weather windy = new Weather(WeatherCondition.WINDY, 0, List.of("TUKTUK", "CAR"));
+	private final Weather rainy = new Weather(WeatherCondition.RAINY, 0, List.of("CAR"));
+
+	// Crater-heavy: 70 minutes by tuktuk, 110 by car
+	private final Orbit craters = new Orbit("Craters", "Silk Drob", "RK Puram", 10, 20, new Velocity(-1, UNIT));
+
+	// Long and fast: 500 minutes by tuktuk, 100 by car
+	private final Orbit highway = new Orbit("Highway", "RK Puram", "Hallitharam", 100, 0, new Velocity(-1, UNIT));
+
+	private final RouteSearch routeSearch = new NetworkSnapshot(1, List.of(craters, highway), List.of(tuktuk, car),
+			List.of(windy, rainy)).getRouteSearch();
+
+	@Test
+	void switchingVehicleIsFasterThanOneVehicle() {
+		MultiModalTraverseDetail route = routeSearch.findMultiModalRoute(windy, List.of(tuktuk, car), "Silk Drob",
+				"Hallitharam", null, TransferPenalties.uniform(10));
+
+		assertEquals(List.of(new TraverseLeg(craters, tuktuk, 70), new TraverseLeg(highway, car, 100)), route.getLegs());
+		assertEquals(1, route.getTransferCount());
+		assertEquals(70 + 10 + 100, route.getTraverseTime());
+	}
+
+	@Test
+	void highTransferPenaltyKeepsOneVehicle() {
+		MultiModalTraverseDetail route = routeSearch.findMultiModalRoute(windy, List.of(tuktuk, car), "Silk Drob",
+				"Hallitharam", null, TransferPenalties.of(0, Map.of("CAR", 60)));
+
+		assertEquals(List.of(new TraverseLeg(craters, car, 110), new TraverseLeg(highway, car, 100)), route.getLegs());
+		assertEquals(0, route.getTransferCount());
+		assertEquals(210, route.getTraverseTime());
+	}
+
+	@Test
+	void onlySuitableVehiclesAreUsed() {
+		MultiModalTraverseDetail route = routeSearch.findMultiModalRoute(rainy, List.of(car), "Silk Drob",
+				"Hallitharam", null, TransferPenalties.uniform(0));
+
+		assertEquals(List.of(car, car), route.getLegs().stream().map(TraverseLeg::getVehicle).toList());
+		assertEquals(210, route.getTraverseTime());
+	}
+
+	@Test
+	void unreachableDestinationHasNoRoute() {
+		assertNull(routeSearch.findMultiModalRoute(windy, List.of(tuktuk, car), "Hallitharam", "Silk Drob", null,
+				TransferPenalties.uniform(10)));
+	}
+}
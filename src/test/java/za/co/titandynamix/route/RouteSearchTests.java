@@ -0,0 +1,222 @@
+package za.co.titandynamix.route;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.finder.TrafficFinder;
+import za.co.titandynamix.helper.TrafficHelper;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TraverseDetail;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Velocity;
+import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.network.NetworkSnapshot;
+import za.co.titandynamix.synthetic.NetworkGenerator;
+import za.co.titandynamix.synthetic.SyntheticNetwork;
+import za.co.titandynamix.utils.TraverseTimeUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteSearchTests {
+
+	private static final String UNIT = "megamiles/hour";
+
+	private final Vehicle car = new Vehicle("CAR", new Velocity(20, UNIT), 3);
+	private final Weather sunny = new Weather(WeatherCondition.SUNNY, -10, List.of("CAR"));
+
+	// Direct orbit takes 90 minutes, the route via RK Puram 30 + 30 minutes
+	private final Orbit direct = new Orbit("Direct", "Silk Drob", "Hallitharam", 30, 0, new Velocity(-1, UNIT));
+	private final Orbit toPuram = new Orbit("ToPuram", "Silk Drob", "RK Puram", 10, 0, new Velocity(-1, UNIT));
+	private final Orbit fromPuram = new Orbit("FromPuram", "RK Puram", "Hallitharam", 10, 0, new Velocity(-1, UNIT));
+
+	// Leaves the network, nothing comes back from Bhuleshwar
+	private final Orbit deadEnd = new Orbit("DeadEnd", "Hallitharam", "Bhuleshwar", 10, 0, new Velocity(-1, UNIT));
+
+	private final NetworkSnapshot snapshot = new NetworkSnapshot(1, List.of(direct, toPuram, fromPuram, deadEnd),
+			List.of(car), List.of(sunny));
+
+	@AfterEach
+	void restoreNetwork() {
+		TrafficInitializer.getInstance().reload();
+	}
+
+	@Test
+	void multiHopRouteIsFasterThanDirectOrbit() {
+		RouteSearch routeSearch = snapshot.getRouteSearch();
+
+		assertEquals(List.of(toPuram, fromPuram),
+				routeSearch.findFastestRoute(sunny, car, "Silk Drob", "Hallitharam", null));
+		assertEquals(List.of(List.of(direct), List.of(toPuram, fromPuram)),
+				routeSearch.findCandidateRoutes("Silk Drob", "Hallitharam"));
+	}
+
+	@Test
+	void unknownOrUnreachableSuburbHasNoRoute() {
+		RouteSearch routeSearch = snapshot.getRouteSearch();
+
+		assertEquals(List.of(), routeSearch.findFastestRoute(sunny, car, "Silk Drob", "Nowhere", null));
+		assertEquals(List.of(), routeSearch.findFastestRoute(sunny, car, "Nowhere", "Hallitharam", null));
+		assertEquals(List.of(), routeSearch.findFastestRoute(sunny, car, "Bhuleshwar", "Silk Drob", null));
+		assertEquals(List.of(), routeSearch.findCandidateRoutes("Bhuleshwar", "Silk Drob"));
+		assertEquals(List.of(), routeSearch.findCandidateRoutes("Nowhere", "Hallitharam"));
+	}
+
+	@Test
+	void aStarMatchesDijkstra() {
+		SyntheticNetwork network = new NetworkGenerator(7).generate(40, 400, 3);
+		NetworkSnapshot synthetic = new NetworkSnapshot(1, network.getOrbits(), network.getVehicles(), network.getWeathers());
+		RouteSearch routeSearch = synthetic.getRouteSearch();
+
+		for (Weather weather : network.getWeathers()) {
+			for (Vehicle vehicle : network.getVehicles()) {
+				for (String source : List.of("Silk Drob", "Suburb7", "Suburb23")) {
+					Map<String, Long> expectedTimes = dijkstra(network.getOrbits(), weather, vehicle, source);
+					for (String destination : network.getSuburbs()) {
+						if (destination.equals(source))
+							continue;
+
+						List<Orbit> route = routeSearch.findFastestRoute(weather, vehicle, source, destination, null);
+						assertEquals(expectedTimes.get(destination), route.isEmpty() ? null : routeTime(route, weather, vehicle),
+								source + " -> " + destination);
+						assertRouteIsConnected(route, source, destination);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void kFastestRoutesMatchAllLooplessRoutes() {
+		SyntheticNetwork network = new NetworkGenerator(11).generate(8, 30, 2);
+		RouteSearch routeSearch = new NetworkSnapshot(1, network.getOrbits(), network.getVehicles(), network.getWeathers())
+				.getRouteSearch();
+
+		for (Weather weather : network.getWeathers()) {
+			for (Vehicle vehicle : network.getVehicles()) {
+				for (String destination : network.getSuburbs().subList(1, network.getSuburbs().size())) {
+					List<Long> expectedTimes = new ArrayList<>();
+					allLooplessRoutes(network.getOrbits(), "Silk Drob", destination, new ArrayList<>(), new HashSet<>(List.of("Silk Drob")))
+							.forEach(route -> expectedTimes.add(routeTime(route, weather, vehicle)));
+					Collections.sort(expectedTimes);
+
+					List<List<Orbit>> routes = routeSearch.findFastestRoutes(weather, vehicle, "Silk Drob", destination, null, 10);
+
+					assertEquals(Math.min(10, expectedTimes.size()), routes.size(), destination);
+					assertEquals(routes.size(), new HashSet<>(routes).size());
+					for (int rank = 0; rank < routes.size(); rank++) {
+						List<Orbit> route = routes.get(rank);
+						assertRouteIsConnected(route, "Silk Drob", destination);
+						Set<String> suburbs = new HashSet<>(List.of("Silk Drob"));
+						route.forEach(orbit -> assertTrue(suburbs.add(orbit.getDestination()), "Loop in " + route));
+						// Non-decreasing, and the k fastest of all loopless routes
+						assertEquals((long) expectedTimes.get(rank), routeTime(route, weather, vehicle), destination + " #" + rank);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void candidateRoutesAreRankedWithOrbitSpeedLimits() throws BusinessRuleException {
+		// Via RK Puram takes 60 minutes without speed limits, but 240 minutes with their own limit of 5.
+		// Via Bhuleshwar takes 72 minutes, so it is the fastest route of the network.
+		Orbit slowToPuram = new Orbit("ToPuram", "Silk Drob", "RK Puram", 10, 0, new Velocity(5, UNIT));
+		Orbit slowFromPuram = new Orbit("FromPuram", "RK Puram", "Hallitharam", 10, 0, new Velocity(5, UNIT));
+		Orbit toBhuleshwar = new Orbit("ToBhuleshwar", "Silk Drob", "Bhuleshwar", 12, 0, new Velocity(-1, UNIT));
+		Orbit fromBhuleshwar = new Orbit("FromBhuleshwar", "Bhuleshwar", "Hallitharam", 12, 0, new Velocity(-1, UNIT));
+		TrafficInitializer.getInstance().publish(List.of(direct, slowToPuram, slowFromPuram, toBhuleshwar, fromBhuleshwar),
+				List.of(car), List.of(sunny));
+		List<List<Orbit>> orbits = TrafficHelper.getInstance().getOrbits("Silk Drob", "Hallitharam");
+
+		assertEquals(List.of(List.of(direct), List.of(toBhuleshwar, fromBhuleshwar)), orbits);
+		TraverseDetail optimum = new TrafficFinder().calculateOptimumTraverseDetail("Sunny", orbits,
+				Map.of("Direct", 20, "ToBhuleshwar", 20, "FromBhuleshwar", 20));
+		assertEquals(List.of(toBhuleshwar, fromBhuleshwar), optimum.getOrbits());
+		assertEquals(72, optimum.getTraverseTime());
+	}
+
+	@Test
+	void candidateRoutesFollowReload() {
+		TrafficHelper trafficHelper = TrafficHelper.getInstance();
+		TrafficInitializer.getInstance().publish(List.of(direct, toPuram, fromPuram), List.of(car), List.of(sunny));
+		assertEquals(List.of(List.of(direct), List.of(toPuram, fromPuram)),
+				trafficHelper.getOrbits("Silk Drob", "Hallitharam"));
+
+		// The cached routes belong to the previous snapshot, the new one has no route via RK Puram
+		TrafficInitializer.getInstance().publish(List.of(direct, toPuram), List.of(car), List.of(sunny));
+		assertEquals(List.of(List.of(direct)), trafficHelper.getOrbits("Silk Drob", "Hallitharam"));
+	}
+
+	// Plain Dijkstra over the orbit list, time of the fastest route to every reachable suburb
+	private static Map<String, Long> dijkstra(List<Orbit> orbits, Weather weather, Vehicle vehicle, String source) {
+		Map<String, Long> times = new HashMap<>();
+		Map<String, Boolean> settled = new HashMap<>();
+		times.put(source, 0L);
+		while (true) {
+			String suburb = null;
+			for (Map.Entry<String, Long> entry : times.entrySet()) {
+				if (!settled.containsKey(entry.getKey()) && (null == suburb || entry.getValue() < times.get(suburb)))
+					suburb = entry.getKey();
+			}
+			if (null == suburb)
+				break;
+
+			settled.put(suburb, true);
+			for (Orbit orbit : orbits) {
+				if (!orbit.getSource().equals(suburb))
+					continue;
+
+				long time = times.get(suburb) + routeTime(List.of(orbit), weather, vehicle);
+				times.merge(orbit.getDestination(), time, Math::min);
+			}
+		}
+		times.remove(source);
+		return times;
+	}
+
+	// Depth-first enumeration of every route without a repeated suburb
+	private static List<List<Orbit>> allLooplessRoutes(List<Orbit> orbits, String suburb, String destination,
+													   List<Orbit> route, Set<String> visited) {
+		if (suburb.equals(destination))
+			return List.of(List.copyOf(route));
+
+		List<List<Orbit>> routes = new ArrayList<>();
+		for (Orbit orbit : orbits) {
+			if (!orbit.getSource().equals(suburb) || !visited.add(orbit.getDestination()))
+				continue;
+			route.add(orbit);
+			routes.addAll(allLooplessRoutes(orbits, orbit.getDestination(), destination, route, visited));
+			route.remove(route.size() - 1);
+			visited.remove(orbit.getDestination());
+		}
+		return routes;
+	}
+
+	// Each orbit with its own speed limit
+	private static long routeTime(List<Orbit> route, Weather weather, Vehicle vehicle) {
+		return route.stream().mapToLong(orbit -> TraverseTimeUtils.orbitTraverseTime(orbit.getDistance(),
+				orbit.getNumberOfCraters(), orbit.getVelocityLimit().getSpeed(), vehicle.getVelocity().getSpeed(),
+				vehicle.getTimeToCrossCrater(), weather.getCraterChangePercentage())).sum();
+	}
+
+	private static void assertRouteIsConnected(List<Orbit> route, String source, String destination) {
+		if (route.isEmpty())
+			return;
+
+		assertEquals(source, route.get(0).getSource());
+		assertEquals(destination, route.get(route.size() - 1).getDestination());
+		for (int position = 1; position < route.size(); position++)
+			assertEquals(route.get(position - 1).getDestination(), route.get(position).getSource());
+	}
+}
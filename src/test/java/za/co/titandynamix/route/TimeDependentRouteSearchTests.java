@@ -0,0 +1,74 @@
+package za.co.titandynamix.route;
+
+import org.junit.jupiter.api.Test;
+import za.co.titandynamix.enums.WeatherCondition;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.SpeedLimitPeriod;
+import za.co.titandynamix.model.Vehicle;
+import za.co.titandynamix.model.Velocity;
+import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.network.NetworkSnapshot;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TimeDependentRouteSearchTests {
+
+	private static final String UNIT = "megamiles/hour";
+
+	private final Vehicle car = new Vehicle("Car", new Velocity(60, UNIT), 1);
+	private final Weather windy = new Weather(WeatherCondition.WINDY, 0, List.of("Car"));
+
+	// 60 megamiles, 60 minutes at full speed and 360 minutes at the rush-hour limit of 10
+	private final Orbit highway = new Orbit("Highway", "Silk Drob", "Hallitharam", 60, 0, new Velocity(-1, UNIT),
+			List.of(new SpeedLimitPeriod(9 * 60, -1), new SpeedLimitPeriod(7 * 60, 10),
+					new SpeedLimitPeriod(22 * 60, 10)));
+
+	// 150 minutes all day
+	private final Orbit backRoad = new Orbit("BackRoad", "Silk Drob", "Hallitharam", 150, 0, new Velocity(60, UNIT));
+
+	private final RouteSearch routeSearch = new NetworkSnapshot(1, List.of(highway, backRoad), List.of(car), List.of(windy))
+			.getRouteSearch();
+
+	@Test
+	void speedLimitAtEntryTimeApplies() {
+		TimedRoute route = routeSearch.findEarliestArrivalRoute(windy, car, "Silk Drob", "Hallitharam", 12 * 60);
+
+		assertEquals(List.of(highway), route.getOrbits());
+		assertEquals(12 * 60 + 60, route.getArrivalTime());
+	}
+
+	@Test
+	void waitingForHigherSpeedLimitArrivesEarlier() {
+		TimedRoute route = routeSearch.findEarliestArrivalRoute(windy, car, "Silk Drob", "Hallitharam", 8 * 60 + 50);
+
+		// Entering the highway at 09:00 beats the back road (150 minutes) and the rush-hour limit (360 minutes)
+		assertEquals(List.of(highway), route.getOrbits());
+		assertEquals(9 * 60, route.getEntryTime(0));
+		assertEquals(70, route.getTraverseTime());
+	}
+
+	@Test
+	void otherRouteIsTakenDuringRushHour() {
+		TimedRoute route = routeSearch.findEarliestArrivalRoute(windy, car, "Silk Drob", "Hallitharam", 7 * 60);
+
+		assertEquals(List.of(backRoad), route.getOrbits());
+		assertEquals(150, route.getTraverseTime());
+	}
+
+	@Test
+	void lastPeriodContinuesAfterMidnight() {
+		// The last period (from 22:00) continues until the first period of the next day (09:00)
+		TimedRoute route = routeSearch.findEarliestArrivalRoute(windy, car, "Silk Drob", "Hallitharam", 23 * 60 + 30);
+
+		assertEquals(List.of(backRoad), route.getOrbits());
+		assertEquals(23 * 60 + 30 + 150, route.getArrivalTime());
+	}
+
+	@Test
+	void unreachableDestinationHasNoRoute() {
+		assertNull(routeSearch.findEarliestArrivalRoute(windy, car, "Hallitharam", "Silk Drob", 0));
+	}
+}
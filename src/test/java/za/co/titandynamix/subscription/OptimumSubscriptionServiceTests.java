@@ -0,0 +1,252 @@
+package za.co.titandynamix.subscription;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.finder.TrafficFinder;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TraverseDetail;
+import za.co.titandynamix.model.Velocity;
+import za.co.titandynamix.network.NetworkSnapshot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OptimumSubscriptionServiceTests {
+
+	private static final String UNIT = "megamiles/hour";
+
+	private static final List<String> WEATHER_TYPES = List.of("Sunny", "Rainy", "Windy");
+
+	private final TrafficInitializer initializer = TrafficInitializer.getInstance();
+
+	private final TrafficFinder trafficFinder = new TrafficFinder();
+
+	// Two direct orbits and a two-hop orbit-sequence via RK Puram
+	private final List<Orbit> orbits = List.of(
+			new Orbit("Orbit1", "Silk Drob", "Hallitharam", 18, 20, new Velocity(-1, UNIT)),
+			new Orbit("Orbit2", "Silk Drob", "Hallitharam", 20, 10, new Velocity(-1, UNIT)),
+			new Orbit("Orbit3", "Silk Drob", "RK Puram", 8, 2, new Velocity(-1, UNIT)),
+			new Orbit("Orbit4", "RK Puram", "Hallitharam", 8, 2, new Velocity(-1, UNIT)));
+
+	private final OptimumSubscriptionService service = new OptimumSubscriptionService();
+
+	// Speed limits applied so far, the finder needs one per orbit
+	private final Map<String, Integer> speedLimitMap = new HashMap<>();
+
+	@AfterEach
+	void restoreBuiltInNetwork() {
+		initializer.reload();
+	}
+
+	@Test
+	void optimumMatchesFinderOverUpdates() throws BusinessRuleException {
+		publishNetwork();
+		List<Recorder> recorders = new ArrayList<>();
+		for (String weatherType : WEATHER_TYPES)
+			recorders.add(subscribe(weatherType));
+
+		Random random = new Random(17);
+		for (int update = 0; update < 500; update++) {
+			Map<String, Integer> updates = new HashMap<>();
+			for (int orbit = 0, count = 1 + random.nextInt(2); orbit < count; orbit++)
+				updates.put(orbits.get(random.nextInt(orbits.size())).getName(), 1 + random.nextInt(30));
+
+			List<TraverseDetail> before = recorders.stream().map(recorder -> recorder.subscription.getOptimum()).toList();
+			int[] notified = recorders.stream().mapToInt(recorder -> recorder.notifications.size()).toArray();
+			update(updates);
+
+			for (int subscription = 0; subscription < recorders.size(); subscription++) {
+				Recorder recorder = recorders.get(subscription);
+				assertOptimumMatchesFinder(recorder.subscription);
+
+				// Notified exactly when the optimum changed, with the previous and new optimum
+				boolean changed = !before.get(subscription).equals(recorder.subscription.getOptimum());
+				assertEquals(notified[subscription] + (changed ? 1 : 0), recorder.notifications.size());
+				if (changed) {
+					TraverseDetail[] notification = recorder.notifications.get(recorder.notifications.size() - 1);
+					assertEquals(before.get(subscription), notification[0]);
+					assertSame(recorder.subscription.getOptimum(), notification[1]);
+				}
+			}
+		}
+	}
+
+	@Test
+	void onlyChangedOrbitSequencesAreRecalculated() throws BusinessRuleException {
+		publishNetwork();
+		Recorder recorder = subscribe("Sunny");
+		int vehicles = suitableVehicleCount("Sunny");
+		int sequences = sequencesBetween().size();
+		assertEquals(vehicles * sequences, service.getRecalculatedCandidates());
+
+		// Orbit3 is part of one orbit-sequence only
+		long recalculated = service.getRecalculatedCandidates();
+		update(Map.of("Orbit3", 7));
+		assertEquals(recalculated + vehicles, service.getRecalculatedCandidates());
+
+		// Changed orbits of the same orbit-sequence recalculate it once
+		recalculated = service.getRecalculatedCandidates();
+		update(Map.of("Orbit3", 9, "Orbit4", 9));
+		assertEquals(recalculated + vehicles, service.getRecalculatedCandidates());
+
+		recalculated = service.getRecalculatedCandidates();
+		update(Map.of("Orbit1", 11, "Orbit4", 11));
+		assertEquals(recalculated + 2L * vehicles, service.getRecalculatedCandidates());
+		assertOptimumMatchesFinder(recorder.subscription);
+	}
+
+	@Test
+	void slowerOptimumFallsBackToAllCandidates() throws BusinessRuleException {
+		publishNetwork();
+		update(Map.of("Orbit1", 30, "Orbit2", 30, "Orbit3", 30, "Orbit4", 30));
+		Recorder recorder = subscribe("Sunny");
+		TraverseDetail previous = recorder.subscription.getOptimum();
+		Orbit optimumOrbit = previous.getOrbits().get(0);
+
+		// Each orbit is part of one orbit-sequence, only that one is recalculated
+		int vehicles = suitableVehicleCount("Sunny");
+
+		// Optimum orbit-sequence gets so slow that an orbit-sequence, which is not recalculated, becomes the optimum
+		long recalculated = service.getRecalculatedCandidates();
+		update(Map.of(optimumOrbit.getName(), 1));
+
+		TraverseDetail current = recorder.subscription.getOptimum();
+		assertFalse(current.getOrbits().contains(optimumOrbit));
+		assertOptimumMatchesFinder(recorder.subscription);
+		assertEquals(recalculated + vehicles, service.getRecalculatedCandidates());
+		assertEquals(1, recorder.notifications.size());
+		assertEquals(previous, recorder.notifications.get(0)[0]);
+		assertEquals(current, recorder.notifications.get(0)[1]);
+	}
+
+	@Test
+	void updateWithoutOptimumChangeIsNotNotified() throws BusinessRuleException {
+		publishNetwork();
+		update(Map.of("Orbit1", 30, "Orbit2", 30, "Orbit3", 30, "Orbit4", 30));
+		Recorder recorder = subscribe("Sunny");
+		TraverseDetail optimum = recorder.subscription.getOptimum();
+
+		// Same speed limit: nothing is recalculated
+		long recalculated = service.getRecalculatedCandidates();
+		update(Map.of("Orbit1", 30));
+		assertEquals(recalculated, service.getRecalculatedCandidates());
+
+		// Slower orbit, which is not part of the optimum: recalculated, optimum unchanged
+		String otherOrbit = orbits.stream().map(Orbit::getName)
+				.filter(orbitName -> optimum.getOrbits().stream().noneMatch(orbit -> orbit.getName().equals(orbitName)))
+				.findFirst().orElseThrow();
+		update(Map.of(otherOrbit, 1));
+		assertTrue(service.getRecalculatedCandidates() > recalculated);
+
+		assertEquals(optimum, recorder.subscription.getOptimum());
+		assertTrue(recorder.notifications.isEmpty());
+	}
+
+	@Test
+	void subscriptionsAreRebuiltLazilyAfterReload() throws BusinessRuleException {
+		publishNetwork();
+		update(Map.of("Orbit1", 12, "Orbit2", 10, "Orbit3", 30, "Orbit4", 30));
+		Recorder recorder = subscribe("Sunny");
+		TraverseDetail optimum = recorder.subscription.getOptimum();
+		assertEquals(List.of("Orbit3", "Orbit4"), optimum.getOrbits().stream().map(Orbit::getName).toList());
+
+		// Built-in network has no Orbit3/Orbit4, nothing happens until the next update
+		long recalculated = service.getRecalculatedCandidates();
+		NetworkSnapshot builtIn = initializer.reload();
+		assertSame(optimum, recorder.subscription.getOptimum());
+		assertEquals(recalculated, service.getRecalculatedCandidates());
+		assertTrue(recorder.notifications.isEmpty());
+
+		service.updateSpeedLimit("Orbit2", 11);
+		speedLimitMap.put("Orbit2", 11);
+
+		TraverseDetail current = recorder.subscription.getOptimum();
+		assertNotEquals(optimum, current);
+		assertTrue(builtIn.getOrbits().containsAll(current.getOrbits()));
+		assertOptimumMatchesFinder(recorder.subscription);
+		assertEquals(1, recorder.notifications.size());
+		assertEquals(optimum, recorder.notifications.get(0)[0]);
+		// Speed limits are kept across snapshots
+		assertEquals(Integer.valueOf(12), service.getSpeedLimit("Orbit1"));
+	}
+
+	@Test
+	void cancelledSubscriptionIsNotUpdated() throws BusinessRuleException {
+		publishNetwork();
+		update(Map.of("Orbit1", 30, "Orbit2", 30, "Orbit3", 30, "Orbit4", 30));
+		Recorder recorder = subscribe("Sunny");
+		TraverseDetail optimum = recorder.subscription.getOptimum();
+
+		recorder.subscription.cancel();
+		update(Map.of(optimum.getOrbits().get(0).getName(), 1));
+
+		assertEquals(0, service.getSubscriptionCount());
+		assertSame(optimum, recorder.subscription.getOptimum());
+		assertTrue(recorder.notifications.isEmpty());
+	}
+
+	private void publishNetwork() {
+		NetworkSnapshot builtIn = initializer.reload();
+		initializer.publish(orbits, builtIn.getVehicles(), builtIn.getWeathers());
+	}
+
+	private Recorder subscribe(String weatherType) throws BusinessRuleException {
+		Recorder recorder = new Recorder();
+		recorder.subscription = service.subscribe(weatherType, TrafficInitializer.DEFAULT_SOURCE,
+				TrafficInitializer.DEFAULT_DESTINATION, recorder);
+		assertOptimumMatchesFinder(recorder.subscription);
+		return recorder;
+	}
+
+	private void update(Map<String, Integer> updates) throws BusinessRuleException {
+		service.updateSpeedLimits(updates);
+		speedLimitMap.putAll(updates);
+	}
+
+	private int suitableVehicleCount(String weatherType) {
+		NetworkSnapshot snapshot = initializer.getSnapshot();
+		return trafficFinder.getTrafficHelper()
+				.getSuitableVehicles(snapshot, trafficFinder.getTrafficHelper().getWeatherByType(snapshot, weatherType)).size();
+	}
+
+	private List<List<Orbit>> sequencesBetween() {
+		return trafficFinder.getTrafficHelper()
+				.getOrbits(TrafficInitializer.DEFAULT_SOURCE, TrafficInitializer.DEFAULT_DESTINATION);
+	}
+
+	private void assertOptimumMatchesFinder(RouteSubscription subscription) throws BusinessRuleException {
+		// Orbits without an update have no limit, i.e. the vehicle's own speed applies
+		Map<String, Integer> speedLimits = new HashMap<>();
+		for (List<Orbit> sequence : sequencesBetween())
+			sequence.forEach(orbit -> speedLimits.put(orbit.getName(), speedLimitMap.getOrDefault(orbit.getName(), 1000)));
+
+		TraverseDetail expected = trafficFinder.calculateOptimumTraverseDetail(subscription.getWeatherType(),
+				sequencesBetween(), speedLimits);
+		TraverseDetail actual = subscription.getOptimum();
+		assertEquals(expected.getTraverseTime(), actual.getTraverseTime());
+		assertEquals(expected.getVehicle().getName(), actual.getVehicle().getName());
+		assertEquals(expected.getOrbits(), actual.getOrbits());
+	}
+
+	private static final class Recorder implements OptimumListener {
+		private final List<TraverseDetail[]> notifications = new ArrayList<>();
+		private RouteSubscription subscription;
+
+		@Override
+		public void onOptimumChanged(RouteSubscription subscription, TraverseDetail previous, TraverseDetail current) {
+			assertSame(this.subscription, subscription);
+			notifications.add(new TraverseDetail[]{previous, current});
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package za.co.titandynamix.synthetic;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import za.co.titandynamix.dto.RouteQuery;
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.finder.TrafficFinder;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TraverseDetail;
+import za.co.titandynamix.network.NetworkSnapshot;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkloadGeneratorTests {
+
+	private final TrafficFinder trafficFinder = new TrafficFinder();
+
+	@AfterEach
+	void tearDown() {
+		TrafficInitializer.getInstance().reload();
+	}
+
+	@Test
+	void sameSeedCreatesSameNetwork() {
+		SyntheticNetwork network = new NetworkGenerator(7).generate(200, 2000, 5);
+		SyntheticNetwork other = new NetworkGenerator(7).generate(200, 2000, 5);
+
+		assertEquals(200, network.getSuburbs().size());
+		assertEquals(2000, network.getOrbits().size());
+		assertEquals(5, network.getVehicles().size());
+		assertEquals(network.getOrbits().toString(), other.getOrbits().toString());
+		assertEquals(network.getWeathers().toString(), other.getWeathers().toString());
+	}
+
+	@Test
+	void workloadQueriesAreValid() throws BusinessRuleException {
+		NetworkSnapshot snapshot = new NetworkGenerator().generate(5000).publish();
+		List<RouteQuery> workload = new WorkloadGenerator(snapshot).generate(2000, 50);
+
+		assertEquals(2000, workload.size());
+		for (RouteQuery query : workload.stream().distinct().toList()) {
+			List<List<Orbit>> orbits = trafficFinder.getTrafficHelper().getOrbits(query.getSource(), query.getDestination());
+			TraverseDetail traverseDetail = trafficFinder.calculateOptimumTraverseDetail(query.getWeather(), orbits,
+					query.getSpeedLimits());
+			assertNotNull(traverseDetail.getVehicle());
+		}
+	}
+
+	@Test
+	void popularityIsSkewed() {
+		NetworkSnapshot snapshot = new NetworkGenerator().generate(5000).publish();
+		List<RouteQuery> workload = new WorkloadGenerator(snapshot, 1, 1.2).generate(10000, 100);
+
+		RouteQuery mostPopular = workload.stream()
+				.filter(query -> TrafficInitializer.DEFAULT_SOURCE.equals(query.getSource())
+						&& TrafficInitializer.DEFAULT_DESTINATION.equals(query.getDestination()))
+				.findFirst().orElseThrow();
+		long hits = workload.stream().filter(query -> query == mostPopular).count();
+		// Rank 1 of 100 with exponent 1.2 is drawn about 27% of the time, uniform would be 1%
+		assertTrue(hits > 2000 && hits < 3500, "Hits of the most popular query: " + hits);
+	}
+}
@@ -0,0 +1,265 @@
+package za.co.titandynamix.tour;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import za.co.titandynamix.exception.BusinessRuleException;
+import za.co.titandynamix.finder.TrafficFinder;
+import za.co.titandynamix.initializer.TrafficInitializer;
+import za.co.titandynamix.model.Orbit;
+import za.co.titandynamix.model.TourDetail;
+import za.co.titandynamix.model.Weather;
+import za.co.titandynamix.network.NetworkSnapshot;
+import za.co.titandynamix.network.SpeedLimits;
+import za.co.titandynamix.network.TraverseTimeEvaluator;
+import za.co.titandynamix.synthetic.NetworkGenerator;
+import za.co.titandynamix.synthetic.SyntheticNetwork;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TourOptimizerTests {
+
+	private final TourOptimizer tourOptimizer = new TourOptimizer();
+
+	@AfterEach
+	void restoreBuiltInNetwork() {
+		tourOptimizer.close();
+		TrafficInitializer.getInstance().reload();
+	}
+
+	@Test
+	void exactTourMatchesBruteForce() {
+		Random random = new Random(5);
+		for (int points = 2; points <= 8; points++) {
+			for (int matrix = 0; matrix < 20; matrix++) {
+				long[][] legTimes = randomLegTimes(random, points);
+				for (boolean returnToStart : new boolean[]{false, true}) {
+					int[] order = TourOptimizer.exactTour(legTimes, returnToStart);
+
+					assertEquals(0, order[0]);
+					assertIsPermutation(order);
+					assertEquals(bruteForceTime(legTimes, returnToStart), TourOptimizer.tourTime(legTimes, order, returnToStart));
+				}
+			}
+		}
+	}
+
+	@Test
+	void improvementNeverMakesATourSlower() {
+		Random random = new Random(11);
+		for (int matrix = 0; matrix < 50; matrix++) {
+			long[][] legTimes = randomLegTimes(random, 5 + random.nextInt(30));
+			for (boolean returnToStart : new boolean[]{false, true}) {
+				for (int[] tour : List.of(TourOptimizer.nearestNeighbourTour(legTimes, 1 + random.nextInt(legTimes.length - 1)),
+						randomTour(random, legTimes.length))) {
+					int[] improved = TourOptimizer.improve(tour, legTimes, returnToStart);
+
+					assertEquals(0, improved[0]);
+					assertIsPermutation(improved);
+					assertTrue(TourOptimizer.tourTime(legTimes, improved, returnToStart)
+							<= TourOptimizer.tourTime(legTimes, tour, returnToStart));
+				}
+			}
+		}
+	}
+
+	@Test
+	void improvementReversesBackwardTour() {
+		// Only the legs of the order 0, 1, 2, 3, 4 are fast: 2-opt turns the backward tour around
+		long[][] legTimes = new long[5][5];
+		for (long[] row : legTimes)
+			Arrays.fill(row, 100);
+		for (int point = 0; point < 4; point++)
+			legTimes[point][point + 1] = 1;
+
+		int[] improved = TourOptimizer.improve(new int[]{0, 4, 3, 2, 1}, legTimes, false);
+
+		assertArrayEquals(new int[]{0, 1, 2, 3, 4}, improved);
+		assertEquals(4, TourOptimizer.tourTime(legTimes, improved, false));
+	}
+
+	@Test
+	void returnToStartAddsTheLastLeg() {
+		long[][] legTimes = {
+				{0, 1, 50},
+				{50, 0, 1},
+				{7, 50, 0}};
+
+		assertEquals(2, TourOptimizer.tourTime(legTimes, new int[]{0, 1, 2}, false));
+		assertEquals(9, TourOptimizer.tourTime(legTimes, new int[]{0, 1, 2}, true));
+		assertArrayEquals(new int[]{0, 1, 2}, TourOptimizer.exactTour(legTimes, true));
+	}
+
+	@Test
+	void tourLegsMatchTourTime() throws BusinessRuleException {
+		SyntheticNetwork network = new NetworkGenerator(7).generate(40, 400, 3);
+		NetworkSnapshot snapshot = network.publish();
+		String weatherType = network.getWeathers().get(0).getWeatherCondition().toString();
+
+		// Exact (Held-Karp) and heuristic (nearest neighbour + 2-opt) tours
+		for (int suburbs : new int[]{5, 20}) {
+			List<String> visits = network.getSuburbs().subList(1, suburbs + 1);
+			for (boolean returnToStart : new boolean[]{false, true}) {
+				TourDetail tour = tourOptimizer.findFastestTour(weatherType, network.getSuburbs().get(0), visits, Map.of(),
+						returnToStart);
+
+				assertEquals(network.getSuburbs().get(0), tour.getSuburbs().get(0));
+				assertEquals(suburbs + (returnToStart ? 2 : 1), tour.getSuburbs().size());
+				assertTrue(tour.getSuburbs().containsAll(visits));
+				if (returnToStart)
+					assertEquals(network.getSuburbs().get(0), tour.getSuburbs().get(tour.getSuburbs().size() - 1));
+				assertEquals(tour.getTraverseTime(), legTimes(snapshot, weatherType, tour));
+			}
+		}
+	}
+
+	@Test
+	void firstSuburbsAreAFixedSample() {
+		assertArrayEquals(new int[]{1, 2, 3, 4, 5}, TourOptimizer.firstPoints(6));
+
+		int[] sample = TourOptimizer.firstPoints(TourOptimizer.MAX_SUBURBS + 1);
+		assertEquals(TourOptimizer.MAX_FIRST_SUBURBS, sample.length);
+		assertEquals(sample.length, Arrays.stream(sample).distinct().count());
+		assertTrue(Arrays.stream(sample).allMatch(point -> point >= 1 && point <= TourOptimizer.MAX_SUBURBS));
+		assertArrayEquals(sample, TourOptimizer.firstPoints(TourOptimizer.MAX_SUBURBS + 1));
+	}
+
+	@Test
+	void neighboursAreTheNearestPoints() {
+		long[][] legTimes = randomLegTimes(new Random(13), 30);
+		int[][] neighbours = TourOptimizer.neighbours(legTimes);
+
+		for (int from = 0; from < legTimes.length; from++) {
+			assertEquals(TourOptimizer.NEIGHBOURS, neighbours[from].length);
+			Set<Integer> nearest = Arrays.stream(neighbours[from]).boxed().collect(Collectors.toSet());
+			long farthest = legTimes[from][neighbours[from][TourOptimizer.NEIGHBOURS - 1]];
+			assertFalse(nearest.contains(0) || nearest.contains(from));
+			for (int to = 1; to < legTimes.length; to++) {
+				if (to != from && !nearest.contains(to))
+					assertTrue(legTimes[from][to] >= farthest);
+			}
+		}
+	}
+
+	@Test
+	void largestTourIsAnsweredInTime() {
+		SyntheticNetwork network = new NetworkGenerator(3).generate(TourOptimizer.MAX_SUBURBS + 1, 10 * TourOptimizer.MAX_SUBURBS, 3);
+		NetworkSnapshot snapshot = network.publish();
+		String weatherType = network.getWeathers().get(0).getWeatherCondition().toString();
+		List<String> visits = network.getSuburbs().subList(1, TourOptimizer.MAX_SUBURBS + 1);
+
+		TourDetail tour = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> tourOptimizer.findFastestTour(weatherType,
+				network.getSuburbs().get(0), visits, Map.of(), true));
+
+		assertEquals(TourOptimizer.MAX_SUBURBS + 2, tour.getSuburbs().size());
+		assertTrue(tour.getSuburbs().containsAll(visits));
+		assertEquals(tour.getTraverseTime(), legTimes(snapshot, weatherType, tour));
+	}
+
+	@Test
+	void tooManySuburbsAreRejected() {
+		SyntheticNetwork network = new NetworkGenerator(3).generate(TourOptimizer.MAX_SUBURBS + 2, 4 * TourOptimizer.MAX_SUBURBS, 3);
+		network.publish();
+
+		BusinessRuleException exception = assertThrows(BusinessRuleException.class,
+				() -> tourOptimizer.findFastestTour(network.getWeathers().get(0).getWeatherCondition().toString(),
+						network.getSuburbs().get(0), network.getSuburbs().subList(1, TourOptimizer.MAX_SUBURBS + 2), Map.of(), false));
+		assertEquals(TrafficFinder.VALIDATION_FAILED, exception.getErrorCode());
+	}
+
+	@Test
+	void unreachableSuburbHasNoTour() {
+		// Built-in network has no orbit back to Silk Drob
+		BusinessRuleException exception = assertThrows(BusinessRuleException.class,
+				() -> tourOptimizer.findFastestTour("Sunny", TrafficInitializer.DEFAULT_SOURCE,
+						List.of(TrafficInitializer.DEFAULT_DESTINATION), Map.of("Orbit1", 12, "Orbit2", 10), true));
+		assertEquals(TrafficFinder.ROUTE_NOT_FOUND, exception.getErrorCode());
+	}
+
+	/**
+	 * Sum of the traverse times of the legs, each leg must go from its suburb to the next one.
+	 */
+	private static int legTimes(NetworkSnapshot snapshot, String weatherType, TourDetail tour) {
+		TraverseTimeEvaluator evaluator = snapshot.getTraverseTimeEvaluator();
+		Weather weather = snapshot.getWeathers().stream()
+				.filter(candidate -> candidate.getWeatherCondition().toString().equals(weatherType)).findFirst().orElseThrow();
+		int time = 0;
+		for (int leg = 0; leg < tour.getLegs().size(); leg++) {
+			List<Orbit> orbits = tour.getLegs().get(leg);
+			assertEquals(tour.getSuburbs().get(leg), orbits.get(0).getSource());
+			assertEquals(tour.getSuburbs().get(leg + 1), orbits.get(orbits.size() - 1).getDestination());
+			time += evaluator.traverseTime(evaluator.toOrbitIds(orbits), evaluator.toVehicleId(tour.getVehicle()), weather,
+					SpeedLimits.of(snapshot, Map.of()));
+		}
+		return time;
+	}
+
+	// Asymmetric times, a few legs can't be travelled
+	private static long[][] randomLegTimes(Random random, int points) {
+		long[][] legTimes = new long[points][points];
+		for (int from = 0; from < points; from++) {
+			for (int to = 0; to < points; to++)
+				legTimes[from][to] = from == to ? 0 : random.nextInt(20) == 0 ? 1L << 50 : 1 + random.nextInt(100);
+		}
+		return legTimes;
+	}
+
+	private static int[] randomTour(Random random, int points) {
+		int[] tour = new int[points];
+		for (int position = 0; position < points; position++)
+			tour[position] = position;
+		for (int position = points - 1; position > 1; position--) {
+			int other = 1 + random.nextInt(position);
+			int point = tour[position];
+			tour[position] = tour[other];
+			tour[other] = point;
+		}
+		return tour;
+	}
+
+	private static long bruteForceTime(long[][] legTimes, boolean returnToStart) {
+		int[] tour = new int[legTimes.length];
+		for (int position = 0; position < tour.length; position++)
+			tour[position] = position;
+		return bruteForceTime(legTimes, tour, 1, returnToStart);
+	}
+
+	// Every order of the points from position on
+	private static long bruteForceTime(long[][] legTimes, int[] tour, int position, boolean returnToStart) {
+		if (position == tour.length)
+			return TourOptimizer.tourTime(legTimes, tour, returnToStart);
+
+		long best = Long.MAX_VALUE;
+		for (int other = position; other < tour.length; other++) {
+			swap(tour, position, other);
+			best = Math.min(best, bruteForceTime(legTimes, tour, position + 1, returnToStart));
+			swap(tour, position, other);
+		}
+		return best;
+	}
+
+	private static void swap(int[] tour, int position, int other) {
+		int point = tour[position];
+		tour[position] = tour[other];
+		tour[other] = point;
+	}
+
+	private static void assertIsPermutation(int[] order) {
+		int[] sorted = order.clone();
+		Arrays.sort(sorted);
+		for (int point = 0; point < sorted.length; point++)
+			assertEquals(point, sorted[point]);
+	}
+}